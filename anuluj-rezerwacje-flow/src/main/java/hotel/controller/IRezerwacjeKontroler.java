@@ -3,6 +3,7 @@ package hotel.controller;
 import hotel.model.Rezerwacja;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -30,6 +31,15 @@ public interface IRezerwacjeKontroler {
      */
     boolean anulujRezerwacje(int rezerwacjaId);
     
+    /**
+     * Anuluje wiele rezerwacji jedną operacją wsadową.
+     * Polityka anulowania nie jest sprawdzana - robi to wywołujący
+     * (np. przypadek użycia masowego anulowania z wybraną strategią).
+     * @param rezerwacjeIds ID rezerwacji
+     * @return ID faktycznie anulowanych rezerwacji
+     */
+    List<Integer> anulujRezerwacjeMasowo(Collection<Integer> rezerwacjeIds);
+    
     /**
      * Modyfikuje rezerwację.
      * @param rezerwacjaId ID rezerwacji
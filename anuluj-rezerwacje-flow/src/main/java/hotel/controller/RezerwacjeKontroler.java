@@ -6,6 +6,7 @@ import hotel.strategy.IStrategiaAnulowaniaRezerwacji;
 import hotel.strategy.AnulowaniePrzezGoscia;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -64,6 +65,15 @@ public class RezerwacjeKontroler implements IRezerwacjeKontroler {
         return model.anulujRezerwacje(rezerwacjaId);
     }
     
+    @Override
+    public List<Integer> anulujRezerwacjeMasowo(Collection<Integer> rezerwacjeIds) {
+        if (rezerwacjeIds == null) {
+            throw new IllegalArgumentException("Lista rezerwacji nie może być null");
+        }
+        
+        return model.anulujRezerwacje(rezerwacjeIds);
+    }
+    
     @Override
     public Rezerwacja modyfikujRezerwacje(int rezerwacjaId, 
                                            LocalDate nowaDataOd, LocalDate nowaDataDo) {
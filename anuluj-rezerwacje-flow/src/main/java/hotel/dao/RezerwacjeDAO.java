@@ -4,6 +4,7 @@ import hotel.model.Rezerwacja;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -71,6 +72,17 @@ public class RezerwacjeDAO implements IDAO<Rezerwacja> {
     
     // ========== METODY SPECYFICZNE DLA REZERWACJI ==========
     
+    /**
+     * Aktualizuje wiele rezerwacji jednym wywołaniem; każda jest zapisywana tak jak
+     * w {@link #aktualizuj(Rezerwacja)}. Pomija rezerwacje, których nie ma w magazynie.
+     * @param doAktualizacji rezerwacje do aktualizacji
+     */
+    public void aktualizujWszystkie(Collection<Rezerwacja> doAktualizacji) {
+        for (Rezerwacja rezerwacja : doAktualizacji) {
+            aktualizuj(rezerwacja);
+        }
+    }
+    
     /**
      * Pobiera rezerwacje dla danego gościa.
      * @param goscId ID gościa
@@ -7,6 +7,8 @@ import hotel.factory.IGoscFactory;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -95,6 +97,28 @@ public class HotelModel implements IHotelModel {
         return true;
     }
     
+    @Override
+    public List<Integer> anulujRezerwacje(Collection<Integer> rezerwacjeIds) {
+        List<Rezerwacja> anulowane = new ArrayList<>();
+        
+        for (Integer rezerwacjaId : new LinkedHashSet<>(rezerwacjeIds)) {
+            Rezerwacja rezerwacja = rezerwacjaId != null ? rezerwacjeDAO.pobierz(rezerwacjaId) : null;
+            
+            // Te same warunki co przy anulowaniu pojedynczej rezerwacji
+            if (rezerwacja != null && rezerwacja.czyMoznaAnulowac()) {
+                rezerwacja.setStatus(Rezerwacja.StatusRezerwacji.ANULOWANA);
+                anulowane.add(rezerwacja);
+            }
+        }
+        
+        // Zapis dopiero po sprawdzeniu wszystkich identyfikatorów
+        rezerwacjeDAO.aktualizujWszystkie(anulowane);
+        
+        return anulowane.stream()
+                .map(Rezerwacja::getId)
+                .collect(Collectors.toList());
+    }
+    
     @Override
     public Rezerwacja modyfikujRezerwacje(int rezerwacjaId, 
                                            LocalDate nowaDataOd, LocalDate nowaDataDo) {
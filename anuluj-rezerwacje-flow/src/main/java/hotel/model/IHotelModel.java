@@ -1,6 +1,7 @@
 package hotel.model;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -32,6 +33,14 @@ public interface IHotelModel {
      */
     boolean anulujRezerwacje(int rezerwacjaId);
     
+    /**
+     * Anuluje wiele rezerwacji jednym wywołaniem (np. przy zamknięciu skrzydła hotelu).
+     * Pomija rezerwacje nieistniejące i takie, których nie można anulować.
+     * @param rezerwacjeIds ID rezerwacji
+     * @return ID faktycznie anulowanych rezerwacji
+     */
+    List<Integer> anulujRezerwacje(Collection<Integer> rezerwacjeIds);
+    
     /**
      * Modyfikuje daty rezerwacji.
      * @param rezerwacjaId ID rezerwacji
@@ -105,10 +105,19 @@ public class Rezerwacja {
      * @return liczba dni do rezerwacji (może być ujemna jeśli już minęła)
      */
     public long dniDoRozpoczecia() {
+        return dniDoRozpoczecia(LocalDate.now());
+    }
+    
+    /**
+     * Oblicza ile dni zostało do rozpoczęcia rezerwacji, licząc od podanego dnia.
+     * @param dzis dzień, od którego liczone są dni
+     * @return liczba dni do rezerwacji (może być ujemna jeśli już minęła)
+     */
+    public long dniDoRozpoczecia(LocalDate dzis) {
         if (dataOd == null) {
             return 0;
         }
-        return ChronoUnit.DAYS.between(LocalDate.now(), dataOd);
+        return ChronoUnit.DAYS.between(dzis, dataOd);
     }
     
     // ========== ZARZĄDZANIE DODATKAMI ==========
@@ -2,6 +2,9 @@ package hotel.strategy;
 
 import hotel.model.Rezerwacja;
 
+import java.time.Clock;
+import java.time.LocalDate;
+
 /**
  * Strategia anulowania rezerwacji przez gościa.
  * Warstwa: STRATEGIA
@@ -11,6 +14,9 @@ import hotel.model.Rezerwacja;
  * - 3-7 dni przed: 20% kary
  * - 1-3 dni przed: 50% kary
  * - Mniej niż 1 dzień: 100% kary
+ * 
+ * Bieżąca data pochodzi ze wstrzykiwanego zegara (java.time.Clock),
+ * dzięki czemu wyniki są powtarzalne w raportach i testach.
  */
 public class AnulowaniePrzezGoscia implements IStrategiaAnulowaniaRezerwacji {
     
@@ -25,32 +31,59 @@ public class AnulowaniePrzezGoscia implements IStrategiaAnulowaniaRezerwacji {
     private static final double KARA_SREDNIA = 0.50;   // 50%
     private static final double KARA_PELNA = 1.00;     // 100%
     
+    private final Clock zegar;
+    
+    /**
+     * Konstruktor strategii korzystającej z zegara systemowego.
+     */
+    public AnulowaniePrzezGoscia() {
+        this(Clock.systemDefaultZone());
+    }
+    
+    /**
+     * Konstruktor strategii z wstrzykiwanym zegarem.
+     * @param zegar zegar wyznaczający bieżącą datę
+     */
+    public AnulowaniePrzezGoscia(Clock zegar) {
+        if (zegar == null) {
+            throw new IllegalArgumentException("Zegar nie może być null");
+        }
+        this.zegar = zegar;
+    }
+    
     @Override
     public double obliczKareZaAnulowanie(Rezerwacja rezerwacja) {
+        return obliczKareNaDzien(rezerwacja, LocalDate.now(zegar));
+    }
+    
+    /**
+     * Oblicza karę za anulowanie rezerwacji w podanym dniu.
+     * @param rezerwacja rezerwacja do anulowania
+     * @param dzien dzień anulowania
+     * @return kwota kary
+     */
+    public double obliczKareNaDzien(Rezerwacja rezerwacja, LocalDate dzien) {
         if (rezerwacja == null) {
             return 0.0;
         }
-        
-        double cenaRezerwacji = rezerwacja.obliczCene();
-        long dniDoRozpoczecia = rezerwacja.dniDoRozpoczecia();
-        
-        double procentKary;
-        
-        if (dniDoRozpoczecia > PROG_BEZ_KARY) {
-            // Więcej niż 7 dni - bez kary
-            procentKary = KARA_BEZ;
-        } else if (dniDoRozpoczecia > PROG_MALA_KARA) {
-            // 3-7 dni - 20% kary
-            procentKary = KARA_MALA;
-        } else if (dniDoRozpoczecia > PROG_SREDNIA_KARA) {
-            // 1-3 dni - 50% kary
-            procentKary = KARA_SREDNIA;
-        } else {
-            // Mniej niż 1 dzień - 100% kary
-            procentKary = KARA_PELNA;
+        return rezerwacja.obliczCene() * getProcentKary(rezerwacja.dniDoRozpoczecia(dzien));
+    }
+    
+    /**
+     * Wyznacza harmonogram kar rezerwacji: daty, od których obowiązuje kolejny próg.
+     * Kara rośnie, gdy liczba dni do rozpoczęcia spada do progu 7, 3 i 1.
+     * @param rezerwacja rezerwacja
+     * @return harmonogram kar
+     */
+    public HarmonogramKar harmonogramKar(Rezerwacja rezerwacja) {
+        if (rezerwacja == null || rezerwacja.getDataOd() == null) {
+            throw new IllegalArgumentException("Rezerwacja musi mieć datę rozpoczęcia");
         }
-        
-        return cenaRezerwacji * procentKary;
+        long start = rezerwacja.getDataOd().toEpochDay();
+        double cena = rezerwacja.obliczCene();
+        return new HarmonogramKar(
+                new long[] {start - PROG_BEZ_KARY, start - PROG_MALA_KARA, start - PROG_SREDNIA_KARA},
+                new double[] {cena * KARA_BEZ, cena * KARA_MALA, cena * KARA_SREDNIA, cena * KARA_PELNA});
     }
     
     @Override
@@ -0,0 +1,133 @@
+package hotel.strategy;
+
+import hotel.model.Rezerwacja;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Strategia anulowania oparta na tabeli polityk (progi według typu pokoju i sezonu).
+ * Warstwa: STRATEGIA
+ * 
+ * Zmiana polityki nie wymaga zmian w kodzie: tabela jest wczytywana z pliku
+ * i może być przeładowana w trakcie działania. Nowa tabela jest kompilowana
+ * w całości i podmieniana atomowo, więc równoległe obliczenia kar widzą
+ * zawsze starą albo nową politykę, nigdy stan pośredni.
+ */
+public class AnulowanieWedlugTabeli implements IStrategiaAnulowaniaRezerwacji {
+    
+    private final AtomicReference<TabelaPolitykiAnulowania> tabela;
+    private final Clock zegar;
+    private final Path plik;
+    private volatile FileTime wersjaPliku;
+    
+    /**
+     * Konstruktor strategii ze stałą tabelą (przeładowanie przez {@link #podmien}).
+     * @param tabela skompilowana tabela polityk
+     * @param zegar zegar wyznaczający bieżącą datę
+     */
+    public AnulowanieWedlugTabeli(TabelaPolitykiAnulowania tabela, Clock zegar) {
+        if (tabela == null || zegar == null) {
+            throw new IllegalArgumentException("Tabela i zegar nie mogą być null");
+        }
+        this.tabela = new AtomicReference<>(tabela);
+        this.zegar = zegar;
+        this.plik = null;
+    }
+    
+    /**
+     * Konstruktor strategii wczytującej tabelę z pliku.
+     * @param plik plik polityki anulowania
+     * @param zegar zegar wyznaczający bieżącą datę
+     * @throws IOException gdy pliku nie można odczytać
+     */
+    public AnulowanieWedlugTabeli(Path plik, Clock zegar) throws IOException {
+        if (plik == null || zegar == null) {
+            throw new IllegalArgumentException("Plik i zegar nie mogą być null");
+        }
+        this.plik = plik;
+        this.zegar = zegar;
+        this.wersjaPliku = Files.getLastModifiedTime(plik);
+        this.tabela = new AtomicReference<>(TabelaPolitykiAnulowania.wczytaj(plik));
+    }
+    
+    @Override
+    public double obliczKareZaAnulowanie(Rezerwacja rezerwacja) {
+        return obliczKareNaDzien(rezerwacja, LocalDate.now(zegar));
+    }
+    
+    /**
+     * Oblicza karę za anulowanie rezerwacji w podanym dniu.
+     * @param rezerwacja rezerwacja do anulowania
+     * @param dzien dzień anulowania
+     * @return kwota kary
+     */
+    public double obliczKareNaDzien(Rezerwacja rezerwacja, LocalDate dzien) {
+        if (rezerwacja == null) {
+            return 0.0;
+        }
+        String typ = rezerwacja.getPokoj() != null ? rezerwacja.getPokoj().getTyp() : null;
+        double procent = tabela.get().procentKary(typ, rezerwacja.getDataOd(),
+                rezerwacja.dniDoRozpoczecia(dzien));
+        return rezerwacja.obliczCene() * procent;
+    }
+    
+    @Override
+    public boolean czyMoznaAnulowac(Rezerwacja rezerwacja) {
+        if (rezerwacja == null) {
+            return false;
+        }
+        
+        // Tak jak przy anulowaniu przez gościa: tylko rezerwacje NOWE lub POTWIERDZONE
+        return rezerwacja.czyMoznaAnulowac();
+    }
+    
+    @Override
+    public String getOpisPolityki() {
+        return tabela.get().opis();
+    }
+    
+    /**
+     * Atomowo podmienia tabelę polityk.
+     * @param nowa nowa tabela
+     */
+    public void podmien(TabelaPolitykiAnulowania nowa) {
+        if (nowa == null) {
+            throw new IllegalArgumentException("Tabela nie może być null");
+        }
+        tabela.set(nowa);
+    }
+    
+    /**
+     * Przeładowuje tabelę z pliku, jeśli zmienił się od ostatniego wczytania.
+     * Niepoprawny plik nie zmienia obowiązującej polityki.
+     * @return true jeśli tabela została podmieniona
+     * @throws IOException gdy pliku nie można odczytać
+     * @throws IllegalArgumentException gdy nowa definicja jest niepoprawna
+     */
+    public synchronized boolean przeladujJesliZmieniony() throws IOException {
+        if (plik == null) {
+            throw new IllegalStateException("Strategia nie została utworzona z pliku");
+        }
+        FileTime wersja = Files.getLastModifiedTime(plik);
+        if (wersja.equals(wersjaPliku)) {
+            return false;
+        }
+        podmien(TabelaPolitykiAnulowania.wczytaj(plik));
+        wersjaPliku = wersja;
+        return true;
+    }
+    
+    /**
+     * Zwraca obowiązującą tabelę polityk.
+     * @return tabela polityk
+     */
+    public TabelaPolitykiAnulowania getTabela() {
+        return tabela.get();
+    }
+}
@@ -0,0 +1,51 @@
+package hotel.strategy;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Harmonogram kar za anulowanie jednej rezerwacji.
+ * Warstwa: STRATEGIA
+ * 
+ * Przechowuje posortowane daty, od których obowiązuje kolejny próg kary,
+ * oraz kwoty kar. Kara "na dzień X" to wyszukiwanie binarne, bez ponownego
+ * liczenia dni do rozpoczęcia rezerwacji.
+ */
+public final class HarmonogramKar {
+    
+    private final long[] datyZmian;
+    private final double[] kary;
+    
+    /**
+     * Konstruktor harmonogramu.
+     * @param datyZmian rosnące daty (epochDay), od których obowiązuje kara kary[i + 1]
+     * @param kary kwoty kar; kary[0] obowiązuje przed pierwszą datą zmiany
+     */
+    HarmonogramKar(long[] datyZmian, double[] kary) {
+        if (kary.length != datyZmian.length + 1) {
+            throw new IllegalArgumentException("Liczba kar musi być o jeden większa od liczby dat zmian");
+        }
+        this.datyZmian = datyZmian.clone();
+        this.kary = kary.clone();
+    }
+    
+    /**
+     * Zwraca karę za anulowanie w podanym dniu.
+     * @param dzien dzień anulowania
+     * @return kwota kary
+     */
+    public double karaNaDzien(LocalDate dzien) {
+        int pozycja = Arrays.binarySearch(datyZmian, dzien.toEpochDay());
+        // Przy trafieniu w datę zmiany obowiązuje już nowa kara
+        int indeks = pozycja >= 0 ? pozycja + 1 : -pozycja - 1;
+        return kary[indeks];
+    }
+    
+    /**
+     * Zwraca daty, od których obowiązuje kolejny próg kary.
+     * @return daty zmian progów
+     */
+    public LocalDate[] getDatyZmian() {
+        return Arrays.stream(datyZmian).mapToObj(LocalDate::ofEpochDay).toArray(LocalDate[]::new);
+    }
+}
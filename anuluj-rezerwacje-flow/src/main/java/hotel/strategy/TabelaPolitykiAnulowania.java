@@ -0,0 +1,310 @@
+package hotel.strategy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Skompilowana tabela polityk anulowania.
+ * Warstwa: STRATEGIA
+ * 
+ * Tabela jest niezmienna - przeładowanie polityki to zbudowanie nowej tabeli.
+ * Każda polityka (typ pokoju, sezon) to posortowana tablica progów i tablica
+ * procentów kary, a wyszukanie progu nie zawiera rozgałęzień zależnych od danych
+ * i nie alokuje obiektów.
+ * 
+ * Format pliku (wiersze rozdzielane średnikiem, '#' rozpoczyna komentarz):
+ * <pre>
+ * sezon;wysoki;06-15;09-15        # nazwa i zakres dni (MM-dd, włącznie, może przechodzić przez Nowy Rok)
+ * *;*;7;0.00                      # typ;sezon;próg;procent - procent obowiązuje, gdy dni do przyjazdu &gt; próg
+ * *;*;3;0.20
+ * *;*;1;0.50
+ * *;*;*;1.00                      # próg '*' - procent poniżej wszystkich progów
+ * apartament;wysoki;14;0.00
+ * apartament;wysoki;*;0.50
+ * </pre>
+ * Typ i sezon '*' oznaczają dowolną wartość. Polityka jest wybierana w kolejności:
+ * (typ, sezon), (typ, *), (*, sezon), (*, *); polityka (*, *) jest obowiązkowa.
+ * Sezon rezerwacji wyznacza data rozpoczęcia pobytu.
+ */
+public final class TabelaPolitykiAnulowania {
+    
+    private static final String DOWOLNY = "*";
+    private static final String SEZON = "sezon";
+    
+    /** Sezon każdego dnia roku, indeksowany miesiac * 32 + dzien (0 = poza sezonami). */
+    private final int[] sezonDnia;
+    private final List<String> sezony;
+    /** Polityki typów pokoi, indeksowane numerem sezonu (z rozwiązanymi wartościami domyślnymi). */
+    private final Map<String, Polityka[]> politykiTypow;
+    private final Polityka[] politykiOgolne;
+    
+    /**
+     * Polityka kar jednego typu pokoju w jednym sezonie.
+     */
+    static final class Polityka {
+        private final long[] progi;
+        private final double[] procenty;
+        
+        /**
+         * @param progi rosnące progi dni
+         * @param procenty procenty[i] obowiązuje, gdy dni przekraczają dokładnie i progów
+         */
+        Polityka(long[] progi, double[] procenty) {
+            this.progi = progi;
+            this.procenty = procenty;
+        }
+        
+        double procent(long dniDoRozpoczecia) {
+            // Liczba progów mniejszych od liczby dni: (prog - dni) < 0 daje bit znaku 1
+            int indeks = 0;
+            for (long prog : progi) {
+                indeks += (int) ((prog - dniDoRozpoczecia) >>> 63);
+            }
+            return procenty[indeks];
+        }
+    }
+    
+    private TabelaPolitykiAnulowania(int[] sezonDnia, List<String> sezony,
+                                     Map<String, Polityka[]> politykiTypow, Polityka[] politykiOgolne) {
+        this.sezonDnia = sezonDnia;
+        this.sezony = sezony;
+        this.politykiTypow = politykiTypow;
+        this.politykiOgolne = politykiOgolne;
+    }
+    
+    /**
+     * Zwraca procent kary (0.0 - 1.0) za anulowanie rezerwacji.
+     * @param typPokoju typ pokoju (bez rozróżniania wielkości liter, null = dowolny)
+     * @param dataOd data rozpoczęcia pobytu (wyznacza sezon)
+     * @param dniDoRozpoczecia liczba dni do rozpoczęcia pobytu
+     * @return procent kary
+     */
+    public double procentKary(String typPokoju, LocalDate dataOd, long dniDoRozpoczecia) {
+        int sezon = sezonDnia[dataOd.getMonthValue() * 32 + dataOd.getDayOfMonth()];
+        Polityka[] polityki = typPokoju != null ? politykiTypow.get(typPokoju) : null;
+        return (polityki != null ? polityki : politykiOgolne)[sezon].procent(dniDoRozpoczecia);
+    }
+    
+    /**
+     * Zwraca tabelę odpowiadającą polityce AnulowaniePrzezGoscia.
+     * @return domyślna tabela
+     */
+    public static TabelaPolitykiAnulowania domyslna() {
+        return kompiluj(List.of(
+            "*;*;7;0.00",
+            "*;*;3;0.20",
+            "*;*;1;0.50",
+            "*;*;*;1.00"));
+    }
+    
+    /**
+     * Wczytuje i kompiluje tabelę z pliku (UTF-8).
+     * @param plik ścieżka do pliku polityki
+     * @return skompilowana tabela
+     * @throws IOException gdy pliku nie można odczytać
+     */
+    public static TabelaPolitykiAnulowania wczytaj(Path plik) throws IOException {
+        return kompiluj(Files.readAllLines(plik, StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Kompiluje tabelę z wierszy w formacie pliku polityki.
+     * @param wiersze wiersze definicji
+     * @return skompilowana tabela
+     * @throws IllegalArgumentException gdy definicja jest niepoprawna
+     */
+    public static TabelaPolitykiAnulowania kompiluj(List<String> wiersze) {
+        List<String> sezony = new ArrayList<>();
+        sezony.add(DOWOLNY);
+        int[] sezonDnia = new int[13 * 32];
+        Map<String, Map<String, TreeMap<Long, Double>>> progi = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        Map<String, Map<String, Double>> bazowe = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        
+        int numer = 0;
+        for (String surowy : wiersze) {
+            numer++;
+            int komentarz = surowy.indexOf('#');
+            String wiersz = (komentarz >= 0 ? surowy.substring(0, komentarz) : surowy).trim();
+            if (wiersz.isEmpty()) {
+                continue;
+            }
+            String[] pola = wiersz.split("\\s*;\\s*");
+            if (pola.length != 4) {
+                throw blad(numer, "oczekiwano 4 pól rozdzielonych średnikiem");
+            }
+            
+            if (pola[0].equalsIgnoreCase(SEZON)) {
+                dodajSezon(sezony, sezonDnia, pola, numer);
+                continue;
+            }
+            
+            String typ = pola[0];
+            String sezon = pola[1].toLowerCase(Locale.ROOT);
+            if (!sezony.contains(sezon)) {
+                throw blad(numer, "nieznany sezon '" + pola[1] + "'");
+            }
+            double procent = parsujProcent(pola[3], numer);
+            if (pola[2].equals(DOWOLNY)) {
+                Double poprzedni = bazowe.computeIfAbsent(typ, k -> new TreeMap<>()).put(sezon, procent);
+                if (poprzedni != null) {
+                    throw blad(numer, "powtórzony próg '*'");
+                }
+            } else {
+                long prog = parsujProg(pola[2], numer);
+                Double poprzedni = progi.computeIfAbsent(typ, k -> new TreeMap<>())
+                        .computeIfAbsent(sezon, k -> new TreeMap<>())
+                        .put(prog, procent);
+                if (poprzedni != null) {
+                    throw blad(numer, "powtórzony próg " + prog);
+                }
+            }
+        }
+        
+        // Każda polityka z progami musi mieć procent poniżej wszystkich progów
+        for (Map.Entry<String, Map<String, TreeMap<Long, Double>>> typ : progi.entrySet()) {
+            for (String sezon : typ.getValue().keySet()) {
+                Map<String, Double> bazoweTypu = bazowe.get(typ.getKey());
+                if (bazoweTypu == null || !bazoweTypu.containsKey(sezon)) {
+                    throw new IllegalArgumentException("Polityka " + typ.getKey() + ";" + sezon
+                            + " nie ma progu '*'");
+                }
+            }
+        }
+        if (!bazowe.containsKey(DOWOLNY) || !bazowe.get(DOWOLNY).containsKey(DOWOLNY)) {
+            throw new IllegalArgumentException("Brak obowiązkowej polityki *;*");
+        }
+        
+        Polityka[] ogolne = rozwiaz(DOWOLNY, sezony, progi, bazowe, null);
+        Map<String, Polityka[]> typy = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (String typ : bazowe.keySet()) {
+            if (!typ.equals(DOWOLNY)) {
+                typy.put(typ, rozwiaz(typ, sezony, progi, bazowe, ogolne));
+            }
+        }
+        return new TabelaPolitykiAnulowania(sezonDnia, List.copyOf(sezony), typy, ogolne);
+    }
+    
+    /**
+     * Buduje polityki typu dla wszystkich sezonów, uzupełniając brakujące
+     * w kolejności (typ, *), (*, sezon), (*, *).
+     */
+    private static Polityka[] rozwiaz(String typ, List<String> sezony,
+                                      Map<String, Map<String, TreeMap<Long, Double>>> progi,
+                                      Map<String, Map<String, Double>> bazowe,
+                                      Polityka[] ogolne) {
+        Map<String, TreeMap<Long, Double>> progiTypu = progi.getOrDefault(typ, Map.of());
+        Map<String, Double> bazoweTypu = bazowe.get(typ);
+        Polityka[] wynik = new Polityka[sezony.size()];
+        for (int s = 0; s < wynik.length; s++) {
+            String sezon = sezony.get(s);
+            if (bazoweTypu.containsKey(sezon)) {
+                wynik[s] = zbuduj(progiTypu.getOrDefault(sezon, new TreeMap<>()), bazoweTypu.get(sezon));
+            }
+        }
+        for (int s = 1; s < wynik.length; s++) {
+            if (wynik[s] == null) {
+                wynik[s] = wynik[0] != null ? wynik[0] : ogolne[s];
+            }
+        }
+        if (wynik[0] == null) {
+            wynik[0] = ogolne[0];
+        }
+        return wynik;
+    }
+    
+    private static Polityka zbuduj(TreeMap<Long, Double> progi, double bazowy) {
+        long[] tablicaProgow = new long[progi.size()];
+        double[] procenty = new double[progi.size() + 1];
+        procenty[0] = bazowy;
+        int i = 0;
+        for (Map.Entry<Long, Double> prog : progi.entrySet()) {
+            tablicaProgow[i] = prog.getKey();
+            procenty[++i] = prog.getValue();
+        }
+        return new Polityka(tablicaProgow, procenty);
+    }
+    
+    private static void dodajSezon(List<String> sezony, int[] sezonDnia, String[] pola, int numer) {
+        String nazwa = pola[1].toLowerCase(Locale.ROOT);
+        if (nazwa.equals(DOWOLNY) || sezony.contains(nazwa)) {
+            throw blad(numer, "niepoprawna lub powtórzona nazwa sezonu '" + pola[1] + "'");
+        }
+        MonthDay od;
+        MonthDay doDnia;
+        try {
+            od = MonthDay.parse("--" + pola[2]);
+            doDnia = MonthDay.parse("--" + pola[3]);
+        } catch (RuntimeException e) {
+            throw blad(numer, "niepoprawna data sezonu (oczekiwano MM-dd)");
+        }
+        sezony.add(nazwa);
+        int indeks = sezony.size() - 1;
+        // Rok przestępny, aby objąć 29 lutego
+        LocalDate dzien = od.atYear(2000);
+        LocalDate koniec = doDnia.atYear(doDnia.isBefore(od) ? 2001 : 2000);
+        for (; !dzien.isAfter(koniec); dzien = dzien.plusDays(1)) {
+            int pozycja = dzien.getMonthValue() * 32 + dzien.getDayOfMonth();
+            if (sezonDnia[pozycja] != 0) {
+                throw blad(numer, "sezon nakłada się na sezon '" + sezony.get(sezonDnia[pozycja]) + "'");
+            }
+            sezonDnia[pozycja] = indeks;
+        }
+    }
+    
+    private static double parsujProcent(String pole, int numer) {
+        try {
+            double procent = Double.parseDouble(pole);
+            if (procent >= 0.0 && procent <= 1.0) {
+                return procent;
+            }
+        } catch (NumberFormatException e) {
+            // obsłużone poniżej
+        }
+        throw blad(numer, "procent musi być liczbą z przedziału 0.0 - 1.0");
+    }
+    
+    private static long parsujProg(String pole, int numer) {
+        try {
+            return Long.parseLong(pole);
+        } catch (NumberFormatException e) {
+            throw blad(numer, "próg musi być liczbą całkowitą lub '*'");
+        }
+    }
+    
+    private static IllegalArgumentException blad(int numer, String opis) {
+        return new IllegalArgumentException("Wiersz " + numer + " polityki anulowania: " + opis);
+    }
+    
+    /**
+     * Zwraca czytelny opis polityk ogólnych (dla wszystkich typów pokoi).
+     * @return opis polityki
+     */
+    public String opis() {
+        StringBuilder sb = new StringBuilder("Anulowanie według tabeli polityk:");
+        for (int s = 0; s < sezony.size(); s++) {
+            Polityka p = politykiOgolne[s];
+            sb.append("\n- sezon ").append(sezony.get(s)).append(": ");
+            for (int i = p.progi.length - 1; i >= 0; i--) {
+                sb.append(String.format(Locale.ROOT, "powyżej %d dni %.0f%%, ", p.progi[i], p.procenty[i + 1] * 100));
+            }
+            sb.append(String.format(Locale.ROOT, "pozostałe %.0f%%", p.procenty[0] * 100));
+        }
+        return sb.toString();
+    }
+    
+    @Override
+    public String toString() {
+        return "TabelaPolitykiAnulowania{sezony=" + sezony + ", typy=" + politykiTypow.keySet()
+                + ", progiOgolne=" + Arrays.toString(politykiOgolne[0].progi) + '}';
+    }
+}
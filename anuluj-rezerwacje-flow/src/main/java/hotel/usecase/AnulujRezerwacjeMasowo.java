@@ -0,0 +1,213 @@
+package hotel.usecase;
+
+import hotel.controller.IRezerwacjeKontroler;
+import hotel.model.Rezerwacja;
+import hotel.strategy.IStrategiaAnulowaniaRezerwacji;
+import hotel.usecase.AnulujRezerwacje.WynikAnulowania;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Przypadek użycia: Masowe anulowanie rezerwacji (np. zamknięcie skrzydła hotelu na remont).
+ * Warstwa: PRZYPADEK UŻYCIA (UseCase / Prezentacja)
+ * 
+ * Wybiera rezerwacje predykatem lub zakresem pokoi i dat, ocenia je równolegle
+ * wybraną strategią anulowania, a następnie anuluje jedną operacją wsadową
+ * kontrolera i zwraca zbiorczy raport.
+ */
+public class AnulujRezerwacjeMasowo {
+    
+    private final IRezerwacjeKontroler kontroler;
+    private final IStrategiaAnulowaniaRezerwacji strategia;
+    
+    /**
+     * Konstruktor z wstrzykiwaniem kontrolera i strategii anulowania.
+     * @param kontroler kontroler rezerwacji
+     * @param strategia strategia stosowana do wszystkich anulowanych rezerwacji
+     *                  (np. AnulowaniePrzezRecepcje przy zamknięciu hotelu)
+     */
+    public AnulujRezerwacjeMasowo(IRezerwacjeKontroler kontroler,
+                                  IStrategiaAnulowaniaRezerwacji strategia) {
+        if (kontroler == null || strategia == null) {
+            throw new IllegalArgumentException("Kontroler i strategia nie mogą być null");
+        }
+        this.kontroler = kontroler;
+        this.strategia = strategia;
+    }
+    
+    /**
+     * Anuluje rezerwacje podanych pokoi nachodzące na okres [dataOd, dataDo].
+     * @param numeryPokoi numery pokoi (np. pokoje zamykanego skrzydła)
+     * @param dataOd początek okresu zamknięcia
+     * @param dataDo koniec okresu zamknięcia
+     * @return zbiorczy raport anulowania
+     */
+    public RaportAnulowania wykonaj(Collection<Integer> numeryPokoi, LocalDate dataOd, LocalDate dataDo) {
+        if (numeryPokoi == null || dataOd == null || dataDo == null) {
+            throw new IllegalArgumentException("Pokoje i daty nie mogą być null");
+        }
+        if (dataOd.isAfter(dataDo)) {
+            throw new IllegalArgumentException("Data rozpoczęcia nie może być późniejsza niż data zakończenia");
+        }
+        
+        Set<Integer> pokoje = new HashSet<>(numeryPokoi);
+        return anuluj(kontroler.przegladajZarezerwowanePokoje(dataOd, dataDo),
+                r -> r.getPokoj() != null && pokoje.contains(r.getPokoj().getNumer()));
+    }
+    
+    /**
+     * Anuluje wszystkie rezerwacje spełniające predykat.
+     * @param kryterium predykat wyboru rezerwacji
+     * @return zbiorczy raport anulowania
+     */
+    public RaportAnulowania wykonaj(Predicate<Rezerwacja> kryterium) {
+        if (kryterium == null) {
+            throw new IllegalArgumentException("Kryterium nie może być null");
+        }
+        
+        return anuluj(kontroler.przegladajZarezerwowanePokoje(null, null), kryterium);
+    }
+    
+    private RaportAnulowania anuluj(List<Rezerwacja> kandydaci, Predicate<Rezerwacja> kryterium) {
+        // Ocena strategią nie zmienia stanu, więc można ją wykonać równolegle
+        List<Ocena> oceny = kandydaci.parallelStream()
+                .filter(kryterium)
+                .map(this::ocen)
+                .collect(Collectors.toList());
+        
+        List<Integer> doAnulowania = oceny.stream()
+                .filter(o -> o.dozwolone)
+                .map(o -> o.rezerwacja.getId())
+                .collect(Collectors.toList());
+        
+        Set<Integer> anulowane = new HashSet<>(doAnulowania.isEmpty()
+                ? Collections.emptyList()
+                : kontroler.anulujRezerwacjeMasowo(doAnulowania));
+        
+        Map<Integer, WynikAnulowania> wyniki = new LinkedHashMap<>();
+        for (Ocena ocena : oceny) {
+            Rezerwacja rezerwacja = ocena.rezerwacja;
+            if (anulowane.contains(rezerwacja.getId())) {
+                String komunikat = ocena.kara > 0
+                    ? String.format("Rezerwacja anulowana. Opłata za anulowanie: %.2f PLN", ocena.kara)
+                    : "Rezerwacja anulowana bez opłat.";
+                wyniki.put(rezerwacja.getId(), new WynikAnulowania(true, komunikat, ocena.kara));
+            } else {
+                wyniki.put(rezerwacja.getId(), new WynikAnulowania(false,
+                    "Nie można anulować rezerwacji. Status: " + rezerwacja.getStatus(), 0.0));
+            }
+        }
+        
+        return new RaportAnulowania(wyniki);
+    }
+    
+    private Ocena ocen(Rezerwacja rezerwacja) {
+        if (!strategia.czyMoznaAnulowac(rezerwacja)) {
+            return new Ocena(rezerwacja, false, 0.0);
+        }
+        
+        double kara;
+        try {
+            kara = strategia.obliczKareZaAnulowanie(rezerwacja);
+        } catch (Exception e) {
+            kara = 0.0;
+        }
+        return new Ocena(rezerwacja, true, kara);
+    }
+    
+    // ========== KLASY POMOCNICZE (DTO) ==========
+    
+    /**
+     * Wynik oceny pojedynczej rezerwacji przez strategię.
+     */
+    private static class Ocena {
+        private final Rezerwacja rezerwacja;
+        private final boolean dozwolone;
+        private final double kara;
+        
+        Ocena(Rezerwacja rezerwacja, boolean dozwolone, double kara) {
+            this.rezerwacja = rezerwacja;
+            this.dozwolone = dozwolone;
+            this.kara = kara;
+        }
+    }
+    
+    /**
+     * Zbiorczy raport masowego anulowania.
+     */
+    public static class RaportAnulowania {
+        private final Map<Integer, WynikAnulowania> wyniki;
+        private final List<Integer> anulowane;
+        private final List<Integer> odrzucone;
+        private final double sumaOplat;
+        
+        public RaportAnulowania(Map<Integer, WynikAnulowania> wyniki) {
+            this.wyniki = Collections.unmodifiableMap(new LinkedHashMap<>(wyniki));
+            List<Integer> tak = new ArrayList<>();
+            List<Integer> nie = new ArrayList<>();
+            double suma = 0.0;
+            for (Map.Entry<Integer, WynikAnulowania> wpis : wyniki.entrySet()) {
+                if (wpis.getValue().isSukces()) {
+                    tak.add(wpis.getKey());
+                    suma += wpis.getValue().getOplataPobrana();
+                } else {
+                    nie.add(wpis.getKey());
+                }
+            }
+            this.anulowane = Collections.unmodifiableList(tak);
+            this.odrzucone = Collections.unmodifiableList(nie);
+            this.sumaOplat = suma;
+        }
+        
+        /**
+         * Zwraca wyniki dla poszczególnych rezerwacji.
+         * @return mapa ID rezerwacji -> wynik anulowania
+         */
+        public Map<Integer, WynikAnulowania> getWyniki() {
+            return wyniki;
+        }
+        
+        public List<Integer> getAnulowane() {
+            return anulowane;
+        }
+        
+        public List<Integer> getOdrzucone() {
+            return odrzucone;
+        }
+        
+        public double getSumaOplat() {
+            return sumaOplat;
+        }
+        
+        /**
+         * Zwraca raport zagregowany do pojedynczego wyniku anulowania.
+         * Sukces oznacza, że anulowano wszystkie wybrane rezerwacje.
+         * @return zagregowany wynik
+         */
+        public WynikAnulowania podsumowanie() {
+            String komunikat = String.format(
+                "Anulowano %d z %d rezerwacji. Łączna opłata za anulowanie: %.2f PLN",
+                anulowane.size(), wyniki.size(), sumaOplat);
+            return new WynikAnulowania(odrzucone.isEmpty(), komunikat, sumaOplat);
+        }
+        
+        @Override
+        public String toString() {
+            return "RaportAnulowania{" +
+                    "anulowane=" + anulowane +
+                    ", odrzucone=" + odrzucone +
+                    ", sumaOplat=" + sumaOplat +
+                    '}';
+        }
+    }
+}
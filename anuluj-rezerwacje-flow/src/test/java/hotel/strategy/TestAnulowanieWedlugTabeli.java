@@ -0,0 +1,129 @@
+package hotel.strategy;
+
+import hotel.model.Gosc;
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy tabeli polityk anulowania i strategii z przeładowaniem.
+ */
+@DisplayName("Testy strategii anulowania według tabeli polityk")
+@Tag("anulowanie")
+class TestAnulowanieWedlugTabeli {
+    
+    private static final LocalDate DZIS = LocalDate.of(2030, 6, 1);
+    
+    private static final List<String> POLITYKA = List.of(
+        "# Polityka testowa",
+        "sezon;wysoki;06-15;09-15",
+        "sezon;swieta;12-20;01-05",
+        "*;*;7;0.00",
+        "*;*;3;0.20",
+        "*;*;1;0.50",
+        "*;*;*;1.00",
+        "*;wysoki;14;0.00",
+        "*;wysoki;*;0.80",
+        "apartament;*;30;0.00",
+        "apartament;*;*;0.90   # apartamenty: bezpłatnie tylko ponad 30 dni");
+    
+    private Clock zegar;
+    private Gosc gosc;
+    
+    @BeforeEach
+    void setUp() {
+        zegar = Clock.fixed(DZIS.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        gosc = new Gosc("Jan", "Kowalski", "jan@test.pl");
+    }
+    
+    @Test
+    @DisplayName("domyślna tabela daje te same kary co AnulowaniePrzezGoscia")
+    void domyslnaTabela_ZgodnaZAnulowaniemPrzezGoscia() {
+        TabelaPolitykiAnulowania tabela = TabelaPolitykiAnulowania.domyslna();
+        AnulowaniePrzezGoscia gosciaStrategia = new AnulowaniePrzezGoscia(zegar);
+        
+        for (long dni = -3; dni <= 20; dni++) {
+            assertEquals(gosciaStrategia.getProcentKary(dni), tabela.procentKary("dwuosobowy", DZIS, dni),
+                "dni do rozpoczęcia: " + dni);
+        }
+    }
+    
+    @Test
+    @DisplayName("polityka wybierana jest według typu pokoju i sezonu daty przyjazdu")
+    void polityka_WedlugTypuISezonu() {
+        TabelaPolitykiAnulowania tabela = TabelaPolitykiAnulowania.kompiluj(POLITYKA);
+        LocalDate poSezonie = LocalDate.of(2030, 10, 1);
+        LocalDate latem = LocalDate.of(2030, 7, 1);
+        LocalDate wSylwestra = LocalDate.of(2030, 12, 31);
+        
+        // Wtedy: poza sezonem obowiązuje polityka ogólna
+        assertEquals(0.20, tabela.procentKary("dwuosobowy", poSezonie, 5));
+        // Wtedy: w sezonie wysokim obowiązują progi sezonu
+        assertEquals(0.80, tabela.procentKary("dwuosobowy", latem, 5));
+        assertEquals(0.00, tabela.procentKary("dwuosobowy", latem, 15));
+        // Wtedy: sezon przechodzący przez Nowy Rok bez własnych progów dziedziczy politykę ogólną
+        assertEquals(0.50, tabela.procentKary("dwuosobowy", wSylwestra, 2));
+        // Wtedy: polityka typu ma pierwszeństwo przed sezonem ogólnym, wielkość liter nie ma znaczenia
+        assertEquals(0.90, tabela.procentKary("Apartament", latem, 20));
+        assertEquals(0.00, tabela.procentKary("APARTAMENT", poSezonie, 31));
+        // Wtedy: nieznany typ pokoju korzysta z polityki ogólnej
+        assertEquals(1.00, tabela.procentKary(null, poSezonie, 0));
+    }
+    
+    @Test
+    @DisplayName("niepoprawna definicja tabeli powinna rzucić wyjątek z numerem wiersza")
+    void niepoprawnaDefinicja_RzucaWyjatek() {
+        assertThrows(IllegalArgumentException.class,
+            () -> TabelaPolitykiAnulowania.kompiluj(List.of("*;*;7;0.0")));
+        assertThrows(IllegalArgumentException.class,
+            () -> TabelaPolitykiAnulowania.kompiluj(List.of("*;*;*;1.0", "*;zima;3;0.5", "*;zima;*;1.0")));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> TabelaPolitykiAnulowania.kompiluj(List.of("*;*;*;1.0", "*;*;3;1.5")));
+        assertTrue(e.getMessage().contains("Wiersz 2"));
+        assertThrows(IllegalArgumentException.class,
+            () -> TabelaPolitykiAnulowania.kompiluj(List.of("sezon;a;01-01;01-31", "sezon;b;01-15;02-01", "*;*;*;1.0")));
+    }
+    
+    @Test
+    @DisplayName("zmieniony plik polityki jest przeładowywany, a niepoprawny nie zmienia polityki")
+    void przeladowanie_PodmieniaTabele(@TempDir Path katalog) throws Exception {
+        // Jeśli: plik z domyślną polityką i rezerwacja za 5 dni (2 noce po 100 zł)
+        Path plik = katalog.resolve("polityka.txt");
+        Files.write(plik, List.of("*;*;3;0.20", "*;*;*;1.00"));
+        AnulowanieWedlugTabeli strategia = new AnulowanieWedlugTabeli(plik, zegar);
+        Rezerwacja rezerwacja = new Rezerwacja(1, DZIS.plusDays(5), DZIS.plusDays(7),
+                new Pokoj(101, "dwuosobowy", 100.0), gosc);
+        assertEquals(40.0, strategia.obliczKareZaAnulowanie(rezerwacja), 0.001);
+        assertFalse(strategia.przeladujJesliZmieniony());
+        
+        // Gdy: plik zostaje zmieniony
+        Files.write(plik, List.of("*;*;7;0.00", "*;*;*;0.50"));
+        Files.setLastModifiedTime(plik, FileTime.fromMillis(Files.getLastModifiedTime(plik).toMillis() + 1000));
+        
+        // Wtedy: nowa polityka obowiązuje po przeładowaniu
+        assertTrue(strategia.przeladujJesliZmieniony());
+        assertEquals(100.0, strategia.obliczKareZaAnulowanie(rezerwacja), 0.001);
+        
+        // Gdy: plik zawiera błąd
+        TabelaPolitykiAnulowania przed = strategia.getTabela();
+        Files.write(plik, List.of("*;*;7;abc"));
+        Files.setLastModifiedTime(plik, FileTime.fromMillis(Files.getLastModifiedTime(plik).toMillis() + 2000));
+        
+        // Wtedy: obowiązuje poprzednia polityka
+        assertThrows(IllegalArgumentException.class, strategia::przeladujJesliZmieniony);
+        assertSame(przed, strategia.getTabela());
+        assertEquals(100.0, strategia.obliczKareZaAnulowanie(rezerwacja), 0.001);
+    }
+}
@@ -0,0 +1,72 @@
+package hotel.strategy;
+
+import hotel.model.Gosc;
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy strategii anulowania przez gościa ze wstrzykiwanym zegarem
+ * oraz harmonogramu kar.
+ */
+@DisplayName("Testy harmonogramu kar i zegara strategii anulowania")
+@Tag("anulowanie")
+class TestHarmonogramKar {
+    
+    private static final LocalDate DZIS = LocalDate.of(2030, 6, 1);
+    
+    private AnulowaniePrzezGoscia strategia;
+    private Rezerwacja rezerwacja;
+    
+    @BeforeEach
+    void setUp() {
+        // Jeśli: zegar ustawiony na stały dzień i rezerwacja za 10 dni (4 noce po 200 zł)
+        Clock zegar = Clock.fixed(DZIS.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        strategia = new AnulowaniePrzezGoscia(zegar);
+        rezerwacja = new Rezerwacja(1, DZIS.plusDays(10), DZIS.plusDays(14),
+                new Pokoj(101, "dwuosobowy", 200.0), new Gosc("Jan", "Kowalski", "jan@test.pl"));
+    }
+    
+    @Test
+    @DisplayName("kara liczona jest według dnia ze wstrzykiwanego zegara")
+    void kara_WedlugZegara() {
+        // Gdy / Wtedy: 10 dni przed przyjazdem anulowanie jest bezpłatne
+        assertEquals(0.0, strategia.obliczKareZaAnulowanie(rezerwacja), 0.001);
+        
+        // Gdy / Wtedy: ta sama rezerwacja liczona na 2 dni przed przyjazdem
+        assertEquals(rezerwacja.obliczCene() * 0.5,
+                strategia.obliczKareNaDzien(rezerwacja, DZIS.plusDays(8)), 0.001);
+    }
+    
+    @ParameterizedTest(name = "dzień przed przyjazdem: {0}")
+    @ValueSource(ints = {12, 10, 8, 7, 5, 4, 3, 2, 1, 0, -1})
+    @DisplayName("harmonogram daje te same kary co bezpośrednie obliczenie")
+    void harmonogram_ZgodnyZObliczeniem(int dniPrzed) {
+        // Jeśli: harmonogram kar rezerwacji
+        HarmonogramKar harmonogram = strategia.harmonogramKar(rezerwacja);
+        LocalDate dzien = rezerwacja.getDataOd().minusDays(dniPrzed);
+        
+        // Gdy / Wtedy: kara z harmonogramu równa jest karze obliczonej wprost
+        assertEquals(strategia.obliczKareNaDzien(rezerwacja, dzien), harmonogram.karaNaDzien(dzien), 0.001);
+    }
+    
+    @Test
+    @DisplayName("harmonogram zawiera daty zmiany progów kary")
+    void harmonogram_DatyZmian() {
+        // Gdy: wyznaczamy harmonogram
+        LocalDate[] daty = strategia.harmonogramKar(rezerwacja).getDatyZmian();
+        
+        // Wtedy: progi zmieniają się 7, 3 i 1 dzień przed przyjazdem
+        LocalDate przyjazd = rezerwacja.getDataOd();
+        assertArrayEquals(new LocalDate[] {przyjazd.minusDays(7), przyjazd.minusDays(3), przyjazd.minusDays(1)}, daty);
+    }
+}
@@ -8,7 +8,7 @@ import org.junit.platform.suite.api.*;
  */
 @Suite
 @SuiteDisplayName("Zestaw testów: Anuluj Rezerwację")
-@SelectPackages({"hotel.usecase", "hotel.controller"})
+@SelectPackages({"hotel.usecase", "hotel.controller", "hotel.strategy"})
 @IncludeTags("anulowanie")
 public class AnulujRezerwacjeTestSuite {
 }
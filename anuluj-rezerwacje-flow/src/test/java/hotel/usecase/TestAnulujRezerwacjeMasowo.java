@@ -0,0 +1,128 @@
+package hotel.usecase;
+
+import hotel.controller.RezerwacjeKontroler;
+import hotel.dao.GoscieDAO;
+import hotel.dao.PokojeDAO;
+import hotel.dao.RezerwacjeDAO;
+import hotel.factory.FabrykaGosci;
+import hotel.model.*;
+import hotel.strategy.AnulowaniePrzezGoscia;
+import hotel.strategy.AnulowaniePrzezRecepcje;
+import hotel.usecase.AnulujRezerwacjeMasowo.RaportAnulowania;
+
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy przypadku użycia "Masowe anulowanie rezerwacji".
+ */
+@DisplayName("Testy: masowe anulowanie rezerwacji")
+@Tag("anulowanie")
+class TestAnulujRezerwacjeMasowo {
+    
+    private PokojeDAO pokojeDAO;
+    private RezerwacjeDAO rezerwacjeDAO;
+    private HotelModel model;
+    private RezerwacjeKontroler kontroler;
+    private Gosc gosc;
+    private LocalDate poczatek;
+    
+    @BeforeEach
+    void setUp() {
+        // Jeśli: skrzydło A (pokoje 101-103) i skrzydło B (pokój 201)
+        Gosc.resetIdCounter();
+        GoscieDAO goscieDAO = new GoscieDAO();
+        pokojeDAO = new PokojeDAO();
+        rezerwacjeDAO = new RezerwacjeDAO();
+        model = new HotelModel(rezerwacjeDAO, pokojeDAO, goscieDAO, new FabrykaGosci());
+        kontroler = new RezerwacjeKontroler(model);
+        
+        gosc = new Gosc("Jan", "Kowalski", "jan@test.pl");
+        goscieDAO.zapisz(gosc);
+        for (int numer : new int[] {101, 102, 103, 201}) {
+            pokojeDAO.zapisz(new Pokoj(numer, "dwuosobowy", 100.0));
+        }
+        poczatek = LocalDate.now().plusDays(30);
+    }
+    
+    private Rezerwacja rezerwuj(int pokoj, int odDnia, int doDnia) {
+        return model.utworzRezerwacje(gosc.getId(), pokoj, poczatek.plusDays(odDnia), poczatek.plusDays(doDnia));
+    }
+    
+    @Test
+    @DisplayName("Zamknięcie skrzydła anuluje tylko rezerwacje jego pokoi w okresie zamknięcia")
+    void zakresPokoiIDat_AnulujeTylkoPasujace() {
+        Rezerwacja a1 = rezerwuj(101, 0, 2);
+        Rezerwacja a2 = rezerwuj(102, 5, 7);
+        Rezerwacja poZamknieciu = rezerwuj(103, 20, 22);
+        Rezerwacja skrzydloB = rezerwuj(201, 0, 2);
+        
+        // Gdy: recepcja zamyka skrzydło A na dni 0-10
+        AnulujRezerwacjeMasowo useCase = new AnulujRezerwacjeMasowo(kontroler, new AnulowaniePrzezRecepcje());
+        RaportAnulowania raport = useCase.wykonaj(List.of(101, 102, 103), poczatek, poczatek.plusDays(10));
+        
+        // Wtedy: anulowane są dwie rezerwacje skrzydła A, bez opłat
+        assertEquals(List.of(a1.getId(), a2.getId()), raport.getAnulowane().stream().sorted().toList());
+        assertTrue(raport.getOdrzucone().isEmpty());
+        assertEquals(0.0, raport.getSumaOplat(), 0.001);
+        assertTrue(raport.podsumowanie().isSukces());
+        assertEquals(Rezerwacja.StatusRezerwacji.ANULOWANA, a1.getStatus());
+        assertEquals(Rezerwacja.StatusRezerwacji.NOWA, poZamknieciu.getStatus());
+        assertEquals(Rezerwacja.StatusRezerwacji.NOWA, skrzydloB.getStatus());
+        
+        // Wtedy: pokoje skrzydła A są znów wolne w okresie zamknięcia
+        assertTrue(rezerwacjeDAO.czyPokojDostepny(101, poczatek, poczatek.plusDays(10)));
+        assertTrue(rezerwacjeDAO.czyPokojDostepny(102, poczatek, poczatek.plusDays(10)));
+    }
+    
+    @Test
+    @DisplayName("Raport zawiera odrzucone rezerwacje i sumę opłat według strategii")
+    void predykat_RaportZawieraOdrzuconeIOplaty() {
+        poczatek = LocalDate.now().plusDays(5);
+        Rezerwacja nowa = rezerwuj(101, 0, 2);
+        Rezerwacja zameldowana = rezerwuj(102, 0, 2);
+        model.potwierdzPlatnosc(zameldowana.getId());
+        model.zameldujGoscia(zameldowana.getId());
+        
+        // Gdy: gość anuluje wszystkie swoje rezerwacje (5 dni przed przyjazdem)
+        AnulujRezerwacjeMasowo useCase = new AnulujRezerwacjeMasowo(kontroler, new AnulowaniePrzezGoscia());
+        RaportAnulowania raport = useCase.wykonaj(r -> r.getGosc().getId() == gosc.getId());
+        
+        // Wtedy: zameldowanej rezerwacji nie anulowano, a opłata to 20% ceny nowej
+        assertEquals(List.of(nowa.getId()), raport.getAnulowane());
+        assertEquals(List.of(zameldowana.getId()), raport.getOdrzucone());
+        assertEquals(nowa.obliczCene() * 0.2, raport.getSumaOplat(), 0.001);
+        assertFalse(raport.podsumowanie().isSukces());
+        assertTrue(raport.getWyniki().get(nowa.getId()).isSukces());
+        assertEquals(Rezerwacja.StatusRezerwacji.ZAMELDOWANA, zameldowana.getStatus());
+    }
+    
+    @Test
+    @DisplayName("Setki rezerwacji są anulowane jedną operacją wsadową")
+    void wieleRezerwacji_AnulowaneWsadowo() {
+        for (int numer = 1000; numer < 1300; numer++) {
+            pokojeDAO.zapisz(new Pokoj(numer, "jednoosobowy", 80.0));
+            rezerwuj(numer, 0, 3);
+        }
+        
+        AnulujRezerwacjeMasowo useCase = new AnulujRezerwacjeMasowo(kontroler, new AnulowaniePrzezRecepcje());
+        RaportAnulowania raport = useCase.wykonaj(r -> r.getPokoj().getNumer() >= 1000);
+        
+        assertEquals(300, raport.getAnulowane().size());
+        assertEquals(300, rezerwacjeDAO.pobierzPoStatusie(Rezerwacja.StatusRezerwacji.ANULOWANA).size());
+    }
+    
+    @Test
+    @DisplayName("Niepoprawne argumenty powinny rzucić wyjątek")
+    void niepoprawneArgumenty_RzucaWyjatek() {
+        AnulujRezerwacjeMasowo useCase = new AnulujRezerwacjeMasowo(kontroler, new AnulowaniePrzezRecepcje());
+        assertThrows(IllegalArgumentException.class, () -> new AnulujRezerwacjeMasowo(null, new AnulowaniePrzezRecepcje()));
+        assertThrows(IllegalArgumentException.class, () -> useCase.wykonaj(null));
+        assertThrows(IllegalArgumentException.class,
+            () -> useCase.wykonaj(List.of(101), poczatek.plusDays(1), poczatek));
+    }
+}
@@ -0,0 +1,293 @@
+package hotel.analityka;
+
+import hotel.dao.PokojeDAO;
+import hotel.dao.RezerwacjeDAO;
+import hotel.model.HotelModel;
+import hotel.model.IDodatek;
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Obłożenie, ADR i RevPAR według dni, typów pokoi i miesięcy.
+ *
+ * Podstawą jest siatka miesiąca: sprzedane pokojonoce i przychody dla każdej pary
+ * (typ pokoju, dzień). Rezerwacja zajmuje noce od dataOd do dnia przed dataDo (tyle,
+ * ile {@link Rezerwacja#getLiczbaNocy()}); każda noc wnosi {@link Rezerwacja#getCenaNocy()},
+ * a koszt dodatków rozkładany jest po równo na noce pobytu. Anulowane rezerwacje są pomijane.
+ * Dostępne pokojonoce wynikają z bieżącej liczby pokoi danego typu.
+ *
+ * Siatki liczone są jednym równoległym przebiegiem po rezerwacjach, w którym każdy
+ * wątek sumuje do własnego akumulatora, a akumulatory są na końcu scalane.
+ * Siatki miesięcy zamkniętych (zakończonych przed bieżącym miesiącem zegara) są
+ * zapamiętywane na stałe. Siatki miesięcy otwartych są przeliczane tylko wtedy,
+ * gdy od ostatniego obliczenia zmieniły się rezerwacje lub pokoje.
+ */
+public class AnalitykaSprzedazy {
+
+    private final RezerwacjeDAO rezerwacjeDAO;
+    private final PokojeDAO pokojeDAO;
+    private final Clock zegar;
+
+    private final Map<YearMonth, SiatkaMiesiaca> zamkniete = new HashMap<>();
+    private final Map<YearMonth, SiatkaMiesiaca> otwarte = new HashMap<>();
+    private long wersjaRezerwacji = -1;
+    private long wersjaPokoi = -1;
+    private int liczbaObliczonychMiesiecy;
+
+    public AnalitykaSprzedazy(HotelModel model) {
+        this(model.getRezerwacjeDAO(), model.getPokojeDAO(), model.getZegar());
+    }
+
+    public AnalitykaSprzedazy(RezerwacjeDAO rezerwacjeDAO, PokojeDAO pokojeDAO, Clock zegar) {
+        if (rezerwacjeDAO == null || pokojeDAO == null || zegar == null) {
+            throw new IllegalArgumentException("DAO i zegar nie mogą być null");
+        }
+        this.rezerwacjeDAO = rezerwacjeDAO;
+        this.pokojeDAO = pokojeDAO;
+        this.zegar = zegar;
+    }
+
+    /**
+     * Zwraca wskaźniki dla każdego dnia przedziału.
+     * @param od pierwszy dzień
+     * @param doDnia ostatni dzień (włącznie)
+     * @return wskaźniki w kolejności dni
+     */
+    public synchronized Map<LocalDate, WskaznikiSprzedazy> wgDnia(LocalDate od, LocalDate doDnia) {
+        Map<LocalDate, WskaznikiSprzedazy> wynik = new LinkedHashMap<>();
+        for (SiatkaMiesiaca siatka : siatki(od, doDnia)) {
+            for (int dzien = siatka.pierwszyDzien(od); dzien <= siatka.ostatniDzien(doDnia); dzien++) {
+                WskaznikiSprzedazy suma = WskaznikiSprzedazy.ZERO;
+                for (int t = 0; t < siatka.typy.size(); t++) {
+                    suma = siatka.dodaj(suma, t, dzien);
+                }
+                wynik.put(siatka.miesiac.atDay(dzien + 1), suma);
+            }
+        }
+        return wynik;
+    }
+
+    /**
+     * Zwraca wskaźniki za przedział dla każdego typu pokoju.
+     * @param od pierwszy dzień
+     * @param doDnia ostatni dzień (włącznie)
+     * @return wskaźniki według typu pokoju (w kolejności alfabetycznej)
+     */
+    public synchronized Map<String, WskaznikiSprzedazy> wgTypuPokoju(LocalDate od, LocalDate doDnia) {
+        Map<String, WskaznikiSprzedazy> wynik = new TreeMap<>();
+        for (SiatkaMiesiaca siatka : siatki(od, doDnia)) {
+            for (int t = 0; t < siatka.typy.size(); t++) {
+                WskaznikiSprzedazy suma = wynik.getOrDefault(siatka.typy.get(t), WskaznikiSprzedazy.ZERO);
+                for (int dzien = siatka.pierwszyDzien(od); dzien <= siatka.ostatniDzien(doDnia); dzien++) {
+                    suma = siatka.dodaj(suma, t, dzien);
+                }
+                wynik.put(siatka.typy.get(t), suma);
+            }
+        }
+        return wynik;
+    }
+
+    /**
+     * Zwraca wskaźniki dla każdego miesiąca przedziału.
+     * @param od pierwszy miesiąc
+     * @param doMiesiaca ostatni miesiąc (włącznie)
+     * @return wskaźniki w kolejności miesięcy
+     */
+    public synchronized Map<YearMonth, WskaznikiSprzedazy> wgMiesiaca(YearMonth od, YearMonth doMiesiaca) {
+        Map<YearMonth, WskaznikiSprzedazy> wynik = new LinkedHashMap<>();
+        for (SiatkaMiesiaca siatka : siatki(od.atDay(1), doMiesiaca.atEndOfMonth())) {
+            wynik.put(siatka.miesiac, siatka.suma());
+        }
+        return wynik;
+    }
+
+    /**
+     * Zwraca łączną liczbę miesięcy przeliczonych od utworzenia (do diagnostyki pamięci podręcznej).
+     * @return liczba obliczonych siatek miesięcy
+     */
+    public synchronized int getLiczbaObliczonychMiesiecy() {
+        return liczbaObliczonychMiesiecy;
+    }
+
+    /**
+     * Zwraca siatki miesięcy obejmujących przedział, obliczając brakujące.
+     */
+    private List<SiatkaMiesiaca> siatki(LocalDate od, LocalDate doDnia) {
+        if (od == null || doDnia == null || od.isAfter(doDnia)) {
+            throw new IllegalArgumentException("Nieprawidłowy przedział dat");
+        }
+        if (rezerwacjeDAO.pobierzWersje() != wersjaRezerwacji || pokojeDAO.pobierzWersje() != wersjaPokoi) {
+            otwarte.clear();
+            wersjaRezerwacji = rezerwacjeDAO.pobierzWersje();
+            wersjaPokoi = pokojeDAO.pobierzWersje();
+        }
+        YearMonth biezacy = YearMonth.now(zegar);
+        List<YearMonth> miesiace = new ArrayList<>();
+        List<YearMonth> brakujace = new ArrayList<>();
+        for (YearMonth m = YearMonth.from(od); !m.isAfter(YearMonth.from(doDnia)); m = m.plusMonths(1)) {
+            miesiace.add(m);
+            if (!zamkniete.containsKey(m) && !otwarte.containsKey(m)) {
+                brakujace.add(m);
+            }
+        }
+        if (!brakujace.isEmpty()) {
+            for (SiatkaMiesiaca siatka : oblicz(brakujace)) {
+                (siatka.miesiac.isBefore(biezacy) ? zamkniete : otwarte).put(siatka.miesiac, siatka);
+            }
+        }
+        List<SiatkaMiesiaca> wynik = new ArrayList<>(miesiace.size());
+        for (YearMonth m : miesiace) {
+            wynik.add(zamkniete.containsKey(m) ? zamkniete.get(m) : otwarte.get(m));
+        }
+        return wynik;
+    }
+
+    /**
+     * Liczy siatki podanych miesięcy jednym równoległym przebiegiem po rezerwacjach
+     * z przedziału od początku pierwszego do końca ostatniego miesiąca.
+     */
+    private List<SiatkaMiesiaca> oblicz(List<YearMonth> miesiace) {
+        Map<String, Integer> indeksyTypow = new LinkedHashMap<>();
+        List<Integer> pokoiTypu = new ArrayList<>();
+        for (Pokoj pokoj : pokojeDAO.pobierzWszystkie()) {
+            Integer indeks = indeksyTypow.putIfAbsent(pokoj.getTyp(), indeksyTypow.size());
+            if (indeks == null) {
+                pokoiTypu.add(1);
+            } else {
+                pokoiTypu.set(indeks, pokoiTypu.get(indeks) + 1);
+            }
+        }
+        LocalDate start = miesiace.get(0).atDay(1);
+        LocalDate koniec = miesiace.get(miesiace.size() - 1).atEndOfMonth();
+        int dni = (int) (koniec.toEpochDay() - start.toEpochDay()) + 1;
+        int typy = indeksyTypow.size();
+
+        Akumulator suma = rezerwacjeDAO.pobierzWPrzedzialeData(start, koniec).parallelStream()
+                .collect(() -> new Akumulator(typy, dni),
+                        (akumulator, r) -> akumulator.dodaj(r, indeksyTypow, start.toEpochDay()),
+                        Akumulator::dodajWszystko);
+
+        List<String> nazwyTypow = List.copyOf(indeksyTypow.keySet());
+        int[] liczbyPokoi = pokoiTypu.stream().mapToInt(Integer::intValue).toArray();
+        List<SiatkaMiesiaca> siatki = new ArrayList<>(miesiace.size());
+        for (YearMonth m : miesiace) {
+            int przesuniecie = (int) (m.atDay(1).toEpochDay() - start.toEpochDay());
+            siatki.add(new SiatkaMiesiaca(m, nazwyTypow, liczbyPokoi, suma, przesuniecie));
+            liczbaObliczonychMiesiecy++;
+        }
+        return siatki;
+    }
+
+    /**
+     * Sumy jednego wątku przebiegu równoległego: [typ][dzień przedziału].
+     */
+    private static final class Akumulator {
+        private final long[][] sprzedane;
+        private final double[][] przychodPokoi;
+        private final double[][] przychodDodatkow;
+
+        Akumulator(int typy, int dni) {
+            sprzedane = new long[typy][dni];
+            przychodPokoi = new double[typy][dni];
+            przychodDodatkow = new double[typy][dni];
+        }
+
+        void dodaj(Rezerwacja r, Map<String, Integer> indeksyTypow, long pierwszyDzien) {
+            Integer typ = indeksyTypow.get(r.getPokoj().getTyp());
+            long noce = r.getLiczbaNocy();
+            // Pokoje usunięte z hotelu nie mają dostępnych pokojonocy - ich sprzedaż jest pomijana
+            if (typ == null || noce <= 0 || r.getStatus() == Rezerwacja.Status.ANULOWANA) {
+                return;
+            }
+            double cena = r.getCenaNocy();
+            double dodatki = 0;
+            for (IDodatek dodatek : r.pobierzDodatki()) {
+                dodatki += dodatek.obliczDodatkowyKoszt();
+            }
+            double dodatkiNaNoc = dodatki / noce;
+            int dni = sprzedane[typ].length;
+            int od = (int) Math.max(0, r.getDataOd().toEpochDay() - pierwszyDzien);
+            int doDnia = (int) Math.min(dni - 1, r.getDataDo().toEpochDay() - 1 - pierwszyDzien);
+            for (int d = od; d <= doDnia; d++) {
+                sprzedane[typ][d]++;
+                przychodPokoi[typ][d] += cena;
+                przychodDodatkow[typ][d] += dodatkiNaNoc;
+            }
+        }
+
+        void dodajWszystko(Akumulator inny) {
+            for (int t = 0; t < sprzedane.length; t++) {
+                for (int d = 0; d < sprzedane[t].length; d++) {
+                    sprzedane[t][d] += inny.sprzedane[t][d];
+                    przychodPokoi[t][d] += inny.przychodPokoi[t][d];
+                    przychodDodatkow[t][d] += inny.przychodDodatkow[t][d];
+                }
+            }
+        }
+    }
+
+    /**
+     * Niezmienne sumy jednego miesiąca: [typ][dzień miesiąca - 1].
+     */
+    private static final class SiatkaMiesiaca {
+        private final YearMonth miesiac;
+        private final List<String> typy;
+        private final int[] pokoiTypu;
+        private final long[][] sprzedane;
+        private final double[][] przychodPokoi;
+        private final double[][] przychodDodatkow;
+
+        SiatkaMiesiaca(YearMonth miesiac, List<String> typy, int[] pokoiTypu, Akumulator suma, int przesuniecie) {
+            int dni = miesiac.lengthOfMonth();
+            this.miesiac = miesiac;
+            this.typy = typy;
+            this.pokoiTypu = pokoiTypu;
+            this.sprzedane = new long[typy.size()][];
+            this.przychodPokoi = new double[typy.size()][];
+            this.przychodDodatkow = new double[typy.size()][];
+            for (int t = 0; t < typy.size(); t++) {
+                sprzedane[t] = Arrays.copyOfRange(suma.sprzedane[t], przesuniecie, przesuniecie + dni);
+                przychodPokoi[t] = Arrays.copyOfRange(suma.przychodPokoi[t], przesuniecie,
+                        przesuniecie + dni);
+                przychodDodatkow[t] = Arrays.copyOfRange(suma.przychodDodatkow[t], przesuniecie,
+                        przesuniecie + dni);
+            }
+        }
+
+        /** Indeks pierwszego dnia miesiąca nie wcześniejszego niż podana data. */
+        int pierwszyDzien(LocalDate od) {
+            return YearMonth.from(od).equals(miesiac) ? od.getDayOfMonth() - 1 : 0;
+        }
+
+        /** Indeks ostatniego dnia miesiąca nie późniejszego niż podana data. */
+        int ostatniDzien(LocalDate doDnia) {
+            return YearMonth.from(doDnia).equals(miesiac) ? doDnia.getDayOfMonth() - 1 : miesiac.lengthOfMonth() - 1;
+        }
+
+        WskaznikiSprzedazy dodaj(WskaznikiSprzedazy suma, int typ, int dzien) {
+            return suma.plus(pokoiTypu[typ], sprzedane[typ][dzien], przychodPokoi[typ][dzien],
+                    przychodDodatkow[typ][dzien]);
+        }
+
+        WskaznikiSprzedazy suma() {
+            WskaznikiSprzedazy suma = WskaznikiSprzedazy.ZERO;
+            for (int t = 0; t < typy.size(); t++) {
+                for (int d = 0; d < miesiac.lengthOfMonth(); d++) {
+                    suma = dodaj(suma, t, d);
+                }
+            }
+            return suma;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package hotel.analityka;
+
+import java.util.Locale;
+
+/**
+ * Wskaźniki sprzedaży noclegów w okresie: obłożenie, ADR (średnia cena sprzedanej
+ * pokojonocy) i RevPAR (przychód z pokoi na dostępną pokojonoc). ADR i RevPAR liczone
+ * są z przychodu z pokoi; przychód z dodatków podawany jest osobno.
+ */
+public final class WskaznikiSprzedazy {
+
+    static final WskaznikiSprzedazy ZERO = new WskaznikiSprzedazy(0, 0, 0, 0);
+
+    private final long dostepnePokojonoce;
+    private final long sprzedanePokojonoce;
+    private final double przychodPokoi;
+    private final double przychodDodatkow;
+
+    WskaznikiSprzedazy(long dostepnePokojonoce, long sprzedanePokojonoce, double przychodPokoi,
+                       double przychodDodatkow) {
+        this.dostepnePokojonoce = dostepnePokojonoce;
+        this.sprzedanePokojonoce = sprzedanePokojonoce;
+        this.przychodPokoi = przychodPokoi;
+        this.przychodDodatkow = przychodDodatkow;
+    }
+
+    WskaznikiSprzedazy plus(long dostepne, long sprzedane, double pokoje, double dodatki) {
+        return new WskaznikiSprzedazy(dostepnePokojonoce + dostepne, sprzedanePokojonoce + sprzedane,
+                przychodPokoi + pokoje, przychodDodatkow + dodatki);
+    }
+
+    public long getDostepnePokojonoce() {
+        return dostepnePokojonoce;
+    }
+
+    public long getSprzedanePokojonoce() {
+        return sprzedanePokojonoce;
+    }
+
+    public double getPrzychodPokoi() {
+        return przychodPokoi;
+    }
+
+    public double getPrzychodDodatkow() {
+        return przychodDodatkow;
+    }
+
+    public double getPrzychodCalkowity() {
+        return przychodPokoi + przychodDodatkow;
+    }
+
+    /**
+     * Zwraca obłożenie - udział sprzedanych pokojonocy w dostępnych.
+     * @return obłożenie w przedziale 0..1 (0 przy braku pokoi)
+     */
+    public double getOblozenie() {
+        return dostepnePokojonoce == 0 ? 0 : (double) sprzedanePokojonoce / dostepnePokojonoce;
+    }
+
+    /**
+     * Zwraca ADR - średni przychód z pokoju na sprzedaną pokojonoc.
+     * @return ADR (0 przy braku sprzedaży)
+     */
+    public double getAdr() {
+        return sprzedanePokojonoce == 0 ? 0 : przychodPokoi / sprzedanePokojonoce;
+    }
+
+    /**
+     * Zwraca RevPAR - przychód z pokoi na dostępną pokojonoc (obłożenie × ADR).
+     * @return RevPAR (0 przy braku pokoi)
+     */
+    public double getRevPar() {
+        return dostepnePokojonoce == 0 ? 0 : przychodPokoi / dostepnePokojonoce;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "obłożenie=%.1f%%, ADR=%.2f, RevPAR=%.2f, dodatki=%.2f",
+                getOblozenie() * 100, getAdr(), getRevPar(), przychodDodatkow);
+    }
+}
@@ -0,0 +1,135 @@
+package hotel.audyt;
+
+import hotel.audyt.RaportAudytu.Faza;
+import hotel.audyt.RaportAudytu.WynikFazy;
+import hotel.dao.RezerwacjeDAO;
+import hotel.model.HotelModel;
+import hotel.model.IHotelModel;
+import hotel.model.Rezerwacja;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Audyt nocny zamykający dzień hotelowy:
+ * <ol>
+ *   <li>wymeldowuje gości zameldowanych, których pobyt kończy się najpóźniej w audytowanym dniu,</li>
+ *   <li>anuluje jako nieprzybycie rezerwacje NOWA i POTWIERDZONA rozpoczynające się najpóźniej w tym dniu,</li>
+ *   <li>nalicza zameldowanym gościom opłatę za noc audytowanego dnia w {@link DziennikObciazen}.</li>
+ * </ol>
+ * Kandydaci każdej fazy pobierani są z indeksów statusu i daty w RezerwacjeDAO, bez pełnego
+ * skanu. Zmiany wykonuje model (z kontrolą wersji), równolegle w partiach.
+ *
+ * Audyt można bezpiecznie powtórzyć: zmienione rezerwacje nie spełniają już warunków faz,
+ * noc jest obciążana co najwyżej raz, a fazy zakończone bez błędów są przy ponownym
+ * uruchomieniu dla tego samego dnia pomijane. Faza przerwana błędem jest przy kolejnym
+ * uruchomieniu dokańczana dla pozostałych rezerwacji.
+ */
+public class AudytNocny {
+
+    public static final String PRZYCZYNA_NIEPRZYBYCIA = "Nieprzybycie gościa";
+    public static final int DOMYSLNY_ROZMIAR_PARTII = 256;
+
+    private final IHotelModel model;
+    private final RezerwacjeDAO rezerwacjeDAO;
+    private final DziennikObciazen dziennik;
+    private final int rozmiarPartii;
+    private final Map<LocalDate, Set<Faza>> zakonczoneFazy = new HashMap<>();
+
+    public AudytNocny(HotelModel model, DziennikObciazen dziennik) {
+        this(model, model.getRezerwacjeDAO(), dziennik, DOMYSLNY_ROZMIAR_PARTII);
+    }
+
+    /**
+     * @param model model wykonujący zmiany statusów (np. opakowany metrykami)
+     * @param rezerwacjeDAO DAO modelu, z którego indeksów pobierani są kandydaci
+     * @param dziennik dziennik obciążeń za noclegi
+     * @param rozmiarPartii liczba rezerwacji przetwarzanych w jednym zadaniu
+     */
+    public AudytNocny(IHotelModel model, RezerwacjeDAO rezerwacjeDAO, DziennikObciazen dziennik, int rozmiarPartii) {
+        if (model == null || rezerwacjeDAO == null || dziennik == null) {
+            throw new IllegalArgumentException("Model, DAO i dziennik obciążeń nie mogą być null");
+        }
+        if (rozmiarPartii <= 0) {
+            throw new IllegalArgumentException("Rozmiar partii musi być większy od 0");
+        }
+        this.model = model;
+        this.rezerwacjeDAO = rezerwacjeDAO;
+        this.dziennik = dziennik;
+        this.rozmiarPartii = rozmiarPartii;
+    }
+
+    /**
+     * Wykonuje audyt nocny podanego dnia.
+     * @param dzien audytowany dzień
+     * @return raport z wynikami i czasami faz
+     */
+    public synchronized RaportAudytu wykonaj(LocalDate dzien) {
+        if (dzien == null) {
+            throw new IllegalArgumentException("Dzień nie może być null");
+        }
+        RaportAudytu raport = new RaportAudytu(dzien);
+        Set<Faza> zakonczone = zakonczoneFazy.computeIfAbsent(dzien, d -> EnumSet.noneOf(Faza.class));
+
+        wykonajFaze(raport, zakonczone, Faza.WYMELDOWANIA,
+                () -> rezerwacjeDAO.pobierzPoStatusieKonczaceSieDo(Rezerwacja.Status.ZAMELDOWANA, dzien),
+                r -> model.wymeldujGoscia(r.getId()));
+
+        wykonajFaze(raport, zakonczone, Faza.NIEPRZYBYCIA, () -> {
+            List<Rezerwacja> kandydaci = new ArrayList<>(
+                    rezerwacjeDAO.pobierzPoStatusieRozpoczynajaceSieDo(Rezerwacja.Status.NOWA, dzien));
+            kandydaci.addAll(rezerwacjeDAO.pobierzPoStatusieRozpoczynajaceSieDo(Rezerwacja.Status.POTWIERDZONA, dzien));
+            return kandydaci;
+        }, r -> model.anulujRezerwacje(r.getId(), PRZYCZYNA_NIEPRZYBYCIA));
+
+        wykonajFaze(raport, zakonczone, Faza.OBCIAZENIA,
+                () -> rezerwacjeDAO.pobierzPoStatusieRozpoczynajaceSieDo(Rezerwacja.Status.ZAMELDOWANA, dzien).stream()
+                        .filter(r -> r.getDataDo().isAfter(dzien))
+                        .toList(),
+                r -> dziennik.obciaz(r.getId(), dzien, r.getCenaNocy()));
+        return raport;
+    }
+
+    private void wykonajFaze(RaportAudytu raport, Set<Faza> zakonczone, Faza faza,
+                             Supplier<List<Rezerwacja>> kandydaci, Predicate<Rezerwacja> zmiana) {
+        if (zakonczone.contains(faza)) {
+            raport.dodaj(faza, WynikFazy.pominieta());
+            return;
+        }
+        long start = System.nanoTime();
+        List<Rezerwacja> lista = kandydaci.get();
+        List<List<Rezerwacja>> partie = new ArrayList<>();
+        for (int i = 0; i < lista.size(); i += rozmiarPartii) {
+            partie.add(lista.subList(i, Math.min(lista.size(), i + rozmiarPartii)));
+        }
+        AtomicInteger zmiany = new AtomicInteger();
+        Map<Integer, String> bledy = new ConcurrentHashMap<>();
+        partie.parallelStream().forEach(partia -> {
+            for (Rezerwacja r : partia) {
+                try {
+                    // false - rezerwację zmieniono w międzyczasie i nie wymaga już tej fazy
+                    if (zmiana.test(r)) {
+                        zmiany.incrementAndGet();
+                    }
+                } catch (RuntimeException e) {
+                    bledy.put(r.getId(), String.valueOf(e.getMessage()));
+                }
+            }
+        });
+        if (bledy.isEmpty()) {
+            zakonczone.add(faza);
+        }
+        raport.dodaj(faza, new WynikFazy(false, lista.size(), zmiany.get(), bledy,
+                Duration.ofNanos(System.nanoTime() - start)));
+    }
+}
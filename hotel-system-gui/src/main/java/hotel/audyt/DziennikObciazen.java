@@ -0,0 +1,90 @@
+package hotel.audyt;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dziennik obciążeń za noclegi naliczanych podczas audytu nocnego.
+ * Obciążenie jest jednoznacznie określone przez rezerwację i dzień, więc ponowne
+ * naliczenie tej samej nocy (np. po przerwanym audycie) niczego nie zmienia.
+ */
+public class DziennikObciazen {
+
+    private final Map<KluczObciazenia, Obciazenie> obciazenia = new ConcurrentHashMap<>();
+
+    /**
+     * Obciążenie rezerwacji za jedną noc.
+     */
+    public static final class Obciazenie {
+        private final int idRezerwacji;
+        private final LocalDate dzien;
+        private final double kwota;
+
+        Obciazenie(int idRezerwacji, LocalDate dzien, double kwota) {
+            this.idRezerwacji = idRezerwacji;
+            this.dzien = dzien;
+            this.kwota = kwota;
+        }
+
+        public int getIdRezerwacji() {
+            return idRezerwacji;
+        }
+
+        public LocalDate getDzien() {
+            return dzien;
+        }
+
+        public double getKwota() {
+            return kwota;
+        }
+    }
+
+    private record KluczObciazenia(int idRezerwacji, LocalDate dzien) {
+    }
+
+    /**
+     * Nalicza obciążenie, jeśli noc nie została jeszcze obciążona.
+     * @param idRezerwacji ID rezerwacji
+     * @param dzien dzień (noc) obciążenia
+     * @param kwota kwota
+     * @return true jeśli dodano nowe obciążenie
+     */
+    public boolean obciaz(int idRezerwacji, LocalDate dzien, double kwota) {
+        if (dzien == null) {
+            throw new IllegalArgumentException("Dzień nie może być null");
+        }
+        return obciazenia.putIfAbsent(new KluczObciazenia(idRezerwacji, dzien),
+                new Obciazenie(idRezerwacji, dzien, kwota)) == null;
+    }
+
+    /**
+     * Zwraca obciążenia rezerwacji w kolejności dni.
+     * @param idRezerwacji ID rezerwacji
+     * @return obciążenia
+     */
+    public List<Obciazenie> pobierzDlaRezerwacji(int idRezerwacji) {
+        return obciazenia.values().stream()
+                .filter(o -> o.getIdRezerwacji() == idRezerwacji)
+                .sorted(Comparator.comparing(Obciazenie::getDzien))
+                .toList();
+    }
+
+    /**
+     * Zwraca sumę obciążeń naliczonych za podany dzień.
+     * @param dzien dzień
+     * @return suma kwot
+     */
+    public double sumaDnia(LocalDate dzien) {
+        return obciazenia.values().stream()
+                .filter(o -> o.getDzien().equals(dzien))
+                .mapToDouble(Obciazenie::getKwota)
+                .sum();
+    }
+
+    public int liczba() {
+        return obciazenia.size();
+    }
+}
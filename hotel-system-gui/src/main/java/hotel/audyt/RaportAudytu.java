@@ -0,0 +1,124 @@
+package hotel.audyt;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Wynik audytu nocnego: dla każdej fazy liczba kandydatów znalezionych w indeksach,
+ * liczba wykonanych zmian, błędy (ID rezerwacji i komunikat) oraz czas trwania.
+ */
+public class RaportAudytu {
+
+    /** Fazy audytu w kolejności wykonywania. */
+    public enum Faza {
+        WYMELDOWANIA, NIEPRZYBYCIA, OBCIAZENIA
+    }
+
+    private final LocalDate dzien;
+    private final Map<Faza, WynikFazy> wyniki = new EnumMap<>(Faza.class);
+
+    RaportAudytu(LocalDate dzien) {
+        this.dzien = dzien;
+    }
+
+    void dodaj(Faza faza, WynikFazy wynik) {
+        wyniki.put(faza, wynik);
+    }
+
+    public LocalDate getDzien() {
+        return dzien;
+    }
+
+    public WynikFazy getWynik(Faza faza) {
+        return wyniki.get(faza);
+    }
+
+    public Map<Faza, WynikFazy> getWyniki() {
+        return Collections.unmodifiableMap(wyniki);
+    }
+
+    /**
+     * Sprawdza czy wszystkie fazy zakończyły się bez błędów (także pominięte jako wykonane wcześniej).
+     * @return true jeśli audyt dnia jest kompletny
+     */
+    public boolean czyKompletny() {
+        return wyniki.size() == Faza.values().length
+                && wyniki.values().stream().allMatch(w -> w.getLiczbaBledow() == 0);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Audyt nocny ").append(dzien).append(':');
+        wyniki.forEach((faza, wynik) -> sb.append("\n  ").append(faza).append(": ").append(wynik));
+        return sb.toString();
+    }
+
+    /**
+     * Wynik jednej fazy audytu.
+     */
+    public static final class WynikFazy {
+        private final boolean pominieta;
+        private final int liczbaKandydatow;
+        private final int liczbaZmian;
+        private final Map<Integer, String> bledy;
+        private final Duration czas;
+
+        WynikFazy(boolean pominieta, int liczbaKandydatow, int liczbaZmian, Map<Integer, String> bledy,
+                  Duration czas) {
+            this.pominieta = pominieta;
+            this.liczbaKandydatow = liczbaKandydatow;
+            this.liczbaZmian = liczbaZmian;
+            this.bledy = Collections.unmodifiableMap(new TreeMap<>(bledy));
+            this.czas = czas;
+        }
+
+        static WynikFazy pominieta() {
+            return new WynikFazy(true, 0, 0, Map.of(), Duration.ZERO);
+        }
+
+        /**
+         * Sprawdza czy faza została pominięta, bo zakończyła się w poprzednim uruchomieniu.
+         * @return true jeśli pominięta
+         */
+        public boolean czyPominieta() {
+            return pominieta;
+        }
+
+        public int getLiczbaKandydatow() {
+            return liczbaKandydatow;
+        }
+
+        public int getLiczbaZmian() {
+            return liczbaZmian;
+        }
+
+        public int getLiczbaBledow() {
+            return bledy.size();
+        }
+
+        /**
+         * Zwraca błędy fazy: ID rezerwacji, której nie udało się przetworzyć, i komunikat błędu.
+         * @return błędy posortowane według ID rezerwacji
+         */
+        public Map<Integer, String> getBledy() {
+            return bledy;
+        }
+
+        public Duration getCzas() {
+            return czas;
+        }
+
+        @Override
+        public String toString() {
+            if (pominieta) {
+                return "pominięta (wykonana wcześniej)";
+            }
+            return "kandydaci=" + liczbaKandydatow + ", zmiany=" + liczbaZmian + ", błędy=" + bledy.size()
+                    + ", czas=" + czas.toMillis() + " ms" + (bledy.isEmpty() ? "" : " " + bledy);
+        }
+    }
+}
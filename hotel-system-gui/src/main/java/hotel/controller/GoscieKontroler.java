@@ -37,17 +37,7 @@ public class GoscieKontroler implements IGoscieKontroler {
             return false;
         }
         
-        Optional<Gosc> gosc = model.znajdzProfilGoscia(idGoscia);
-        if (gosc.isEmpty()) {
-            return false;
-        }
-        
-        try {
-            gosc.get().setEmail(nowyEmail);
-            return true;
-        } catch (IllegalArgumentException e) {
-            return false;
-        }
+        return model.zmienEmailGoscia(idGoscia, nowyEmail);
     }
     
     @Override
@@ -23,6 +23,16 @@ public interface IRezerwacjeKontroler {
      */
     Rezerwacja utworzRezerwacje(Gosc gosc, Pokoj pokoj, LocalDate dataOd, LocalDate dataDo);
     
+    /**
+     * Tworzy rezerwację grupową wielu pokoi (wszystkie albo żadna).
+     * @param gosc gość
+     * @param pokoje pokoje
+     * @param dataOd data od
+     * @param dataDo data do
+     * @return utworzone rezerwacje lub pusta lista, gdy któryś pokój jest zajęty
+     */
+    List<Rezerwacja> utworzRezerwacjeGrupowa(Gosc gosc, List<Pokoj> pokoje, LocalDate dataOd, LocalDate dataDo);
+    
     /**
      * Anuluje rezerwację.
      * @param idRezerwacji ID rezerwacji
@@ -8,6 +8,7 @@ import hotel.model.Rezerwacja;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Kontroler zarządzający rezerwacjami.
@@ -39,6 +40,24 @@ public class RezerwacjeKontroler implements IRezerwacjeKontroler {
         return model.utworzRezerwacje(gosc, pokoj, dataOd, dataDo);
     }
     
+    @Override
+    public List<Rezerwacja> utworzRezerwacjeGrupowa(Gosc gosc, List<Pokoj> pokoje,
+                                                     LocalDate dataOd, LocalDate dataDo) {
+        if (gosc == null || pokoje == null || dataOd == null || dataDo == null) {
+            throw new IllegalArgumentException("Parametry nie mogą być null");
+        }
+        if (pokoje.isEmpty() || pokoje.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Lista pokoi nie może być pusta ani zawierać null");
+        }
+        if (pokoje.stream().map(Pokoj::getNumer).distinct().count() != pokoje.size()) {
+            throw new IllegalArgumentException("Pokoje w rezerwacji grupowej nie mogą się powtarzać");
+        }
+        if (dataOd.isAfter(dataDo)) {
+            throw new IllegalArgumentException("Data rozpoczęcia nie może być późniejsza niż data zakończenia");
+        }
+        return model.utworzRezerwacjeGrupowa(gosc, pokoje, dataOd, dataDo);
+    }
+    
     @Override
     public boolean anulujRezerwacje(int idRezerwacji) {
         if (idRezerwacji <= 0) {
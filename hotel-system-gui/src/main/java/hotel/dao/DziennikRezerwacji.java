@@ -0,0 +1,56 @@
+package hotel.dao;
+
+import hotel.model.Rezerwacja;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Dziennik faktów o rezerwacjach, do którego można jedynie dopisywać.
+ * Przechowywany w pamięci, jak pozostałe DAO; wspólny dziennik pozwala
+ * odtworzyć nowy {@link ZdarzeniowyRezerwacjeDAO} (symulacja restartu).
+ */
+public class DziennikRezerwacji {
+
+    private final List<FaktRezerwacji> fakty = new ArrayList<>();
+
+    /**
+     * Dopisuje fakt o rezerwacji.
+     * @param rodzaj rodzaj faktu
+     * @param rezerwacja stan rezerwacji po zmianie (null dla wyczyszczenia)
+     * @return dopisany fakt
+     */
+    synchronized FaktRezerwacji dopisz(FaktRezerwacji.Rodzaj rodzaj, Rezerwacja rezerwacja) {
+        FaktRezerwacji fakt = FaktRezerwacji.z(fakty.size() + 1L, rodzaj, rezerwacja);
+        fakty.add(fakt);
+        return fakt;
+    }
+
+    /**
+     * Zwraca migawkę wszystkich faktów w kolejności dopisania.
+     * @return lista faktów
+     */
+    public synchronized List<FaktRezerwacji> odczytajWszystkie() {
+        return List.copyOf(fakty);
+    }
+
+    /**
+     * Zwraca historię zmian jednej rezerwacji (audyt).
+     * @param idRezerwacji ID rezerwacji
+     * @return fakty dotyczące rezerwacji, w kolejności
+     */
+    public synchronized List<FaktRezerwacji> historia(int idRezerwacji) {
+        return fakty.stream()
+                .filter(f -> f.getIdRezerwacji() == idRezerwacji)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Zwraca liczbę faktów w dzienniku.
+     * @return liczba faktów
+     */
+    public synchronized int rozmiar() {
+        return fakty.size();
+    }
+}
@@ -0,0 +1,163 @@
+package hotel.dao;
+
+import hotel.model.Gosc;
+import hotel.model.IDodatek;
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Niezmienny wpis dziennika rezerwacji - fakt o zmianie jednej rezerwacji.
+ * Każdy fakt (poza wyczyszczeniem) niesie pełny stan rezerwacji po zmianie,
+ * więc stan i projekcje można odtworzyć z samego dziennika.
+ */
+public final class FaktRezerwacji {
+
+    /**
+     * Rodzaj faktu, wyznaczany przez porównanie z poprzednim stanem rezerwacji.
+     */
+    public enum Rodzaj {
+        UTWORZENIE,
+        ZMIANA_STATUSU,
+        ZMIANA_DAT,
+        ZMIANA_POKOJU,
+        AKTUALIZACJA,
+        USUNIECIE,
+        WYCZYSZCZENIE
+    }
+
+    private final long numer;
+    private final Rodzaj rodzaj;
+    private final int idRezerwacji;
+    private final Gosc gosc;
+    private final Pokoj pokoj;
+    private final LocalDate dataOd;
+    private final LocalDate dataDo;
+    private final Rezerwacja.Status status;
+    private final String przyczynaAnulowania;
+    private final List<IDodatek> dodatki;
+    private final double cena;
+    private final Double cenaNoclegow;
+
+    private FaktRezerwacji(long numer, Rodzaj rodzaj, Rezerwacja r) {
+        this.numer = numer;
+        this.rodzaj = rodzaj;
+        this.idRezerwacji = r != null ? r.getId() : 0;
+        this.gosc = r != null ? r.getGosc() : null;
+        this.pokoj = r != null ? r.getPokoj() : null;
+        this.dataOd = r != null ? r.getDataOd() : null;
+        this.dataDo = r != null ? r.getDataDo() : null;
+        this.status = r != null ? r.getStatus() : null;
+        this.przyczynaAnulowania = r != null ? r.getPrzyczynaAnulowania() : null;
+        this.dodatki = r != null ? List.copyOf(r.pobierzDodatki()) : List.of();
+        this.cena = r != null ? r.obliczCene() : 0.0;
+        this.cenaNoclegow = r != null ? r.getCenaNoclegow() : null;
+    }
+
+    /**
+     * Tworzy fakt ze stanu rezerwacji.
+     * @param numer numer kolejny w dzienniku
+     * @param rodzaj rodzaj faktu
+     * @param rezerwacja stan rezerwacji (null dla wyczyszczenia)
+     * @return fakt
+     */
+    static FaktRezerwacji z(long numer, Rodzaj rodzaj, Rezerwacja rezerwacja) {
+        return new FaktRezerwacji(numer, rodzaj, rezerwacja);
+    }
+
+    /**
+     * Wyznacza rodzaj zmiany względem poprzedniego faktu tej samej rezerwacji.
+     * @param poprzedni poprzedni fakt (null, gdy rezerwacja jest nowa)
+     * @param rezerwacja bieżący stan
+     * @return rodzaj faktu
+     */
+    static Rodzaj rodzajZmiany(FaktRezerwacji poprzedni, Rezerwacja rezerwacja) {
+        if (poprzedni == null) {
+            return Rodzaj.UTWORZENIE;
+        }
+        if (poprzedni.status != rezerwacja.getStatus()) {
+            return Rodzaj.ZMIANA_STATUSU;
+        }
+        if (!poprzedni.dataOd.equals(rezerwacja.getDataOd()) || !poprzedni.dataDo.equals(rezerwacja.getDataDo())) {
+            return Rodzaj.ZMIANA_DAT;
+        }
+        if (poprzedni.pokoj.getNumer() != rezerwacja.getPokoj().getNumer()) {
+            return Rodzaj.ZMIANA_POKOJU;
+        }
+        return Rodzaj.AKTUALIZACJA;
+    }
+
+    /**
+     * Odtwarza rezerwację w stanie zapisanym w fakcie.
+     * @return nowy obiekt rezerwacji
+     */
+    Rezerwacja odtworz() {
+        Rezerwacja r = new Rezerwacja(idRezerwacji, dataOd, dataDo, gosc, pokoj);
+        r.ustawCeneNoclegow(cenaNoclegow);
+        dodatki.forEach(r::dodajDodatek);
+        if (status == Rezerwacja.Status.ANULOWANA && przyczynaAnulowania != null) {
+            r.anuluj(przyczynaAnulowania);
+        } else {
+            r.setStatus(status);
+        }
+        return r;
+    }
+
+    /**
+     * Sprawdza, czy rezerwacja po tym fakcie blokuje pokój.
+     * @return true dla rezerwacji nie anulowanych i nie wymeldowanych
+     */
+    public boolean czyAktywna() {
+        return status != null && status != Rezerwacja.Status.ANULOWANA
+                && status != Rezerwacja.Status.WYMELDOWANA && rodzaj != Rodzaj.USUNIECIE;
+    }
+
+    public long getNumer() {
+        return numer;
+    }
+
+    public Rodzaj getRodzaj() {
+        return rodzaj;
+    }
+
+    public int getIdRezerwacji() {
+        return idRezerwacji;
+    }
+
+    public Gosc getGosc() {
+        return gosc;
+    }
+
+    public Pokoj getPokoj() {
+        return pokoj;
+    }
+
+    public LocalDate getDataOd() {
+        return dataOd;
+    }
+
+    public LocalDate getDataDo() {
+        return dataDo;
+    }
+
+    public Rezerwacja.Status getStatus() {
+        return status;
+    }
+
+    public String getPrzyczynaAnulowania() {
+        return przyczynaAnulowania;
+    }
+
+    public double getCena() {
+        return cena;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + numer + " " + rodzaj + (idRezerwacji != 0
+                ? " rezerwacja=" + idRezerwacji + " status=" + status + " " + dataOd + " - " + dataDo
+                : "");
+    }
+}
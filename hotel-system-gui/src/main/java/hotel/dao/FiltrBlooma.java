@@ -0,0 +1,107 @@
+package hotel.dao;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtr Blooma dla kluczy tekstowych. Odpowiedź "nie" jest pewna, "być może" wymaga
+ * dokładnego sprawdzenia. Filtr nie obsługuje usuwania - klucze nieaktualne jedynie
+ * zwiększają odsetek fałszywych trafień, dopóki właściciel nie zbuduje nowego filtra.
+ *
+ * Rozmiar dobierany jest do pojemności n i docelowego odsetka fałszywych trafień p:
+ * m = -n ln p / (ln 2)^2 bitów i k = m / n ln 2 funkcji skrótu, wyznaczanych
+ * z dwóch skrótów 64-bitowych (h1 + i * h2). Bity ustawiane są atomowo, więc dodawanie
+ * i sprawdzanie może odbywać się równolegle.
+ */
+final class FiltrBlooma {
+
+    private final AtomicLongArray bity;
+    private final long liczbaBitow;
+    private final int liczbaFunkcji;
+    private final int pojemnosc;
+    private final LongAdder liczbaKluczy = new LongAdder();
+
+    /**
+     * @param pojemnosc przewidywana liczba kluczy
+     * @param docelowyWspolczynnik odsetek fałszywych trafień przy pełnej pojemności, (0, 1)
+     */
+    FiltrBlooma(int pojemnosc, double docelowyWspolczynnik) {
+        if (pojemnosc <= 0) {
+            throw new IllegalArgumentException("Pojemność filtra musi być większa od 0");
+        }
+        if (!(docelowyWspolczynnik > 0 && docelowyWspolczynnik < 1)) {
+            throw new IllegalArgumentException("Docelowy współczynnik musi należeć do przedziału (0, 1)");
+        }
+        double ln2 = Math.log(2);
+        long m = (long) Math.ceil(-pojemnosc * Math.log(docelowyWspolczynnik) / (ln2 * ln2));
+        this.bity = new AtomicLongArray((int) ((m + 63) >>> 6));
+        this.liczbaBitow = (long) bity.length() << 6;
+        this.liczbaFunkcji = Math.max(1, (int) Math.round((double) liczbaBitow / pojemnosc * ln2));
+        this.pojemnosc = pojemnosc;
+    }
+
+    void dodaj(String klucz) {
+        long h1 = skrot(klucz);
+        long h2 = wymieszaj(h1) | 1;
+        for (int i = 0; i < liczbaFunkcji; i++) {
+            long bit = Math.floorMod(h1 + i * h2, liczbaBitow);
+            int slowo = (int) (bit >>> 6);
+            long maska = 1L << bit;
+            if ((bity.get(slowo) & maska) == 0) {
+                bity.getAndAccumulate(slowo, maska, (a, b) -> a | b);
+            }
+        }
+        liczbaKluczy.increment();
+    }
+
+    /**
+     * @return false jeśli klucza na pewno nie dodano; true jeśli mógł zostać dodany
+     */
+    boolean mozeZawierac(String klucz) {
+        long h1 = skrot(klucz);
+        long h2 = wymieszaj(h1) | 1;
+        for (int i = 0; i < liczbaFunkcji; i++) {
+            long bit = Math.floorMod(h1 + i * h2, liczbaBitow);
+            if ((bity.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return liczba dodanych kluczy (z powtórzeniami i kluczami nieaktualnymi)
+     */
+    long liczbaKluczy() {
+        return liczbaKluczy.sum();
+    }
+
+    int pojemnosc() {
+        return pojemnosc;
+    }
+
+    /**
+     * Szacuje odsetek fałszywych trafień przy obecnym wypełnieniu: (1 - e^(-kn/m))^k.
+     * @return szacowany współczynnik fałszywych trafień
+     */
+    double szacowanyWspolczynnik() {
+        return Math.pow(1 - Math.exp(-(double) liczbaFunkcji * liczbaKluczy() / liczbaBitow), liczbaFunkcji);
+    }
+
+    /** 64-bitowy skrót FNV-1a znaków klucza. */
+    private static long skrot(String klucz) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < klucz.length(); i++) {
+            h ^= klucz.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return wymieszaj(h);
+    }
+
+    /** Funkcja mieszająca splitmix64. */
+    private static long wymieszaj(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,20 +1,44 @@
 package hotel.dao;
 
+import hotel.metryki.SkanDaoJfr;
 import hotel.model.Gosc;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Implementacja DAO dla encji Gosc.
  * Przechowuje dane w pamięci (symulacja bazy danych).
+ * Indeks nazw i filtr Blooma adresów email aktualizowane są przy zapisach przez DAO,
+ * więc zmiany obiektu Gosc muszą zostać zapisane metodą aktualizuj.
  */
 public class GoscieDAO implements IDAO<Gosc, Integer> {
     
-    private final Map<Integer, Gosc> storage = new HashMap<>();
+    /** Minimalne podobieństwo słów (współczynnik Jaccarda trygramów) w wyszukiwaniu przybliżonym. */
+    public static final double PROG_PODOBIENSTWA = 0.3;
+    
+    /** Docelowy odsetek fałszywych trafień filtra emaili przy pełnej pojemności. */
+    public static final double DOCELOWY_WSPOLCZYNNIK_FILTRA = 0.01;
+    private static final int POCZATKOWA_POJEMNOSC_FILTRA = 1024;
+    
+    private final Map<Integer, Gosc> storage = new ConcurrentHashMap<>();
+    private final IndeksNazwGosci indeksNazw = new IndeksNazwGosci();
+    private final LongAdder przeskanowaneRekordy = new LongAdder();
+    /** Dodawanie do filtra (blokada odczytu) nie może się przeplatać z jego przebudową (blokada zapisu). */
+    private final ReentrantReadWriteLock blokadaFiltra = new ReentrantReadWriteLock();
+    private volatile FiltrBlooma filtrEmaili = new FiltrBlooma(POCZATKOWA_POJEMNOSC_FILTRA, DOCELOWY_WSPOLCZYNNIK_FILTRA);
+    private final LongAdder sprawdzeniaEmaili = new LongAdder();
+    private final LongAdder odrzuconePrzezFiltr = new LongAdder();
+    private final LongAdder falszyweTrafienia = new LongAdder();
+    private volatile MagazynMigawek magazynMigawek;
     
     @Override
     public Optional<Gosc> pobierz(Integer id) {
@@ -26,13 +50,54 @@ public class GoscieDAO implements IDAO<Gosc, Integer> {
         if (gosc == null) {
             throw new IllegalArgumentException("Gość nie może być null");
         }
-        storage.put(gosc.getId(), gosc);
+        storage.compute(gosc.getId(), (id, obecny) -> {
+            indeksNazw.dodaj(gosc);
+            return gosc;
+        });
+        dodajDoFiltra(gosc.getEmail());
+        opublikuj(gosc);
         return gosc;
     }
     
+    /**
+     * Zapisuje wielu gości naraz; migawka dostaje jedną zmianę.
+     * @param goscie goście do zapisania
+     */
+    @Override
+    public void zapiszWszystkie(Collection<Gosc> goscie) {
+        List<Gosc> kopie = new ArrayList<>(goscie.size());
+        for (Gosc gosc : goscie) {
+            storage.compute(gosc.getId(), (id, obecny) -> {
+                indeksNazw.dodaj(gosc);
+                return gosc;
+            });
+            dodajDoFiltra(gosc.getEmail());
+            kopie.add(MigawkaDanych.kopia(gosc));
+        }
+        MagazynMigawek magazyn = magazynMigawek;
+        if (magazyn != null) {
+            magazyn.zmien(m -> {
+                MigawkaDanych wynik = m;
+                for (Gosc g : kopie) {
+                    wynik = wynik.zGosciem(g);
+                }
+                return wynik;
+            });
+        }
+    }
+    
     @Override
     public boolean usun(Integer id) {
-        return storage.remove(id) != null;
+        boolean[] usunieto = {false};
+        storage.computeIfPresent(id, (klucz, obecny) -> {
+            indeksNazw.usun(klucz);
+            usunieto[0] = true;
+            return null;
+        });
+        if (usunieto[0] && magazynMigawek != null) {
+            magazynMigawek.zmien(m -> m.bezGoscia(id));
+        }
+        return usunieto[0];
     }
     
     @Override
@@ -40,45 +105,124 @@ public class GoscieDAO implements IDAO<Gosc, Integer> {
         return new ArrayList<>(storage.values());
     }
     
+    @Override
+    public void przegladaj(Consumer<? super Gosc> akcja) {
+        skanuj().forEach(akcja);
+    }
+    
     @Override
     public boolean aktualizuj(Gosc gosc) {
-        if (gosc == null || !storage.containsKey(gosc.getId())) {
+        if (gosc == null) {
+            return false;
+        }
+        Gosc poprzedni = storage.computeIfPresent(gosc.getId(), (id, obecny) -> {
+            gosc.ustawWersje(obecny.getWersja() + 1);
+            indeksNazw.dodaj(gosc);
+            return gosc;
+        });
+        if (poprzedni == null) {
             return false;
         }
-        storage.put(gosc.getId(), gosc);
+        dodajDoFiltra(gosc.getEmail());
+        opublikuj(gosc);
         return true;
     }
     
+    @Override
+    public WynikAktualizacji aktualizuj(Gosc gosc, long oczekiwanaWersja) {
+        if (gosc == null) {
+            return WynikAktualizacji.BRAK;
+        }
+        WynikAktualizacji[] wynik = {WynikAktualizacji.BRAK};
+        Gosc zapisany = storage.computeIfPresent(gosc.getId(), (id, obecny) -> {
+            if (obecny.getWersja() != oczekiwanaWersja) {
+                wynik[0] = WynikAktualizacji.KONFLIKT;
+                return obecny;
+            }
+            obecny.przejmijStan(gosc);
+            obecny.ustawWersje(oczekiwanaWersja + 1);
+            indeksNazw.dodaj(obecny);
+            wynik[0] = WynikAktualizacji.ZAPISANO;
+            return obecny;
+        });
+        if (wynik[0] == WynikAktualizacji.ZAPISANO) {
+            dodajDoFiltra(zapisany.getEmail());
+            opublikuj(zapisany);
+        }
+        return wynik[0];
+    }
+    
     /**
-     * Wyszukuje gościa po adresie email.
+     * Wyszukuje gościa po adresie email (bez względu na wielkość liter).
+     * Filtr Blooma rozstrzyga bez przeszukiwania przypadek adresu na pewno nowego;
+     * przy możliwym trafieniu kandydaci pochodzą z indeksu słów.
      * @param email adres email
      * @return Optional z gościem lub pusty
      */
     public Optional<Gosc> znajdzPoEmail(String email) {
-        return storage.values().stream()
+        sprawdzeniaEmaili.increment();
+        if (email == null || !filtrEmaili.mozeZawierac(normalizujEmail(email))) {
+            odrzuconePrzezFiltr.increment();
+            return Optional.empty();
+        }
+        String[] slowa = IndeksNazwGosci.slowa(email);
+        Stream<Gosc> kandydaci = slowa.length == 0 ? skanuj() : goscie(indeksNazw.zeSlowem(slowa[0])).stream();
+        Optional<Gosc> wynik = kandydaci
                 .filter(g -> g.getEmail().equalsIgnoreCase(email))
                 .findFirst();
+        if (wynik.isEmpty()) {
+            falszyweTrafienia.increment();
+        }
+        return wynik;
     }
     
     /**
-     * Wyszukuje gości po nazwisku.
+     * Wyszukuje gości po nazwisku (dokładnie, bez względu na wielkość liter).
+     * Kandydaci pochodzą z indeksu słów, bez pełnego skanu.
      * @param nazwisko nazwisko do wyszukania
      * @return lista gości o podanym nazwisku
      */
     public List<Gosc> znajdzPoNazwisku(String nazwisko) {
-        return storage.values().stream()
+        String[] slowa = IndeksNazwGosci.slowa(nazwisko);
+        if (slowa.length == 0) {
+            return skanuj()
+                    .filter(g -> g.getNazwisko().equalsIgnoreCase(nazwisko))
+                    .toList();
+        }
+        return goscie(indeksNazw.zeSlowem(slowa[0])).stream()
                 .filter(g -> g.getNazwisko().equalsIgnoreCase(nazwisko))
                 .toList();
     }
     
+    /**
+     * Wyszukuje gości w przybliżeniu po imieniu, nazwisku i emailu, odporne na literówki
+     * i brak polskich znaków (np. "Wisniewsky" znajduje Wiśniewskiego).
+     * @param zapytanie wyszukiwany tekst
+     * @param limit maksymalna liczba wyników
+     * @return goście od najlepiej dopasowanego
+     */
+    public List<Gosc> wyszukajPodobnych(String zapytanie, int limit) {
+        return goscie(indeksNazw.wyszukajPodobne(zapytanie, PROG_PODOBIENSTWA, limit));
+    }
+    
+    /**
+     * Podpowiada gości do autouzupełniania: każde wpisane słowo musi być początkiem
+     * innego słowa imienia, nazwiska lub emailu gościa ("jan kow" - Jan Kowalski).
+     * @param prefiks wpisany tekst
+     * @param limit maksymalna liczba wyników
+     * @return pasujący goście
+     */
+    public List<Gosc> podpowiedzi(String prefiks, int limit) {
+        return goscie(indeksNazw.podpowiedzi(prefiks, limit));
+    }
+    
     /**
      * Sprawdza czy istnieje gość o podanym emailu.
      * @param email adres email
      * @return true jeśli istnieje
      */
     public boolean istniejeEmail(String email) {
-        return storage.values().stream()
-                .anyMatch(g -> g.getEmail().equalsIgnoreCase(email));
+        return znajdzPoEmail(email).isPresent();
     }
     
     /**
@@ -86,6 +230,41 @@ public class GoscieDAO implements IDAO<Gosc, Integer> {
      */
     public void wyczysc() {
         storage.clear();
+        indeksNazw.wyczysc();
+        blokadaFiltra.writeLock().lock();
+        try {
+            filtrEmaili = new FiltrBlooma(POCZATKOWA_POJEMNOSC_FILTRA, DOCELOWY_WSPOLCZYNNIK_FILTRA);
+        } finally {
+            blokadaFiltra.writeLock().unlock();
+        }
+        if (magazynMigawek != null) {
+            magazynMigawek.zmien(MigawkaDanych::bezGosci);
+        }
+    }
+
+    /**
+     * Podłącza magazyn migawek: bieżąca zawartość trafia do migawki,
+     * a każdy kolejny zapis nanosi na nią kopię zmienionego gościa.
+     * @param magazyn magazyn migawek
+     */
+    public void podlaczMagazynMigawek(MagazynMigawek magazyn) {
+        List<Gosc> kopie = storage.values().stream().map(MigawkaDanych::kopia).toList();
+        magazyn.zmien(m -> {
+            MigawkaDanych wynik = m;
+            for (Gosc g : kopie) {
+                wynik = wynik.zGosciem(g);
+            }
+            return wynik;
+        });
+        this.magazynMigawek = magazyn;
+    }
+
+    private void opublikuj(Gosc gosc) {
+        MagazynMigawek magazyn = magazynMigawek;
+        if (magazyn != null) {
+            Gosc kopia = MigawkaDanych.kopia(gosc);
+            magazyn.zmien(m -> m.zGosciem(kopia));
+        }
     }
     
     /**
@@ -95,4 +274,134 @@ public class GoscieDAO implements IDAO<Gosc, Integer> {
     public int liczba() {
         return storage.size();
     }
+    
+    /**
+     * Zwraca łączną liczbę rekordów przejrzanych przez pełne skany (metryki).
+     * @return liczba przeskanowanych rekordów od utworzenia DAO
+     */
+    public long pobierzLiczbePrzeskanowanych() {
+        return przeskanowaneRekordy.sum();
+    }
+    
+    /**
+     * Zwraca liczbę sprawdzeń istnienia adresu email (znajdzPoEmail, istniejeEmail).
+     * @return liczba sprawdzeń
+     */
+    public long pobierzLiczbeSprawdzenEmaili() {
+        return sprawdzeniaEmaili.sum();
+    }
+    
+    /**
+     * Zwraca liczbę sprawdzeń rozstrzygniętych przez filtr Blooma bez przeszukiwania.
+     * @return liczba adresów uznanych przez filtr za na pewno nowe
+     */
+    public long pobierzLiczbeOdrzuconychPrzezFiltr() {
+        return odrzuconePrzezFiltr.sum();
+    }
+    
+    /**
+     * Zwraca liczbę fałszywych trafień filtra: dokładne sprawdzenie nie znalazło adresu.
+     * @return liczba fałszywych trafień
+     */
+    public long pobierzLiczbeFalszywychTrafien() {
+        return falszyweTrafienia.sum();
+    }
+    
+    /**
+     * Zwraca zmierzony odsetek fałszywych trafień wśród sprawdzeń adresów nieistniejących.
+     * @return współczynnik fałszywych trafień lub 0, jeśli nie sprawdzano nowych adresów
+     */
+    public double pobierzWspolczynnikFalszywychTrafien() {
+        long falszywe = falszyweTrafienia.sum();
+        long nowe = falszywe + odrzuconePrzezFiltr.sum();
+        return nowe == 0 ? 0.0 : (double) falszywe / nowe;
+    }
+    
+    /**
+     * Zwraca odsetek fałszywych trafień szacowany z wypełnienia filtra.
+     * @return szacowany współczynnik fałszywych trafień
+     */
+    public double pobierzSzacowanyWspolczynnikFalszywychTrafien() {
+        return filtrEmaili.szacowanyWspolczynnik();
+    }
+    
+    /**
+     * Normalizuje email dla filtra tak, by adresy równe według equalsIgnoreCase
+     * dawały ten sam klucz (porównanie znak po znaku jak w equalsIgnoreCase).
+     */
+    private static String normalizujEmail(String email) {
+        StringBuilder sb = new StringBuilder(email.length());
+        for (int i = 0; i < email.length(); i++) {
+            sb.append(Character.toLowerCase(Character.toUpperCase(email.charAt(i))));
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * Dodaje email do filtra; po przekroczeniu pojemności (także przez adresy nieaktualne
+     * po zmianie emaila lub usunięciu gościa) filtr jest budowany od nowa z dwukrotnym zapasem.
+     * Wywoływane po zapisie do magazynu, więc przebudowa widzi każdy dodany wcześniej adres.
+     */
+    private void dodajDoFiltra(String email) {
+        if (email == null) {
+            return;
+        }
+        FiltrBlooma filtr;
+        blokadaFiltra.readLock().lock();
+        try {
+            filtr = filtrEmaili;
+            filtr.dodaj(normalizujEmail(email));
+        } finally {
+            blokadaFiltra.readLock().unlock();
+        }
+        if (filtr.liczbaKluczy() > filtr.pojemnosc()) {
+            przebudujFiltr();
+        }
+    }
+    
+    private void przebudujFiltr() {
+        blokadaFiltra.writeLock().lock();
+        try {
+            if (filtrEmaili.liczbaKluczy() <= filtrEmaili.pojemnosc()) {
+                // Inny wątek już przebudował filtr
+                return;
+            }
+            FiltrBlooma nowy = new FiltrBlooma(Math.max(POCZATKOWA_POJEMNOSC_FILTRA, storage.size() * 2),
+                    DOCELOWY_WSPOLCZYNNIK_FILTRA);
+            for (Gosc gosc : storage.values()) {
+                if (gosc.getEmail() != null) {
+                    nowy.dodaj(normalizujEmail(gosc.getEmail()));
+                }
+            }
+            filtrEmaili = nowy;
+        } finally {
+            blokadaFiltra.writeLock().unlock();
+        }
+    }
+    
+    private List<Gosc> goscie(List<Integer> identyfikatory) {
+        List<Gosc> wynik = new ArrayList<>(identyfikatory.size());
+        for (Integer id : identyfikatory) {
+            Gosc gosc = storage.get(id);
+            if (gosc != null) {
+                wynik.add(gosc);
+            }
+        }
+        return wynik;
+    }
+    
+    /**
+     * Rozpoczyna pełny skan magazynu, zliczając przeglądane rekordy
+     * i zgłaszając zdarzenie JFR skanu.
+     */
+    private Stream<Gosc> skanuj() {
+        zarejestrujSkan();
+        return storage.values().stream();
+    }
+    
+    private void zarejestrujSkan() {
+        int liczba = storage.size();
+        przeskanowaneRekordy.add(liczba);
+        SkanDaoJfr.zglos("GoscieDAO", liczba);
+    }
 }
@@ -1,7 +1,9 @@
 package hotel.dao;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Generyczny interfejs DAO (Data Access Object).
@@ -25,6 +27,17 @@ public interface IDAO<T, ID> {
      */
     T zapisz(T entity);
     
+    /**
+     * Zapisuje wiele encji naraz (import hurtowy). Implementacje mogą odłożyć
+     * budowę indeksów do końca wstawiania.
+     * @param encje encje do zapisania
+     */
+    default void zapiszWszystkie(Collection<T> encje) {
+        for (T encja : encje) {
+            zapisz(encja);
+        }
+    }
+    
     /**
      * Usuwa encję po identyfikatorze.
      * @param id identyfikator encji do usunięcia
@@ -38,10 +51,29 @@ public interface IDAO<T, ID> {
      */
     List<T> pobierzWszystkie();
     
+    /**
+     * Przekazuje kolejne encje do akcji bez budowania listy wynikowej,
+     * dzięki czemu duże zbiory (np. eksport) można przeglądać w stałej pamięci.
+     * @param akcja akcja wywoływana dla każdej encji
+     */
+    default void przegladaj(Consumer<? super T> akcja) {
+        pobierzWszystkie().forEach(akcja);
+    }
+    
     /**
      * Aktualizuje istniejącą encję.
      * @param entity encja do aktualizacji
      * @return true jeśli zaktualizowano pomyślnie
      */
     boolean aktualizuj(T entity);
+    
+    /**
+     * Aktualizuje encję tylko wtedy, gdy zapisana wersja jest równa oczekiwanej
+     * (compare-and-swap). Zmiany przygotowuje się na kopii encji; po udanym zapisie
+     * zapisany obiekt przejmuje jej stan, a wersja rośnie o 1.
+     * @param entity zmodyfikowana kopia encji
+     * @param oczekiwanaWersja wersja, na podstawie której przygotowano zmianę
+     * @return ZAPISANO, KONFLIKT (inna zmiana była pierwsza) lub BRAK
+     */
+    WynikAktualizacji aktualizuj(T entity, long oczekiwanaWersja);
 }
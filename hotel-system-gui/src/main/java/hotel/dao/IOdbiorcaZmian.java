@@ -0,0 +1,37 @@
+package hotel.dao;
+
+import hotel.model.Gosc;
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+
+/**
+ * Odbiorca zmian wyznaczonych przez porównanie dwóch migawek danych
+ * (np. strumień replikacji do repliki odczytu).
+ */
+public interface IOdbiorcaZmian {
+
+    /**
+     * Gość został dodany lub zmieniony.
+     * @param gosc stan gościa w nowszej migawce
+     */
+    void zmienionoGoscia(Gosc gosc);
+
+    /**
+     * Pokój został dodany, zmieniony lub zmieniła się jego dostępność.
+     * @param pokoj stan pokoju w nowszej migawce
+     * @param dostepny dostępność pokoju
+     */
+    void zmienionoPokoj(Pokoj pokoj, boolean dostepny);
+
+    /**
+     * Rezerwacja została dodana lub zmieniona.
+     * @param rezerwacja stan rezerwacji w nowszej migawce
+     */
+    void zmienionoRezerwacje(Rezerwacja rezerwacja);
+
+    void usunietoGoscia(int id);
+
+    void usunietoPokoj(int numer);
+
+    void usunietoRezerwacje(int id);
+}
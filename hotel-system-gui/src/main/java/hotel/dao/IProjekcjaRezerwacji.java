@@ -0,0 +1,33 @@
+package hotel.dao;
+
+import java.util.List;
+
+/**
+ * Projekcja (model odczytu) budowana z dziennika faktów o rezerwacjach.
+ * Każda projekcja utrzymuje własną strukturę danych zoptymalizowaną pod swoje zapytania.
+ * Implementacje muszą być bezpieczne wątkowo dla czytelników.
+ */
+public interface IProjekcjaRezerwacji {
+
+    /**
+     * Nanosi kolejny fakt na projekcję.
+     * @param fakt fakt z dziennika
+     */
+    void zastosuj(FaktRezerwacji fakt);
+
+    /**
+     * Usuwa całą zawartość projekcji.
+     */
+    void wyczysc();
+
+    /**
+     * Odbudowuje projekcję od zera z podanych faktów.
+     * @param fakty fakty w kolejności dziennika
+     */
+    default void odbuduj(List<FaktRezerwacji> fakty) {
+        wyczysc();
+        for (FaktRezerwacji fakt : fakty) {
+            zastosuj(fakt);
+        }
+    }
+}
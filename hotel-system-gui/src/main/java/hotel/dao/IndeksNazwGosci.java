@@ -0,0 +1,537 @@
+package hotel.dao;
+
+import hotel.model.Gosc;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Odwrócony indeks imion, nazwisk i adresów email gości.
+ *
+ * Teksty są normalizowane: małe litery, bez polskich znaków diakrytycznych
+ * (Wiśniewski = wisniewski), znaki spoza [a-z0-9] rozdzielają słowa. Indeks utrzymuje
+ * słownik różnych słów (posortowany - dla podpowiedzi po prefiksie), listę gości
+ * każdego słowa oraz listy słów dla trygramów (z dopełnieniem "  słowo ").
+ *
+ * Wyszukiwanie przybliżone działa na słowniku, który jest znacznie mniejszy od liczby
+ * gości (wielu gości ma to samo nazwisko lub imię). Podobieństwo słów to współczynnik
+ * Jaccarda zbiorów trygramów. Kandydaci zbierani są tylko z |Q| - m + 1 najkrótszych list
+ * (m - minimalna liczba wspólnych trygramów przy danym progu), a pozostałe listy są
+ * sprawdzane wyszukiwaniem binarnym.
+ */
+final class IndeksNazwGosci {
+
+    /** Liczniki wspólnych trygramów indeksowane numerem słowa, osobne dla wątku i zerowane po zapytaniu. */
+    private static final ThreadLocal<int[]> LICZNIKI = ThreadLocal.withInitial(() -> new int[0]);
+
+    private final Map<Integer, ListaNumerow> gramy = new HashMap<>();
+    private final NavigableMap<String, Slowo> slowa = new TreeMap<>();
+    private final Map<Integer, Wpis> wpisy = new HashMap<>();
+    private final ReentrantReadWriteLock blokada = new ReentrantReadWriteLock();
+    /** Numery wewnętrzne są gęste, więc liczniki i listy mogą być tablicami. */
+    private Slowo[] slowoDlaNumeru = new Slowo[16];
+    private int[] idDlaNumeru = new int[16];
+    private int nastepnyNumerSlowa;
+    private int nastepnyNumerGoscia;
+
+    private static final class Slowo {
+        final String tekst;
+        final int numer;
+        final int[] gramy;
+        final ListaNumerow goscie = new ListaNumerow();
+
+        Slowo(String tekst, int numer) {
+            this.tekst = tekst;
+            this.numer = numer;
+            this.gramy = gramy(tekst);
+        }
+    }
+
+    private record Wpis(int numer, Slowo[] slowa) {
+    }
+
+    private record Dopasowanie(Slowo slowo, double podobienstwo) {
+    }
+
+    private record Wynik(int id, double ocena) {
+    }
+
+    /**
+     * Dodaje gościa do indeksu, zastępując poprzednio zaindeksowane dane o tym samym ID.
+     * @param gosc gość
+     */
+    void dodaj(Gosc gosc) {
+        String[] slowaGoscia = slowa(Objects.toString(gosc.getImie(), "") + " "
+                + Objects.toString(gosc.getNazwisko(), "") + " " + Objects.toString(gosc.getEmail(), ""));
+        blokada.writeLock().lock();
+        try {
+            Wpis poprzedni = usunWpis(gosc.getId());
+            int numer = poprzedni != null ? poprzedni.numer() : nowyNumerGoscia(gosc.getId());
+            Slowo[] slowaWpisu = new Slowo[slowaGoscia.length];
+            for (int i = 0; i < slowaGoscia.length; i++) {
+                slowaWpisu[i] = slowa.computeIfAbsent(slowaGoscia[i], this::noweSlowo);
+                slowaWpisu[i].goscie.dodaj(numer);
+            }
+            wpisy.put(gosc.getId(), new Wpis(numer, slowaWpisu));
+        } finally {
+            blokada.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Usuwa gościa z indeksu.
+     * @param id ID gościa
+     */
+    void usun(int id) {
+        blokada.writeLock().lock();
+        try {
+            usunWpis(id);
+        } finally {
+            blokada.writeLock().unlock();
+        }
+    }
+
+    void wyczysc() {
+        blokada.writeLock().lock();
+        try {
+            gramy.clear();
+            slowa.clear();
+            wpisy.clear();
+            slowoDlaNumeru = new Slowo[16];
+            idDlaNumeru = new int[16];
+            nastepnyNumerSlowa = 0;
+            nastepnyNumerGoscia = 0;
+        } finally {
+            blokada.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Wyszukuje gości podobnych do zapytania. Ocena gościa to suma, po słowach zapytania,
+     * największego podobieństwa (nie mniejszego od progu) do któregoś ze słów gościa.
+     * @param zapytanie zapytanie (może zawierać literówki i brakujące znaki diakrytyczne)
+     * @param prog minimalne podobieństwo słowa (współczynnik Jaccarda trygramów, (0, 1])
+     * @param limit maksymalna liczba wyników
+     * @return ID gości od najlepiej dopasowanego
+     */
+    List<Integer> wyszukajPodobne(String zapytanie, double prog, int limit) {
+        String[] slowaZapytania = slowa(zapytanie);
+        if (slowaZapytania.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        blokada.readLock().lock();
+        try {
+            List<List<Dopasowanie>> dopasowania = new ArrayList<>();
+            for (String slowo : slowaZapytania) {
+                dopasowania.add(podobneSlowa(slowo, prog, limit));
+            }
+            if (slowaZapytania.length == 1) {
+                return gosciePierwszychSlow(dopasowania.get(0), limit);
+            }
+            return najlepsiGoscie(slowaZapytania, dopasowania, prog, limit);
+        } finally {
+            blokada.readLock().unlock();
+        }
+    }
+
+    /**
+     * Podpowiada gości, u których ostatnie słowo zapytania jest prefiksem któregoś słowa,
+     * a każde wcześniejsze słowo jest prefiksem innego słowa gościa ("jan kow").
+     * @param prefiks wpisany tekst
+     * @param limit maksymalna liczba wyników
+     * @return ID gości w kolejności alfabetycznej dopasowanego słowa
+     */
+    List<Integer> podpowiedzi(String prefiks, int limit) {
+        String[] slowaZapytania = slowa(prefiks);
+        if (slowaZapytania.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        String ostatnie = slowaZapytania[slowaZapytania.length - 1];
+        Set<Integer> wynik = new LinkedHashSet<>();
+        blokada.readLock().lock();
+        try {
+            for (Slowo slowo : slowa.subMap(ostatnie, true, ostatnie + Character.MAX_VALUE, false).values()) {
+                for (int j = 0; j < slowo.goscie.rozmiar && wynik.size() < limit; j++) {
+                    int id = idDlaNumeru[slowo.goscie.numery[j]];
+                    if (!wynik.contains(id) && pasujaPrefiksy(wpisy.get(id).slowa(), slowaZapytania)) {
+                        wynik.add(id);
+                    }
+                }
+                if (wynik.size() >= limit) {
+                    break;
+                }
+            }
+        } finally {
+            blokada.readLock().unlock();
+        }
+        return new ArrayList<>(wynik);
+    }
+
+    /**
+     * Zwraca ID gości z podanym słowem (po normalizacji) w imieniu, nazwisku lub emailu.
+     * @param slowo słowo
+     * @return ID gości
+     */
+    List<Integer> zeSlowem(String slowo) {
+        blokada.readLock().lock();
+        try {
+            Slowo s = slowa.get(slowo);
+            return s == null ? List.of() : identyfikatory(s.goscie);
+        } finally {
+            blokada.readLock().unlock();
+        }
+    }
+
+    /**
+     * Normalizuje tekst i dzieli go na słowa.
+     * @param tekst tekst
+     * @return słowa złożone z [a-z0-9]
+     */
+    static String[] slowa(String tekst) {
+        if (tekst == null) {
+            return new String[0];
+        }
+        String rozlozony = Normalizer.normalize(tekst, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(rozlozony.length());
+        for (int i = 0; i < rozlozony.length(); i++) {
+            char c = rozlozony.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            c = Character.toLowerCase(c);
+            if (c == 'ł') {
+                // 'ł' nie rozkłada się w NFD
+                c = 'l';
+            }
+            sb.append((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') ? c : ' ');
+        }
+        return Arrays.stream(sb.toString().split(" +")).filter(s -> !s.isEmpty()).toArray(String[]::new);
+    }
+
+    /**
+     * Wyznacza słowa słownika o podobieństwie do słowa zapytania co najmniej równym progowi.
+     *
+     * Słowo ze zbiorem trygramów D ma z zapytaniem Q podobieństwo c / (|Q| + |D| - c) &lt;= c / |Q|,
+     * więc musi mieć co najmniej ceil(prog * |Q|) wspólnych trygramów. Wymagana liczba wspólnych
+     * trygramów m zaczyna się od |Q| i maleje; po każdym poziomie nieznalezione słowa mają
+     * podobieństwo najwyżej (m - 1) / |Q|, więc gdy znalezione słowa o co najmniej takim
+     * podobieństwie mają już {@code potrzebniGoscie} gości, dalsze poziomy nie zmienią
+     * czołówki wyników.
+     */
+    private List<Dopasowanie> podobneSlowa(String slowoZapytania, double prog, int potrzebniGoscie) {
+        int[] gramyZapytania = gramy(slowoZapytania);
+        int q = gramyZapytania.length;
+        int minimalne = Math.max(1, (int) Math.ceil(prog * q));
+        ListaNumerow[] listy = new ListaNumerow[q];
+        for (int i = 0; i < q; i++) {
+            listy[i] = gramy.getOrDefault(gramyZapytania[i], ListaNumerow.PUSTA);
+        }
+        Arrays.sort(listy, Comparator.comparingInt(l -> l.rozmiar));
+
+        int[] licznik = LICZNIKI.get();
+        if (licznik.length < nastepnyNumerSlowa) {
+            licznik = new int[slowoDlaNumeru.length];
+            LICZNIKI.set(licznik);
+        }
+        ListaNumerow dotkniete = new ListaNumerow();
+        List<Dopasowanie> wynik = new ArrayList<>();
+        try {
+            int prefiks = 0;
+            for (int wymagane = q; wymagane >= minimalne; wymagane--) {
+                // Słowo z co najmniej m wspólnymi trygramami występuje w którejś z |Q| - m + 1 najkrótszych list
+                for (; prefiks < q - wymagane + 1; prefiks++) {
+                    ListaNumerow lista = listy[prefiks];
+                    for (int j = 0; j < lista.rozmiar; j++) {
+                        if (licznik[lista.numery[j]]++ == 0) {
+                            dotkniete.dopisz(lista.numery[j]);
+                        }
+                    }
+                }
+                wynik.clear();
+                double granica = (double) (wymagane - 1) / q;
+                long goscieNadGranica = 0;
+                for (int k = 0; k < dotkniete.rozmiar; k++) {
+                    int numer = dotkniete.numery[k];
+                    int wspolne = licznik[numer];
+                    for (int i = prefiks; i < q && wspolne + q - i >= wymagane; i++) {
+                        if (listy[i].zawiera(numer)) {
+                            wspolne++;
+                        }
+                    }
+                    if (wspolne < wymagane) {
+                        continue;
+                    }
+                    Slowo slowo = slowoDlaNumeru[numer];
+                    double podobienstwo = (double) wspolne / (q + slowo.gramy.length - wspolne);
+                    if (podobienstwo >= prog) {
+                        wynik.add(new Dopasowanie(slowo, podobienstwo));
+                        if (podobienstwo >= granica) {
+                            goscieNadGranica += slowo.goscie.rozmiar;
+                        }
+                    }
+                }
+                if (goscieNadGranica >= potrzebniGoscie) {
+                    break;
+                }
+            }
+        } finally {
+            for (int k = 0; k < dotkniete.rozmiar; k++) {
+                licznik[dotkniete.numery[k]] = 0;
+            }
+        }
+        wynik.sort(Comparator.comparingDouble((Dopasowanie d) -> -d.podobienstwo())
+                .thenComparing(d -> d.slowo().tekst));
+        return wynik;
+    }
+
+    /**
+     * Zapytanie jednowyrazowe: goście kolejnych słów od najbardziej podobnego,
+     * bez przeglądania gości słabiej dopasowanych słów po osiągnięciu limitu.
+     */
+    private List<Integer> gosciePierwszychSlow(List<Dopasowanie> dopasowania, int limit) {
+        Set<Integer> wynik = new LinkedHashSet<>();
+        for (Dopasowanie d : dopasowania) {
+            ListaNumerow goscie = d.slowo().goscie;
+            for (int j = 0; j < goscie.rozmiar && wynik.size() < limit; j++) {
+                wynik.add(idDlaNumeru[goscie.numery[j]]);
+            }
+            if (wynik.size() >= limit) {
+                break;
+            }
+        }
+        return new ArrayList<>(wynik);
+    }
+
+    /**
+     * Zapytanie wielowyrazowe: kandydatami są goście najlepszych dopasowań słowa wiodącego
+     * (tego, którego najlepsze dopasowania mają najmniej gości). Pozostałe słowa zapytania
+     * porównywane są bezpośrednio ze słowami kandydata. Słowa wiodące przeglądane są od
+     * najbardziej podobnego; gość kolejnego słowa może uzyskać najwyżej jego podobieństwo
+     * plus 1 za każde pozostałe słowo zapytania, więc przegląd kończy się, gdy tylu gości
+     * ma już ocenę nie niższą od tej granicy.
+     */
+    private List<Integer> najlepsiGoscie(String[] slowaZapytania, List<List<Dopasowanie>> dopasowania,
+                                         double prog, int limit) {
+        int wiodace = -1;
+        long najmniej = Long.MAX_VALUE;
+        for (int i = 0; i < dopasowania.size(); i++) {
+            List<Dopasowanie> lista = dopasowania.get(i);
+            long liczbaGosci = 0;
+            for (Dopasowanie d : lista) {
+                if (d.podobienstwo() == lista.get(0).podobienstwo()) {
+                    liczbaGosci += d.slowo().goscie.rozmiar;
+                }
+            }
+            if (!lista.isEmpty() && liczbaGosci < najmniej) {
+                najmniej = liczbaGosci;
+                wiodace = i;
+            }
+        }
+        if (wiodace < 0) {
+            return List.of();
+        }
+        int[][] gramyZapytania = new int[slowaZapytania.length][];
+        for (int i = 0; i < slowaZapytania.length; i++) {
+            gramyZapytania[i] = gramy(slowaZapytania[i]);
+        }
+        Map<Integer, Wynik> wyniki = new HashMap<>();
+        // Najniższa z `limit` najlepszych ocen na szczycie kopca
+        PriorityQueue<Double> najlepsze = new PriorityQueue<>();
+        for (Dopasowanie d : dopasowania.get(wiodace)) {
+            double granica = d.podobienstwo() + slowaZapytania.length - 1;
+            if (najlepsze.size() == limit && najlepsze.peek() >= granica) {
+                break;
+            }
+            ListaNumerow goscie = d.slowo().goscie;
+            for (int j = 0; j < goscie.rozmiar; j++) {
+                int id = idDlaNumeru[goscie.numery[j]];
+                if (!wyniki.containsKey(id)) {
+                    Wynik w = new Wynik(id, ocena(wpisy.get(id).slowa(), gramyZapytania, prog));
+                    wyniki.put(id, w);
+                    najlepsze.add(w.ocena());
+                    if (najlepsze.size() > limit) {
+                        najlepsze.poll();
+                    }
+                }
+            }
+        }
+        return wyniki.values().stream()
+                .sorted(Comparator.comparingDouble((Wynik w) -> -w.ocena()).thenComparingInt(Wynik::id))
+                .limit(limit)
+                .map(Wynik::id)
+                .toList();
+    }
+
+    private static double ocena(Slowo[] slowaGoscia, int[][] gramyZapytania, double prog) {
+        double suma = 0;
+        for (int[] gramySlowa : gramyZapytania) {
+            double najlepsze = 0;
+            for (Slowo s : slowaGoscia) {
+                najlepsze = Math.max(najlepsze, podobienstwo(gramySlowa, s.gramy));
+            }
+            suma += najlepsze >= prog ? najlepsze : 0;
+        }
+        return suma;
+    }
+
+    /**
+     * Współczynnik Jaccarda dwóch posortowanych zbiorów trygramów.
+     */
+    private static double podobienstwo(int[] a, int[] b) {
+        int wspolne = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] == b[j]) {
+                wspolne++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return (double) wspolne / (a.length + b.length - wspolne);
+    }
+
+    /**
+     * Zwraca posortowane, różne trygramy słowa dopełnionego do "  słowo ".
+     */
+    private static int[] gramy(String slowo) {
+        String dopelnione = "  " + slowo + " ";
+        int[] wynik = new int[dopelnione.length() - 2];
+        for (int i = 0; i < wynik.length; i++) {
+            wynik[i] = dopelnione.charAt(i) << 16 | dopelnione.charAt(i + 1) << 8 | dopelnione.charAt(i + 2);
+        }
+        return Arrays.stream(wynik).sorted().distinct().toArray();
+    }
+
+    private static boolean pasujaPrefiksy(Slowo[] slowaGoscia, String[] slowaZapytania) {
+        boolean[] uzyte = new boolean[slowaGoscia.length];
+        for (String s : slowaZapytania) {
+            boolean znaleziono = false;
+            for (int i = 0; i < slowaGoscia.length && !znaleziono; i++) {
+                if (!uzyte[i] && slowaGoscia[i].tekst.startsWith(s)) {
+                    uzyte[i] = true;
+                    znaleziono = true;
+                }
+            }
+            if (!znaleziono) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<Integer> identyfikatory(ListaNumerow goscie) {
+        List<Integer> wynik = new ArrayList<>(goscie.rozmiar);
+        for (int j = 0; j < goscie.rozmiar; j++) {
+            wynik.add(idDlaNumeru[goscie.numery[j]]);
+        }
+        return wynik;
+    }
+
+    private Slowo noweSlowo(String tekst) {
+        if (nastepnyNumerSlowa == slowoDlaNumeru.length) {
+            slowoDlaNumeru = Arrays.copyOf(slowoDlaNumeru, nastepnyNumerSlowa * 2);
+        }
+        Slowo slowo = new Slowo(tekst, nastepnyNumerSlowa++);
+        slowoDlaNumeru[slowo.numer] = slowo;
+        for (int gram : slowo.gramy) {
+            gramy.computeIfAbsent(gram, g -> new ListaNumerow()).dodaj(slowo.numer);
+        }
+        return slowo;
+    }
+
+    private int nowyNumerGoscia(int id) {
+        if (nastepnyNumerGoscia == idDlaNumeru.length) {
+            idDlaNumeru = Arrays.copyOf(idDlaNumeru, nastepnyNumerGoscia * 2);
+        }
+        idDlaNumeru[nastepnyNumerGoscia] = id;
+        return nastepnyNumerGoscia++;
+    }
+
+    /**
+     * Usuwa gościa z list słów; słowa bez gości znikają ze słownika i list trygramów.
+     * Numer wewnętrzny gościa pozostaje przypisany do jego ID.
+     */
+    private Wpis usunWpis(int id) {
+        Wpis poprzedni = wpisy.remove(id);
+        if (poprzedni == null) {
+            return null;
+        }
+        for (Slowo slowo : poprzedni.slowa()) {
+            if (slowo.goscie.usun(poprzedni.numer()) && slowo.goscie.rozmiar == 0) {
+                slowa.remove(slowo.tekst);
+                slowoDlaNumeru[slowo.numer] = null;
+                for (int gram : slowo.gramy) {
+                    ListaNumerow lista = gramy.get(gram);
+                    if (lista != null && lista.usun(slowo.numer) && lista.rozmiar == 0) {
+                        gramy.remove(gram);
+                    }
+                }
+            }
+        }
+        return poprzedni;
+    }
+
+    /**
+     * Posortowana lista numerów wewnętrznych bez powtórzeń. Nowe słowa i nowi goście
+     * dostają rosnące numery, więc dodawanie to zwykle dopisanie na końcu.
+     */
+    private static final class ListaNumerow {
+        static final ListaNumerow PUSTA = new ListaNumerow();
+
+        private int[] numery = new int[2];
+        private int rozmiar;
+
+        void dodaj(int numer) {
+            if (rozmiar > 0 && numery[rozmiar - 1] >= numer) {
+                int poz = Arrays.binarySearch(numery, 0, rozmiar, numer);
+                if (poz < 0) {
+                    wstaw(-poz - 1, numer);
+                }
+                return;
+            }
+            dopisz(numer);
+        }
+
+        void dopisz(int numer) {
+            wstaw(rozmiar, numer);
+        }
+
+        boolean usun(int numer) {
+            int poz = Arrays.binarySearch(numery, 0, rozmiar, numer);
+            if (poz < 0) {
+                return false;
+            }
+            System.arraycopy(numery, poz + 1, numery, poz, rozmiar - poz - 1);
+            rozmiar--;
+            return true;
+        }
+
+        boolean zawiera(int numer) {
+            return Arrays.binarySearch(numery, 0, rozmiar, numer) >= 0;
+        }
+
+        private void wstaw(int poz, int numer) {
+            if (rozmiar == numery.length) {
+                numery = Arrays.copyOf(numery, rozmiar * 2);
+            }
+            System.arraycopy(numery, poz, numery, poz + 1, rozmiar - poz);
+            numery[poz] = numer;
+            rozmiar++;
+        }
+    }
+}
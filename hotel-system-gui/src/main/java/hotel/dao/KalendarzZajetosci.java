@@ -0,0 +1,258 @@
+package hotel.dao;
+
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
+
+/**
+ * Kalendarz zajętości pokoi: dla każdego dnia mapa bitowa zajętych pokoi
+ * (bit o indeksie równym numerowi pokoju). Pozwala sprawdzać dostępność
+ * wielu pokoi naraz operacjami na słowach 64-bitowych zamiast skanów rezerwacji.
+ * Aktualizowany przez RezerwacjeDAO przy każdym zapisie, aktualizacji i usunięciu.
+ */
+public class KalendarzZajetosci {
+    
+    private final Map<Long, long[]> dni = new HashMap<>();
+    private final Map<Integer, Zaznaczenie> zaznaczenia = new HashMap<>();
+    private final ReentrantReadWriteLock blokada = new ReentrantReadWriteLock();
+    private long pierwszyDzien = Long.MAX_VALUE;
+    private long ostatniDzien = Long.MIN_VALUE;
+    private final IntFunction<Collection<Rezerwacja>> rezerwacjePokoju;
+    
+    /**
+     * Konstruktor kalendarza.
+     * @param rezerwacjePokoju dostęp do rezerwacji pokoju o danym numerze
+     */
+    KalendarzZajetosci(IntFunction<Collection<Rezerwacja>> rezerwacjePokoju) {
+        this.rezerwacjePokoju = rezerwacjePokoju;
+    }
+    
+    /**
+     * Tworzy mapę bitową z numerów podanych pokoi.
+     * @param pokoje pokoje
+     * @return mapa bitowa pokoi
+     */
+    public static long[] maska(List<Pokoj> pokoje) {
+        int maksNumer = 0;
+        for (Pokoj p : pokoje) {
+            maksNumer = Math.max(maksNumer, p.getNumer());
+        }
+        long[] maska = new long[(maksNumer >> 6) + 1];
+        for (Pokoj p : pokoje) {
+            maska[p.getNumer() >> 6] |= 1L << p.getNumer();
+        }
+        return maska;
+    }
+    
+    /**
+     * Wyznacza pokoje z podanej mapy, które są wolne w każdym dniu przedziału [dataOd, dataDo].
+     * @param pokoje mapa bitowa sprawdzanych pokoi
+     * @param dataOd data początkowa
+     * @param dataDo data końcowa
+     * @return mapa bitowa wolnych pokoi
+     */
+    public long[] wolne(long[] pokoje, LocalDate dataOd, LocalDate dataDo) {
+        long[] wynik = pokoje.clone();
+        blokada.readLock().lock();
+        try {
+            long od = Math.max(dataOd.toEpochDay(), pierwszyDzien);
+            long dzienDo = Math.min(dataDo.toEpochDay(), ostatniDzien);
+            for (long dzien = od; dzien <= dzienDo; dzien++) {
+                long[] zajete = dni.get(dzien);
+                if (zajete != null) {
+                    for (int w = 0; w < Math.min(wynik.length, zajete.length); w++) {
+                        wynik[w] &= ~zajete[w];
+                    }
+                }
+            }
+        } finally {
+            blokada.readLock().unlock();
+        }
+        return wynik;
+    }
+    
+    /**
+     * Wyznacza dla każdego pokoju liczbę kolejnych wolnych dni, zaczynając od podanego dnia
+     * i idąc w przód (krok 1) lub wstecz (krok -1), najwyżej do limitu.
+     * @param pokoje mapa bitowa pokoi
+     * @param start pierwszy sprawdzany dzień
+     * @param krok 1 lub -1
+     * @param limit maksymalna długość okresu
+     * @return tablica indeksowana numerem pokoju
+     */
+    public int[] wolnyOkres(long[] pokoje, LocalDate start, int krok, int limit) {
+        if (krok != 1 && krok != -1) {
+            throw new IllegalArgumentException("Krok musi wynosić 1 lub -1");
+        }
+        int[] wynik = new int[pokoje.length << 6];
+        long[] pozostale = pokoje.clone();
+        int k = 0;
+        blokada.readLock().lock();
+        try {
+            long dzien = start.toEpochDay();
+            // Dni poza zakresem kalendarza są wolne - przed wejściem w zakres są pomijane,
+            // a po jego minięciu w kierunku kroku żaden pokój nie zostanie już zajęty
+            long doZakresu = krok == 1 ? pierwszyDzien - dzien : dzien - ostatniDzien;
+            if (pierwszyDzien <= ostatniDzien && doZakresu > 0) {
+                k = (int) Math.min(doZakresu, limit);
+                dzien += (long) k * krok;
+            }
+            for (; k < limit && dzien >= pierwszyDzien && dzien <= ostatniDzien; k++, dzien += krok) {
+                long[] zajete = dni.get(dzien);
+                if (zajete == null) {
+                    continue;
+                }
+                boolean ktosPozostal = false;
+                for (int w = 0; w < pozostale.length; w++) {
+                    long odpadaja = w < zajete.length ? pozostale[w] & zajete[w] : 0;
+                    while (odpadaja != 0) {
+                        wynik[(w << 6) + Long.numberOfTrailingZeros(odpadaja)] = k;
+                        odpadaja &= odpadaja - 1;
+                    }
+                    if (w < zajete.length) {
+                        pozostale[w] &= ~zajete[w];
+                    }
+                    ktosPozostal |= pozostale[w] != 0;
+                }
+                if (!ktosPozostal) {
+                    return wynik;
+                }
+            }
+        } finally {
+            blokada.readLock().unlock();
+        }
+        for (int w = 0; w < pozostale.length; w++) {
+            for (long bity = pozostale[w]; bity != 0; bity &= bity - 1) {
+                wynik[(w << 6) + Long.numberOfTrailingZeros(bity)] = limit;
+            }
+        }
+        return wynik;
+    }
+    
+    /**
+     * Aktualizuje kalendarz po zapisie rezerwacji: usuwa poprzednie zaznaczenie
+     * o tym ID i zaznacza dni, jeśli rezerwacja jest aktywna.
+     * @param rezerwacja zapisana rezerwacja
+     */
+    void zaznacz(Rezerwacja rezerwacja) {
+        blokada.writeLock().lock();
+        try {
+            zaznaczBezBlokady(rezerwacja);
+        } finally {
+            blokada.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Zaznacza wiele rezerwacji pod jedną blokadą (import hurtowy).
+     * @param rezerwacje zapisane rezerwacje
+     */
+    void zaznaczWszystkie(Collection<Rezerwacja> rezerwacje) {
+        blokada.writeLock().lock();
+        try {
+            for (Rezerwacja rezerwacja : rezerwacje) {
+                zaznaczBezBlokady(rezerwacja);
+            }
+        } finally {
+            blokada.writeLock().unlock();
+        }
+    }
+    
+    private void zaznaczBezBlokady(Rezerwacja rezerwacja) {
+        odznaczBezBlokady(rezerwacja.getId());
+        if (czyAktywna(rezerwacja)) {
+            Zaznaczenie z = new Zaznaczenie(rezerwacja.getPokoj().getNumer(),
+                    rezerwacja.getDataOd().toEpochDay(), rezerwacja.getDataDo().toEpochDay());
+            zaznaczenia.put(rezerwacja.getId(), z);
+            ustawBity(z);
+        }
+    }
+    
+    /**
+     * Usuwa zaznaczenie rezerwacji o podanym ID.
+     * @param idRezerwacji ID rezerwacji
+     */
+    void odznacz(int idRezerwacji) {
+        blokada.writeLock().lock();
+        try {
+            odznaczBezBlokady(idRezerwacji);
+        } finally {
+            blokada.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Czyści kalendarz.
+     */
+    void wyczysc() {
+        blokada.writeLock().lock();
+        try {
+            dni.clear();
+            zaznaczenia.clear();
+            pierwszyDzien = Long.MAX_VALUE;
+            ostatniDzien = Long.MIN_VALUE;
+        } finally {
+            blokada.writeLock().unlock();
+        }
+    }
+    
+    private void odznaczBezBlokady(int idRezerwacji) {
+        Zaznaczenie z = zaznaczenia.remove(idRezerwacji);
+        if (z == null) {
+            return;
+        }
+        for (long dzien = z.od; dzien <= z.dzienDo; dzien++) {
+            long[] zajete = dni.get(dzien);
+            zajete[z.numer >> 6] &= ~(1L << z.numer);
+        }
+        // Dane wprowadzone z pominięciem modelu mogą się nakładać - odtwórz bity pozostałych rezerwacji
+        for (Rezerwacja r : rezerwacjePokoju.apply(z.numer)) {
+            Zaznaczenie inne = zaznaczenia.get(r.getId());
+            if (inne != null && inne.numer == z.numer && inne.od <= z.dzienDo && inne.dzienDo >= z.od) {
+                ustawBity(inne);
+            }
+        }
+    }
+    
+    private void ustawBity(Zaznaczenie z) {
+        for (long dzien = z.od; dzien <= z.dzienDo; dzien++) {
+            long[] zajete = dni.get(dzien);
+            int slowo = z.numer >> 6;
+            if (zajete == null || zajete.length <= slowo) {
+                zajete = zajete == null ? new long[slowo + 1] : Arrays.copyOf(zajete, slowo + 1);
+                dni.put(dzien, zajete);
+            }
+            zajete[slowo] |= 1L << z.numer;
+        }
+        pierwszyDzien = Math.min(pierwszyDzien, z.od);
+        ostatniDzien = Math.max(ostatniDzien, z.dzienDo);
+    }
+    
+    private static boolean czyAktywna(Rezerwacja r) {
+        return r.getStatus() != Rezerwacja.Status.ANULOWANA
+                && r.getStatus() != Rezerwacja.Status.WYMELDOWANA;
+    }
+    
+    /**
+     * Zaznaczony w kalendarzu przedział dni pokoju (daty rezerwacji mogą się później zmienić).
+     */
+    private static final class Zaznaczenie {
+        private final int numer;
+        private final long od;
+        private final long dzienDo;
+        
+        Zaznaczenie(int numer, long od, long dzienDo) {
+            this.numer = numer;
+            this.od = od;
+            this.dzienDo = dzienDo;
+        }
+    }
+}
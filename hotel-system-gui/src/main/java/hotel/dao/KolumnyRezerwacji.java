@@ -0,0 +1,253 @@
+package hotel.dao;
+
+import hotel.model.Rezerwacja;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Kolumnowa kopia rezerwacji do zapytań raportowych: osobne tablice prymitywów dla
+ * dat (dzień epoki), numerów pokoi, statusów i cen w groszach. Zapytania przechodzą
+ * po ciągłych tablicach zamiast po obiektach Rezerwacja, Pokoj i LocalDate, więc
+ * sumy i filtry przedziałów dat działają na danych w pamięci podręcznej procesora.
+ *
+ * Aktualizowana przez RezerwacjeDAO przy każdym zapisie, aktualizacji i usunięciu,
+ * tak jak kalendarz zajętości. Cena jest zapamiętywana w chwili zapisu (obliczCene
+ * zaokrąglone do grosza). Usunięcie przenosi ostatni wiersz na miejsce usuniętego,
+ * więc tablice pozostają ciągłe.
+ */
+public class KolumnyRezerwacji {
+
+    private static final int POCZATKOWA_POJEMNOSC = 64;
+    private static final byte ANULOWANA = (byte) Rezerwacja.Status.ANULOWANA.ordinal();
+
+    private int[] id = new int[POCZATKOWA_POJEMNOSC];
+    private int[] dataOd = new int[POCZATKOWA_POJEMNOSC];
+    private int[] dataDo = new int[POCZATKOWA_POJEMNOSC];
+    private int[] numerPokoju = new int[POCZATKOWA_POJEMNOSC];
+    private byte[] status = new byte[POCZATKOWA_POJEMNOSC];
+    private long[] cenaGrosze = new long[POCZATKOWA_POJEMNOSC];
+    private int rozmiar;
+    private final Map<Integer, Integer> wiersze = new HashMap<>();
+    private final ReentrantReadWriteLock blokada = new ReentrantReadWriteLock();
+
+    KolumnyRezerwacji() {
+    }
+
+    void zapisz(Rezerwacja rezerwacja) {
+        // Cena liczona przed blokadą - cennik dynamiczny może sięgać do innych struktur
+        long cena = cenaGroszy(rezerwacja);
+        blokada.writeLock().lock();
+        try {
+            zapiszBezBlokady(rezerwacja, cena);
+        } finally {
+            blokada.writeLock().unlock();
+        }
+    }
+
+    void zapiszWszystkie(Collection<Rezerwacja> rezerwacje) {
+        long[] ceny = new long[rezerwacje.size()];
+        int n = 0;
+        for (Rezerwacja rezerwacja : rezerwacje) {
+            ceny[n++] = cenaGroszy(rezerwacja);
+        }
+        blokada.writeLock().lock();
+        try {
+            zapewnijPojemnosc(rozmiar + rezerwacje.size());
+            n = 0;
+            for (Rezerwacja rezerwacja : rezerwacje) {
+                zapiszBezBlokady(rezerwacja, ceny[n++]);
+            }
+        } finally {
+            blokada.writeLock().unlock();
+        }
+    }
+
+    void usun(int idRezerwacji) {
+        blokada.writeLock().lock();
+        try {
+            Integer wiersz = wiersze.remove(idRezerwacji);
+            if (wiersz == null) {
+                return;
+            }
+            int ostatni = --rozmiar;
+            if (wiersz != ostatni) {
+                id[wiersz] = id[ostatni];
+                dataOd[wiersz] = dataOd[ostatni];
+                dataDo[wiersz] = dataDo[ostatni];
+                numerPokoju[wiersz] = numerPokoju[ostatni];
+                status[wiersz] = status[ostatni];
+                cenaGrosze[wiersz] = cenaGrosze[ostatni];
+                wiersze.put(id[wiersz], wiersz);
+            }
+        } finally {
+            blokada.writeLock().unlock();
+        }
+    }
+
+    void wyczysc() {
+        blokada.writeLock().lock();
+        try {
+            rozmiar = 0;
+            wiersze.clear();
+        } finally {
+            blokada.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Zwraca liczbę rezerwacji w kolumnach.
+     * @return liczba wierszy
+     */
+    public int liczba() {
+        blokada.readLock().lock();
+        try {
+            return rozmiar;
+        } finally {
+            blokada.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sumuje ceny rezerwacji nieanulowanych.
+     * @return suma w groszach
+     */
+    public long sumaPrzychodowGroszy() {
+        blokada.readLock().lock();
+        try {
+            long suma = 0;
+            for (int i = 0; i < rozmiar; i++) {
+                suma += status[i] != ANULOWANA ? cenaGrosze[i] : 0;
+            }
+            return suma;
+        } finally {
+            blokada.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sumuje ceny rezerwacji nieanulowanych kolidujących z przedziałem [od, doDnia]
+     * (ta sama reguła co przy wyszukiwaniu rezerwacji w przedziale dat).
+     * @param od data początkowa
+     * @param doDnia data końcowa
+     * @return suma w groszach
+     */
+    public long przychodGroszyWPrzedziale(LocalDate od, LocalDate doDnia) {
+        int poczatek = (int) od.toEpochDay();
+        int koniec = (int) doDnia.toEpochDay();
+        blokada.readLock().lock();
+        try {
+            long suma = 0;
+            for (int i = 0; i < rozmiar; i++) {
+                boolean trafienie = dataDo[i] >= poczatek & dataOd[i] <= koniec & status[i] != ANULOWANA;
+                suma += trafienie ? cenaGrosze[i] : 0;
+            }
+            return suma;
+        } finally {
+            blokada.readLock().unlock();
+        }
+    }
+
+    /**
+     * Zwraca ID rezerwacji (w dowolnym statusie) kolidujących z przedziałem [od, doDnia].
+     * @param od data początkowa
+     * @param doDnia data końcowa
+     * @return identyfikatory rezerwacji
+     */
+    public int[] idWPrzedziale(LocalDate od, LocalDate doDnia) {
+        int poczatek = (int) od.toEpochDay();
+        int koniec = (int) doDnia.toEpochDay();
+        blokada.readLock().lock();
+        try {
+            int[] wynik = new int[rozmiar];
+            int n = 0;
+            for (int i = 0; i < rozmiar; i++) {
+                wynik[n] = id[i];
+                n += dataDo[i] >= poczatek & dataOd[i] <= koniec ? 1 : 0;
+            }
+            return Arrays.copyOf(wynik, n);
+        } finally {
+            blokada.readLock().unlock();
+        }
+    }
+
+    /**
+     * Zlicza rezerwacje o podanym statusie.
+     * @param szukany status
+     * @return liczba rezerwacji
+     */
+    public int liczbaWgStatusu(Rezerwacja.Status szukany) {
+        byte kod = (byte) szukany.ordinal();
+        blokada.readLock().lock();
+        try {
+            int liczba = 0;
+            for (int i = 0; i < rozmiar; i++) {
+                liczba += status[i] == kod ? 1 : 0;
+            }
+            return liczba;
+        } finally {
+            blokada.readLock().unlock();
+        }
+    }
+
+    /**
+     * Zlicza sprzedane noce pokoju w przedziale [od, doDnia] (noce od dataOd do dnia przed dataDo,
+     * rezerwacje nieanulowane).
+     * @param numer numer pokoju
+     * @param od pierwszy dzień
+     * @param doDnia ostatni dzień (włącznie)
+     * @return liczba nocy
+     */
+    public long nocePokojuWPrzedziale(int numer, LocalDate od, LocalDate doDnia) {
+        int poczatek = (int) od.toEpochDay();
+        int koniec = (int) doDnia.toEpochDay() + 1;
+        blokada.readLock().lock();
+        try {
+            long noce = 0;
+            for (int i = 0; i < rozmiar; i++) {
+                int dlugosc = Math.min(dataDo[i], koniec) - Math.max(dataOd[i], poczatek);
+                boolean trafienie = numerPokoju[i] == numer & status[i] != ANULOWANA & dlugosc > 0;
+                noce += trafienie ? dlugosc : 0;
+            }
+            return noce;
+        } finally {
+            blokada.readLock().unlock();
+        }
+    }
+
+    private static long cenaGroszy(Rezerwacja rezerwacja) {
+        return Math.round(rezerwacja.obliczCene() * 100);
+    }
+
+    private void zapiszBezBlokady(Rezerwacja rezerwacja, long cena) {
+        Integer wiersz = wiersze.get(rezerwacja.getId());
+        if (wiersz == null) {
+            zapewnijPojemnosc(rozmiar + 1);
+            wiersz = rozmiar++;
+            wiersze.put(rezerwacja.getId(), wiersz);
+        }
+        id[wiersz] = rezerwacja.getId();
+        dataOd[wiersz] = (int) rezerwacja.getDataOd().toEpochDay();
+        dataDo[wiersz] = (int) rezerwacja.getDataDo().toEpochDay();
+        numerPokoju[wiersz] = rezerwacja.getPokoj().getNumer();
+        status[wiersz] = (byte) rezerwacja.getStatus().ordinal();
+        cenaGrosze[wiersz] = cena;
+    }
+
+    private void zapewnijPojemnosc(int pojemnosc) {
+        if (pojemnosc <= id.length) {
+            return;
+        }
+        int nowa = Math.max(pojemnosc, id.length * 2);
+        id = Arrays.copyOf(id, nowa);
+        dataOd = Arrays.copyOf(dataOd, nowa);
+        dataDo = Arrays.copyOf(dataDo, nowa);
+        numerPokoju = Arrays.copyOf(numerPokoju, nowa);
+        status = Arrays.copyOf(status, nowa);
+        cenaGrosze = Arrays.copyOf(cenaGrosze, nowa);
+    }
+}
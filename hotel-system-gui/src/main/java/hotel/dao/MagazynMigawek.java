@@ -0,0 +1,97 @@
+package hotel.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Publikuje migawki stanu podłączonych DAO (MVCC).
+ * Każdy zapis do DAO nanosi kopię zmienionej encji na nową migawkę. Zapisy wykonane
+ * wewnątrz transakcji (np. jednej operacji modelu obejmującej kilka DAO) są publikowane
+ * razem, jako jedna wersja - czytelnik nigdy nie widzi stanu w połowie operacji.
+ * Odczyt migawki to pojedynczy odczyt referencji, bez blokad.
+ */
+public class MagazynMigawek {
+
+    private final AtomicReference<MigawkaDanych> biezaca = new AtomicReference<>(MigawkaDanych.PUSTA);
+    private final ThreadLocal<List<UnaryOperator<MigawkaDanych>>> transakcja = new ThreadLocal<>();
+    private final List<Consumer<MigawkaDanych>> sluchacze = new CopyOnWriteArrayList<>();
+
+    /**
+     * Zwraca ostatnią opublikowaną migawkę.
+     * @return migawka
+     */
+    public MigawkaDanych migawka() {
+        return biezaca.get();
+    }
+
+    /**
+     * Wykonuje operację tak, by wszystkie jej zapisy zostały opublikowane jako jedna wersja.
+     * Transakcje zagnieżdżone dołączają do zewnętrznej.
+     * @param operacja operacja zapisująca do DAO
+     * @param <T> typ wyniku
+     * @return wynik operacji
+     */
+    public <T> T wTransakcji(Supplier<T> operacja) {
+        if (transakcja.get() != null) {
+            return operacja.get();
+        }
+        List<UnaryOperator<MigawkaDanych>> zmiany = new ArrayList<>();
+        transakcja.set(zmiany);
+        try {
+            return operacja.get();
+        } finally {
+            transakcja.remove();
+            // Zapisy już trafiły do DAO, więc są publikowane także po wyjątku
+            if (!zmiany.isEmpty()) {
+                opublikuj(zmiany);
+            }
+        }
+    }
+
+    /**
+     * Rejestruje słuchacza powiadamianego o każdej nowej migawce (w wątku zapisującym,
+     * więc powinien działać krótko). Przy równoległych zapisach powiadomienia mogą
+     * przyjść w innej kolejności niż wersje.
+     * @param sluchacz słuchacz
+     */
+    public void dodajSluchacza(Consumer<MigawkaDanych> sluchacz) {
+        sluchacze.add(sluchacz);
+    }
+
+    public void usunSluchacza(Consumer<MigawkaDanych> sluchacz) {
+        sluchacze.remove(sluchacz);
+    }
+
+    /**
+     * Nanosi zmianę na migawkę - od razu albo przy końcu bieżącej transakcji.
+     * Zmiana musi zależeć tylko od przekazanych danych, bo przy wyścigu z inną
+     * publikacją może zostać zastosowana ponownie do nowszej migawki.
+     * @param zmiana funkcja tworząca nową migawkę z poprzedniej
+     */
+    void zmien(UnaryOperator<MigawkaDanych> zmiana) {
+        List<UnaryOperator<MigawkaDanych>> zmiany = transakcja.get();
+        if (zmiany != null) {
+            zmiany.add(zmiana);
+        } else {
+            opublikuj(List.of(zmiana));
+        }
+    }
+
+    private void opublikuj(List<UnaryOperator<MigawkaDanych>> zmiany) {
+        MigawkaDanych opublikowana = biezaca.updateAndGet(m -> {
+            MigawkaDanych nowa = m;
+            for (UnaryOperator<MigawkaDanych> zmiana : zmiany) {
+                nowa = zmiana.apply(nowa);
+            }
+            return nowa.zWersja(m.getWersja() + 1);
+        });
+        for (Consumer<MigawkaDanych> sluchacz : sluchacze) {
+            sluchacz.accept(opublikowana);
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package hotel.dao;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Trwała (niezmienna) mapa z kluczem int - drzewo trie o stopniu 32 z mapą bitową w węzłach.
+ * Każda zmiana kopiuje tylko ścieżkę od korzenia do zmienianego liścia (co najwyżej 7 węzłów),
+ * pozostała struktura jest współdzielona z poprzednią wersją. Dzięki temu migawki stanu
+ * są tanie, a starsze wersje pozostają ważne i mogą być czytane bez blokad.
+ * @param <V> typ wartości
+ */
+public final class MapaTrwala<V> {
+
+    private static final int BITY = 5;
+    private static final int MASKA = (1 << BITY) - 1;
+
+    private static final MapaTrwala<?> PUSTA = new MapaTrwala<>(null, 0);
+
+    private final Wezel korzen;
+    private final int rozmiar;
+
+    private MapaTrwala(Wezel korzen, int rozmiar) {
+        this.korzen = korzen;
+        this.rozmiar = rozmiar;
+    }
+
+    /**
+     * Zwraca pustą mapę.
+     * @param <V> typ wartości
+     * @return pusta mapa
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> MapaTrwala<V> pusta() {
+        return (MapaTrwala<V>) PUSTA;
+    }
+
+    /**
+     * Pobiera wartość dla klucza.
+     * @param klucz klucz
+     * @return wartość lub null
+     */
+    @SuppressWarnings("unchecked")
+    public V pobierz(int klucz) {
+        Wezel wezel = korzen;
+        int przesuniecie = 0;
+        while (wezel != null) {
+            int bit = 1 << ((klucz >>> przesuniecie) & MASKA);
+            if ((wezel.bitmapa & bit) == 0) {
+                return null;
+            }
+            Object element = wezel.elementy[Integer.bitCount(wezel.bitmapa & (bit - 1))];
+            if (element instanceof Lisc lisc) {
+                return lisc.klucz == klucz ? (V) lisc.wartosc : null;
+            }
+            wezel = (Wezel) element;
+            przesuniecie += BITY;
+        }
+        return null;
+    }
+
+    /**
+     * Sprawdza, czy mapa zawiera klucz.
+     * @param klucz klucz
+     * @return true jeśli klucz istnieje
+     */
+    public boolean zawiera(int klucz) {
+        return pobierz(klucz) != null;
+    }
+
+    /**
+     * Zwraca nową mapę z podanym wpisem (dodanym lub zastąpionym).
+     * @param klucz klucz
+     * @param wartosc wartość (nie null)
+     * @return nowa wersja mapy
+     */
+    public MapaTrwala<V> z(int klucz, V wartosc) {
+        if (wartosc == null) {
+            throw new IllegalArgumentException("Wartość nie może być null");
+        }
+        Lisc lisc = new Lisc(klucz, wartosc);
+        if (korzen == null) {
+            return new MapaTrwala<>(new Wezel(bit(klucz, 0), new Object[]{lisc}), 1);
+        }
+        boolean[] dodano = new boolean[1];
+        Wezel nowy = wstaw(korzen, lisc, 0, dodano);
+        return nowy == korzen ? this : new MapaTrwala<>(nowy, rozmiar + (dodano[0] ? 1 : 0));
+    }
+
+    /**
+     * Zwraca nową mapę bez podanego klucza.
+     * @param klucz klucz
+     * @return nowa wersja mapy (ta sama, jeśli klucza nie było)
+     */
+    public MapaTrwala<V> bez(int klucz) {
+        if (korzen == null) {
+            return this;
+        }
+        Object nowy = usun(korzen, klucz, 0);
+        if (nowy == korzen) {
+            return this;
+        }
+        if (nowy == null) {
+            return pusta();
+        }
+        Wezel nowyKorzen = nowy instanceof Lisc lisc
+                ? new Wezel(bit(lisc.klucz, 0), new Object[]{lisc})
+                : (Wezel) nowy;
+        return new MapaTrwala<>(nowyKorzen, rozmiar - 1);
+    }
+
+    public int rozmiar() {
+        return rozmiar;
+    }
+
+    public boolean czyPusta() {
+        return rozmiar == 0;
+    }
+
+    /**
+     * Wykonuje akcję dla każdej wartości (kolejność wynika z bitów klucza, nie z wstawiania).
+     * @param akcja akcja
+     */
+    @SuppressWarnings("unchecked")
+    public void dlaKazdej(Consumer<? super V> akcja) {
+        if (korzen != null) {
+            przejdz(korzen, (Consumer<Object>) akcja);
+        }
+    }
+
+    /**
+     * Zwraca wartości mapy jako nową listę.
+     * @return lista wartości
+     */
+    public List<V> wartosci() {
+        List<V> wynik = new ArrayList<>(rozmiar);
+        dlaKazdej(wynik::add);
+        return wynik;
+    }
+
+    /**
+     * Porównuje mapę z jej wcześniejszą wersją. Poddrzewa współdzielone przez obie wersje
+     * są pomijane, więc koszt jest proporcjonalny do liczby zmian, a nie do rozmiaru mapy.
+     * Wartości porównywane są przez tożsamość.
+     * @param poprzednia wcześniejsza wersja mapy
+     * @param zmieniony wywoływana dla kluczy z wartością dodaną lub zastąpioną
+     * @param usuniety wywoływana dla kluczy, których już nie ma
+     */
+    public void porownajZ(MapaTrwala<V> poprzednia, IntConsumer zmieniony, IntConsumer usuniety) {
+        porownaj(korzen, poprzednia.korzen, zmieniony, usuniety);
+    }
+
+    private static void porownaj(Object nowy, Object stary, IntConsumer zmieniony, IntConsumer usuniety) {
+        if (nowy == stary) {
+            return;
+        }
+        if (nowy instanceof Wezel a && stary instanceof Wezel b) {
+            int bity = a.bitmapa | b.bitmapa;
+            while (bity != 0) {
+                int bit = Integer.lowestOneBit(bity);
+                bity &= ~bit;
+                Object elementA = (a.bitmapa & bit) == 0 ? null
+                        : a.elementy[Integer.bitCount(a.bitmapa & (bit - 1))];
+                Object elementB = (b.bitmapa & bit) == 0 ? null
+                        : b.elementy[Integer.bitCount(b.bitmapa & (bit - 1))];
+                porownaj(elementA, elementB, zmieniony, usuniety);
+            }
+            return;
+        }
+        // Liść po jednej stronie - porównanie niewielkich zbiorów liści obu poddrzew
+        Map<Integer, Object> stare = new HashMap<>();
+        zbierzLiscie(stary, lisc -> stare.put(lisc.klucz, lisc.wartosc));
+        zbierzLiscie(nowy, lisc -> {
+            if (stare.remove(lisc.klucz) != lisc.wartosc) {
+                zmieniony.accept(lisc.klucz);
+            }
+        });
+        for (Integer klucz : stare.keySet()) {
+            usuniety.accept(klucz);
+        }
+    }
+
+    private static void zbierzLiscie(Object element, Consumer<Lisc> akcja) {
+        if (element instanceof Lisc lisc) {
+            akcja.accept(lisc);
+        } else if (element instanceof Wezel wezel) {
+            for (Object dziecko : wezel.elementy) {
+                zbierzLiscie(dziecko, akcja);
+            }
+        }
+    }
+
+    private static Wezel wstaw(Wezel wezel, Lisc lisc, int przesuniecie, boolean[] dodano) {
+        int bit = bit(lisc.klucz, przesuniecie);
+        int indeks = Integer.bitCount(wezel.bitmapa & (bit - 1));
+        if ((wezel.bitmapa & bit) == 0) {
+            dodano[0] = true;
+            Object[] elementy = new Object[wezel.elementy.length + 1];
+            System.arraycopy(wezel.elementy, 0, elementy, 0, indeks);
+            elementy[indeks] = lisc;
+            System.arraycopy(wezel.elementy, indeks, elementy, indeks + 1, wezel.elementy.length - indeks);
+            return new Wezel(wezel.bitmapa | bit, elementy);
+        }
+        Object element = wezel.elementy[indeks];
+        Object nowyElement;
+        if (element instanceof Lisc istniejacy) {
+            if (istniejacy.klucz == lisc.klucz) {
+                if (istniejacy.wartosc == lisc.wartosc) {
+                    return wezel;
+                }
+                nowyElement = lisc;
+            } else {
+                dodano[0] = true;
+                nowyElement = polacz(istniejacy, lisc, przesuniecie + BITY);
+            }
+        } else {
+            Wezel dziecko = (Wezel) element;
+            nowyElement = wstaw(dziecko, lisc, przesuniecie + BITY, dodano);
+            if (nowyElement == dziecko) {
+                return wezel;
+            }
+        }
+        Object[] elementy = wezel.elementy.clone();
+        elementy[indeks] = nowyElement;
+        return new Wezel(wezel.bitmapa, elementy);
+    }
+
+    /**
+     * Usuwa klucz z poddrzewa. Zwraca ten sam węzeł (brak klucza), null (puste poddrzewo),
+     * pojedynczy liść (do podciągnięcia w górę) lub nowy węzeł.
+     */
+    private static Object usun(Wezel wezel, int klucz, int przesuniecie) {
+        int bit = bit(klucz, przesuniecie);
+        if ((wezel.bitmapa & bit) == 0) {
+            return wezel;
+        }
+        int indeks = Integer.bitCount(wezel.bitmapa & (bit - 1));
+        Object element = wezel.elementy[indeks];
+        Object nowyElement;
+        if (element instanceof Lisc lisc) {
+            if (lisc.klucz != klucz) {
+                return wezel;
+            }
+            nowyElement = null;
+        } else {
+            nowyElement = usun((Wezel) element, klucz, przesuniecie + BITY);
+            if (nowyElement == element) {
+                return wezel;
+            }
+        }
+        if (nowyElement == null) {
+            if (wezel.elementy.length == 1) {
+                return null;
+            }
+            Object[] elementy = new Object[wezel.elementy.length - 1];
+            System.arraycopy(wezel.elementy, 0, elementy, 0, indeks);
+            System.arraycopy(wezel.elementy, indeks + 1, elementy, indeks, elementy.length - indeks);
+            if (elementy.length == 1 && elementy[0] instanceof Lisc) {
+                return elementy[0];
+            }
+            return new Wezel(wezel.bitmapa & ~bit, elementy);
+        }
+        if (wezel.elementy.length == 1 && nowyElement instanceof Lisc) {
+            return nowyElement;
+        }
+        Object[] elementy = wezel.elementy.clone();
+        elementy[indeks] = nowyElement;
+        return new Wezel(wezel.bitmapa, elementy);
+    }
+
+    private static Wezel polacz(Lisc a, Lisc b, int przesuniecie) {
+        int bitA = bit(a.klucz, przesuniecie);
+        int bitB = bit(b.klucz, przesuniecie);
+        if (bitA == bitB) {
+            return new Wezel(bitA, new Object[]{polacz(a, b, przesuniecie + BITY)});
+        }
+        Object[] elementy = Integer.compareUnsigned(bitA, bitB) < 0
+                ? new Object[]{a, b}
+                : new Object[]{b, a};
+        return new Wezel(bitA | bitB, elementy);
+    }
+
+    private static void przejdz(Wezel wezel, Consumer<Object> akcja) {
+        for (Object element : wezel.elementy) {
+            if (element instanceof Lisc lisc) {
+                akcja.accept(lisc.wartosc);
+            } else {
+                przejdz((Wezel) element, akcja);
+            }
+        }
+    }
+
+    private static int bit(int klucz, int przesuniecie) {
+        return 1 << ((klucz >>> przesuniecie) & MASKA);
+    }
+
+    private static final class Wezel {
+        final int bitmapa;
+        final Object[] elementy;
+
+        Wezel(int bitmapa, Object[] elementy) {
+            this.bitmapa = bitmapa;
+            this.elementy = elementy;
+        }
+    }
+
+    private static final class Lisc {
+        final int klucz;
+        final Object wartosc;
+
+        Lisc(int klucz, Object wartosc) {
+            this.klucz = klucz;
+            this.wartosc = wartosc;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package hotel.dao;
+
+import hotel.model.Gosc;
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Niezmienna migawka gości, pokoi i rezerwacji z jednej chwili (jednej wersji).
+ * Dane trzymane są w mapach trwałych współdzielących strukturę z kolejnymi migawkami,
+ * więc długie raporty mogą czytać spójny stan bez blokad, podczas gdy zapisy trwają.
+ * Encje w migawce są kopiami odłączonymi od DAO i nie powinny być modyfikowane.
+ */
+public final class MigawkaDanych {
+
+    static final MigawkaDanych PUSTA = new MigawkaDanych(0, MapaTrwala.pusta(), MapaTrwala.pusta(),
+            MapaTrwala.pusta(), MapaTrwala.pusta());
+
+    private final long wersja;
+    private final MapaTrwala<Gosc> goscie;
+    private final MapaTrwala<Pokoj> pokoje;
+    private final MapaTrwala<Boolean> dostepnosc;
+    private final MapaTrwala<Rezerwacja> rezerwacje;
+
+    private MigawkaDanych(long wersja, MapaTrwala<Gosc> goscie, MapaTrwala<Pokoj> pokoje,
+                          MapaTrwala<Boolean> dostepnosc, MapaTrwala<Rezerwacja> rezerwacje) {
+        this.wersja = wersja;
+        this.goscie = goscie;
+        this.pokoje = pokoje;
+        this.dostepnosc = dostepnosc;
+        this.rezerwacje = rezerwacje;
+    }
+
+    /**
+     * Zwraca pustą migawkę (wersja 0) - punkt wyjścia do porównań.
+     * @return pusta migawka
+     */
+    public static MigawkaDanych pusta() {
+        return PUSTA;
+    }
+
+    /**
+     * Zwraca numer wersji - rośnie z każdą opublikowaną zmianą.
+     * @return wersja migawki
+     */
+    public long getWersja() {
+        return wersja;
+    }
+
+    public Optional<Gosc> gosc(int id) {
+        return Optional.ofNullable(goscie.pobierz(id));
+    }
+
+    public Optional<Pokoj> pokoj(int numer) {
+        return Optional.ofNullable(pokoje.pobierz(numer));
+    }
+
+    public Optional<Rezerwacja> rezerwacja(int id) {
+        return Optional.ofNullable(rezerwacje.pobierz(id));
+    }
+
+    /**
+     * Zwraca gości posortowanych po identyfikatorze.
+     * @return lista gości
+     */
+    public List<Gosc> goscie() {
+        List<Gosc> wynik = goscie.wartosci();
+        wynik.sort(Comparator.comparingInt(Gosc::getId));
+        return wynik;
+    }
+
+    /**
+     * Zwraca pokoje posortowane po numerze.
+     * @return lista pokoi
+     */
+    public List<Pokoj> pokoje() {
+        List<Pokoj> wynik = pokoje.wartosci();
+        wynik.sort(Comparator.comparingInt(Pokoj::getNumer));
+        return wynik;
+    }
+
+    /**
+     * Zwraca rezerwacje posortowane po identyfikatorze.
+     * @return lista rezerwacji
+     */
+    public List<Rezerwacja> rezerwacje() {
+        List<Rezerwacja> wynik = rezerwacje.wartosci();
+        wynik.sort(Comparator.comparingInt(Rezerwacja::getId));
+        return wynik;
+    }
+
+    /**
+     * Sprawdza dostępność pokoju (tak jak PokojeDAO.czyDostepny).
+     * @param numer numer pokoju
+     * @return true jeśli pokój jest dostępny
+     */
+    public boolean czyPokojDostepny(int numer) {
+        return Boolean.TRUE.equals(dostepnosc.pobierz(numer));
+    }
+
+    public int liczbaGosci() {
+        return goscie.rozmiar();
+    }
+
+    public int liczbaPokoi() {
+        return pokoje.rozmiar();
+    }
+
+    public int liczbaRezerwacji() {
+        return rezerwacje.rozmiar();
+    }
+
+    /**
+     * Oblicza sumę przychodów z rezerwacji (jak RezerwacjeDAO.obliczSumePrzychodow).
+     * @return suma przychodów
+     */
+    public double obliczSumePrzychodow() {
+        double[] suma = new double[1];
+        rezerwacje.dlaKazdej(r -> {
+            if (r.getStatus() != Rezerwacja.Status.ANULOWANA) {
+                suma[0] += r.obliczCene();
+            }
+        });
+        return suma[0];
+    }
+
+    /**
+     * Przekazuje odbiorcy zmiany potrzebne, by z migawki poprzedniej otrzymać tę migawkę:
+     * najpierw gości, pokoje (także przy samej zmianie dostępności) i rezerwacje,
+     * potem usunięcia w odwrotnej kolejności. Koszt zależy od liczby zmian.
+     * @param poprzednia wcześniejsza migawka tego samego magazynu
+     * @param odbiorca odbiorca zmian
+     */
+    public void porownajZ(MigawkaDanych poprzednia, IOdbiorcaZmian odbiorca) {
+        List<Integer> usunieciGoscie = new ArrayList<>();
+        List<Integer> usunietePokoje = new ArrayList<>();
+        List<Integer> usunieteRezerwacje = new ArrayList<>();
+        goscie.porownajZ(poprzednia.goscie, id -> odbiorca.zmienionoGoscia(goscie.pobierz(id)),
+                usunieciGoscie::add);
+
+        Set<Integer> zmienionePokoje = new TreeSet<>();
+        pokoje.porownajZ(poprzednia.pokoje, zmienionePokoje::add, usunietePokoje::add);
+        dostepnosc.porownajZ(poprzednia.dostepnosc, zmienionePokoje::add, numer -> { });
+        for (int numer : zmienionePokoje) {
+            Pokoj pokoj = pokoje.pobierz(numer);
+            if (pokoj != null) {
+                odbiorca.zmienionoPokoj(pokoj, czyPokojDostepny(numer));
+            }
+        }
+
+        rezerwacje.porownajZ(poprzednia.rezerwacje, id -> odbiorca.zmienionoRezerwacje(rezerwacje.pobierz(id)),
+                usunieteRezerwacje::add);
+        usunieteRezerwacje.forEach(odbiorca::usunietoRezerwacje);
+        usunietePokoje.forEach(odbiorca::usunietoPokoj);
+        usunieciGoscie.forEach(odbiorca::usunietoGoscia);
+    }
+
+    MigawkaDanych zWersja(long nowaWersja) {
+        return new MigawkaDanych(nowaWersja, goscie, pokoje, dostepnosc, rezerwacje);
+    }
+
+    /**
+     * Nanosi kopię gościa. Kopie powstają przy zapisie, a publikowane są (np. na końcu
+     * transakcji) w dowolnej kolejności - kopia starsza od obecnej w migawce jest pomijana.
+     */
+    MigawkaDanych zGosciem(Gosc gosc) {
+        Gosc obecny = goscie.pobierz(gosc.getId());
+        if (obecny != null && obecny.getWersja() > gosc.getWersja()) {
+            return this;
+        }
+        return new MigawkaDanych(wersja, goscie.z(gosc.getId(), gosc), pokoje, dostepnosc, rezerwacje);
+    }
+
+    MigawkaDanych bezGoscia(int id) {
+        return new MigawkaDanych(wersja, goscie.bez(id), pokoje, dostepnosc, rezerwacje);
+    }
+
+    MigawkaDanych bezGosci() {
+        return new MigawkaDanych(wersja, MapaTrwala.pusta(), pokoje, dostepnosc, rezerwacje);
+    }
+
+    MigawkaDanych zPokojem(Pokoj pokoj, boolean dostepny) {
+        return new MigawkaDanych(wersja, goscie, pokoje.z(pokoj.getNumer(), pokoj),
+                dostepnosc.z(pokoj.getNumer(), dostepny), rezerwacje);
+    }
+
+    MigawkaDanych zDostepnoscia(int numer, boolean dostepny) {
+        return new MigawkaDanych(wersja, goscie, pokoje, dostepnosc.z(numer, dostepny), rezerwacje);
+    }
+
+    MigawkaDanych bezPokoju(int numer) {
+        return new MigawkaDanych(wersja, goscie, pokoje.bez(numer), dostepnosc.bez(numer), rezerwacje);
+    }
+
+    MigawkaDanych bezPokoi() {
+        return new MigawkaDanych(wersja, goscie, MapaTrwala.pusta(), MapaTrwala.pusta(), rezerwacje);
+    }
+
+    /**
+     * Nanosi kopię rezerwacji; kopia starsza od obecnej w migawce jest pomijana (jak w zGosciem).
+     */
+    MigawkaDanych zRezerwacja(Rezerwacja rezerwacja) {
+        Rezerwacja obecna = rezerwacje.pobierz(rezerwacja.getId());
+        if (obecna != null && obecna.getWersja() > rezerwacja.getWersja()) {
+            return this;
+        }
+        return new MigawkaDanych(wersja, goscie, pokoje, dostepnosc,
+                rezerwacje.z(rezerwacja.getId(), rezerwacja));
+    }
+
+    MigawkaDanych bezRezerwacji(int id) {
+        return new MigawkaDanych(wersja, goscie, pokoje, dostepnosc, rezerwacje.bez(id));
+    }
+
+    MigawkaDanych bezRezerwacji() {
+        return new MigawkaDanych(wersja, goscie, pokoje, dostepnosc, MapaTrwala.pusta());
+    }
+
+    /**
+     * Kopiuje gościa, aby późniejsze zmiany encji w DAO nie przenikały do migawki.
+     */
+    static Gosc kopia(Gosc gosc) {
+        return gosc.kopia();
+    }
+
+    static Pokoj kopia(Pokoj pokoj) {
+        return pokoj.kopia();
+    }
+
+    /**
+     * Kopiuje rezerwację wraz z gościem i pokojem (głęboka kopia na potrzeby migawki).
+     */
+    static Rezerwacja kopia(Rezerwacja r) {
+        Rezerwacja kopia = new Rezerwacja(r.getId(), r.getDataOd(), r.getDataDo(),
+                kopia(r.getGosc()), kopia(r.getPokoj()));
+        kopia.przejmijStan(r);
+        kopia.ustawWersje(r.getWersja());
+        return kopia;
+    }
+}
@@ -1,13 +1,20 @@
 package hotel.dao;
 
+import hotel.metryki.SkanDaoJfr;
 import hotel.model.Pokoj;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementacja DAO dla encji Pokoj.
@@ -15,8 +22,11 @@ import java.util.stream.Collectors;
  */
 public class PokojeDAO implements IDAO<Pokoj, Integer> {
     
-    private final Map<Integer, Pokoj> storage = new HashMap<>();
-    private final Map<Integer, Boolean> dostepnosc = new HashMap<>();
+    private final Map<Integer, Pokoj> storage = new ConcurrentHashMap<>();
+    private final LongAdder przeskanowaneRekordy = new LongAdder();
+    private final AtomicLong wersja = new AtomicLong();
+    private final Map<Integer, Boolean> dostepnosc = new ConcurrentHashMap<>();
+    private volatile MagazynMigawek magazynMigawek;
     
     @Override
     public Optional<Pokoj> pobierz(Integer numer) {
@@ -30,13 +40,48 @@ public class PokojeDAO implements IDAO<Pokoj, Integer> {
         }
         storage.put(pokoj.getNumer(), pokoj);
         dostepnosc.putIfAbsent(pokoj.getNumer(), true);
+        wersja.incrementAndGet();
+        opublikuj(pokoj);
         return pokoj;
     }
     
+    /**
+     * Zapisuje wiele pokoi naraz; wersja rośnie raz, a migawka dostaje jedną zmianę.
+     * @param pokoje pokoje do zapisania
+     */
+    @Override
+    public void zapiszWszystkie(Collection<Pokoj> pokoje) {
+        List<Pokoj> kopie = new ArrayList<>(pokoje.size());
+        for (Pokoj pokoj : pokoje) {
+            storage.put(pokoj.getNumer(), pokoj);
+            dostepnosc.putIfAbsent(pokoj.getNumer(), true);
+            kopie.add(MigawkaDanych.kopia(pokoj));
+        }
+        wersja.incrementAndGet();
+        MagazynMigawek magazyn = magazynMigawek;
+        if (magazyn != null) {
+            Map<Integer, Boolean> dostepne = new HashMap<>(dostepnosc);
+            magazyn.zmien(m -> {
+                MigawkaDanych wynik = m;
+                for (Pokoj p : kopie) {
+                    wynik = wynik.zPokojem(p, dostepne.getOrDefault(p.getNumer(), false));
+                }
+                return wynik;
+            });
+        }
+    }
+    
     @Override
     public boolean usun(Integer numer) {
         dostepnosc.remove(numer);
-        return storage.remove(numer) != null;
+        boolean usunieto = storage.remove(numer) != null;
+        if (usunieto) {
+            wersja.incrementAndGet();
+            if (magazynMigawek != null) {
+                magazynMigawek.zmien(m -> m.bezPokoju(numer));
+            }
+        }
+        return usunieto;
     }
     
     @Override
@@ -44,20 +89,57 @@ public class PokojeDAO implements IDAO<Pokoj, Integer> {
         return new ArrayList<>(storage.values());
     }
     
+    @Override
+    public void przegladaj(Consumer<? super Pokoj> akcja) {
+        skanuj().forEach(akcja);
+    }
+    
     @Override
     public boolean aktualizuj(Pokoj pokoj) {
-        if (pokoj == null || !storage.containsKey(pokoj.getNumer())) {
+        if (pokoj == null) {
             return false;
         }
-        storage.put(pokoj.getNumer(), pokoj);
+        Pokoj poprzedni = storage.computeIfPresent(pokoj.getNumer(), (numer, obecny) -> {
+            pokoj.ustawWersje(obecny.getWersja() + 1);
+            return pokoj;
+        });
+        if (poprzedni == null) {
+            return false;
+        }
+        wersja.incrementAndGet();
+        opublikuj(pokoj);
         return true;
     }
     
+    @Override
+    public WynikAktualizacji aktualizuj(Pokoj pokoj, long oczekiwanaWersja) {
+        if (pokoj == null) {
+            return WynikAktualizacji.BRAK;
+        }
+        WynikAktualizacji[] wynik = {WynikAktualizacji.BRAK};
+        Pokoj zapisany = storage.computeIfPresent(pokoj.getNumer(), (numer, obecny) -> {
+            if (obecny.getWersja() != oczekiwanaWersja) {
+                wynik[0] = WynikAktualizacji.KONFLIKT;
+                return obecny;
+            }
+            obecny.przejmijStan(pokoj);
+            obecny.ustawWersje(oczekiwanaWersja + 1);
+            wynik[0] = WynikAktualizacji.ZAPISANO;
+            return obecny;
+        });
+        if (wynik[0] == WynikAktualizacji.ZAPISANO) {
+            wersja.incrementAndGet();
+            opublikuj(zapisany);
+        }
+        return wynik[0];
+    }
+    
     /**
      * Pobiera listę dostępnych pokoi.
      * @return lista dostępnych pokoi
      */
     public List<Pokoj> pobierzDostepne() {
+        zarejestrujSkan();
         return storage.entrySet().stream()
                 .filter(e -> dostepnosc.getOrDefault(e.getKey(), true))
                 .map(Map.Entry::getValue)
@@ -70,7 +152,7 @@ public class PokojeDAO implements IDAO<Pokoj, Integer> {
      * @return lista pokoi danego typu
      */
     public List<Pokoj> pobierzPoTypie(String typ) {
-        return storage.values().stream()
+        return skanuj()
                 .filter(p -> p.getTyp().equalsIgnoreCase(typ))
                 .collect(Collectors.toList());
     }
@@ -86,6 +168,9 @@ public class PokojeDAO implements IDAO<Pokoj, Integer> {
             return false;
         }
         dostepnosc.put(numer, czyDostepny);
+        if (magazynMigawek != null) {
+            magazynMigawek.zmien(m -> m.zDostepnoscia(numer, czyDostepny));
+        }
         return true;
     }
     
@@ -105,7 +190,7 @@ public class PokojeDAO implements IDAO<Pokoj, Integer> {
      * @return lista pokoi w przedziale cenowym
      */
     public List<Pokoj> pobierzWPrzedzialeCanowym(double cenaMin, double cenaMax) {
-        return storage.values().stream()
+        return skanuj()
                 .filter(p -> p.getCenaBazowa() >= cenaMin && p.getCenaBazowa() <= cenaMax)
                 .collect(Collectors.toList());
     }
@@ -116,6 +201,37 @@ public class PokojeDAO implements IDAO<Pokoj, Integer> {
     public void wyczysc() {
         storage.clear();
         dostepnosc.clear();
+        wersja.incrementAndGet();
+        if (magazynMigawek != null) {
+            magazynMigawek.zmien(MigawkaDanych::bezPokoi);
+        }
+    }
+
+    /**
+     * Podłącza magazyn migawek: bieżąca zawartość trafia do migawki,
+     * a każdy kolejny zapis nanosi na nią kopię zmienionego pokoju i jego dostępność.
+     * @param magazyn magazyn migawek
+     */
+    public void podlaczMagazynMigawek(MagazynMigawek magazyn) {
+        List<Pokoj> kopie = storage.values().stream().map(MigawkaDanych::kopia).toList();
+        Map<Integer, Boolean> dostepne = new HashMap<>(dostepnosc);
+        magazyn.zmien(m -> {
+            MigawkaDanych wynik = m;
+            for (Pokoj p : kopie) {
+                wynik = wynik.zPokojem(p, dostepne.getOrDefault(p.getNumer(), false));
+            }
+            return wynik;
+        });
+        this.magazynMigawek = magazyn;
+    }
+
+    private void opublikuj(Pokoj pokoj) {
+        MagazynMigawek magazyn = magazynMigawek;
+        if (magazyn != null) {
+            Pokoj kopia = MigawkaDanych.kopia(pokoj);
+            boolean dostepny = dostepnosc.getOrDefault(pokoj.getNumer(), false);
+            magazyn.zmien(m -> m.zPokojem(kopia, dostepny));
+        }
     }
     
     /**
@@ -125,4 +241,36 @@ public class PokojeDAO implements IDAO<Pokoj, Integer> {
     public int liczba() {
         return storage.size();
     }
+    
+    /**
+     * Zwraca wersję danych, zwiększaną przy każdej zmianie zawartości DAO.
+     * Pozwala pamięciom podręcznym wykryć zmiany wykonane z pominięciem modelu.
+     * @return bieżąca wersja
+     */
+    public long pobierzWersje() {
+        return wersja.get();
+    }
+    
+    /**
+     * Zwraca łączną liczbę rekordów przejrzanych przez pełne skany (metryki).
+     * @return liczba przeskanowanych rekordów od utworzenia DAO
+     */
+    public long pobierzLiczbePrzeskanowanych() {
+        return przeskanowaneRekordy.sum();
+    }
+    
+    /**
+     * Rozpoczyna pełny skan magazynu, zliczając przeglądane rekordy
+     * i zgłaszając zdarzenie JFR skanu.
+     */
+    private Stream<Pokoj> skanuj() {
+        zarejestrujSkan();
+        return storage.values().stream();
+    }
+    
+    private void zarejestrujSkan() {
+        int liczba = storage.size();
+        przeskanowaneRekordy.add(liczba);
+        SkanDaoJfr.zglos("PokojeDAO", liczba);
+    }
 }
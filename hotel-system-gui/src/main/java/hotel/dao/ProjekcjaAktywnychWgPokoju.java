@@ -0,0 +1,61 @@
+package hotel.dao;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Projekcja aktywnych rezerwacji (nie anulowanych i nie wymeldowanych) według numeru pokoju.
+ */
+public class ProjekcjaAktywnychWgPokoju implements IProjekcjaRezerwacji {
+
+    private final Map<Integer, Set<Integer>> aktywneWgPokoju = new HashMap<>();
+    private final Map<Integer, Integer> pokojRezerwacji = new HashMap<>();
+
+    @Override
+    public synchronized void zastosuj(FaktRezerwacji fakt) {
+        if (fakt.getRodzaj() == FaktRezerwacji.Rodzaj.WYCZYSZCZENIE) {
+            wyczysc();
+            return;
+        }
+        int id = fakt.getIdRezerwacji();
+        Integer poprzedniPokoj = pokojRezerwacji.remove(id);
+        if (poprzedniPokoj != null) {
+            Set<Integer> rezerwacje = aktywneWgPokoju.get(poprzedniPokoj);
+            rezerwacje.remove(id);
+            if (rezerwacje.isEmpty()) {
+                aktywneWgPokoju.remove(poprzedniPokoj);
+            }
+        }
+        if (fakt.czyAktywna()) {
+            int numer = fakt.getPokoj().getNumer();
+            aktywneWgPokoju.computeIfAbsent(numer, k -> new TreeSet<>()).add(id);
+            pokojRezerwacji.put(id, numer);
+        }
+    }
+
+    @Override
+    public synchronized void wyczysc() {
+        aktywneWgPokoju.clear();
+        pokojRezerwacji.clear();
+    }
+
+    /**
+     * Zwraca ID aktywnych rezerwacji pokoju.
+     * @param numerPokoju numer pokoju
+     * @return posortowane ID rezerwacji
+     */
+    public synchronized Set<Integer> aktywneDlaPokoju(int numerPokoju) {
+        Set<Integer> rezerwacje = aktywneWgPokoju.get(numerPokoju);
+        return rezerwacje == null ? Set.of() : Set.copyOf(rezerwacje);
+    }
+
+    /**
+     * Zwraca liczbę wszystkich aktywnych rezerwacji.
+     * @return liczba aktywnych rezerwacji
+     */
+    public synchronized int liczbaAktywnych() {
+        return pokojRezerwacji.size();
+    }
+}
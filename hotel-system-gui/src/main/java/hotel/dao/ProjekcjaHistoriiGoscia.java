@@ -0,0 +1,58 @@
+package hotel.dao;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Projekcja historii rezerwacji każdego gościa: wszystkie fakty dotyczące
+ * jego rezerwacji w kolejności dziennika.
+ */
+public class ProjekcjaHistoriiGoscia implements IProjekcjaRezerwacji {
+
+    private final Map<Integer, List<FaktRezerwacji>> historie = new HashMap<>();
+    private final Map<Integer, Set<Integer>> rezerwacjeGosci = new HashMap<>();
+
+    @Override
+    public synchronized void zastosuj(FaktRezerwacji fakt) {
+        if (fakt.getRodzaj() == FaktRezerwacji.Rodzaj.WYCZYSZCZENIE) {
+            wyczysc();
+            return;
+        }
+        int idGoscia = fakt.getGosc().getId();
+        historie.computeIfAbsent(idGoscia, k -> new ArrayList<>()).add(fakt);
+        Set<Integer> rezerwacje = rezerwacjeGosci.computeIfAbsent(idGoscia, k -> new LinkedHashSet<>());
+        if (fakt.getRodzaj() == FaktRezerwacji.Rodzaj.USUNIECIE) {
+            rezerwacje.remove(fakt.getIdRezerwacji());
+        } else {
+            rezerwacje.add(fakt.getIdRezerwacji());
+        }
+    }
+
+    @Override
+    public synchronized void wyczysc() {
+        historie.clear();
+        rezerwacjeGosci.clear();
+    }
+
+    /**
+     * Zwraca historię faktów dotyczących rezerwacji gościa.
+     * @param idGoscia ID gościa
+     * @return fakty w kolejności dziennika
+     */
+    public synchronized List<FaktRezerwacji> historia(int idGoscia) {
+        return List.copyOf(historie.getOrDefault(idGoscia, List.of()));
+    }
+
+    /**
+     * Zwraca ID istniejących rezerwacji gościa w kolejności utworzenia.
+     * @param idGoscia ID gościa
+     * @return ID rezerwacji
+     */
+    public synchronized List<Integer> rezerwacjeGoscia(int idGoscia) {
+        return List.copyOf(rezerwacjeGosci.getOrDefault(idGoscia, Set.of()));
+    }
+}
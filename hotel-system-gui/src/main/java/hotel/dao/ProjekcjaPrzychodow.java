@@ -0,0 +1,64 @@
+package hotel.dao;
+
+import hotel.model.Rezerwacja;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Projekcja przychodów: suma cen rezerwacji nie anulowanych, łącznie i według typu pokoju.
+ * Wkład każdej rezerwacji jest zapamiętany, więc zmiana ceny lub statusu
+ * koryguje sumy bez ponownego przeglądania rezerwacji.
+ */
+public class ProjekcjaPrzychodow implements IProjekcjaRezerwacji {
+
+    private final Map<Integer, FaktRezerwacji> wklady = new HashMap<>();
+    private final Map<String, Double> przychodyWgTypu = new TreeMap<>();
+    private double suma;
+
+    @Override
+    public synchronized void zastosuj(FaktRezerwacji fakt) {
+        if (fakt.getRodzaj() == FaktRezerwacji.Rodzaj.WYCZYSZCZENIE) {
+            wyczysc();
+            return;
+        }
+        FaktRezerwacji poprzedni = wklady.remove(fakt.getIdRezerwacji());
+        if (poprzedni != null) {
+            dodaj(poprzedni, -1);
+        }
+        if (fakt.getRodzaj() != FaktRezerwacji.Rodzaj.USUNIECIE
+                && fakt.getStatus() != Rezerwacja.Status.ANULOWANA) {
+            wklady.put(fakt.getIdRezerwacji(), fakt);
+            dodaj(fakt, 1);
+        }
+    }
+
+    private void dodaj(FaktRezerwacji fakt, int znak) {
+        suma += znak * fakt.getCena();
+        przychodyWgTypu.merge(fakt.getPokoj().getTyp(), znak * fakt.getCena(), Double::sum);
+    }
+
+    @Override
+    public synchronized void wyczysc() {
+        wklady.clear();
+        przychodyWgTypu.clear();
+        suma = 0.0;
+    }
+
+    /**
+     * Zwraca łączny przychód z rezerwacji nie anulowanych.
+     * @return suma przychodów
+     */
+    public synchronized double getSuma() {
+        return suma;
+    }
+
+    /**
+     * Zwraca przychody według typu pokoju.
+     * @return mapa typ pokoju -> przychód
+     */
+    public synchronized Map<String, Double> getPrzychodyWgTypu() {
+        return Map.copyOf(przychodyWgTypu);
+    }
+}
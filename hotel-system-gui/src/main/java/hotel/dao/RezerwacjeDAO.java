@@ -1,24 +1,56 @@
 package hotel.dao;
 
+import hotel.metryki.SkanDaoJfr;
 import hotel.model.Gosc;
 import hotel.model.Pokoj;
 import hotel.model.Rezerwacja;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementacja DAO dla encji Rezerwacja.
  * Przechowuje dane w pamięci (symulacja bazy danych).
+ * Utrzymuje indeks rezerwacji według numeru pokoju, posortowany po dacie
+ * rozpoczęcia, oraz kalendarz zajętości pokoi - wykorzystywane przy sprawdzaniu
+ * dostępności wielu pokoi naraz i przy przydziale pokoi według typu.
+ * Indeksy statusów (według daty rozpoczęcia i daty zakończenia) pozwalają znaleźć
+ * np. zaległe wymeldowania bez przeglądania wszystkich rezerwacji. Indeksy są
+ * aktualizowane przy zapisach przez DAO. Sumy przychodów i wyszukiwanie w przedziale
+ * dat korzystają z kolumnowej kopii rezerwacji ({@link KolumnyRezerwacji}).
  */
 public class RezerwacjeDAO implements IDAO<Rezerwacja, Integer> {
     
-    private final Map<Integer, Rezerwacja> storage = new HashMap<>();
+    private final Map<Integer, Rezerwacja> storage = new ConcurrentHashMap<>();
+    private final Map<Integer, NavigableMap<KluczIndeksu, Rezerwacja>> indeksPokoi = new ConcurrentHashMap<>();
+    private final Map<Integer, KluczIndeksu> kluczeIndeksu = new ConcurrentHashMap<>();
+    private final Map<Rezerwacja.Status, NavigableMap<KluczIndeksu, Rezerwacja>> indeksStatusuWgDatyOd =
+            new ConcurrentHashMap<>();
+    private final Map<Rezerwacja.Status, NavigableMap<KluczIndeksu, Rezerwacja>> indeksStatusuWgDatyDo =
+            new ConcurrentHashMap<>();
+    private final Map<Integer, WpisStatusu> wpisyStatusu = new ConcurrentHashMap<>();
+    private final KalendarzZajetosci kalendarz = new KalendarzZajetosci(this::rezerwacjePokoju);
+    private final KolumnyRezerwacji kolumny = new KolumnyRezerwacji();
+    private final LongAdder przeskanowaneRekordy = new LongAdder();
+    private final AtomicLong wersja = new AtomicLong();
+    private volatile MagazynMigawek magazynMigawek;
     
     @Override
     public Optional<Rezerwacja> pobierz(Integer id) {
@@ -30,13 +62,65 @@ public class RezerwacjeDAO implements IDAO<Rezerwacja, Integer> {
         if (rezerwacja == null) {
             throw new IllegalArgumentException("Rezerwacja nie może być null");
         }
-        storage.put(rezerwacja.getId(), rezerwacja);
+        Rezerwacja poprzednia = storage.put(rezerwacja.getId(), rezerwacja);
+        usunZIndeksu(poprzednia);
+        dodajDoIndeksu(rezerwacja);
+        kalendarz.zaznacz(rezerwacja);
+        wersja.incrementAndGet();
+        kolumny.zapisz(rezerwacja);
+        opublikuj(rezerwacja);
         return rezerwacja;
     }
     
+    /**
+     * Zapisuje wiele rezerwacji naraz (import hurtowy). Indeks pokoi jest budowany
+     * po wstawieniu wszystkich rezerwacji - po jednej posortowanej porcji na pokój -
+     * a kalendarz zajętości jest uzupełniany pod jedną blokadą.
+     * @param rezerwacje rezerwacje do zapisania
+     */
+    @Override
+    public void zapiszWszystkie(Collection<Rezerwacja> rezerwacje) {
+        Map<Integer, Map<KluczIndeksu, Rezerwacja>> nowePozycje = new HashMap<>();
+        List<Rezerwacja> kopie = new ArrayList<>(rezerwacje.size());
+        for (Rezerwacja rezerwacja : rezerwacje) {
+            usunZIndeksu(storage.put(rezerwacja.getId(), rezerwacja));
+            KluczIndeksu klucz = new KluczIndeksu(rezerwacja.getDataOd(), rezerwacja.getId());
+            kluczeIndeksu.put(rezerwacja.getId(), klucz);
+            nowePozycje.computeIfAbsent(rezerwacja.getPokoj().getNumer(), k -> new TreeMap<>())
+                    .put(klucz, rezerwacja);
+            dodajDoIndeksuStatusu(rezerwacja);
+            kopie.add(MigawkaDanych.kopia(rezerwacja));
+        }
+        nowePozycje.forEach((numer, pozycje) ->
+                indeksPokoi.computeIfAbsent(numer, k -> new ConcurrentSkipListMap<>()).putAll(pozycje));
+        kalendarz.zaznaczWszystkie(rezerwacje);
+        wersja.incrementAndGet();
+        kolumny.zapiszWszystkie(rezerwacje);
+        MagazynMigawek magazyn = magazynMigawek;
+        if (magazyn != null) {
+            magazyn.zmien(m -> {
+                MigawkaDanych wynik = m;
+                for (Rezerwacja r : kopie) {
+                    wynik = wynik.zRezerwacja(r);
+                }
+                return wynik;
+            });
+        }
+    }
+    
     @Override
     public boolean usun(Integer id) {
-        return storage.remove(id) != null;
+        Rezerwacja usunieta = storage.remove(id);
+        usunZIndeksu(usunieta);
+        if (usunieta != null) {
+            kalendarz.odznacz(id);
+            kolumny.usun(id);
+            wersja.incrementAndGet();
+            if (magazynMigawek != null) {
+                magazynMigawek.zmien(m -> m.bezRezerwacji(id));
+            }
+        }
+        return usunieta != null;
     }
     
     @Override
@@ -44,22 +128,99 @@ public class RezerwacjeDAO implements IDAO<Rezerwacja, Integer> {
         return new ArrayList<>(storage.values());
     }
     
+    @Override
+    public void przegladaj(Consumer<? super Rezerwacja> akcja) {
+        skanuj().forEach(akcja);
+    }
+    
     @Override
     public boolean aktualizuj(Rezerwacja rezerwacja) {
         if (rezerwacja == null || !storage.containsKey(rezerwacja.getId())) {
             return false;
         }
-        storage.put(rezerwacja.getId(), rezerwacja);
+        Rezerwacja poprzednia = storage.put(rezerwacja.getId(), rezerwacja);
+        rezerwacja.ustawWersje(poprzednia.getWersja() + 1);
+        usunZIndeksu(poprzednia);
+        dodajDoIndeksu(rezerwacja);
+        kalendarz.zaznacz(rezerwacja);
+        wersja.incrementAndGet();
+        kolumny.zapisz(rezerwacja);
+        opublikuj(rezerwacja);
         return true;
     }
     
+    @Override
+    public WynikAktualizacji aktualizuj(Rezerwacja rezerwacja, long oczekiwanaWersja) {
+        if (rezerwacja == null) {
+            return WynikAktualizacji.BRAK;
+        }
+        WynikAktualizacji[] wynik = {WynikAktualizacji.BRAK};
+        Rezerwacja zapisana = storage.computeIfPresent(rezerwacja.getId(), (id, obecna) -> {
+            if (obecna.getWersja() != oczekiwanaWersja) {
+                wynik[0] = WynikAktualizacji.KONFLIKT;
+                return obecna;
+            }
+            // Indeks po dacie trzeba zdjąć przed zmianą dat zapisanego obiektu
+            usunZIndeksu(obecna);
+            obecna.przejmijStan(rezerwacja);
+            obecna.ustawWersje(oczekiwanaWersja + 1);
+            dodajDoIndeksu(obecna);
+            kalendarz.zaznacz(obecna);
+            wynik[0] = WynikAktualizacji.ZAPISANO;
+            return obecna;
+        });
+        if (wynik[0] == WynikAktualizacji.ZAPISANO) {
+            wersja.incrementAndGet();
+            kolumny.zapisz(zapisana);
+            opublikuj(zapisana);
+        }
+        return wynik[0];
+    }
+
+    /**
+     * Przenosi rezerwację do innego pokoju, jeśli jej wersja się nie zmieniła.
+     * Pokój rezerwacji jest niezmienny, więc zapisywany jest nowy obiekt z tym samym ID
+     * i stanem; indeksy pokoi i kalendarz przechodzą na nowy pokój.
+     * @param idRezerwacji ID rezerwacji
+     * @param nowyPokoj pokój docelowy
+     * @param oczekiwanaWersja wersja odczytana przed zmianą
+     * @return wynik aktualizacji
+     */
+    public WynikAktualizacji przeniesDoPokoju(int idRezerwacji, Pokoj nowyPokoj, long oczekiwanaWersja) {
+        if (nowyPokoj == null) {
+            throw new IllegalArgumentException("Pokój nie może być null");
+        }
+        WynikAktualizacji[] wynik = {WynikAktualizacji.BRAK};
+        Rezerwacja zapisana = storage.computeIfPresent(idRezerwacji, (id, obecna) -> {
+            if (obecna.getWersja() != oczekiwanaWersja) {
+                wynik[0] = WynikAktualizacji.KONFLIKT;
+                return obecna;
+            }
+            Rezerwacja przeniesiona = new Rezerwacja(id, obecna.getDataOd(), obecna.getDataDo(),
+                    obecna.getGosc(), nowyPokoj);
+            przeniesiona.przejmijStan(obecna);
+            przeniesiona.ustawWersje(oczekiwanaWersja + 1);
+            usunZIndeksu(obecna);
+            dodajDoIndeksu(przeniesiona);
+            kalendarz.zaznacz(przeniesiona);
+            wynik[0] = WynikAktualizacji.ZAPISANO;
+            return przeniesiona;
+        });
+        if (wynik[0] == WynikAktualizacji.ZAPISANO) {
+            wersja.incrementAndGet();
+            kolumny.zapisz(zapisana);
+            opublikuj(zapisana);
+        }
+        return wynik[0];
+    }
+
     /**
      * Pobiera rezerwacje dla danego gościa.
      * @param gosc gość
      * @return lista rezerwacji gościa
      */
     public List<Rezerwacja> pobierzDlaGoscia(Gosc gosc) {
-        return storage.values().stream()
+        return skanuj()
                 .filter(r -> r.getGosc().equals(gosc))
                 .collect(Collectors.toList());
     }
@@ -70,7 +231,7 @@ public class RezerwacjeDAO implements IDAO<Rezerwacja, Integer> {
      * @return lista rezerwacji pokoju
      */
     public List<Rezerwacja> pobierzDlaPokoju(Pokoj pokoj) {
-        return storage.values().stream()
+        return skanuj()
                 .filter(r -> r.getPokoj().equals(pokoj))
                 .collect(Collectors.toList());
     }
@@ -81,11 +242,43 @@ public class RezerwacjeDAO implements IDAO<Rezerwacja, Integer> {
      * @return lista rezerwacji o danym statusie
      */
     public List<Rezerwacja> pobierzPoStatusie(Rezerwacja.Status status) {
-        return storage.values().stream()
+        return skanuj()
                 .filter(r -> r.getStatus() == status)
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Pobiera z indeksu statusu rezerwacje o danym statusie, które rozpoczynają się
+     * nie później niż podanego dnia (bez pełnego skanu).
+     * @param status status rezerwacji
+     * @param dzien ostatni dzień rozpoczęcia (włącznie)
+     * @return rezerwacje posortowane według daty rozpoczęcia
+     */
+    public List<Rezerwacja> pobierzPoStatusieRozpoczynajaceSieDo(Rezerwacja.Status status, LocalDate dzien) {
+        return zakresIndeksuStatusu(indeksStatusuWgDatyOd, status, dzien);
+    }
+    
+    /**
+     * Pobiera z indeksu statusu rezerwacje o danym statusie, które kończą się
+     * nie później niż podanego dnia (bez pełnego skanu).
+     * @param status status rezerwacji
+     * @param dzien ostatni dzień zakończenia (włącznie)
+     * @return rezerwacje posortowane według daty zakończenia
+     */
+    public List<Rezerwacja> pobierzPoStatusieKonczaceSieDo(Rezerwacja.Status status, LocalDate dzien) {
+        return zakresIndeksuStatusu(indeksStatusuWgDatyDo, status, dzien);
+    }
+    
+    private static List<Rezerwacja> zakresIndeksuStatusu(
+            Map<Rezerwacja.Status, NavigableMap<KluczIndeksu, Rezerwacja>> indeks,
+            Rezerwacja.Status status, LocalDate dzien) {
+        NavigableMap<KluczIndeksu, Rezerwacja> wgDaty = indeks.get(status);
+        if (wgDaty == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(wgDaty.headMap(KluczIndeksu.ostatniDnia(dzien), true).values());
+    }
+    
     /**
      * Pobiera rezerwacje w danym przedziale dat.
      * @param dataOd data początkowa
@@ -93,9 +286,15 @@ public class RezerwacjeDAO implements IDAO<Rezerwacja, Integer> {
      * @return lista rezerwacji w przedziale
      */
     public List<Rezerwacja> pobierzWPrzedzialeData(LocalDate dataOd, LocalDate dataDo) {
-        return storage.values().stream()
-                .filter(r -> !r.getDataDo().isBefore(dataOd) && !r.getDataOd().isAfter(dataDo))
-                .collect(Collectors.toList());
+        // Filtr dat na kolumnach - obiekty pobierane są tylko dla trafień
+        List<Rezerwacja> wynik = new ArrayList<>();
+        for (int id : kolumny.idWPrzedziale(dataOd, dataDo)) {
+            Rezerwacja r = storage.get(id);
+            if (r != null) {
+                wynik.add(r);
+            }
+        }
+        return wynik;
     }
     
     /**
@@ -106,13 +305,83 @@ public class RezerwacjeDAO implements IDAO<Rezerwacja, Integer> {
      * @return true jeśli pokój jest dostępny
      */
     public boolean czyPokojDostepny(Pokoj pokoj, LocalDate dataOd, LocalDate dataDo) {
-        return storage.values().stream()
+        return skanuj()
                 .filter(r -> r.getPokoj().equals(pokoj))
                 .filter(r -> r.getStatus() != Rezerwacja.Status.ANULOWANA)
                 .filter(r -> r.getStatus() != Rezerwacja.Status.WYMELDOWANA)
                 .noneMatch(r -> koliduja(r.getDataOd(), r.getDataDo(), dataOd, dataDo));
     }
     
+    /**
+     * Wyznacza pokoje zajęte w danym przedziale dat, przeglądając indeks
+     * tylko dla wskazanych pokoi (bez pełnego skanu magazynu).
+     * @param numeryPokoi numery sprawdzanych pokoi
+     * @param dataOd data początkowa
+     * @param dataDo data końcowa
+     * @return numery pokoi, które mają kolidującą aktywną rezerwację
+     */
+    public Set<Integer> znajdzZajetePokoje(Collection<Integer> numeryPokoi, LocalDate dataOd, LocalDate dataDo) {
+        Set<Integer> zajete = new HashSet<>();
+        for (Integer numer : numeryPokoi) {
+            NavigableMap<KluczIndeksu, Rezerwacja> rezerwacjePokoju = indeksPokoi.get(numer);
+            if (rezerwacjePokoju == null) {
+                continue;
+            }
+            // Wystarczy przejrzeć rezerwacje rozpoczynające się nie później niż dataDo
+            for (Rezerwacja r : rezerwacjePokoju.headMap(KluczIndeksu.ostatniDnia(dataDo), true).values()) {
+                if (czyAktywna(r) && koliduja(r.getDataOd(), r.getDataDo(), dataOd, dataDo)) {
+                    zajete.add(numer);
+                    break;
+                }
+            }
+        }
+        return zajete;
+    }
+    
+    /**
+     * Pobiera aktywne rezerwacje pokoju kolidujące z przedziałem dat, przeglądając
+     * indeks tego pokoju (bez pełnego skanu magazynu).
+     * @param numerPokoju numer pokoju
+     * @param dataOd data początkowa
+     * @param dataDo data końcowa
+     * @return kolidujące rezerwacje posortowane według daty rozpoczęcia
+     */
+    public List<Rezerwacja> pobierzKolidujaceDlaPokoju(int numerPokoju, LocalDate dataOd, LocalDate dataDo) {
+        NavigableMap<KluczIndeksu, Rezerwacja> rezerwacjePokoju = indeksPokoi.get(numerPokoju);
+        if (rezerwacjePokoju == null) {
+            return List.of();
+        }
+        return rezerwacjePokoju.headMap(KluczIndeksu.ostatniDnia(dataDo), true).values().stream()
+                .filter(r -> czyAktywna(r) && koliduja(r.getDataOd(), r.getDataDo(), dataOd, dataDo))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Zwraca kalendarz zajętości pokoi utrzymywany przez DAO.
+     * @return kalendarz zajętości
+     */
+    public KalendarzZajetosci getKalendarz() {
+        return kalendarz;
+    }
+    
+    /**
+     * Zwraca kolumnową kopię rezerwacji do zapytań raportowych.
+     * @return kolumny rezerwacji
+     */
+    public KolumnyRezerwacji getKolumny() {
+        return kolumny;
+    }
+    
+    private Collection<Rezerwacja> rezerwacjePokoju(int numerPokoju) {
+        NavigableMap<KluczIndeksu, Rezerwacja> rezerwacjePokoju = indeksPokoi.get(numerPokoju);
+        return rezerwacjePokoju == null ? List.of() : rezerwacjePokoju.values();
+    }
+    
+    private static boolean czyAktywna(Rezerwacja r) {
+        return r.getStatus() != Rezerwacja.Status.ANULOWANA
+                && r.getStatus() != Rezerwacja.Status.WYMELDOWANA;
+    }
+    
     /**
      * Sprawdza czy dwa przedziały dat kolidują.
      */
@@ -125,7 +394,7 @@ public class RezerwacjeDAO implements IDAO<Rezerwacja, Integer> {
      * @return lista aktywnych rezerwacji
      */
     public List<Rezerwacja> pobierzAktywne() {
-        return storage.values().stream()
+        return skanuj()
                 .filter(r -> r.getStatus() != Rezerwacja.Status.ANULOWANA)
                 .filter(r -> r.getStatus() != Rezerwacja.Status.WYMELDOWANA)
                 .collect(Collectors.toList());
@@ -136,10 +405,7 @@ public class RezerwacjeDAO implements IDAO<Rezerwacja, Integer> {
      * @return suma przychodów
      */
     public double obliczSumePrzychodow() {
-        return storage.values().stream()
-                .filter(r -> r.getStatus() != Rezerwacja.Status.ANULOWANA)
-                .mapToDouble(Rezerwacja::obliczCene)
-                .sum();
+        return kolumny.sumaPrzychodowGroszy() / 100.0;
     }
     
     /**
@@ -147,6 +413,42 @@ public class RezerwacjeDAO implements IDAO<Rezerwacja, Integer> {
      */
     public void wyczysc() {
         storage.clear();
+        indeksPokoi.clear();
+        kluczeIndeksu.clear();
+        indeksStatusuWgDatyOd.clear();
+        indeksStatusuWgDatyDo.clear();
+        wpisyStatusu.clear();
+        kalendarz.wyczysc();
+        kolumny.wyczysc();
+        wersja.incrementAndGet();
+        if (magazynMigawek != null) {
+            magazynMigawek.zmien(MigawkaDanych::bezRezerwacji);
+        }
+    }
+
+    /**
+     * Podłącza magazyn migawek: bieżąca zawartość trafia do migawki,
+     * a każdy kolejny zapis nanosi na nią kopię zmienionej rezerwacji.
+     * @param magazyn magazyn migawek
+     */
+    public void podlaczMagazynMigawek(MagazynMigawek magazyn) {
+        List<Rezerwacja> kopie = storage.values().stream().map(MigawkaDanych::kopia).toList();
+        magazyn.zmien(m -> {
+            MigawkaDanych wynik = m;
+            for (Rezerwacja r : kopie) {
+                wynik = wynik.zRezerwacja(r);
+            }
+            return wynik;
+        });
+        this.magazynMigawek = magazyn;
+    }
+
+    private void opublikuj(Rezerwacja rezerwacja) {
+        MagazynMigawek magazyn = magazynMigawek;
+        if (magazyn != null) {
+            Rezerwacja kopia = MigawkaDanych.kopia(rezerwacja);
+            magazyn.zmien(m -> m.zRezerwacja(kopia));
+        }
     }
     
     /**
@@ -156,4 +458,115 @@ public class RezerwacjeDAO implements IDAO<Rezerwacja, Integer> {
     public int liczba() {
         return storage.size();
     }
+    
+    /**
+     * Zwraca wersję danych, zwiększaną przy każdej zmianie zawartości DAO.
+     * Pozwala pamięciom podręcznym wykryć zmiany wykonane z pominięciem modelu.
+     * @return bieżąca wersja
+     */
+    public long pobierzWersje() {
+        return wersja.get();
+    }
+    
+    /**
+     * Zwraca łączną liczbę rekordów przejrzanych przez pełne skany (metryki).
+     * @return liczba przeskanowanych rekordów od utworzenia DAO
+     */
+    public long pobierzLiczbePrzeskanowanych() {
+        return przeskanowaneRekordy.sum();
+    }
+    
+    /**
+     * Rozpoczyna pełny skan magazynu, zliczając przeglądane rekordy
+     * i zgłaszając zdarzenie JFR skanu.
+     */
+    private Stream<Rezerwacja> skanuj() {
+        zarejestrujSkan();
+        return storage.values().stream();
+    }
+    
+    private void dodajDoIndeksu(Rezerwacja rezerwacja) {
+        KluczIndeksu klucz = new KluczIndeksu(rezerwacja.getDataOd(), rezerwacja.getId());
+        kluczeIndeksu.put(rezerwacja.getId(), klucz);
+        indeksPokoi.computeIfAbsent(rezerwacja.getPokoj().getNumer(), k -> new ConcurrentSkipListMap<>())
+                .put(klucz, rezerwacja);
+        dodajDoIndeksuStatusu(rezerwacja);
+    }
+    
+    private void dodajDoIndeksuStatusu(Rezerwacja rezerwacja) {
+        WpisStatusu wpis = new WpisStatusu(rezerwacja.getStatus(),
+                new KluczIndeksu(rezerwacja.getDataOd(), rezerwacja.getId()),
+                new KluczIndeksu(rezerwacja.getDataDo(), rezerwacja.getId()));
+        wpisyStatusu.put(rezerwacja.getId(), wpis);
+        indeksStatusuWgDatyOd.computeIfAbsent(wpis.status, k -> new ConcurrentSkipListMap<>())
+                .put(wpis.kluczOd, rezerwacja);
+        indeksStatusuWgDatyDo.computeIfAbsent(wpis.status, k -> new ConcurrentSkipListMap<>())
+                .put(wpis.kluczDo, rezerwacja);
+    }
+    
+    private void usunZIndeksu(Rezerwacja rezerwacja) {
+        if (rezerwacja == null) {
+            return;
+        }
+        // Klucz zapamiętany przy dodaniu - daty rezerwacji mogły się od tego czasu zmienić
+        KluczIndeksu klucz = kluczeIndeksu.remove(rezerwacja.getId());
+        NavigableMap<KluczIndeksu, Rezerwacja> rezerwacjePokoju = indeksPokoi.get(rezerwacja.getPokoj().getNumer());
+        if (klucz != null && rezerwacjePokoju != null) {
+            rezerwacjePokoju.remove(klucz);
+        }
+        // Status i daty zapamiętane przy dodaniu - obiekt mógł zostać zmieniony w miejscu
+        WpisStatusu wpis = wpisyStatusu.remove(rezerwacja.getId());
+        if (wpis != null) {
+            indeksStatusuWgDatyOd.get(wpis.status).remove(wpis.kluczOd);
+            indeksStatusuWgDatyDo.get(wpis.status).remove(wpis.kluczDo);
+        }
+    }
+    
+    private void zarejestrujSkan() {
+        int liczba = storage.size();
+        przeskanowaneRekordy.add(liczba);
+        SkanDaoJfr.zglos("RezerwacjeDAO", liczba);
+    }
+    
+    /**
+     * Pozycje rezerwacji w indeksach statusu, zapamiętane do późniejszego usunięcia.
+     */
+    private static final class WpisStatusu {
+        private final Rezerwacja.Status status;
+        private final KluczIndeksu kluczOd;
+        private final KluczIndeksu kluczDo;
+        
+        WpisStatusu(Rezerwacja.Status status, KluczIndeksu kluczOd, KluczIndeksu kluczDo) {
+            this.status = status;
+            this.kluczOd = kluczOd;
+            this.kluczDo = kluczDo;
+        }
+    }
+    
+    /**
+     * Niezmienny klucz indeksu: data (rozpoczęcia w indeksie pokoi) i ID rezerwacji.
+     */
+    private static final class KluczIndeksu implements Comparable<KluczIndeksu> {
+        
+        private static final Comparator<KluczIndeksu> PORZADEK =
+                Comparator.comparing((KluczIndeksu k) -> k.dataOd).thenComparingInt(k -> k.id);
+        
+        private final LocalDate dataOd;
+        private final int id;
+        
+        KluczIndeksu(LocalDate dataOd, int id) {
+            this.dataOd = dataOd;
+            this.id = id;
+        }
+        
+        /** Klucz większy od każdego klucza rezerwacji zaczynającej się w podanym dniu. */
+        static KluczIndeksu ostatniDnia(LocalDate data) {
+            return new KluczIndeksu(data, Integer.MAX_VALUE);
+        }
+        
+        @Override
+        public int compareTo(KluczIndeksu inny) {
+            return PORZADEK.compare(this, inny);
+        }
+    }
 }
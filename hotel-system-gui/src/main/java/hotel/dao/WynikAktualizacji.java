@@ -0,0 +1,13 @@
+package hotel.dao;
+
+/**
+ * Wynik aktualizacji warunkowej (porównanie wersji encji).
+ */
+public enum WynikAktualizacji {
+    /** Wersja się zgadzała - zmianę zapisano, a wersja encji wzrosła o 1. */
+    ZAPISANO,
+    /** Encję w międzyczasie zmieniono - należy pobrać świeży stan i powtórzyć operację. */
+    KONFLIKT,
+    /** Encja nie istnieje. */
+    BRAK
+}
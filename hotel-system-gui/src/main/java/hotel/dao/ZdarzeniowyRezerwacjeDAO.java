@@ -0,0 +1,234 @@
+package hotel.dao;
+
+import hotel.model.Gosc;
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * DAO rezerwacji oparte na dzienniku zdarzeń (event sourcing).
+ * Każdy zapis, aktualizacja i usunięcie najpierw dopisuje fakt do dziennika,
+ * a dopiero potem zmienia bieżący stan i projekcje. Przy tworzeniu DAO stan
+ * odtwarzany jest z dziennika, a projekcje odbudowywane równolegle,
+ * każda w osobnym wątku; później aktualizowane są przyrostowo.
+ * Dziennik zapewnia pełny audyt zmian każdej rezerwacji.
+ */
+public class ZdarzeniowyRezerwacjeDAO extends RezerwacjeDAO {
+
+    private final DziennikRezerwacji dziennik;
+    private final ProjekcjaAktywnychWgPokoju aktywneWgPokoju = new ProjekcjaAktywnychWgPokoju();
+    private final ProjekcjaHistoriiGoscia historiaGosci = new ProjekcjaHistoriiGoscia();
+    private final ProjekcjaPrzychodow przychody = new ProjekcjaPrzychodow();
+    private final List<IProjekcjaRezerwacji> projekcje = new ArrayList<>();
+    private final Map<Integer, FaktRezerwacji> ostatnieFakty = new HashMap<>();
+
+    /**
+     * Konstruktor DAO z nowym, pustym dziennikiem.
+     */
+    public ZdarzeniowyRezerwacjeDAO() {
+        this(new DziennikRezerwacji());
+    }
+
+    /**
+     * Konstruktor odtwarzający stan i projekcje z dziennika.
+     * @param dziennik dziennik faktów
+     * @param dodatkoweProjekcje projekcje utrzymywane oprócz wbudowanych
+     */
+    public ZdarzeniowyRezerwacjeDAO(DziennikRezerwacji dziennik, IProjekcjaRezerwacji... dodatkoweProjekcje) {
+        if (dziennik == null) {
+            throw new IllegalArgumentException("Dziennik nie może być null");
+        }
+        this.dziennik = dziennik;
+        projekcje.add(aktywneWgPokoju);
+        projekcje.add(historiaGosci);
+        projekcje.add(przychody);
+        projekcje.addAll(Arrays.asList(dodatkoweProjekcje));
+
+        List<FaktRezerwacji> fakty = dziennik.odczytajWszystkie();
+        odtworzStan(fakty);
+        projekcje.parallelStream().forEach(p -> p.odbuduj(fakty));
+    }
+
+    /**
+     * Odtwarza bieżący stan z dziennika: najpierw wyznacza ostatni fakt
+     * każdej istniejącej rezerwacji, potem tworzy każdą rezerwację jeden raz.
+     */
+    private void odtworzStan(List<FaktRezerwacji> fakty) {
+        Map<Integer, FaktRezerwacji> stan = new LinkedHashMap<>();
+        for (FaktRezerwacji fakt : fakty) {
+            switch (fakt.getRodzaj()) {
+                case WYCZYSZCZENIE -> stan.clear();
+                case USUNIECIE -> stan.remove(fakt.getIdRezerwacji());
+                default -> stan.put(fakt.getIdRezerwacji(), fakt);
+            }
+        }
+        for (FaktRezerwacji fakt : stan.values()) {
+            super.zapisz(fakt.odtworz());
+        }
+        ostatnieFakty.putAll(stan);
+    }
+
+    @Override
+    public synchronized Rezerwacja zapisz(Rezerwacja rezerwacja) {
+        if (rezerwacja == null) {
+            throw new IllegalArgumentException("Rezerwacja nie może być null");
+        }
+        FaktRezerwacji fakt = dziennik.dopisz(
+                FaktRezerwacji.rodzajZmiany(ostatnieFakty.get(rezerwacja.getId()), rezerwacja), rezerwacja);
+        Rezerwacja zapisana = super.zapisz(rezerwacja);
+        zastosuj(fakt);
+        return zapisana;
+    }
+
+    @Override
+    public synchronized void zapiszWszystkie(Collection<Rezerwacja> rezerwacje) {
+        List<FaktRezerwacji> fakty = new ArrayList<>(rezerwacje.size());
+        for (Rezerwacja rezerwacja : rezerwacje) {
+            fakty.add(dziennik.dopisz(
+                    FaktRezerwacji.rodzajZmiany(ostatnieFakty.get(rezerwacja.getId()), rezerwacja), rezerwacja));
+        }
+        super.zapiszWszystkie(rezerwacje);
+        fakty.forEach(this::zastosuj);
+    }
+
+    @Override
+    public synchronized boolean aktualizuj(Rezerwacja rezerwacja) {
+        if (rezerwacja == null || !ostatnieFakty.containsKey(rezerwacja.getId())) {
+            return false;
+        }
+        FaktRezerwacji fakt = dziennik.dopisz(
+                FaktRezerwacji.rodzajZmiany(ostatnieFakty.get(rezerwacja.getId()), rezerwacja), rezerwacja);
+        boolean wynik = super.aktualizuj(rezerwacja);
+        zastosuj(fakt);
+        return wynik;
+    }
+
+    @Override
+    public synchronized WynikAktualizacji aktualizuj(Rezerwacja rezerwacja, long oczekiwanaWersja) {
+        if (rezerwacja == null || !ostatnieFakty.containsKey(rezerwacja.getId())) {
+            return WynikAktualizacji.BRAK;
+        }
+        // Fakt trafia do dziennika tylko po zgodności wersji - konflikt nie zostawia śladu
+        Optional<Rezerwacja> obecna = pobierz(rezerwacja.getId());
+        if (obecna.isEmpty() || obecna.get().getWersja() != oczekiwanaWersja) {
+            return obecna.isEmpty() ? WynikAktualizacji.BRAK : WynikAktualizacji.KONFLIKT;
+        }
+        FaktRezerwacji fakt = dziennik.dopisz(
+                FaktRezerwacji.rodzajZmiany(ostatnieFakty.get(rezerwacja.getId()), rezerwacja), rezerwacja);
+        WynikAktualizacji wynik = super.aktualizuj(rezerwacja, oczekiwanaWersja);
+        zastosuj(fakt);
+        return wynik;
+    }
+
+    @Override
+    public synchronized WynikAktualizacji przeniesDoPokoju(int idRezerwacji, Pokoj nowyPokoj, long oczekiwanaWersja) {
+        if (nowyPokoj == null) {
+            throw new IllegalArgumentException("Pokój nie może być null");
+        }
+        Optional<Rezerwacja> obecna = pobierz(idRezerwacji);
+        if (obecna.isEmpty() || !ostatnieFakty.containsKey(idRezerwacji)) {
+            return WynikAktualizacji.BRAK;
+        }
+        if (obecna.get().getWersja() != oczekiwanaWersja) {
+            return WynikAktualizacji.KONFLIKT;
+        }
+        // Fakt niesie stan po przeniesieniu, więc odtworzenie z dziennika trafi do nowego pokoju
+        Rezerwacja przeniesiona = new Rezerwacja(idRezerwacji, obecna.get().getDataOd(), obecna.get().getDataDo(),
+                obecna.get().getGosc(), nowyPokoj);
+        przeniesiona.przejmijStan(obecna.get());
+        FaktRezerwacji fakt = dziennik.dopisz(
+                FaktRezerwacji.rodzajZmiany(ostatnieFakty.get(idRezerwacji), przeniesiona), przeniesiona);
+        WynikAktualizacji wynik = super.przeniesDoPokoju(idRezerwacji, nowyPokoj, oczekiwanaWersja);
+        zastosuj(fakt);
+        return wynik;
+    }
+
+    @Override
+    public synchronized boolean usun(Integer id) {
+        Optional<Rezerwacja> rezerwacja = pobierz(id);
+        if (rezerwacja.isEmpty()) {
+            return false;
+        }
+        FaktRezerwacji fakt = dziennik.dopisz(FaktRezerwacji.Rodzaj.USUNIECIE, rezerwacja.get());
+        boolean wynik = super.usun(id);
+        zastosuj(fakt);
+        return wynik;
+    }
+
+    @Override
+    public synchronized void wyczysc() {
+        FaktRezerwacji fakt = dziennik.dopisz(FaktRezerwacji.Rodzaj.WYCZYSZCZENIE, null);
+        super.wyczysc();
+        zastosuj(fakt);
+    }
+
+    /**
+     * Pobiera rezerwacje gościa z projekcji historii, bez pełnego skanu magazynu.
+     * @param gosc gość
+     * @return lista rezerwacji gościa
+     */
+    @Override
+    public List<Rezerwacja> pobierzDlaGoscia(Gosc gosc) {
+        return historiaGosci.rezerwacjeGoscia(gosc.getId()).stream()
+                .map(this::pobierz)
+                .flatMap(Optional::stream)
+                .filter(r -> r.getGosc().equals(gosc))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Zwraca sumę przychodów utrzymywaną przez projekcję przychodów.
+     * @return suma przychodów
+     */
+    @Override
+    public double obliczSumePrzychodow() {
+        return przychody.getSuma();
+    }
+
+    private void zastosuj(FaktRezerwacji fakt) {
+        if (fakt.getRodzaj() == FaktRezerwacji.Rodzaj.WYCZYSZCZENIE) {
+            ostatnieFakty.clear();
+        } else if (fakt.getRodzaj() == FaktRezerwacji.Rodzaj.USUNIECIE) {
+            ostatnieFakty.remove(fakt.getIdRezerwacji());
+        } else {
+            ostatnieFakty.put(fakt.getIdRezerwacji(), fakt);
+        }
+        for (IProjekcjaRezerwacji projekcja : projekcje) {
+            projekcja.zastosuj(fakt);
+        }
+    }
+
+    /**
+     * Zwraca historię zmian rezerwacji z dziennika (audyt).
+     * @param idRezerwacji ID rezerwacji
+     * @return fakty dotyczące rezerwacji
+     */
+    public List<FaktRezerwacji> historiaRezerwacji(int idRezerwacji) {
+        return dziennik.historia(idRezerwacji);
+    }
+
+    public DziennikRezerwacji getDziennik() {
+        return dziennik;
+    }
+
+    public ProjekcjaAktywnychWgPokoju getAktywneWgPokoju() {
+        return aktywneWgPokoju;
+    }
+
+    public ProjekcjaHistoriiGoscia getHistoriaGosci() {
+        return historiaGosci;
+    }
+
+    public ProjekcjaPrzychodow getPrzychody() {
+        return przychody;
+    }
+}
@@ -1,6 +1,7 @@
 package hotel.gui;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -10,11 +11,19 @@ import javafx.stage.Stage;
 
 import hotel.controller.*;
 import hotel.dao.*;
+import hotel.metryki.OdswiezenieGuiJfr;
+import hotel.metryki.MierzonyHotelModel;
+import hotel.metryki.RejestrMetryk;
 import hotel.model.*;
+import hotel.odczyt.ModelOdczytuGoscia;
+import hotel.zdarzenia.PolitykaPrzeciazenia;
+import hotel.zdarzenia.Subskrypcja;
+import hotel.zdarzenia.ZdarzenieRezerwacji;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.logging.Logger;
 
 /**
  * Główna klasa aplikacji JavaFX dla systemu hotelowego.
@@ -22,6 +31,9 @@ import java.util.Optional;
  */
 public class HotelApplication extends Application {
 
+    private static final int LIMIT_PODPOWIEDZI = 20;
+    private static final Logger LOGGER = Logger.getLogger(HotelApplication.class.getName());
+
     // Warstwa DAO
     private RezerwacjeDAO rezerwacjeDAO;
     private PokojeDAO pokojeDAO;
@@ -29,6 +41,9 @@ public class HotelApplication extends Application {
 
     // Warstwa modelu
     private HotelModel model;
+    private RejestrMetryk rejestrMetryk;
+    private Subskrypcja subskrypcjaWidokow;
+    private ModelOdczytuGoscia modelOdczytuGoscia;
 
     // Warstwa kontrolerów
     private RezerwacjeKontroler rezerwacjeKontroler;
@@ -59,8 +74,10 @@ public class HotelApplication extends Application {
         logArea.setPrefHeight(100);
         logArea.setStyle("-fx-font-family: monospace;");
 
+        // Panel gościa czyta z osobnego modelu odczytu, nie z DAO recepcji
+        modelOdczytuGoscia = new ModelOdczytuGoscia(rezerwacjeDAO, pokojeDAO, model.getSzynaZdarzen());
         klientPanel = new KlientPanel(rezerwacjeKontroler, goscieKontroler,
-                rezerwacjeDAO, pokojeDAO, goscieDAO, logArea);
+                rezerwacjeDAO, pokojeDAO, goscieDAO, modelOdczytuGoscia, logArea);
 
         Tab tabKlient = new Tab("🧑 Panel Klienta", klientPanel.getPanel());
         tabKlient.setClosable(false);
@@ -103,6 +120,19 @@ public class HotelApplication extends Application {
         primaryStage.show();
 
         odswiezWszystko();
+
+        // Widoki recepcji odświeżane są po zdarzeniach modelu (także z panelu klienta)
+        subskrypcjaWidokow = model.getSzynaZdarzen().subskrybuj("gui", this::obsluzZdarzenie,
+                Platform::runLater, 256, PolitykaPrzeciazenia.ODRZUC);
+    }
+
+    /**
+     * Obsługuje zdarzenie cyklu życia rezerwacji w wątku JavaFX.
+     * @param zdarzenie zdarzenie modelu
+     */
+    private void obsluzZdarzenie(ZdarzenieRezerwacji zdarzenie) {
+        odswiezRezerwacje();
+        odswiezPokoje();
     }
 
     /**
@@ -117,11 +147,29 @@ public class HotelApplication extends Application {
         // Warstwa modelu
         model = new HotelModel(rezerwacjeDAO, pokojeDAO, goscieDAO, new FabrykaGosci());
 
+        // Instrumentacja modelu (metryki operacji)
+        rejestrMetryk = new RejestrMetryk();
+        IHotelModel mierzonyModel = new MierzonyHotelModel(model, rejestrMetryk,
+                model::pobierzLiczbePrzeskanowanych);
+
         // Warstwa kontrolerów
-        rezerwacjeKontroler = new RezerwacjeKontroler(model);
-        zameldowanieKontroler = new ZameldowanieKontroler(model);
-        wymeldowanieKontroler = new WymeldowanieKontroler(model);
-        goscieKontroler = new GoscieKontroler(model);
+        rezerwacjeKontroler = new RezerwacjeKontroler(mierzonyModel);
+        zameldowanieKontroler = new ZameldowanieKontroler(mierzonyModel);
+        wymeldowanieKontroler = new WymeldowanieKontroler(mierzonyModel);
+        goscieKontroler = new GoscieKontroler(mierzonyModel);
+    }
+
+    @Override
+    public void stop() {
+        if (subskrypcjaWidokow != null) {
+            subskrypcjaWidokow.close();
+        }
+        if (modelOdczytuGoscia != null) {
+            modelOdczytuGoscia.close();
+        }
+        // Raport metryk operacji wykonanych w trakcie sesji
+        LOGGER.info(rejestrMetryk::zrzutTekstowy);
+        rejestrMetryk.zatrzymajZrzuty();
     }
 
     /**
@@ -242,8 +290,11 @@ public class HotelApplication extends Application {
                 return g == null ? "" : g.getPelneNazwisko() + " (" + g.getEmail() + ")";
             }
             @Override
-            public Gosc fromString(String s) { return null; }
+            public Gosc fromString(String s) {
+                return comboGosc.getItems().stream().filter(g -> toString(g).equals(s)).findFirst().orElse(null);
+            }
         });
+        wlaczPodpowiedziGosci(comboGosc);
 
         ComboBox<Pokoj> comboPokoj = new ComboBox<>();
         comboPokoj.getItems().addAll(pokojeDAO.pobierzWszystkie());
@@ -292,6 +343,31 @@ public class HotelApplication extends Application {
         });
     }
 
+    /**
+     * Zamienia listę gości w pole z autouzupełnianiem: wpisany tekst zawęża listę
+     * do podpowiedzi z indeksu gości, a gdy żaden gość nie pasuje po prefiksie -
+     * do wyników wyszukiwania przybliżonego (literówki, brak polskich znaków).
+     */
+    private void wlaczPodpowiedziGosci(ComboBox<Gosc> combo) {
+        combo.setEditable(true);
+        combo.getEditor().textProperty().addListener((obs, stary, tekst) -> {
+            Gosc wybrany = combo.getValue();
+            if (wybrany != null && combo.getConverter().toString(wybrany).equals(tekst)) {
+                return;
+            }
+            List<Gosc> podpowiedzi = tekst == null || tekst.isBlank()
+                    ? goscieDAO.pobierzWszystkie()
+                    : goscieDAO.podpowiedzi(tekst, LIMIT_PODPOWIEDZI);
+            if (podpowiedzi.isEmpty()) {
+                podpowiedzi = goscieDAO.wyszukajPodobnych(tekst, LIMIT_PODPOWIEDZI);
+            }
+            combo.getItems().setAll(podpowiedzi);
+            if (!podpowiedzi.isEmpty() && combo.isFocused()) {
+                combo.show();
+            }
+        });
+    }
+
     private void zameldujWybrana() {
         Rezerwacja wybrana = tabelaRezerwacji.getSelectionModel().getSelectedItem();
         if (wybrana == null) {
@@ -349,8 +425,10 @@ public class HotelApplication extends Application {
     }
 
     private void odswiezRezerwacje() {
+        OdswiezenieGuiJfr zdarzenie = OdswiezenieGuiJfr.rozpocznij("rezerwacje");
         tabelaRezerwacji.getItems().clear();
         tabelaRezerwacji.getItems().addAll(rezerwacjeDAO.pobierzWszystkie());
+        zdarzenie.zakoncz(tabelaRezerwacji.getItems().size());
     }
 
     // ==================== PANEL POKOI ====================
@@ -449,8 +527,10 @@ public class HotelApplication extends Application {
     }
 
     private void odswiezPokoje() {
+        OdswiezenieGuiJfr zdarzenie = OdswiezenieGuiJfr.rozpocznij("pokoje");
         tabelaPokoi.getItems().clear();
         tabelaPokoi.getItems().addAll(pokojeDAO.pobierzWszystkie());
+        zdarzenie.zakoncz(tabelaPokoi.getItems().size());
     }
 
     // ==================== PANEL GOŚCI ====================
@@ -542,8 +622,10 @@ public class HotelApplication extends Application {
     }
 
     private void odswiezGosci() {
+        OdswiezenieGuiJfr zdarzenie = OdswiezenieGuiJfr.rozpocznij("goscie");
         tabelaGosci.getItems().clear();
         tabelaGosci.getItems().addAll(goscieDAO.pobierzWszystkie());
+        zdarzenie.zakoncz(tabelaGosci.getItems().size());
     }
 
     // ==================== POMOCNICZE ====================
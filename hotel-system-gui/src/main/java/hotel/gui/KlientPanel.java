@@ -1,5 +1,6 @@
 package hotel.gui;
 
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -10,12 +11,15 @@ import javafx.scene.text.FontWeight;
 
 import hotel.controller.*;
 import hotel.dao.*;
+import hotel.metryki.OdswiezenieGuiJfr;
 import hotel.model.*;
+import hotel.odczyt.ModelOdczytuGoscia;
+import hotel.odczyt.WidokRezerwacji;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Panel widoku Klienta (Gościa) w systemie hotelowym.
@@ -35,16 +39,23 @@ public class KlientPanel {
     private final RezerwacjeDAO rezerwacjeDAO;
     private final PokojeDAO pokojeDAO;
     private final GoscieDAO goscieDAO;
+    private final ModelOdczytuGoscia modelOdczytu;
 
     // Zalogowany klient
     private Gosc zalogowanyKlient;
 
+    // Ostatnie wyszukiwanie (odświeżane po zmianach w modelu odczytu)
+    private String ostatniTyp;
+    private LocalDate ostatniaDataOd;
+    private LocalDate ostatniaDataDo;
+    private final AtomicBoolean odswiezenieZaplanowane = new AtomicBoolean();
+
     // Komponenty GUI
     private VBox mainPanel;
     private VBox panelLogowania;
     private VBox panelGlowny;
     private TableView<Pokoj> tabelaDostepnychPokoi;
-    private TableView<Rezerwacja> tabelaMoichRezerwacji;
+    private TableView<WidokRezerwacji> tabelaMoichRezerwacji;
     private Label labelZalogowany;
     private TextArea logArea;
     private DatePicker datePickerOd;
@@ -53,21 +64,26 @@ public class KlientPanel {
 
     /**
      * Konstruktor panelu klienta.
+     * Zapytania gościa (dostępne pokoje, moje rezerwacje) obsługuje model odczytu,
+     * a nie DAO używane przez recepcję.
      */
     public KlientPanel(RezerwacjeKontroler rezerwacjeKontroler,
                        GoscieKontroler goscieKontroler,
                        RezerwacjeDAO rezerwacjeDAO,
                        PokojeDAO pokojeDAO,
                        GoscieDAO goscieDAO,
+                       ModelOdczytuGoscia modelOdczytu,
                        TextArea logArea) {
         this.rezerwacjeKontroler = rezerwacjeKontroler;
         this.goscieKontroler = goscieKontroler;
         this.rezerwacjeDAO = rezerwacjeDAO;
         this.pokojeDAO = pokojeDAO;
         this.goscieDAO = goscieDAO;
+        this.modelOdczytu = modelOdczytu;
         this.logArea = logArea;
 
         utworzPanel();
+        modelOdczytu.ustawObserwatora(m -> zaplanujOdswiezenie());
     }
 
     /**
@@ -382,42 +398,42 @@ public class KlientPanel {
         }
 
         String typPokoju = comboTypPokoju.getValue();
-
-        // Pobierz wszystkie pokoje
-        List<Pokoj> wszystkiePokoje = pokojeDAO.pobierzWszystkie();
-
-        // Filtruj po typie
-        if (!"Wszystkie".equals(typPokoju)) {
-            wszystkiePokoje = wszystkiePokoje.stream()
-                    .filter(p -> p.getTyp().equals(typPokoju))
-                    .collect(Collectors.toList());
-        }
-
-        // Filtruj pokoje które NIE mają kolidujących rezerwacji
-        List<Rezerwacja> wszystkieRezerwacje = rezerwacjeDAO.pobierzWszystkie();
-
-        List<Pokoj> dostepnePokoje = wszystkiePokoje.stream()
-                .filter(pokoj -> {
-                    // Sprawdź czy pokój ma kolidującą rezerwację
-                    return wszystkieRezerwacje.stream()
-                            .filter(r -> r.getPokoj().getNumer() == pokoj.getNumer())
-                            .filter(r -> r.getStatus() != Rezerwacja.Status.ANULOWANA &&
-                                    r.getStatus() != Rezerwacja.Status.WYMELDOWANA)
-                            .noneMatch(r -> czyDatyKoliduja(r.getDataOd(), r.getDataDo(), dataOd, dataDo));
-                })
-                .collect(Collectors.toList());
-
-        tabelaDostepnychPokoi.getItems().clear();
-        tabelaDostepnychPokoi.getItems().addAll(dostepnePokoje);
+        ostatniTyp = "Wszystkie".equals(typPokoju) ? null : typPokoju;
+        ostatniaDataOd = dataOd;
+        ostatniaDataDo = dataDo;
+        List<Pokoj> dostepnePokoje = wypelnijDostepnePokoje();
 
         long dni = java.time.temporal.ChronoUnit.DAYS.between(dataOd, dataDo);
         log("Wyszukano pokoje na okres " + dataOd + " - " + dataDo + " (" + dni + " nocy). " +
                 "Znaleziono: " + dostepnePokoje.size() + " dostępnych pokoi.");
     }
 
-    private boolean czyDatyKoliduja(LocalDate rezOd, LocalDate rezDo, LocalDate nowaOd, LocalDate nowaDo) {
-        // Rezerwacje kolidują jeśli się nakładają
-        return !rezDo.isBefore(nowaOd) && !nowaDo.isBefore(rezOd);
+    /**
+     * Wypełnia tabelę pokoi wynikiem ostatniego wyszukiwania z migawki modelu odczytu.
+     */
+    private List<Pokoj> wypelnijDostepnePokoje() {
+        OdswiezenieGuiJfr zdarzenie = OdswiezenieGuiJfr.rozpocznij("dostepnePokoje");
+        List<Pokoj> dostepnePokoje = modelOdczytu.dostepnePokoje(ostatniTyp, ostatniaDataOd, ostatniaDataDo);
+
+        tabelaDostepnychPokoi.getItems().setAll(dostepnePokoje);
+        zdarzenie.zakoncz(dostepnePokoje.size());
+        return dostepnePokoje;
+    }
+
+    /**
+     * Planuje odświeżenie widoków w wątku JavaFX po zmianie modelu odczytu.
+     * Seria zmian skutkuje jednym odświeżeniem.
+     */
+    private void zaplanujOdswiezenie() {
+        if (odswiezenieZaplanowane.compareAndSet(false, true)) {
+            Platform.runLater(() -> {
+                odswiezenieZaplanowane.set(false);
+                odswiezMojeRezerwacje();
+                if (ostatniaDataOd != null) {
+                    wypelnijDostepnePokoje();
+                }
+            });
+        }
     }
 
     // ==================== PU2: DOKONANIE REZERWACJI ====================
@@ -487,32 +503,32 @@ public class KlientPanel {
         // Tabela rezerwacji klienta
         tabelaMoichRezerwacji = new TableView<>();
 
-        TableColumn<Rezerwacja, Integer> colId = new TableColumn<>("Nr rez.");
+        TableColumn<WidokRezerwacji, Integer> colId = new TableColumn<>("Nr rez.");
         colId.setCellValueFactory(data ->
                 new javafx.beans.property.SimpleIntegerProperty(data.getValue().getId()).asObject());
         colId.setPrefWidth(60);
 
-        TableColumn<Rezerwacja, Integer> colPokoj = new TableColumn<>("Pokój");
+        TableColumn<WidokRezerwacji, Integer> colPokoj = new TableColumn<>("Pokój");
         colPokoj.setCellValueFactory(data ->
-                new javafx.beans.property.SimpleIntegerProperty(data.getValue().getPokoj().getNumer()).asObject());
+                new javafx.beans.property.SimpleIntegerProperty(data.getValue().getNumerPokoju()).asObject());
         colPokoj.setPrefWidth(60);
 
-        TableColumn<Rezerwacja, String> colTyp = new TableColumn<>("Typ");
+        TableColumn<WidokRezerwacji, String> colTyp = new TableColumn<>("Typ");
         colTyp.setCellValueFactory(data ->
-                new javafx.beans.property.SimpleStringProperty(data.getValue().getPokoj().getTyp()));
+                new javafx.beans.property.SimpleStringProperty(data.getValue().getTypPokoju()));
         colTyp.setPrefWidth(120);
 
-        TableColumn<Rezerwacja, String> colDataOd = new TableColumn<>("Od");
+        TableColumn<WidokRezerwacji, String> colDataOd = new TableColumn<>("Od");
         colDataOd.setCellValueFactory(data ->
                 new javafx.beans.property.SimpleStringProperty(data.getValue().getDataOd().toString()));
         colDataOd.setPrefWidth(100);
 
-        TableColumn<Rezerwacja, String> colDataDo = new TableColumn<>("Do");
+        TableColumn<WidokRezerwacji, String> colDataDo = new TableColumn<>("Do");
         colDataDo.setCellValueFactory(data ->
                 new javafx.beans.property.SimpleStringProperty(data.getValue().getDataDo().toString()));
         colDataDo.setPrefWidth(100);
 
-        TableColumn<Rezerwacja, String> colStatus = new TableColumn<>("Status");
+        TableColumn<WidokRezerwacji, String> colStatus = new TableColumn<>("Status");
         colStatus.setCellValueFactory(data ->
                 new javafx.beans.property.SimpleStringProperty(data.getValue().getStatus().name()));
         colStatus.setPrefWidth(120);
@@ -538,9 +554,9 @@ public class KlientPanel {
             }
         });
 
-        TableColumn<Rezerwacja, Double> colCena = new TableColumn<>("Cena");
+        TableColumn<WidokRezerwacji, Double> colCena = new TableColumn<>("Cena");
         colCena.setCellValueFactory(data ->
-                new javafx.beans.property.SimpleDoubleProperty(data.getValue().obliczCene()).asObject());
+                new javafx.beans.property.SimpleDoubleProperty(data.getValue().getCena()).asObject());
         colCena.setPrefWidth(80);
 
         tabelaMoichRezerwacji.getColumns().addAll(colId, colPokoj, colTyp, colDataOd, colDataDo, colStatus, colCena);
@@ -594,19 +610,18 @@ public class KlientPanel {
     private void odswiezMojeRezerwacje() {
         if (zalogowanyKlient == null) return;
 
-        List<Rezerwacja> mojeRezerwacje = rezerwacjeDAO.pobierzWszystkie().stream()
-                .filter(r -> r.getGosc().getId() == zalogowanyKlient.getId())
-                .collect(Collectors.toList());
+        OdswiezenieGuiJfr zdarzenie = OdswiezenieGuiJfr.rozpocznij("mojeRezerwacje");
+        List<WidokRezerwacji> mojeRezerwacje = modelOdczytu.mojeRezerwacje(zalogowanyKlient.getId());
 
-        tabelaMoichRezerwacji.getItems().clear();
-        tabelaMoichRezerwacji.getItems().addAll(mojeRezerwacje);
+        tabelaMoichRezerwacji.getItems().setAll(mojeRezerwacje);
+        zdarzenie.zakoncz(mojeRezerwacje.size());
     }
 
     /**
      * PU4: Anulowanie rezerwacji
      */
     private void anulujRezerwacje() {
-        Rezerwacja wybrana = tabelaMoichRezerwacji.getSelectionModel().getSelectedItem();
+        WidokRezerwacji wybrana = tabelaMoichRezerwacji.getSelectionModel().getSelectedItem();
 
         if (wybrana == null) {
             pokazBlad("Wybierz rezerwację do anulowania.");
@@ -629,7 +644,7 @@ public class KlientPanel {
 
         String komunikat = "Czy na pewno chcesz anulować rezerwację?\n\n" +
                 "Rezerwacja nr: " + wybrana.getId() + "\n" +
-                "Pokój: " + wybrana.getPokoj().getNumer() + "\n" +
+                "Pokój: " + wybrana.getNumerPokoju() + "\n" +
                 "Termin: " + wybrana.getDataOd() + " - " + wybrana.getDataDo();
 
         if (oplata > 0) {
@@ -656,7 +671,7 @@ public class KlientPanel {
     }
 
     private void pokazSzczegolyRezerwacji() {
-        Rezerwacja wybrana = tabelaMoichRezerwacji.getSelectionModel().getSelectedItem();
+        WidokRezerwacji wybrana = tabelaMoichRezerwacji.getSelectionModel().getSelectedItem();
 
         if (wybrana == null) {
             pokazBlad("Wybierz rezerwację.");
@@ -674,9 +689,9 @@ public class KlientPanel {
                 "───────────────────────────────────\n" +
                 "POKÓJ\n" +
                 "───────────────────────────────────\n" +
-                "Numer: " + wybrana.getPokoj().getNumer() + "\n" +
-                "Typ: " + wybrana.getPokoj().getTyp() + "\n" +
-                "Cena za noc: " + wybrana.getPokoj().getCenaBazowa() + " zł\n\n" +
+                "Numer: " + wybrana.getNumerPokoju() + "\n" +
+                "Typ: " + wybrana.getTypPokoju() + "\n" +
+                "Cena za noc: " + wybrana.getCenaZaNoc() + " zł\n\n" +
                 "───────────────────────────────────\n" +
                 "TERMIN POBYTU\n" +
                 "───────────────────────────────────\n" +
@@ -686,7 +701,7 @@ public class KlientPanel {
                 "───────────────────────────────────\n" +
                 "PŁATNOŚĆ\n" +
                 "───────────────────────────────────\n" +
-                "SUMA: " + String.format("%.2f", wybrana.obliczCene()) + " zł\n\n" +
+                "SUMA: " + String.format("%.2f", wybrana.getCena()) + " zł\n\n" +
                 "═══════════════════════════════════";
 
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
@@ -0,0 +1,122 @@
+package hotel.metryki;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram opóźnień w stylu HdrHistogram.
+ * Wartości (w nanosekundach) trafiają do kubełków logarytmiczno-liniowych:
+ * każdy zakres potęgi dwójki dzielony jest na 64 podkubełki, co daje
+ * błąd względny poniżej 1,6% przy stałym zużyciu pamięci.
+ * Rejestracja jest bezblokadowa i bezpieczna wątkowo.
+ */
+public class HistogramOpoznien {
+
+    private static final int BITY_PODKUBELKOW = 7;
+    private static final int LICZBA_PODKUBELKOW = 1 << BITY_PODKUBELKOW;      // 128
+    private static final int POLOWA_PODKUBELKOW = LICZBA_PODKUBELKOW >> 1;    // 64
+    private static final int MAKS_BIT = 42;                                    // ok. 73 minuty w ns
+    private static final long MAKS_WARTOSC = (1L << (MAKS_BIT + 1)) - 1;
+    private static final int LICZBA_KUBELKOW =
+            LICZBA_PODKUBELKOW + (MAKS_BIT - BITY_PODKUBELKOW + 1) * POLOWA_PODKUBELKOW;
+
+    private final AtomicLongArray kubelki = new AtomicLongArray(LICZBA_KUBELKOW);
+    private final LongAdder liczba = new LongAdder();
+    private final LongAdder suma = new LongAdder();
+    private final AtomicLong maksimum = new AtomicLong();
+
+    /**
+     * Rejestruje pojedynczą wartość.
+     * @param wartosc wartość w nanosekundach (ujemne traktowane jako 0)
+     */
+    public void zarejestruj(long wartosc) {
+        long v = Math.max(0, Math.min(wartosc, MAKS_WARTOSC));
+        kubelki.incrementAndGet(indeks(v));
+        liczba.increment();
+        suma.add(v);
+        maksimum.accumulateAndGet(v, Math::max);
+    }
+
+    /**
+     * Zwraca liczbę zarejestrowanych wartości.
+     * @return liczba próbek
+     */
+    public long getLiczba() {
+        return liczba.sum();
+    }
+
+    /**
+     * Zwraca największą zarejestrowaną wartość.
+     * @return maksimum w nanosekundach
+     */
+    public long getMaksimum() {
+        return maksimum.get();
+    }
+
+    /**
+     * Zwraca średnią arytmetyczną zarejestrowanych wartości.
+     * @return średnia w nanosekundach lub 0 dla pustego histogramu
+     */
+    public double getSrednia() {
+        long n = liczba.sum();
+        return n == 0 ? 0 : (double) suma.sum() / n;
+    }
+
+    /**
+     * Wyznacza wartość dla podanego percentyla.
+     * Zwraca górną granicę kubełka, w którym wypada percentyl (jak HdrHistogram).
+     * @param percentyl percentyl z zakresu 0-100
+     * @return wartość w nanosekundach
+     */
+    public long wartoscPercentyla(double percentyl) {
+        if (percentyl < 0 || percentyl > 100) {
+            throw new IllegalArgumentException("Percentyl musi być z zakresu 0-100");
+        }
+        long n = liczba.sum();
+        if (n == 0) {
+            return 0;
+        }
+        long cel = Math.max(1, (long) Math.ceil(percentyl / 100.0 * n));
+        long narastajaco = 0;
+        for (int i = 0; i < LICZBA_KUBELKOW; i++) {
+            narastajaco += kubelki.get(i);
+            if (narastajaco >= cel) {
+                return Math.min(gornaGranica(i), maksimum.get());
+            }
+        }
+        return maksimum.get();
+    }
+
+    /**
+     * Zeruje histogram.
+     */
+    public void wyczysc() {
+        for (int i = 0; i < LICZBA_KUBELKOW; i++) {
+            kubelki.set(i, 0);
+        }
+        liczba.reset();
+        suma.reset();
+        maksimum.set(0);
+    }
+
+    static int indeks(long v) {
+        if (v < LICZBA_PODKUBELKOW) {
+            return (int) v;
+        }
+        int przesuniecie = (63 - Long.numberOfLeadingZeros(v)) - (BITY_PODKUBELKOW - 1);
+        int podkubelek = (int) (v >>> przesuniecie);
+        return LICZBA_PODKUBELKOW + (przesuniecie - 1) * POLOWA_PODKUBELKOW
+                + (podkubelek - POLOWA_PODKUBELKOW);
+    }
+
+    static long gornaGranica(int indeks) {
+        if (indeks < LICZBA_PODKUBELKOW) {
+            return indeks;
+        }
+        int j = indeks - LICZBA_PODKUBELKOW;
+        int przesuniecie = j / POLOWA_PODKUBELKOW + 1;
+        long podkubelek = POLOWA_PODKUBELKOW + (j % POLOWA_PODKUBELKOW);
+        return ((podkubelek + 1) << przesuniecie) - 1;
+    }
+}
@@ -0,0 +1,83 @@
+package hotel.metryki;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metryki pojedynczej operacji (np. "HotelModel.utworzRezerwacje").
+ * Zbiera rozkład opóźnień, liczbę wywołań, liczbę niepowodzeń
+ * oraz rozmiary skanów DAO wykonanych w trakcie operacji.
+ */
+public class MetrykiOperacji {
+
+    private final String nazwa;
+    private final HistogramOpoznien histogram = new HistogramOpoznien();
+    private final LongAdder wywolania = new LongAdder();
+    private final LongAdder niepowodzenia = new LongAdder();
+    private final LongAdder sumaSkanowanych = new LongAdder();
+    private final AtomicLong maksSkanowanych = new AtomicLong();
+
+    /**
+     * Konstruktor metryk operacji.
+     * @param nazwa nazwa operacji
+     */
+    public MetrykiOperacji(String nazwa) {
+        if (nazwa == null || nazwa.isBlank()) {
+            throw new IllegalArgumentException("Nazwa operacji nie może być pusta");
+        }
+        this.nazwa = nazwa;
+    }
+
+    /**
+     * Rejestruje wykonanie operacji.
+     * @param czasNs czas trwania w nanosekundach
+     * @param niepowodzenie czy operacja zakończyła się niepowodzeniem
+     * @param przeskanowane liczba rekordów przejrzanych przez DAO
+     */
+    public void zarejestruj(long czasNs, boolean niepowodzenie, long przeskanowane) {
+        histogram.zarejestruj(czasNs);
+        wywolania.increment();
+        if (niepowodzenie) {
+            niepowodzenia.increment();
+        }
+        if (przeskanowane > 0) {
+            sumaSkanowanych.add(przeskanowane);
+            maksSkanowanych.accumulateAndGet(przeskanowane, Math::max);
+        }
+    }
+
+    /**
+     * Tworzy niezmienną migawkę bieżącego stanu metryk.
+     * @return migawka metryk
+     */
+    public MigawkaOperacji migawka() {
+        long n = wywolania.sum();
+        return new MigawkaOperacji(
+                nazwa,
+                n,
+                niepowodzenia.sum(),
+                histogram.wartoscPercentyla(50),
+                histogram.wartoscPercentyla(90),
+                histogram.wartoscPercentyla(99),
+                histogram.getMaksimum(),
+                histogram.getSrednia(),
+                n == 0 ? 0 : (double) sumaSkanowanych.sum() / n,
+                maksSkanowanych.get());
+    }
+
+    /**
+     * Zwraca nazwę operacji.
+     * @return nazwa operacji
+     */
+    public String getNazwa() {
+        return nazwa;
+    }
+
+    /**
+     * Zwraca histogram opóźnień operacji.
+     * @return histogram
+     */
+    public HistogramOpoznien getHistogram() {
+        return histogram;
+    }
+}
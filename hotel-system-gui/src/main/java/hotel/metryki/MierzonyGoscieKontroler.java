@@ -0,0 +1,44 @@
+package hotel.metryki;
+
+import hotel.controller.IGoscieKontroler;
+import hotel.model.Gosc;
+
+import java.util.Optional;
+
+/**
+ * Dekorator kontrolera gości zbierający metryki operacji.
+ */
+public class MierzonyGoscieKontroler implements IGoscieKontroler {
+
+    private final IGoscieKontroler kontroler;
+    private final Pomiar pomiar;
+
+    /**
+     * Konstruktor dekoratora.
+     * @param kontroler dekorowany kontroler
+     * @param rejestr rejestr metryk
+     */
+    public MierzonyGoscieKontroler(IGoscieKontroler kontroler, RejestrMetryk rejestr) {
+        if (kontroler == null) {
+            throw new IllegalArgumentException("Kontroler nie może być null");
+        }
+        this.kontroler = kontroler;
+        this.pomiar = new Pomiar(rejestr, "GoscieKontroler", Pomiar.BEZ_SKANOW);
+    }
+
+    @Override
+    public Optional<Gosc> przegladProfiluGoscia(int idGoscia) {
+        return pomiar.mierz("przegladProfiluGoscia", () -> kontroler.przegladProfiluGoscia(idGoscia));
+    }
+
+    @Override
+    public boolean edytujProfilGoscia(int idGoscia, String nowyEmail) {
+        return pomiar.mierz("edytujProfilGoscia", () -> kontroler.edytujProfilGoscia(idGoscia, nowyEmail));
+    }
+
+    @Override
+    public Gosc utworzProfilGoscia(String imie, String nazwisko, String email) {
+        return pomiar.mierz("utworzProfilGoscia",
+                () -> kontroler.utworzProfilGoscia(imie, nazwisko, email));
+    }
+}
@@ -0,0 +1,134 @@
+package hotel.metryki;
+
+import hotel.model.Gosc;
+import hotel.model.IHotelModel;
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+/**
+ * Dekorator modelu hotelu zbierający metryki każdej operacji.
+ * Rejestruje opóźnienia, liczbę wywołań, niepowodzenia (null/false)
+ * oraz liczbę rekordów przeskanowanych przez DAO w trakcie operacji.
+ */
+public class MierzonyHotelModel implements IHotelModel {
+
+    private final IHotelModel model;
+    private final Pomiar pomiar;
+
+    /**
+     * Konstruktor dekoratora bez pomiaru skanów DAO.
+     * @param model dekorowany model
+     * @param rejestr rejestr metryk
+     */
+    public MierzonyHotelModel(IHotelModel model, RejestrMetryk rejestr) {
+        this(model, rejestr, Pomiar.BEZ_SKANOW);
+    }
+
+    /**
+     * Konstruktor dekoratora z pomiarem skanów DAO.
+     * @param model dekorowany model
+     * @param rejestr rejestr metryk
+     * @param licznikSkanow źródło łącznej liczby przeskanowanych rekordów
+     *                      (np. HotelModel::pobierzLiczbePrzeskanowanych)
+     */
+    public MierzonyHotelModel(IHotelModel model, RejestrMetryk rejestr, LongSupplier licznikSkanow) {
+        if (model == null) {
+            throw new IllegalArgumentException("Model nie może być null");
+        }
+        this.model = model;
+        this.pomiar = new Pomiar(rejestr, "HotelModel", licznikSkanow);
+    }
+
+    @Override
+    public boolean aktualizujStatusPokoju(int numerPokoju, boolean dostepny) {
+        return pomiar.mierz("aktualizujStatusPokoju",
+                () -> model.aktualizujStatusPokoju(numerPokoju, dostepny));
+    }
+
+    @Override
+    public Rezerwacja utworzRezerwacje(Gosc gosc, Pokoj pokoj, LocalDate dataOd, LocalDate dataDo) {
+        return pomiar.mierz("utworzRezerwacje",
+                () -> model.utworzRezerwacje(gosc, pokoj, dataOd, dataDo));
+    }
+
+    @Override
+    public List<Rezerwacja> utworzRezerwacjeGrupowa(Gosc gosc, List<Pokoj> pokoje,
+                                                     LocalDate dataOd, LocalDate dataDo) {
+        return pomiar.mierz("utworzRezerwacjeGrupowa",
+                () -> model.utworzRezerwacjeGrupowa(gosc, pokoje, dataOd, dataDo));
+    }
+
+    @Override
+    public Rezerwacja utworzRezerwacjeTypu(Gosc gosc, String typPokoju, LocalDate dataOd, LocalDate dataDo) {
+        return pomiar.mierz("utworzRezerwacjeTypu",
+                () -> model.utworzRezerwacjeTypu(gosc, typPokoju, dataOd, dataDo));
+    }
+
+    @Override
+    public Gosc utworzProfilGoscia(String imie, String nazwisko, String email) {
+        return pomiar.mierz("utworzProfilGoscia",
+                () -> model.utworzProfilGoscia(imie, nazwisko, email));
+    }
+
+    @Override
+    public boolean zmienEmailGoscia(int idGoscia, String nowyEmail) {
+        return pomiar.mierz("zmienEmailGoscia", () -> model.zmienEmailGoscia(idGoscia, nowyEmail));
+    }
+
+    @Override
+    public boolean anulujRezerwacje(int idRezerwacji) {
+        return pomiar.mierz("anulujRezerwacje", () -> model.anulujRezerwacje(idRezerwacji));
+    }
+
+    @Override
+    public boolean anulujRezerwacje(int idRezerwacji, String przyczyna) {
+        return pomiar.mierz("anulujRezerwacjeZPrzyczyna",
+                () -> model.anulujRezerwacje(idRezerwacji, przyczyna));
+    }
+
+    @Override
+    public boolean modyfikujRezerwacje(int idRezerwacji, LocalDate nowaDataOd, LocalDate nowaDataDo) {
+        return pomiar.mierz("modyfikujRezerwacje",
+                () -> model.modyfikujRezerwacje(idRezerwacji, nowaDataOd, nowaDataDo));
+    }
+
+    @Override
+    public double pobierzOplate(int idRezerwacji) {
+        return pomiar.mierz("pobierzOplate", () -> model.pobierzOplate(idRezerwacji));
+    }
+
+    @Override
+    public Optional<Gosc> znajdzProfilGoscia(int idGoscia) {
+        return pomiar.mierz("znajdzProfilGoscia", () -> model.znajdzProfilGoscia(idGoscia));
+    }
+
+    @Override
+    public Optional<Rezerwacja> znajdzRezerwacje(int idRezerwacji) {
+        return pomiar.mierz("znajdzRezerwacje", () -> model.znajdzRezerwacje(idRezerwacji));
+    }
+
+    @Override
+    public List<Pokoj> znajdzDostepnePokoje(LocalDate dataOd, LocalDate dataDo) {
+        return pomiar.mierz("znajdzDostepnePokoje", () -> model.znajdzDostepnePokoje(dataOd, dataDo));
+    }
+
+    @Override
+    public boolean zameldujGoscia(int idRezerwacji) {
+        return pomiar.mierz("zameldujGoscia", () -> model.zameldujGoscia(idRezerwacji));
+    }
+
+    @Override
+    public boolean wymeldujGoscia(int idRezerwacji) {
+        return pomiar.mierz("wymeldujGoscia", () -> model.wymeldujGoscia(idRezerwacji));
+    }
+
+    @Override
+    public boolean potwierdzPlatnosc(int idRezerwacji) {
+        return pomiar.mierz("potwierdzPlatnosc", () -> model.potwierdzPlatnosc(idRezerwacji));
+    }
+}
@@ -0,0 +1,72 @@
+package hotel.metryki;
+
+import hotel.controller.IRezerwacjeKontroler;
+import hotel.model.Gosc;
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Dekorator kontrolera rezerwacji zbierający metryki operacji.
+ */
+public class MierzonyRezerwacjeKontroler implements IRezerwacjeKontroler {
+
+    private final IRezerwacjeKontroler kontroler;
+    private final Pomiar pomiar;
+
+    /**
+     * Konstruktor dekoratora.
+     * @param kontroler dekorowany kontroler
+     * @param rejestr rejestr metryk
+     */
+    public MierzonyRezerwacjeKontroler(IRezerwacjeKontroler kontroler, RejestrMetryk rejestr) {
+        if (kontroler == null) {
+            throw new IllegalArgumentException("Kontroler nie może być null");
+        }
+        this.kontroler = kontroler;
+        this.pomiar = new Pomiar(rejestr, "RezerwacjeKontroler", Pomiar.BEZ_SKANOW);
+    }
+
+    @Override
+    public Rezerwacja utworzRezerwacje(Gosc gosc, Pokoj pokoj, LocalDate dataOd, LocalDate dataDo) {
+        return pomiar.mierz("utworzRezerwacje",
+                () -> kontroler.utworzRezerwacje(gosc, pokoj, dataOd, dataDo));
+    }
+
+    @Override
+    public List<Rezerwacja> utworzRezerwacjeGrupowa(Gosc gosc, List<Pokoj> pokoje,
+                                                     LocalDate dataOd, LocalDate dataDo) {
+        return pomiar.mierz("utworzRezerwacjeGrupowa",
+                () -> kontroler.utworzRezerwacjeGrupowa(gosc, pokoje, dataOd, dataDo));
+    }
+
+    @Override
+    public boolean anulujRezerwacje(int idRezerwacji) {
+        return pomiar.mierz("anulujRezerwacje", () -> kontroler.anulujRezerwacje(idRezerwacji));
+    }
+
+    @Override
+    public boolean anulujRezerwacje(int idRezerwacji, String przyczyna) {
+        return pomiar.mierz("anulujRezerwacjeZPrzyczyna",
+                () -> kontroler.anulujRezerwacje(idRezerwacji, przyczyna));
+    }
+
+    @Override
+    public boolean modyfikujRezerwacje(int idRezerwacji, LocalDate nowaDataOd, LocalDate nowaDataDo) {
+        return pomiar.mierz("modyfikujRezerwacje",
+                () -> kontroler.modyfikujRezerwacje(idRezerwacji, nowaDataOd, nowaDataDo));
+    }
+
+    @Override
+    public List<Rezerwacja> przegladajZarezerwowanePokoje() {
+        return pomiar.mierz("przegladajZarezerwowanePokoje", kontroler::przegladajZarezerwowanePokoje);
+    }
+
+    @Override
+    public double pobierzOplateZaAnulowanie(int idRezerwacji) {
+        return pomiar.mierz("pobierzOplateZaAnulowanie",
+                () -> kontroler.pobierzOplateZaAnulowanie(idRezerwacji));
+    }
+}
@@ -0,0 +1,36 @@
+package hotel.metryki;
+
+import hotel.controller.IWymeldowanieKontroler;
+
+/**
+ * Dekorator kontrolera wymeldowania zbierający metryki operacji.
+ */
+public class MierzonyWymeldowanieKontroler implements IWymeldowanieKontroler {
+
+    private final IWymeldowanieKontroler kontroler;
+    private final Pomiar pomiar;
+
+    /**
+     * Konstruktor dekoratora.
+     * @param kontroler dekorowany kontroler
+     * @param rejestr rejestr metryk
+     */
+    public MierzonyWymeldowanieKontroler(IWymeldowanieKontroler kontroler, RejestrMetryk rejestr) {
+        if (kontroler == null) {
+            throw new IllegalArgumentException("Kontroler nie może być null");
+        }
+        this.kontroler = kontroler;
+        this.pomiar = new Pomiar(rejestr, "WymeldowanieKontroler", Pomiar.BEZ_SKANOW);
+    }
+
+    @Override
+    public boolean wymeldujGoscia(int idRezerwacji) {
+        return pomiar.mierz("wymeldujGoscia", () -> kontroler.wymeldujGoscia(idRezerwacji));
+    }
+
+    @Override
+    public double naliczOplateZaPozneWymeldowanie(int idRezerwacji, int godzinyOpoznienia) {
+        return pomiar.mierz("naliczOplateZaPozneWymeldowanie",
+                () -> kontroler.naliczOplateZaPozneWymeldowanie(idRezerwacji, godzinyOpoznienia));
+    }
+}
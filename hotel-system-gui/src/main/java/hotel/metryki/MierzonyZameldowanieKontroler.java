@@ -0,0 +1,30 @@
+package hotel.metryki;
+
+import hotel.controller.IZameldowanieKontroler;
+
+/**
+ * Dekorator kontrolera zameldowania zbierający metryki operacji.
+ */
+public class MierzonyZameldowanieKontroler implements IZameldowanieKontroler {
+
+    private final IZameldowanieKontroler kontroler;
+    private final Pomiar pomiar;
+
+    /**
+     * Konstruktor dekoratora.
+     * @param kontroler dekorowany kontroler
+     * @param rejestr rejestr metryk
+     */
+    public MierzonyZameldowanieKontroler(IZameldowanieKontroler kontroler, RejestrMetryk rejestr) {
+        if (kontroler == null) {
+            throw new IllegalArgumentException("Kontroler nie może być null");
+        }
+        this.kontroler = kontroler;
+        this.pomiar = new Pomiar(rejestr, "ZameldowanieKontroler", Pomiar.BEZ_SKANOW);
+    }
+
+    @Override
+    public boolean zameldujGoscia(int idRezerwacji) {
+        return pomiar.mierz("zameldujGoscia", () -> kontroler.zameldujGoscia(idRezerwacji));
+    }
+}
@@ -0,0 +1,107 @@
+package hotel.metryki;
+
+import java.util.Locale;
+
+/**
+ * Niezmienna migawka metryk operacji w danym momencie.
+ * Czasy podawane są w nanosekundach.
+ */
+public final class MigawkaOperacji {
+
+    private final String nazwa;
+    private final long liczbaWywolan;
+    private final long liczbaNiepowodzen;
+    private final long p50;
+    private final long p90;
+    private final long p99;
+    private final long maks;
+    private final double srednia;
+    private final double sredniaSkanowanych;
+    private final long maksSkanowanych;
+
+    MigawkaOperacji(String nazwa, long liczbaWywolan, long liczbaNiepowodzen,
+                    long p50, long p90, long p99, long maks, double srednia,
+                    double sredniaSkanowanych, long maksSkanowanych) {
+        this.nazwa = nazwa;
+        this.liczbaWywolan = liczbaWywolan;
+        this.liczbaNiepowodzen = liczbaNiepowodzen;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.maks = maks;
+        this.srednia = srednia;
+        this.sredniaSkanowanych = sredniaSkanowanych;
+        this.maksSkanowanych = maksSkanowanych;
+    }
+
+    public String getNazwa() {
+        return nazwa;
+    }
+
+    public long getLiczbaWywolan() {
+        return liczbaWywolan;
+    }
+
+    public long getLiczbaNiepowodzen() {
+        return liczbaNiepowodzen;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP90() {
+        return p90;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public long getMaks() {
+        return maks;
+    }
+
+    public double getSrednia() {
+        return srednia;
+    }
+
+    public double getSredniaSkanowanych() {
+        return sredniaSkanowanych;
+    }
+
+    public long getMaksSkanowanych() {
+        return maksSkanowanych;
+    }
+
+    /**
+     * Formatuje migawkę jako wiersz tekstowego raportu (czasy w mikrosekundach).
+     * @return wiersz raportu
+     */
+    public String doTekstu() {
+        return String.format(Locale.ROOT,
+                "%-45s wywołania=%d niepowodzenia=%d p50=%.1fus p90=%.1fus p99=%.1fus maks=%.1fus skan(śr)=%.1f skan(maks)=%d",
+                nazwa, liczbaWywolan, liczbaNiepowodzen,
+                p50 / 1000.0, p90 / 1000.0, p99 / 1000.0, maks / 1000.0,
+                sredniaSkanowanych, maksSkanowanych);
+    }
+
+    /**
+     * Formatuje migawkę jako obiekt JSON (czasy w nanosekundach).
+     * @return obiekt JSON
+     */
+    public String doJson() {
+        return String.format(Locale.ROOT,
+                "{\"operacja\":\"%s\",\"wywolania\":%d,\"niepowodzenia\":%d,"
+                        + "\"p50Ns\":%d,\"p90Ns\":%d,\"p99Ns\":%d,\"maksNs\":%d,\"sredniaNs\":%.1f,"
+                        + "\"sredniaSkanowanych\":%.1f,\"maksSkanowanych\":%d}",
+                nazwa.replace("\\", "\\\\").replace("\"", "\\\""),
+                liczbaWywolan, liczbaNiepowodzen, p50, p90, p99, maks, srednia,
+                sredniaSkanowanych, maksSkanowanych);
+    }
+
+    @Override
+    public String toString() {
+        return doTekstu();
+    }
+}
@@ -0,0 +1,49 @@
+package hotel.metryki;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Zdarzenie JFR obejmujące odświeżenie widoku GUI (np. tabeli rezerwacji).
+ */
+@Name("hotel.OdswiezenieGui")
+@Label("Odświeżenie widoku GUI")
+@Category({"Hotel", "GUI"})
+@Description("Czas odświeżenia widoku GUI i liczba wyświetlonych wierszy")
+@StackTrace(false)
+public class OdswiezenieGuiJfr extends Event {
+
+    @Label("Widok")
+    public String widok;
+
+    @Label("Liczba wierszy")
+    public int liczbaWierszy;
+
+    /**
+     * Rozpoczyna pomiar odświeżenia widoku.
+     * @param widok nazwa widoku
+     * @return rozpoczęte zdarzenie
+     */
+    public static OdswiezenieGuiJfr rozpocznij(String widok) {
+        OdswiezenieGuiJfr zdarzenie = new OdswiezenieGuiJfr();
+        zdarzenie.widok = widok;
+        zdarzenie.begin();
+        return zdarzenie;
+    }
+
+    /**
+     * Kończy pomiar i zapisuje zdarzenie.
+     * @param liczbaWierszy liczba wierszy po odświeżeniu
+     */
+    public void zakoncz(int liczbaWierszy) {
+        end();
+        if (shouldCommit()) {
+            this.liczbaWierszy = liczbaWierszy;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package hotel.metryki;
+
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.time.LocalDate;
+
+/**
+ * Zdarzenie JFR opisujące wykonanie operacji biznesowej HotelModel.
+ * Pozwala w JDK Mission Control skorelować wolne operacje z GC i rywalizacją o blokady.
+ */
+@Name("hotel.OperacjaModelu")
+@Label("Operacja modelu hotelu")
+@Category({"Hotel", "Model"})
+@Description("Operacja HotelModel wraz z rezerwacją, pokojem, terminem i liczbą przeskanowanych rezerwacji")
+@StackTrace(false)
+public class OperacjaModeluJfr extends Event {
+
+    @Label("Operacja")
+    public String operacja;
+
+    @Label("ID rezerwacji")
+    public int idRezerwacji;
+
+    @Label("Numer pokoju")
+    public int numerPokoju;
+
+    @Label("Data od")
+    public String dataOd;
+
+    @Label("Data do")
+    public String dataDo;
+
+    @Label("Powodzenie")
+    public boolean powodzenie;
+
+    @Label("Przeskanowane rezerwacje")
+    @Description("Liczba rezerwacji przejrzanych przez pełne skany RezerwacjeDAO w trakcie operacji")
+    public long przeskanowaneRezerwacje;
+
+    /**
+     * Uzupełnia pola opisujące rezerwację; brakujące dane biorą się z parametrów operacji.
+     * @param rezerwacja rezerwacja, której dotyczyła operacja (może być null)
+     * @param pokoj pokój z parametrów operacji (może być null)
+     * @param od data od z parametrów operacji (może być null)
+     * @param doDaty data do z parametrów operacji (może być null)
+     */
+    public void uzupelnij(Rezerwacja rezerwacja, Pokoj pokoj, LocalDate od, LocalDate doDaty) {
+        if (rezerwacja != null) {
+            idRezerwacji = rezerwacja.getId();
+            pokoj = rezerwacja.getPokoj();
+            od = rezerwacja.getDataOd();
+            doDaty = rezerwacja.getDataDo();
+        }
+        numerPokoju = pokoj != null ? pokoj.getNumer() : 0;
+        dataOd = od != null ? od.toString() : null;
+        dataDo = doDaty != null ? doDaty.toString() : null;
+    }
+}
@@ -0,0 +1,42 @@
+package hotel.metryki;
+
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Wspólna logika pomiaru dla dekoratorów metryk.
+ * Niepowodzenie to wynik null, false lub rzucony wyjątek.
+ */
+final class Pomiar {
+
+    /** Licznik skanów dla dekoratorów bez dostępu do DAO. */
+    static final LongSupplier BEZ_SKANOW = () -> 0L;
+
+    private final RejestrMetryk rejestr;
+    private final String prefiks;
+    private final LongSupplier licznikSkanow;
+
+    Pomiar(RejestrMetryk rejestr, String prefiks, LongSupplier licznikSkanow) {
+        if (rejestr == null) {
+            throw new IllegalArgumentException("Rejestr metryk nie może być null");
+        }
+        this.rejestr = rejestr;
+        this.prefiks = prefiks;
+        this.licznikSkanow = licznikSkanow != null ? licznikSkanow : BEZ_SKANOW;
+    }
+
+    <T> T mierz(String operacja, Supplier<T> wywolanie) {
+        MetrykiOperacji metryki = rejestr.metryki(prefiks + "." + operacja);
+        long skanyPrzed = licznikSkanow.getAsLong();
+        long start = System.nanoTime();
+        boolean niepowodzenie = true;
+        try {
+            T wynik = wywolanie.get();
+            niepowodzenie = wynik == null || Boolean.FALSE.equals(wynik);
+            return wynik;
+        } finally {
+            long czas = System.nanoTime() - start;
+            metryki.zarejestruj(czas, niepowodzenie, licznikSkanow.getAsLong() - skanyPrzed);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package hotel.metryki;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Rejestr metryk wszystkich instrumentowanych operacji.
+ * Udostępnia migawki oraz okresowy zrzut w formacie tekstowym lub JSON.
+ */
+public class RejestrMetryk {
+
+    private final Map<String, MetrykiOperacji> metryki = new ConcurrentHashMap<>();
+    private ScheduledExecutorService harmonogram;
+
+    /**
+     * Zwraca (tworząc w razie potrzeby) metryki operacji o podanej nazwie.
+     * @param nazwa nazwa operacji
+     * @return metryki operacji
+     */
+    public MetrykiOperacji metryki(String nazwa) {
+        return metryki.computeIfAbsent(nazwa, MetrykiOperacji::new);
+    }
+
+    /**
+     * Tworzy migawkę metryk wszystkich operacji, posortowaną po nazwie.
+     * @return lista migawek
+     */
+    public List<MigawkaOperacji> migawka() {
+        return metryki.values().stream()
+                .map(MetrykiOperacji::migawka)
+                .sorted(Comparator.comparing(MigawkaOperacji::getNazwa))
+                .toList();
+    }
+
+    /**
+     * Formatuje bieżące metryki jako raport tekstowy.
+     * @return raport tekstowy
+     */
+    public String zrzutTekstowy() {
+        return migawka().stream()
+                .map(MigawkaOperacji::doTekstu)
+                .collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * Formatuje bieżące metryki jako tablicę JSON.
+     * @return raport JSON
+     */
+    public String zrzutJson() {
+        return migawka().stream()
+                .map(MigawkaOperacji::doJson)
+                .collect(Collectors.joining(",", "[", "]"));
+    }
+
+    /**
+     * Uruchamia okresowy zrzut metryk.
+     * @param okres odstęp między zrzutami (co najmniej 1 ms)
+     * @param json true dla formatu JSON, false dla tekstu
+     * @param odbiorca odbiorca zrzutu (np. System.out::println)
+     * @return uchwyt pozwalający anulować zrzuty
+     */
+    public synchronized ScheduledFuture<?> uruchomZrzutOkresowy(Duration okres, boolean json,
+                                                                Consumer<String> odbiorca) {
+        // Zrzuty planowane są z dokładnością do milisekundy - krótszy okres dałby zerowy odstęp
+        if (okres == null || okres.compareTo(Duration.ofMillis(1)) < 0) {
+            throw new IllegalArgumentException("Okres zrzutu musi wynosić co najmniej 1 ms");
+        }
+        if (odbiorca == null) {
+            throw new IllegalArgumentException("Odbiorca nie może być null");
+        }
+        if (harmonogram == null) {
+            harmonogram = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread watek = new Thread(r, "zrzut-metryk");
+                watek.setDaemon(true);
+                return watek;
+            });
+        }
+        long ms = okres.toMillis();
+        return harmonogram.scheduleAtFixedRate(
+                () -> odbiorca.accept(json ? zrzutJson() : zrzutTekstowy()),
+                ms, ms, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Zatrzymuje wszystkie okresowe zrzuty.
+     */
+    public synchronized void zatrzymajZrzuty() {
+        if (harmonogram != null) {
+            harmonogram.shutdownNow();
+            harmonogram = null;
+        }
+    }
+
+    /**
+     * Usuwa wszystkie zebrane metryki (używane w testach).
+     */
+    public void wyczysc() {
+        metryki.clear();
+    }
+}
@@ -0,0 +1,38 @@
+package hotel.metryki;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Zdarzenie JFR rejestrowane przy każdym pełnym skanie magazynu DAO.
+ * Ślad stosu wskazuje metodę, która wywołała skan.
+ */
+@Name("hotel.SkanDAO")
+@Label("Pełny skan DAO")
+@Category({"Hotel", "DAO"})
+@Description("Pełny skan magazynu DAO wraz z liczbą przeglądanych rekordów")
+public class SkanDaoJfr extends Event {
+
+    @Label("DAO")
+    public String dao;
+
+    @Label("Liczba rekordów")
+    public int liczbaRekordow;
+
+    /**
+     * Rejestruje skan, jeśli nagrywanie zdarzenia jest włączone.
+     * @param dao nazwa DAO
+     * @param liczbaRekordow liczba przeglądanych rekordów
+     */
+    public static void zglos(String dao, int liczbaRekordow) {
+        SkanDaoJfr zdarzenie = new SkanDaoJfr();
+        if (zdarzenie.shouldCommit()) {
+            zdarzenie.dao = dao;
+            zdarzenie.liczbaRekordow = liczbaRekordow;
+            zdarzenie.commit();
+        }
+    }
+}
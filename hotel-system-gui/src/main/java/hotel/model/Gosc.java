@@ -1,6 +1,7 @@
 package hotel.model;
 
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Klasa reprezentująca gościa hotelowego.
@@ -12,8 +13,10 @@ public class Gosc {
     private String imie;
     private String nazwisko;
     private String email;
+    private volatile long wersja;
     
-    private static int nextId = 1;
+    // Wspólny licznik dla wszystkich hoteli sieci - identyfikatory są unikalne między partycjami
+    private static final AtomicInteger nextId = new AtomicInteger(1);
     
     /**
      * Konstruktor tworzący nowego gościa.
@@ -31,7 +34,7 @@ public class Gosc {
         if (email == null || !email.contains("@")) {
             throw new IllegalArgumentException("Nieprawidłowy adres email");
         }
-        this.id = nextId++;
+        this.id = nextId.getAndIncrement();
         this.imie = imie;
         this.nazwisko = nazwisko;
         this.email = email;
@@ -114,11 +117,54 @@ public class Gosc {
         this.email = email;
     }
     
+    /**
+     * Tworzy kopię gościa do optymistycznej modyfikacji.
+     * @return kopia z tą samą wersją
+     */
+    public Gosc kopia() {
+        Gosc kopia = new Gosc(id, imie, nazwisko, email);
+        kopia.wersja = wersja;
+        return kopia;
+    }
+    
+    /**
+     * Przejmuje zmienny stan innego gościa (email). Używane przez DAO.
+     * @param inny gość, z którego kopiowany jest stan
+     */
+    public void przejmijStan(Gosc inny) {
+        this.email = inny.email;
+    }
+    
+    /**
+     * Zwraca wersję encji - zwiększaną przez DAO przy każdej aktualizacji.
+     * @return wersja
+     */
+    public long getWersja() {
+        return wersja;
+    }
+    
+    /**
+     * Ustawia wersję encji (używane przez DAO).
+     * @param wersja nowa wersja
+     */
+    public void ustawWersje(long wersja) {
+        this.wersja = wersja;
+    }
+    
+    /**
+     * Przesuwa licznik ID za podany identyfikator (po imporcie encji z gotowymi ID),
+     * aby nowo tworzone encje nie powtórzyły zaimportowanych identyfikatorów.
+     * @param id identyfikator istniejącej encji
+     */
+    public static void uwzglednijId(int id) {
+        nextId.accumulateAndGet(id + 1, Math::max);
+    }
+    
     /**
      * Resetuje licznik ID (używane w testach).
      */
     public static void resetIdCounter() {
-        nextId = 1;
+        nextId.set(1);
     }
     
     @Override
@@ -0,0 +1,92 @@
+package hotel.model;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Harmonogram opłat za anulowanie jednej rezerwacji.
+ * Przechowuje posortowane daty, od których obowiązuje kolejny próg opłaty,
+ * dzięki czemu opłata "na dzień X" to wyszukiwanie binarne zamiast
+ * ponownego liczenia dni do przyjazdu.
+ */
+public final class HarmonogramOplat {
+
+    private final LocalDate dataOd;
+    private final LocalDate dataDo;
+    private final double cena;
+    private final long[] datyZmian;
+    private final double[] oplaty;
+
+    /**
+     * Konstruktor harmonogramu.
+     * @param rezerwacja rezerwacja, której dotyczy harmonogram
+     * @param datyZmian rosnące daty (epochDay), od których obowiązuje opłata oplaty[i + 1]
+     * @param wspolczynniki współczynniki opłaty; wspolczynniki[0] obowiązuje przed pierwszą datą zmiany
+     */
+    HarmonogramOplat(Rezerwacja rezerwacja, long[] datyZmian, double[] wspolczynniki) {
+        if (wspolczynniki.length != datyZmian.length + 1) {
+            throw new IllegalArgumentException("Liczba współczynników musi być o jeden większa od liczby dat zmian");
+        }
+        this.dataOd = rezerwacja.getDataOd();
+        this.dataDo = rezerwacja.getDataDo();
+        this.cena = rezerwacja.obliczCene();
+        this.datyZmian = datyZmian.clone();
+        this.oplaty = new double[wspolczynniki.length];
+        for (int i = 0; i < wspolczynniki.length; i++) {
+            oplaty[i] = cena * wspolczynniki[i];
+        }
+    }
+
+    /**
+     * Zwraca opłatę za anulowanie w podanym dniu.
+     * @param dzien dzień anulowania
+     * @return wysokość opłaty
+     */
+    public double oplataNaDzien(LocalDate dzien) {
+        return oplaty[indeksProgu(dzien.toEpochDay())];
+    }
+
+    /**
+     * Zwraca daty, od których obowiązuje kolejny próg opłaty.
+     * @return daty zmian progów
+     */
+    public LocalDate[] getDatyZmian() {
+        return Arrays.stream(datyZmian).mapToObj(LocalDate::ofEpochDay).toArray(LocalDate[]::new);
+    }
+
+    /**
+     * Sprawdza, czy harmonogram odpowiada bieżącemu stanowi rezerwacji (daty i cena).
+     * @param rezerwacja rezerwacja
+     * @return true jeśli harmonogram można nadal stosować
+     */
+    boolean czyAktualny(Rezerwacja rezerwacja) {
+        return dataOd.equals(rezerwacja.getDataOd()) && dataDo.equals(rezerwacja.getDataDo())
+                && Double.compare(cena, rezerwacja.obliczCene()) == 0;
+    }
+
+    /**
+     * Dodaje opłaty z harmonogramu do tablicy różnic dla dni [poczatek, poczatek + roznice.length - 2].
+     * Rezerwacja wnosi opłatę tylko do dnia wyjazdu włącznie.
+     * @param roznice tablica różnic (o jeden dłuższa niż liczba dni)
+     * @param poczatek pierwszy dzień raportu (epochDay)
+     */
+    void dodajDoRoznic(double[] roznice, long poczatek) {
+        long koniec = Math.min(poczatek + roznice.length - 2, dataDo.toEpochDay());
+        if (koniec < poczatek) {
+            return;
+        }
+        int indeks = indeksProgu(poczatek);
+        roznice[0] += oplaty[indeks];
+        for (int i = indeks; i < datyZmian.length && datyZmian[i] <= koniec; i++) {
+            roznice[(int) (datyZmian[i] - poczatek)] += oplaty[i + 1] - oplaty[i];
+            indeks = i + 1;
+        }
+        roznice[(int) (koniec - poczatek) + 1] -= oplaty[indeks];
+    }
+
+    private int indeksProgu(long dzien) {
+        int pozycja = Arrays.binarySearch(datyZmian, dzien);
+        // Przy trafieniu w datę zmiany obowiązuje już nowy próg
+        return pozycja >= 0 ? pozycja + 1 : -pozycja - 1;
+    }
+}
@@ -1,14 +1,35 @@
 package hotel.model;
 
 import hotel.dao.GoscieDAO;
+import hotel.dao.MagazynMigawek;
+import hotel.dao.MigawkaDanych;
 import hotel.dao.PokojeDAO;
 import hotel.dao.RezerwacjeDAO;
+import hotel.dao.WynikAktualizacji;
+import hotel.metryki.OperacjaModeluJfr;
+import hotel.zdarzenia.SzynaZdarzen;
+import hotel.zdarzenia.ZdarzenieRezerwacji;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Główny model systemu zarządzania hotelem.
@@ -24,11 +45,24 @@ public class HotelModel implements IHotelModel {
     private static final double WSPOLCZYNNIK_NISKI = 0.1; // 10% opłaty
     private static final double WSPOLCZYNNIK_SRODKOWY = 0.2; // 20% opłaty
     private static final double WSPOLCZYNNIK_WYSOKI = 0.5; // 50% opłaty
+    private static final int DNI_OPLATY_NISKIEJ = 3; // Poniżej tylu dni przed przyjazdem opłata średnia
+    private static final int DNI_OPLATY_SREDNIEJ = 1; // Poniżej tylu dni przed przyjazdem opłata wysoka
 
     private final RezerwacjeDAO rezerwacjeDAO;
     private final PokojeDAO pokojeDAO;
     private final GoscieDAO goscieDAO;
     private final IGoscFactory fabryka;
+    private final Clock zegar;
+    private final Map<Integer, HarmonogramOplat> harmonogramyOplat = new ConcurrentHashMap<>();
+    private final Map<Integer, ReentrantLock> blokadyPokoi = new ConcurrentHashMap<>();
+    private final MacierzDostepnosci macierzDostepnosci;
+    private volatile IStrategiaPrzydzialu strategiaPrzydzialu = new PrzydzialNajlepszeDopasowanie();
+    private volatile ICennik cennik;
+    private volatile IPolitykaNadrezerwacji politykaNadrezerwacji;
+    private final Object blokadaNadrezerwacji = new Object();
+    private final SzynaZdarzen szynaZdarzen = new SzynaZdarzen();
+    private final MagazynMigawek magazynMigawek = new MagazynMigawek();
+    private final LongAdder liczbaKonfliktow = new LongAdder();
 
     /**
      * Konstruktor tworzący model z własnymi DAO.
@@ -38,6 +72,9 @@ public class HotelModel implements IHotelModel {
         this.pokojeDAO = new PokojeDAO();
         this.goscieDAO = new GoscieDAO();
         this.fabryka = new FabrykaGosci();
+        this.zegar = Clock.systemDefaultZone();
+        this.macierzDostepnosci = new MacierzDostepnosci(rezerwacjeDAO, pokojeDAO, zegar);
+        podlaczMagazynMigawek();
     }
 
     /**
@@ -49,10 +86,55 @@ public class HotelModel implements IHotelModel {
      */
     public HotelModel(RezerwacjeDAO rezerwacjeDAO, PokojeDAO pokojeDAO,
                       GoscieDAO goscieDAO, IGoscFactory fabryka) {
+        this(rezerwacjeDAO, pokojeDAO, goscieDAO, fabryka, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Konstruktor z wstrzykiwaniem zależności i zegara wyznaczającego bieżącą datę
+     * (powtarzalne opłaty za anulowanie w raportach i testach).
+     * @param rezerwacjeDAO DAO rezerwacji
+     * @param pokojeDAO DAO pokoi
+     * @param goscieDAO DAO gości
+     * @param fabryka fabryka gości
+     * @param zegar zegar
+     */
+    public HotelModel(RezerwacjeDAO rezerwacjeDAO, PokojeDAO pokojeDAO,
+                      GoscieDAO goscieDAO, IGoscFactory fabryka, Clock zegar) {
+        if (zegar == null) {
+            throw new IllegalArgumentException("Zegar nie może być null");
+        }
         this.rezerwacjeDAO = rezerwacjeDAO;
         this.pokojeDAO = pokojeDAO;
         this.goscieDAO = goscieDAO;
         this.fabryka = fabryka;
+        this.zegar = zegar;
+        this.macierzDostepnosci = new MacierzDostepnosci(rezerwacjeDAO, pokojeDAO, zegar);
+        podlaczMagazynMigawek();
+    }
+
+    private void podlaczMagazynMigawek() {
+        goscieDAO.podlaczMagazynMigawek(magazynMigawek);
+        pokojeDAO.podlaczMagazynMigawek(magazynMigawek);
+        rezerwacjeDAO.podlaczMagazynMigawek(magazynMigawek);
+    }
+
+    /**
+     * Zwraca niezmienną migawkę gości, pokoi i rezerwacji z jednej wersji.
+     * Operacje modelu publikują swoje zapisy do wszystkich DAO naraz, więc migawka
+     * nigdy nie zawiera operacji wykonanej w połowie. Odczyt nie zakłada blokad,
+     * a migawka pozostaje stabilna niezależnie od późniejszych zapisów.
+     * @return migawka danych
+     */
+    public MigawkaDanych migawka() {
+        return magazynMigawek.migawka();
+    }
+
+    /**
+     * Zwraca magazyn migawek modelu (np. dla nadawcy replikacji).
+     * @return magazyn migawek
+     */
+    public MagazynMigawek getMagazynMigawek() {
+        return magazynMigawek;
     }
     
     @Override
@@ -62,11 +144,410 @@ public class HotelModel implements IHotelModel {
     
     @Override
     public Rezerwacja utworzRezerwacje(Gosc gosc, Pokoj pokoj, LocalDate dataOd, LocalDate dataDo) {
-        // Sprawdź czy pokój jest dostępny w podanym terminie
-        if (!rezerwacjeDAO.czyPokojDostepny(pokoj, dataOd, dataDo)) {
+        return sledzJfr("utworzRezerwacje", () -> {
+            ReentrantLock blokada = blokadaPokoju(pokoj.getNumer());
+            blokada.lock();
+            try {
+                // Sprawdź czy pokój jest dostępny w podanym terminie
+                if (rezerwacjeDAO.czyPokojDostepny(pokoj, dataOd, dataDo)) {
+                    zapiszGosciaIPokoj(gosc, pokoj);
+                    return zapiszNowaRezerwacje(nowaRezerwacja(dataOd, dataDo, gosc, pokoj));
+                }
+                if (politykaNadrezerwacji == null) {
+                    return null;
+                }
+            } finally {
+                blokada.unlock();
+            }
+            // Pokój zajęty - najpierw wolny pokój tego samego typu, nadrezerwacja dopiero przy pełnym typie.
+            // Poza blokadą pokoju, bo wybór innego pokoju zakłada jego własną blokadę.
+            Rezerwacja wTypie = zarezerwujWolnyPokojTypu(gosc, pokoj.getTyp(), dataOd, dataDo);
+            return wTypie != null ? wTypie : zapiszNadrezerwacje(gosc, pokoj, dataOd, dataDo);
+        }, rezerwacja -> rezerwacja, pokoj, dataOd, dataDo);
+    }
+    
+    @Override
+    public List<Rezerwacja> utworzRezerwacjeGrupowa(Gosc gosc, List<Pokoj> pokoje,
+                                                     LocalDate dataOd, LocalDate dataDo) {
+        return sledzJfr("utworzRezerwacjeGrupowa", () -> {
+            // Blokady zakładane rosnąco po numerze pokoju - stała kolejność wyklucza zakleszczenia
+            List<Pokoj> posortowane = pokoje.stream()
+                    .sorted(Comparator.comparingInt(Pokoj::getNumer))
+                    .toList();
+            List<Integer> numery = posortowane.stream().map(Pokoj::getNumer).toList();
+            if (new HashSet<>(numery).size() != numery.size()) {
+                return List.<Rezerwacja>of();
+            }
+            
+            List<ReentrantLock> blokady = numery.stream().map(this::blokadaPokoju).toList();
+            blokady.forEach(ReentrantLock::lock);
+            try {
+                // Jedno przejście po indeksie pokoi zamiast pełnego skanu dla każdego pokoju
+                if (!rezerwacjeDAO.znajdzZajetePokoje(numery, dataOd, dataDo).isEmpty()) {
+                    return List.<Rezerwacja>of();
+                }
+                
+                List<Rezerwacja> utworzone = new ArrayList<>(posortowane.size());
+                List<MacierzDostepnosci.Zajecie> zajecia = new ArrayList<>(posortowane.size());
+                try (MacierzDostepnosci.Zmiana zmiana = macierzDostepnosci.rozpocznijZmiane(posortowane.size())) {
+                    try {
+                        for (Pokoj pokoj : posortowane) {
+                            zapiszGosciaIPokoj(gosc, pokoj);
+                            Rezerwacja nowa = nowaRezerwacja(dataOd, dataDo, gosc, pokoj);
+                            zajecia.add(MacierzDostepnosci.Zajecie.z(nowa));
+                            utworzone.add(rezerwacjeDAO.zapisz(nowa));
+                        }
+                    } catch (RuntimeException e) {
+                        // Wszystko albo nic - wycofaj rezerwacje zapisane przed błędem
+                        utworzone.forEach(r -> rezerwacjeDAO.usun(r.getId()));
+                        macierzDostepnosci.uniewaznij();
+                        throw e;
+                    }
+                    zmiana.zastosuj(List.of(), zajecia, utworzone.size());
+                }
+                utworzone.forEach(r -> opublikuj(ZdarzenieRezerwacji.Typ.UTWORZONA, r));
+                return utworzone;
+            } finally {
+                for (int i = blokady.size() - 1; i >= 0; i--) {
+                    blokady.get(i).unlock();
+                }
+            }
+        }, rezerwacje -> null, null, dataOd, dataDo);
+    }
+    
+    @Override
+    public Rezerwacja utworzRezerwacjeTypu(Gosc gosc, String typPokoju, LocalDate dataOd, LocalDate dataDo) {
+        return sledzJfr("utworzRezerwacjeTypu", () -> {
+            Rezerwacja rezerwacja = zarezerwujWolnyPokojTypu(gosc, typPokoju, dataOd, dataDo);
+            if (rezerwacja != null || politykaNadrezerwacji == null) {
+                return rezerwacja;
+            }
+            return najmniejObciazonyPokoj(typPokoju, dataOd, dataDo)
+                    .map(pokoj -> zapiszNadrezerwacje(gosc, pokoj, dataOd, dataDo))
+                    .orElse(null);
+        }, rezerwacja -> rezerwacja, null, dataOd, dataDo);
+    }
+    
+    /**
+     * Rezerwuje wolny pokój danego typu wybrany przez strategię przydziału.
+     * @return utworzona rezerwacja lub null, gdy wszystkie pokoje typu są zajęte
+     */
+    private Rezerwacja zarezerwujWolnyPokojTypu(Gosc gosc, String typPokoju, LocalDate dataOd, LocalDate dataDo) {
+        List<Pokoj> kandydaci = new ArrayList<>(pokojeDAO.pobierzPoTypie(typPokoju));
+        while (!kandydaci.isEmpty()) {
+            Optional<Pokoj> wybrany = strategiaPrzydzialu.wybierzPokoj(kandydaci, dataOd, dataDo,
+                    rezerwacjeDAO.getKalendarz());
+            if (wybrany.isEmpty()) {
+                break;
+            }
+            Pokoj pokoj = wybrany.get();
+            ReentrantLock blokada = blokadaPokoju(pokoj.getNumer());
+            blokada.lock();
+            try {
+                // Pokój mógł zostać zajęty przez inny wątek między wyborem a blokadą
+                if (rezerwacjeDAO.znajdzZajetePokoje(List.of(pokoj.getNumer()), dataOd, dataDo).isEmpty()) {
+                    zapiszGosciaIPokoj(gosc, pokoj);
+                    return zapiszNowaRezerwacje(nowaRezerwacja(dataOd, dataDo, gosc, pokoj));
+                }
+            } finally {
+                blokada.unlock();
+            }
+            kandydaci.remove(pokoj);
+        }
+        return null;
+    }
+    
+    /**
+     * Wybiera pokój danego typu według bieżącej strategii przydziału, bez tworzenia rezerwacji.
+     * @param typPokoju typ pokoju
+     * @param dataOd data rozpoczęcia
+     * @param dataDo data zakończenia
+     * @return wybrany pokój lub pusty Optional
+     */
+    public Optional<Pokoj> przydzielPokoj(String typPokoju, LocalDate dataOd, LocalDate dataDo) {
+        return strategiaPrzydzialu.wybierzPokoj(pokojeDAO.pobierzPoTypie(typPokoju), dataOd, dataDo,
+                rezerwacjeDAO.getKalendarz());
+    }
+    
+    /**
+     * Ustawia strategię przydziału pokoi dla rezerwacji według typu.
+     * @param strategiaPrzydzialu strategia przydziału
+     */
+    public void setStrategiaPrzydzialu(IStrategiaPrzydzialu strategiaPrzydzialu) {
+        if (strategiaPrzydzialu == null) {
+            throw new IllegalArgumentException("Strategia przydziału nie może być null");
+        }
+        this.strategiaPrzydzialu = strategiaPrzydzialu;
+    }
+    
+    /**
+     * Ustawia politykę nadrezerwacji. Z polityką rezerwacja zajętego pokoju trafia najpierw
+     * do wolnego pokoju tego samego typu, a gdy cały typ jest zajęty, model przyjmuje ją
+     * jako nadrezerwację, o ile w żadnej nocy pobytu liczba
+     * rezerwacji typu nie przekroczy liczby pokoi powiększonej o limit polityki. Kolizje
+     * rozwiązywane są przy przyjazdach przez przeniesienie rezerwacji do wolnego pokoju.
+     * @param politykaNadrezerwacji polityka lub null, aby zabronić nadrezerwacji
+     */
+    public void setPolitykaNadrezerwacji(IPolitykaNadrezerwacji politykaNadrezerwacji) {
+        this.politykaNadrezerwacji = politykaNadrezerwacji;
+    }
+    
+    /**
+     * Przenosi rezerwację do innego pokoju na cały pobyt (np. przy rozwiązywaniu kolizji nadrezerwacji).
+     * @param idRezerwacji ID rezerwacji
+     * @param nowyPokoj pokój docelowy
+     * @return true jeśli przeniesiono; false gdy rezerwacji nie ma, jest zakończona,
+     *         jest już w tym pokoju albo pokój docelowy jest zajęty w terminie pobytu
+     */
+    public boolean przeniesRezerwacje(int idRezerwacji, Pokoj nowyPokoj) {
+        return sledzJfr("przeniesRezerwacje", idRezerwacji, () -> {
+            while (true) {
+                Optional<Rezerwacja> odczytana = rezerwacjeDAO.pobierz(idRezerwacji);
+                if (odczytana.isEmpty()) {
+                    return false;
+                }
+                // Blokady pokoju źródłowego i docelowego, rosnąco po numerze
+                int zrodlo = odczytana.get().getPokoj().getNumer();
+                List<ReentrantLock> blokady = Stream.of(zrodlo, nowyPokoj.getNumer())
+                        .sorted().distinct().map(this::blokadaPokoju).toList();
+                blokady.forEach(ReentrantLock::lock);
+                try {
+                    Optional<Rezerwacja> rezerwacja = rezerwacjeDAO.pobierz(idRezerwacji);
+                    if (rezerwacja.isEmpty()) {
+                        return false;
+                    }
+                    if (rezerwacja.get().getPokoj().getNumer() != zrodlo) {
+                        continue;
+                    }
+                    long wersja = rezerwacja.get().getWersja();
+                    Rezerwacja r = rezerwacja.get().kopia();
+                    if (r.getStatus() == Rezerwacja.Status.WYMELDOWANA || r.getStatus() == Rezerwacja.Status.ANULOWANA
+                            || r.getPokoj().getNumer() == nowyPokoj.getNumer()
+                            || !rezerwacjeDAO.znajdzZajetePokoje(List.of(nowyPokoj.getNumer()),
+                                    r.getDataOd(), r.getDataDo()).isEmpty()) {
+                        return false;
+                    }
+                    MacierzDostepnosci.Zajecie przed = MacierzDostepnosci.Zajecie.z(r);
+                    zapiszGosciaIPokoj(r.getGosc(), nowyPokoj);
+                    WynikAktualizacji wynik;
+                    try (MacierzDostepnosci.Zmiana zmiana = macierzDostepnosci.rozpocznijZmiane(1)) {
+                        wynik = rezerwacjeDAO.przeniesDoPokoju(idRezerwacji, nowyPokoj, wersja);
+                        if (wynik == WynikAktualizacji.ZAPISANO) {
+                            zmiana.zastosuj(przed, przed.wPokoju(nowyPokoj));
+                        }
+                    }
+                    if (wynik == WynikAktualizacji.KONFLIKT) {
+                        liczbaKonfliktow.increment();
+                        continue;
+                    }
+                    if (wynik == WynikAktualizacji.BRAK) {
+                        return false;
+                    }
+                    // Zdarzenie niesie pokój źródłowy - jego noce zostały zwolnione
+                    Rezerwacja przeniesiona = rezerwacjeDAO.pobierz(idRezerwacji).orElseThrow();
+                    if (szynaZdarzen.maSubskrybentow()) {
+                        szynaZdarzen.publikuj(ZdarzenieRezerwacji.z(ZdarzenieRezerwacji.Typ.ZMIENIONA, przeniesiona,
+                                zrodlo, r.getDataOd(), r.getDataDo(), Instant.now(zegar)));
+                    }
+                    return true;
+                } finally {
+                    for (int i = blokady.size() - 1; i >= 0; i--) {
+                        blokady.get(i).unlock();
+                    }
+                }
+            }
+        });
+    }
+    
+    /**
+     * Ustawia cennik przypisywany rezerwacjom tworzonym przez model.
+     * Rezerwacje utworzone wcześniej zachowują swój cennik i ustaloną cenę.
+     * @param cennik cennik lub null dla ceny bazowej pokoju
+     */
+    public void setCennik(ICennik cennik) {
+        this.cennik = cennik;
+    }
+    
+    /**
+     * Włącza ceny dynamiczne: tworzy silnik cen korzystający z macierzy dostępności modelu
+     * i ustawia go jako cennik nowych rezerwacji.
+     * @param taryfa reguły cen
+     * @return utworzony silnik cen
+     */
+    public SilnikCen wlaczCenyDynamiczne(TaryfaCen taryfa) {
+        SilnikCen silnik = new SilnikCen(macierzDostepnosci, taryfa);
+        this.cennik = silnik;
+        return silnik;
+    }
+    
+    /**
+     * Zwraca liczbę wolnych pokoi danego typu w kolejnych dniach przedziału [dataOd, dataDo].
+     * Odpowiedź pochodzi z macierzy dostępności, bez skanowania rezerwacji.
+     * @param typPokoju typ pokoju
+     * @param dataOd pierwszy dzień
+     * @param dataDo ostatni dzień
+     * @return liczby wolnych pokoi, element 0 dotyczy dataOd
+     */
+    public int[] pobierzLiczbyWolnychPokoi(String typPokoju, LocalDate dataOd, LocalDate dataDo) {
+        return macierzDostepnosci.liczbaWolnych(typPokoju, dataOd, dataDo);
+    }
+    
+    /**
+     * Zwraca liczbę wolnych pokoi każdego typu w kolejnych dniach przedziału [dataOd, dataDo]
+     * (np. do przekazania pełnej dostępności do kanałów sprzedaży).
+     * @param dataOd pierwszy dzień
+     * @param dataDo ostatni dzień
+     * @return mapa typ pokoju -> liczby wolnych pokoi
+     */
+    public Map<String, int[]> pobierzLiczbyWolnychPokoi(LocalDate dataOd, LocalDate dataDo) {
+        return macierzDostepnosci.liczbaWolnych(dataOd, dataDo);
+    }
+    
+    MacierzDostepnosci getMacierzDostepnosci() {
+        return macierzDostepnosci;
+    }
+    
+    /**
+     * Zapisuje rezerwację na zajęty pokój, jeśli pozwala na to polityka nadrezerwacji
+     * w każdym dniu pobytu; w przeciwnym razie zwraca null.
+     */
+    private Rezerwacja zapiszNadrezerwacje(Gosc gosc, Pokoj pokoj, LocalDate dataOd, LocalDate dataDo) {
+        IPolitykaNadrezerwacji polityka = politykaNadrezerwacji;
+        if (polityka == null) {
             return null;
         }
-        
+        // Limit sprawdzany i wykorzystywany atomowo względem innych nadrezerwacji
+        synchronized (blokadaNadrezerwacji) {
+            String typ = pokoj.getTyp();
+            int liczbaPokoi = macierzDostepnosci.liczbaPokoi(typ);
+            int[] zajete = macierzDostepnosci.liczbaZajetych(typ, dataOd, dataDo);
+            for (int i = 0; i < zajete.length; i++) {
+                if (zajete[i] >= liczbaPokoi + polityka.limitNadrezerwacji(typ, liczbaPokoi, dataOd.plusDays(i))) {
+                    return null;
+                }
+            }
+            zapiszGosciaIPokoj(gosc, pokoj);
+            return zapiszNowaRezerwacje(nowaRezerwacja(dataOd, dataDo, gosc, pokoj));
+        }
+    }
+    
+    /**
+     * Wybiera pokój danego typu z najmniejszą liczbą aktywnych rezerwacji kolidujących z terminem.
+     */
+    private Optional<Pokoj> najmniejObciazonyPokoj(String typPokoju, LocalDate dataOd, LocalDate dataDo) {
+        return pokojeDAO.pobierzPoTypie(typPokoju).stream()
+                .min(Comparator.comparingInt((Pokoj p) -> rezerwacjeDAO
+                                .pobierzKolidujaceDlaPokoju(p.getNumer(), dataOd, dataDo).size())
+                        .thenComparingInt(Pokoj::getNumer));
+    }
+    
+    private Rezerwacja nowaRezerwacja(LocalDate dataOd, LocalDate dataDo, Gosc gosc, Pokoj pokoj) {
+        Rezerwacja rezerwacja = new Rezerwacja(dataOd, dataDo, gosc, pokoj);
+        rezerwacja.setCennik(cennik);
+        return rezerwacja;
+    }
+    
+    /**
+     * Zapisuje nową rezerwację, nanosi ją na macierz dostępności i publikuje zdarzenie UTWORZONA.
+     */
+    private Rezerwacja zapiszNowaRezerwacje(Rezerwacja rezerwacja) {
+        Rezerwacja zapisana;
+        try (MacierzDostepnosci.Zmiana zmiana = macierzDostepnosci.rozpocznijZmiane(1)) {
+            MacierzDostepnosci.Zajecie po = MacierzDostepnosci.Zajecie.z(rezerwacja);
+            zapisana = rezerwacjeDAO.zapisz(rezerwacja);
+            zmiana.zastosuj(null, po);
+        }
+        opublikuj(ZdarzenieRezerwacji.Typ.UTWORZONA, zapisana);
+        return zapisana;
+    }
+    
+    /**
+     * Zmienia rezerwację optymistycznie: zmiana jest przygotowywana na kopii i zapisywana
+     * przez DAO tylko wtedy, gdy wersja rezerwacji się nie zmieniła. Przy konflikcie
+     * operacja jest powtarzana na świeżym stanie, bez blokad. Po udanym zapisie zmiana
+     * trafia do macierzy dostępności i publikowane jest zdarzenie.
+     * @param idRezerwacji ID rezerwacji
+     * @param zmiana modyfikuje kopię; zwraca false, jeśli w bieżącym stanie zmiana jest niedozwolona
+     * @param poZapisie akcja wykonywana po udanym zapisie (np. zmiana dostępności pokoju), może być null
+     * @param typZdarzenia rodzaj publikowanego zdarzenia
+     * @return true jeśli rezerwacja została zmieniona
+     */
+    private boolean zmienRezerwacje(int idRezerwacji, Predicate<Rezerwacja> zmiana,
+                                    Consumer<Rezerwacja> poZapisie, ZdarzenieRezerwacji.Typ typZdarzenia) {
+        while (true) {
+            Optional<Rezerwacja> rezerwacja = rezerwacjeDAO.pobierz(idRezerwacji);
+            if (rezerwacja.isEmpty()) {
+                return false;
+            }
+            Rezerwacja r = rezerwacja.get();
+            long wersja = r.getWersja();
+            Rezerwacja kopia = r.kopia();
+            MacierzDostepnosci.Zajecie przed = MacierzDostepnosci.Zajecie.z(kopia);
+            LocalDate poprzedniaDataOd = kopia.getDataOd();
+            LocalDate poprzedniaDataDo = kopia.getDataDo();
+            if (!zmiana.test(kopia)) {
+                // Odmowa na podstawie nieaktualnego stanu nie jest ostateczna
+                if (r.getWersja() != wersja) {
+                    continue;
+                }
+                return false;
+            }
+
+            WynikAktualizacji wynik;
+            try (MacierzDostepnosci.Zmiana zmianaMacierzy = macierzDostepnosci.rozpocznijZmiane(1)) {
+                wynik = rezerwacjeDAO.aktualizuj(kopia, wersja);
+                if (wynik == WynikAktualizacji.ZAPISANO) {
+                    // Różnica z kopii - zapisany obiekt mogła już zmienić kolejna operacja
+                    zmianaMacierzy.zastosuj(przed, MacierzDostepnosci.Zajecie.z(kopia));
+                }
+            }
+            if (wynik == WynikAktualizacji.KONFLIKT) {
+                liczbaKonfliktow.increment();
+                continue;
+            }
+            if (wynik == WynikAktualizacji.BRAK) {
+                return false;
+            }
+            if (poZapisie != null) {
+                poZapisie.accept(r);
+            }
+            if (czyZakonczona(kopia)) {
+                harmonogramyOplat.remove(idRezerwacji);
+            }
+            // Zdarzenie z kopii - dokładnie zapisany stan, z wersją nadaną przez DAO
+            kopia.ustawWersje(wersja + 1);
+            opublikuj(typZdarzenia, kopia, poprzedniaDataOd, poprzedniaDataDo);
+            return true;
+        }
+    }
+    
+    /**
+     * Zwraca liczbę konfliktów wersji, po których zmiana rezerwacji lub gościa była powtarzana.
+     * @return liczba konfliktów
+     */
+    public long pobierzLiczbeKonfliktow() {
+        return liczbaKonfliktow.sum();
+    }
+    
+    /**
+     * Publikuje zdarzenie cyklu życia rezerwacji; bez subskrybentów zdarzenie nie jest tworzone.
+     */
+    private void opublikuj(ZdarzenieRezerwacji.Typ typ, Rezerwacja r) {
+        opublikuj(typ, r, r.getDataOd(), r.getDataDo());
+    }
+    
+    private void opublikuj(ZdarzenieRezerwacji.Typ typ, Rezerwacja r,
+                           LocalDate poprzedniaDataOd, LocalDate poprzedniaDataDo) {
+        if (szynaZdarzen.maSubskrybentow()) {
+            szynaZdarzen.publikuj(ZdarzenieRezerwacji.z(typ, r, poprzedniaDataOd, poprzedniaDataDo,
+                    Instant.now(zegar)));
+        }
+    }
+    
+    /**
+     * Zapisuje gościa i pokój, jeśli nie istnieją jeszcze w DAO.
+     */
+    private void zapiszGosciaIPokoj(Gosc gosc, Pokoj pokoj) {
         // Sprawdź czy gość istnieje
         if (goscieDAO.pobierz(gosc.getId()).isEmpty()) {
             goscieDAO.zapisz(gosc);
@@ -76,16 +557,18 @@ public class HotelModel implements IHotelModel {
         if (pokojeDAO.pobierz(pokoj.getNumer()).isEmpty()) {
             pokojeDAO.zapisz(pokoj);
         }
-        
-        Rezerwacja rezerwacja = new Rezerwacja(dataOd, dataDo, gosc, pokoj);
-        return rezerwacjeDAO.zapisz(rezerwacja);
+    }
+    
+    private ReentrantLock blokadaPokoju(int numerPokoju) {
+        return blokadyPokoi.computeIfAbsent(numerPokoju, k -> new ReentrantLock());
     }
     
     @Override
     public Gosc utworzProfilGoscia(String imie, String nazwisko, String email) {
-        // Sprawdź czy gość o takim emailu już istnieje
-        if (goscieDAO.istniejeEmail(email)) {
-            return goscieDAO.znajdzPoEmail(email).orElse(null);
+        // Sprawdź czy gość o takim emailu już istnieje (nowy adres rozstrzyga filtr Blooma w DAO)
+        Optional<Gosc> istniejacy = goscieDAO.znajdzPoEmail(email);
+        if (istniejacy.isPresent()) {
+            return istniejacy.get();
         }
         
         Gosc nowyGosc = fabryka.utworzGoscia(imie, nazwisko, email);
@@ -93,55 +576,98 @@ public class HotelModel implements IHotelModel {
     }
     
     @Override
-    public boolean anulujRezerwacje(int idRezerwacji) {
-        Optional<Rezerwacja> rezerwacja = rezerwacjeDAO.pobierz(idRezerwacji);
-        if (rezerwacja.isEmpty()) {
-            return false;
+    public boolean zmienEmailGoscia(int idGoscia, String nowyEmail) {
+        while (true) {
+            Optional<Gosc> gosc = goscieDAO.pobierz(idGoscia);
+            if (gosc.isEmpty()) {
+                return false;
+            }
+            long wersja = gosc.get().getWersja();
+            Gosc kopia = gosc.get().kopia();
+            try {
+                kopia.setEmail(nowyEmail);
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+            WynikAktualizacji wynik = goscieDAO.aktualizuj(kopia, wersja);
+            if (wynik != WynikAktualizacji.KONFLIKT) {
+                return wynik == WynikAktualizacji.ZAPISANO;
+            }
+            liczbaKonfliktow.increment();
         }
-
-        Rezerwacja r = rezerwacja.get();
-        if (r.getStatus() == Rezerwacja.Status.WYMELDOWANA ||
-            r.getStatus() == Rezerwacja.Status.ANULOWANA) {
-            return false;
-        }
-
-        r.setStatus(Rezerwacja.Status.ANULOWANA);
-
-        // Ustaw dostępność pokoju po anulowaniu rezerwacji
-        pokojeDAO.ustawDostepnosc(r.getPokoj().getNumer(), true);
-
-        return rezerwacjeDAO.aktualizuj(r);
+    }
+    
+    @Override
+    public boolean anulujRezerwacje(int idRezerwacji) {
+        return sledzJfr("anulujRezerwacje", idRezerwacji, () -> zmienRezerwacje(idRezerwacji, r -> {
+            if (r.getStatus() == Rezerwacja.Status.WYMELDOWANA ||
+                r.getStatus() == Rezerwacja.Status.ANULOWANA) {
+                return false;
+            }
+            r.setStatus(Rezerwacja.Status.ANULOWANA);
+            r.setDataAnulowania(LocalDate.now(zegar));
+            return true;
+        },
+                // Ustaw dostępność pokoju po anulowaniu rezerwacji
+                r -> pokojeDAO.ustawDostepnosc(r.getPokoj().getNumer(), true),
+                ZdarzenieRezerwacji.Typ.ANULOWANA));
     }
     
     @Override
     public boolean modyfikujRezerwacje(int idRezerwacji, LocalDate nowaDataOd, LocalDate nowaDataDo) {
-        Optional<Rezerwacja> rezerwacja = rezerwacjeDAO.pobierz(idRezerwacji);
-        if (rezerwacja.isEmpty()) {
-            return false;
-        }
+        // Sprawdzenie kolizji i zapis pod blokadą pokoju, jak przy tworzeniu rezerwacji
+        return sledzJfr("modyfikujRezerwacje", idRezerwacji, () -> podBlokadaPokojuRezerwacji(idRezerwacji,
+                () -> zmienRezerwacje(idRezerwacji, r -> {
+            // Sprawdź czy można modyfikować
+            if (r.getStatus() == Rezerwacja.Status.WYMELDOWANA || 
+                r.getStatus() == Rezerwacja.Status.ANULOWANA) {
+                return false;
+            }
         
-        Rezerwacja r = rezerwacja.get();
+            // Sprawdź dostępność pokoju w nowym terminie (wykluczając bieżącą rezerwację)
+            List<Rezerwacja> kolidujace = rezerwacjeDAO.pobierzDlaPokoju(r.getPokoj()).stream()
+                    .filter(res -> res.getId() != idRezerwacji)
+                    .filter(res -> res.getStatus() != Rezerwacja.Status.ANULOWANA)
+                    .filter(res -> res.getStatus() != Rezerwacja.Status.WYMELDOWANA)
+                    .filter(res -> koliduja(res.getDataOd(), res.getDataDo(), nowaDataOd, nowaDataDo))
+                    .toList();
         
-        // Sprawdź czy można modyfikować
-        if (r.getStatus() == Rezerwacja.Status.WYMELDOWANA || 
-            r.getStatus() == Rezerwacja.Status.ANULOWANA) {
-            return false;
-        }
-        
-        // Sprawdź dostępność pokoju w nowym terminie (wykluczając bieżącą rezerwację)
-        List<Rezerwacja> kolidujace = rezerwacjeDAO.pobierzDlaPokoju(r.getPokoj()).stream()
-                .filter(res -> res.getId() != idRezerwacji)
-                .filter(res -> res.getStatus() != Rezerwacja.Status.ANULOWANA)
-                .filter(res -> res.getStatus() != Rezerwacja.Status.WYMELDOWANA)
-                .filter(res -> koliduja(res.getDataOd(), res.getDataDo(), nowaDataOd, nowaDataDo))
-                .toList();
+            if (!kolidujace.isEmpty()) {
+                return false;
+            }
         
-        if (!kolidujace.isEmpty()) {
-            return false;
+            r.zmienDaty(nowaDataOd, nowaDataDo);
+            return true;
+        }, null, ZdarzenieRezerwacji.Typ.ZMIENIONA)));
+    }
+
+    /**
+     * Wykonuje operację pod blokadą pokoju, do którego należy rezerwacja. Pokój zmienia się
+     * tylko przy przeniesieniu, które również trzyma tę blokadę, więc po jej założeniu
+     * wystarczy sprawdzić, czy rezerwacja nadal jest w tym samym pokoju.
+     * @return wynik operacji lub false, gdy rezerwacji nie ma
+     */
+    private boolean podBlokadaPokojuRezerwacji(int idRezerwacji, Supplier<Boolean> operacja) {
+        while (true) {
+            Optional<Rezerwacja> rezerwacja = rezerwacjeDAO.pobierz(idRezerwacji);
+            if (rezerwacja.isEmpty()) {
+                return false;
+            }
+            int numerPokoju = rezerwacja.get().getPokoj().getNumer();
+            ReentrantLock blokada = blokadaPokoju(numerPokoju);
+            blokada.lock();
+            try {
+                Optional<Rezerwacja> aktualna = rezerwacjeDAO.pobierz(idRezerwacji);
+                if (aktualna.isEmpty()) {
+                    return false;
+                }
+                if (aktualna.get().getPokoj().getNumer() == numerPokoju) {
+                    return operacja.get();
+                }
+            } finally {
+                blokada.unlock();
+            }
         }
-        
-        r.zmienDaty(nowaDataOd, nowaDataDo);
-        return rezerwacjeDAO.aktualizuj(r);
     }
     
     private boolean koliduja(LocalDate od1, LocalDate do1, LocalDate od2, LocalDate do2) {
@@ -160,6 +686,7 @@ public class HotelModel implements IHotelModel {
 
     /**
      * Oblicza opłatę za anulowanie rezerwacji na podstawie czasu przed datą przyjazdu.
+     * Bieżąca data pochodzi ze wstrzykniętego zegara.
      * @param rezerwacja rezerwacja do anulowania
      * @return wysokość opłaty
      */
@@ -167,23 +694,102 @@ public class HotelModel implements IHotelModel {
         if (rezerwacja == null) {
             return 0;
         }
+        return pobierzHarmonogramOplat(rezerwacja).oplataNaDzien(LocalDate.now(zegar));
+    }
 
-        // Oblicz liczbę dni między dzisiejszym dniem a datą przyjazdu
-        long dniPrzedPrzyjazdem = ChronoUnit.DAYS.between(LocalDate.now(), rezerwacja.getDataOd());
-
-        // Określ współczynnik opłaty na podstawie czasu przed przyjazdem
-        double wspolczynnik;
-        if (dniPrzedPrzyjazdem >= DNI_BEZ_OPLATY_ANULOWANIA) {
-            wspolczynnik = WSPOLCZYNNIK_BEZ_OPLATY; // Brak opłaty przy anulowaniu wcześnie
-        } else if (dniPrzedPrzyjazdem >= 3) {
-            wspolczynnik = WSPOLCZYNNIK_NISKI; // Niska opłata przy anulowaniu 3-7 dni przed
-        } else if (dniPrzedPrzyjazdem >= 1) {
-            wspolczynnik = WSPOLCZYNNIK_SRODKOWY; // Średnia opłata przy anulowaniu 1-3 dni przed
-        } else {
-            wspolczynnik = WSPOLCZYNNIK_WYSOKI; // Wysoka opłata przy anulowaniu w ostatnim dniu lub po terminie
+    /**
+     * Zwraca harmonogram opłat za anulowanie rezerwacji. Harmonogramy rezerwacji trwających
+     * są zapamiętywane i wyznaczane ponownie dopiero po zmianie dat lub ceny rezerwacji;
+     * anulowanie lub wymeldowanie usuwa zapamiętany harmonogram, a harmonogramy rezerwacji
+     * usuniętych z DAO są odrzucane przy raporcie ekspozycji.
+     * @param rezerwacja rezerwacja
+     * @return harmonogram opłat
+     */
+    public HarmonogramOplat pobierzHarmonogramOplat(Rezerwacja rezerwacja) {
+        if (czyZakonczona(rezerwacja)) {
+            harmonogramyOplat.remove(rezerwacja.getId());
+            return utworzHarmonogramOplat(rezerwacja);
+        }
+        HarmonogramOplat harmonogram = harmonogramyOplat.get(rezerwacja.getId());
+        if (harmonogram == null || !harmonogram.czyAktualny(rezerwacja)) {
+            harmonogram = utworzHarmonogramOplat(rezerwacja);
+            harmonogramyOplat.put(rezerwacja.getId(), harmonogram);
         }
+        return harmonogram;
+    }
 
-        return rezerwacja.obliczCene() * wspolczynnik;
+    /**
+     * Zwraca liczbę zapamiętanych harmonogramów opłat (do testów).
+     * @return liczba harmonogramów
+     */
+    int pobierzLiczbeHarmonogramowOplat() {
+        return harmonogramyOplat.size();
+    }
+
+    private static boolean czyZakonczona(Rezerwacja rezerwacja) {
+        return rezerwacja.getStatus() == Rezerwacja.Status.ANULOWANA
+                || rezerwacja.getStatus() == Rezerwacja.Status.WYMELDOWANA;
+    }
+
+    /**
+     * Wyznacza daty zmiany progów opłaty: opłata rośnie, gdy do przyjazdu zostaje
+     * mniej niż 7, 3 i 1 dzień.
+     */
+    private static HarmonogramOplat utworzHarmonogramOplat(Rezerwacja rezerwacja) {
+        long przyjazd = rezerwacja.getDataOd().toEpochDay();
+        return new HarmonogramOplat(rezerwacja,
+                new long[] {
+                        przyjazd - DNI_BEZ_OPLATY_ANULOWANIA + 1,
+                        przyjazd - DNI_OPLATY_NISKIEJ + 1,
+                        przyjazd - DNI_OPLATY_SREDNIEJ + 1
+                },
+                new double[] {
+                        WSPOLCZYNNIK_BEZ_OPLATY, // Brak opłaty przy anulowaniu wcześnie
+                        WSPOLCZYNNIK_NISKI,      // Niska opłata przy anulowaniu 3-7 dni przed
+                        WSPOLCZYNNIK_SRODKOWY,   // Średnia opłata przy anulowaniu 1-3 dni przed
+                        WSPOLCZYNNIK_WYSOKI      // Wysoka opłata w ostatnim dniu lub po terminie
+                });
+    }
+
+    /**
+     * Oblicza łączną ekspozycję na opłaty za anulowanie: sumę opłat, które należałyby się,
+     * gdyby każda aktywna rezerwacja została anulowana w podanym dniu.
+     * @param naDzien dzień anulowania
+     * @return suma opłat
+     */
+    public double obliczEkspozycjeAnulowan(LocalDate naDzien) {
+        return obliczEkspozycjeAnulowan(naDzien, naDzien)[0];
+    }
+
+    /**
+     * Oblicza ekspozycję na opłaty za anulowanie dla każdego dnia przedziału [dataOd, dataDo]
+     * (raport nocny). Rezerwacja wnosi opłatę do dnia wyjazdu włącznie. Opłaty są stałe między
+     * datami zmiany progów, więc raport składany jest z tablicy różnic w czasie
+     * proporcjonalnym do liczby rezerwacji i dni.
+     * @param dataOd pierwszy dzień raportu
+     * @param dataDo ostatni dzień raportu
+     * @return ekspozycja w kolejnych dniach, element 0 dotyczy dataOd
+     */
+    public double[] obliczEkspozycjeAnulowan(LocalDate dataOd, LocalDate dataDo) {
+        if (dataOd.isAfter(dataDo)) {
+            throw new IllegalArgumentException("Data rozpoczęcia nie może być późniejsza niż data zakończenia");
+        }
+        int dni = (int) ChronoUnit.DAYS.between(dataOd, dataDo) + 1;
+        double[] roznice = new double[dni + 1];
+        Set<Integer> aktywne = new HashSet<>();
+        for (Rezerwacja r : rezerwacjeDAO.pobierzAktywne()) {
+            pobierzHarmonogramOplat(r).dodajDoRoznic(roznice, dataOd.toEpochDay());
+            aktywne.add(r.getId());
+        }
+        // Harmonogramy rezerwacji usuniętych bezpośrednio z DAO nie są dłużej potrzebne
+        harmonogramyOplat.keySet().retainAll(aktywne);
+        double[] ekspozycja = new double[dni];
+        double suma = 0;
+        for (int i = 0; i < dni; i++) {
+            suma += roznice[i];
+            ekspozycja[i] = suma;
+        }
+        return ekspozycja;
     }
 
     /**
@@ -193,24 +799,19 @@ public class HotelModel implements IHotelModel {
      * @return true jeśli anulowano pomyślnie
      */
     public boolean anulujRezerwacje(int idRezerwacji, String przyczyna) {
-        Optional<Rezerwacja> rezerwacjaOpt = rezerwacjeDAO.pobierz(idRezerwacji);
-        if (rezerwacjaOpt.isEmpty()) {
-            return false;
-        }
-
-        Rezerwacja r = rezerwacjaOpt.get();
-        if (r.getStatus() == Rezerwacja.Status.WYMELDOWANA ||
-            r.getStatus() == Rezerwacja.Status.ANULOWANA) {
-            return false;
-        }
-
-        // Ustaw przyczynę anulowania w obiekcie rezerwacji
-        r.anuluj(przyczyna);
-
-        // Ustaw dostępność pokoju po anulowaniu rezerwacji
-        pokojeDAO.ustawDostepnosc(r.getPokoj().getNumer(), true);
-
-        return rezerwacjeDAO.aktualizuj(r);
+        return sledzJfr("anulujRezerwacjeZPrzyczyna", idRezerwacji, () -> zmienRezerwacje(idRezerwacji, r -> {
+            if (r.getStatus() == Rezerwacja.Status.WYMELDOWANA ||
+                r.getStatus() == Rezerwacja.Status.ANULOWANA) {
+                return false;
+            }
+            // Ustaw przyczynę anulowania w obiekcie rezerwacji
+            r.anuluj(przyczyna);
+            r.setDataAnulowania(LocalDate.now(zegar));
+            return true;
+        },
+                // Ustaw dostępność pokoju po anulowaniu rezerwacji
+                r -> pokojeDAO.ustawDostepnosc(r.getPokoj().getNumer(), true),
+                ZdarzenieRezerwacji.Typ.ANULOWANA));
     }
     
     @Override
@@ -225,60 +826,121 @@ public class HotelModel implements IHotelModel {
     
     @Override
     public List<Pokoj> znajdzDostepnePokoje(LocalDate dataOd, LocalDate dataDo) {
-        return pokojeDAO.pobierzWszystkie().stream()
-                .filter(p -> rezerwacjeDAO.czyPokojDostepny(p, dataOd, dataDo))
-                .filter(p -> pokojeDAO.czyDostepny(p.getNumer()))
-                .collect(Collectors.toList());
+        return sledzJfr("znajdzDostepnePokoje", () -> {
+            return pokojeDAO.pobierzWszystkie().stream()
+                    .filter(p -> rezerwacjeDAO.czyPokojDostepny(p, dataOd, dataDo))
+                    .filter(p -> pokojeDAO.czyDostepny(p.getNumer()))
+                    .collect(Collectors.toList());
+        }, pokoje -> null, null, dataOd, dataDo);
     }
     
     @Override
     public boolean zameldujGoscia(int idRezerwacji) {
-        Optional<Rezerwacja> rezerwacja = rezerwacjeDAO.pobierz(idRezerwacji);
-        if (rezerwacja.isEmpty()) {
-            return false;
-        }
-        
-        Rezerwacja r = rezerwacja.get();
-        if (r.getStatus() != Rezerwacja.Status.NOWA && r.getStatus() != Rezerwacja.Status.POTWIERDZONA) {
-            return false;
-        }
-        
-        r.setStatus(Rezerwacja.Status.ZAMELDOWANA);
-        pokojeDAO.ustawDostepnosc(r.getPokoj().getNumer(), false);
-        return rezerwacjeDAO.aktualizuj(r);
+        return sledzJfr("zameldujGoscia", idRezerwacji, () -> zmienRezerwacje(idRezerwacji, r -> {
+            if (r.getStatus() != Rezerwacja.Status.NOWA && r.getStatus() != Rezerwacja.Status.POTWIERDZONA) {
+                return false;
+            }
+            r.setStatus(Rezerwacja.Status.ZAMELDOWANA);
+            return true;
+        }, r -> pokojeDAO.ustawDostepnosc(r.getPokoj().getNumer(), false), ZdarzenieRezerwacji.Typ.ZAMELDOWANA));
     }
     
     @Override
     public boolean wymeldujGoscia(int idRezerwacji) {
-        Optional<Rezerwacja> rezerwacja = rezerwacjeDAO.pobierz(idRezerwacji);
-        if (rezerwacja.isEmpty()) {
-            return false;
-        }
-        
-        Rezerwacja r = rezerwacja.get();
-        if (r.getStatus() != Rezerwacja.Status.ZAMELDOWANA) {
-            return false;
-        }
-        
-        r.setStatus(Rezerwacja.Status.WYMELDOWANA);
-        pokojeDAO.ustawDostepnosc(r.getPokoj().getNumer(), true);
-        return rezerwacjeDAO.aktualizuj(r);
+        return sledzJfr("wymeldujGoscia", idRezerwacji, () -> zmienRezerwacje(idRezerwacji, r -> {
+            if (r.getStatus() != Rezerwacja.Status.ZAMELDOWANA) {
+                return false;
+            }
+            r.setStatus(Rezerwacja.Status.WYMELDOWANA);
+            return true;
+        }, r -> pokojeDAO.ustawDostepnosc(r.getPokoj().getNumer(), true), ZdarzenieRezerwacji.Typ.WYMELDOWANA));
     }
     
     @Override
     public boolean potwierdzPlatnosc(int idRezerwacji) {
-        Optional<Rezerwacja> rezerwacja = rezerwacjeDAO.pobierz(idRezerwacji);
-        if (rezerwacja.isEmpty()) {
-            return false;
+        return sledzJfr("potwierdzPlatnosc", idRezerwacji, () -> zmienRezerwacje(idRezerwacji, r -> {
+            if (r.getStatus() != Rezerwacja.Status.NOWA) {
+                return false;
+            }
+            r.setStatus(Rezerwacja.Status.POTWIERDZONA);
+            return true;
+        }, null, ZdarzenieRezerwacji.Typ.POTWIERDZONA));
+    }
+    
+    /**
+     * Zwraca łączną liczbę rekordów przejrzanych przez pełne skany wszystkich DAO.
+     * Wykorzystywane przez warstwę metryk do wyznaczania rozmiaru skanów.
+     * @return liczba przeskanowanych rekordów
+     */
+    public long pobierzLiczbePrzeskanowanych() {
+        return rezerwacjeDAO.pobierzLiczbePrzeskanowanych()
+                + pokojeDAO.pobierzLiczbePrzeskanowanych()
+                + goscieDAO.pobierzLiczbePrzeskanowanych();
+    }
+    
+    /**
+     * Wykonuje operację na istniejącej rezerwacji, zgłaszając zdarzenie JFR.
+     * @param operacja nazwa operacji
+     * @param idRezerwacji ID rezerwacji, której dotyczy operacja
+     * @param wykonanie właściwa operacja
+     * @return wynik operacji
+     */
+    private <T> T sledzJfr(String operacja, int idRezerwacji, Supplier<T> wykonanie) {
+        return sledzJfr(operacja, wykonanie,
+                wynik -> rezerwacjeDAO.pobierz(idRezerwacji).orElse(null), null, null, null);
+    }
+
+    /**
+     * Wykonuje operację modelu, zgłaszając zdarzenie JFR z jej parametrami, wynikiem
+     * i liczbą rezerwacji przeskanowanych w RezerwacjeDAO. Przy wyłączonym nagrywaniu
+     * operacja wykonywana jest bez dodatkowych kosztów. Zapisy operacji trafiają
+     * do migawki danych jako jedna wersja.
+     * @param operacja nazwa operacji
+     * @param wykonanie właściwa operacja
+     * @param rezerwacjaWyniku wyznacza rezerwację, której dotyczyła operacja (może zwrócić null)
+     * @param pokoj pokój z parametrów operacji (może być null)
+     * @param dataOd data od z parametrów operacji (może być null)
+     * @param dataDo data do z parametrów operacji (może być null)
+     * @return wynik operacji
+     */
+    private <T> T sledzJfr(String operacja, Supplier<T> wykonanie, Function<T, Rezerwacja> rezerwacjaWyniku,
+                           Pokoj pokoj, LocalDate dataOd, LocalDate dataDo) {
+        OperacjaModeluJfr zdarzenie = new OperacjaModeluJfr();
+        if (!zdarzenie.isEnabled()) {
+            return magazynMigawek.wTransakcji(wykonanie);
         }
-        
-        Rezerwacja r = rezerwacja.get();
-        if (r.getStatus() != Rezerwacja.Status.NOWA) {
-            return false;
+        long skanyPrzed = rezerwacjeDAO.pobierzLiczbePrzeskanowanych();
+        zdarzenie.begin();
+        T wynik = null;
+        try {
+            wynik = magazynMigawek.wTransakcji(wykonanie);
+            return wynik;
+        } finally {
+            zdarzenie.end();
+            if (zdarzenie.shouldCommit()) {
+                zdarzenie.operacja = operacja;
+                zdarzenie.powodzenie = wynik != null && !Boolean.FALSE.equals(wynik);
+                zdarzenie.uzupelnij(rezerwacjaWyniku.apply(wynik), pokoj, dataOd, dataDo);
+                zdarzenie.przeskanowaneRezerwacje = rezerwacjeDAO.pobierzLiczbePrzeskanowanych() - skanyPrzed;
+                zdarzenie.commit();
+            }
         }
-        
-        r.setStatus(Rezerwacja.Status.POTWIERDZONA);
-        return rezerwacjeDAO.aktualizuj(r);
+    }
+    
+    /**
+     * Zwraca szynę zdarzeń cyklu życia rezerwacji tego modelu.
+     * @return szyna zdarzeń
+     */
+    public SzynaZdarzen getSzynaZdarzen() {
+        return szynaZdarzen;
+    }
+    
+    /**
+     * Zwraca zegar wyznaczający bieżącą datę modelu.
+     * @return zegar
+     */
+    public Clock getZegar() {
+        return zegar;
     }
     
     // Gettery dla DAO (do testów)
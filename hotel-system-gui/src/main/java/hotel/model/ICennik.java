@@ -0,0 +1,18 @@
+package hotel.model;
+
+import java.time.LocalDate;
+
+/**
+ * Interfejs cennika wyznaczającego cenę noclegów pokoju (bez dodatków).
+ */
+public interface ICennik {
+
+    /**
+     * Oblicza cenę noclegów w pokoju za noce od dataOd do dnia przed dataDo.
+     * @param pokoj pokój
+     * @param dataOd data rozpoczęcia pobytu
+     * @param dataDo data zakończenia pobytu
+     * @return cena noclegów
+     */
+    double cenaPobytu(Pokoj pokoj, LocalDate dataOd, LocalDate dataDo);
+}
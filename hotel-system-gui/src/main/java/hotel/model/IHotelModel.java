@@ -28,6 +28,27 @@ public interface IHotelModel {
      */
     Rezerwacja utworzRezerwacje(Gosc gosc, Pokoj pokoj, LocalDate dataOd, LocalDate dataDo);
     
+    /**
+     * Tworzy rezerwacje wielu pokoi w tym samym terminie (rezerwacja grupowa).
+     * Operacja jest atomowa: albo powstają wszystkie rezerwacje, albo żadna.
+     * @param gosc gość dokonujący rezerwacji
+     * @param pokoje rezerwowane pokoje (bez powtórzeń)
+     * @param dataOd data rozpoczęcia
+     * @param dataDo data zakończenia
+     * @return utworzone rezerwacje lub pusta lista, gdy któryś pokój jest zajęty
+     */
+    List<Rezerwacja> utworzRezerwacjeGrupowa(Gosc gosc, List<Pokoj> pokoje, LocalDate dataOd, LocalDate dataDo);
+    
+    /**
+     * Tworzy rezerwację pokoju danego typu; konkretny pokój wybiera strategia przydziału.
+     * @param gosc gość dokonujący rezerwacji
+     * @param typPokoju typ pokoju (np. "Dwuosobowy")
+     * @param dataOd data rozpoczęcia
+     * @param dataDo data zakończenia
+     * @return utworzona rezerwacja lub null, gdy brak wolnego pokoju tego typu
+     */
+    Rezerwacja utworzRezerwacjeTypu(Gosc gosc, String typPokoju, LocalDate dataOd, LocalDate dataDo);
+    
     /**
      * Tworzy profil gościa.
      * @param imie imię gościa
@@ -37,6 +58,14 @@ public interface IHotelModel {
      */
     Gosc utworzProfilGoscia(String imie, String nazwisko, String email);
     
+    /**
+     * Zmienia adres email gościa. Zmiana równoległa z inną edycją profilu nie jest gubiona.
+     * @param idGoscia ID gościa
+     * @param nowyEmail nowy adres email
+     * @return true jeśli zmieniono pomyślnie
+     */
+    boolean zmienEmailGoscia(int idGoscia, String nowyEmail);
+    
     /**
      * Anuluje rezerwację.
      * @param idRezerwacji ID rezerwacji do anulowania
@@ -0,0 +1,19 @@
+package hotel.model;
+
+import java.time.LocalDate;
+
+/**
+ * Interfejs polityki nadrezerwacji: ile rezerwacji ponad liczbę pokoi danego typu
+ * model może przyjąć na jedną noc.
+ */
+public interface IPolitykaNadrezerwacji {
+
+    /**
+     * Wyznacza dopuszczalną liczbę rezerwacji ponad liczbę pokoi w danej nocy.
+     * @param typPokoju typ pokoju
+     * @param liczbaPokoi liczba pokoi tego typu
+     * @param noc dzień
+     * @return limit nadrezerwacji (0 - bez nadrezerwacji)
+     */
+    int limitNadrezerwacji(String typPokoju, int liczbaPokoi, LocalDate noc);
+}
@@ -0,0 +1,24 @@
+package hotel.model;
+
+import hotel.dao.KalendarzZajetosci;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Interfejs strategii przydziału konkretnego pokoju do rezerwacji według typu.
+ */
+public interface IStrategiaPrzydzialu {
+    
+    /**
+     * Wybiera pokój wolny w podanym terminie spośród kandydatów.
+     * @param kandydaci pokoje danego typu
+     * @param dataOd data rozpoczęcia
+     * @param dataDo data zakończenia
+     * @param kalendarz kalendarz zajętości pokoi
+     * @return wybrany pokój lub pusty Optional, gdy żaden nie jest wolny
+     */
+    Optional<Pokoj> wybierzPokoj(List<Pokoj> kandydaci, LocalDate dataOd, LocalDate dataDo,
+                                 KalendarzZajetosci kalendarz);
+}
@@ -0,0 +1,403 @@
+package hotel.model;
+
+import hotel.dao.PokojeDAO;
+import hotel.dao.RezerwacjeDAO;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Macierz liczby wolnych pokoi według typu i dnia (zajete[typ][dzień]).
+ * Aktualizowana przyrostowo przez HotelModel przy zmianach cyklu życia rezerwacji:
+ * każda operacja zgłasza swoje zapisy przed wykonaniem ({@link #rozpocznijZmiane(int)})
+ * i po nich nanosi własną różnicę. Wzrost wersji DAO wyjaśniony zgłoszonymi zapisami
+ * nie wymaga przebudowy, więc równoległe operacje modelu nie unieważniają macierzy.
+ * Jeśli DAO zmieniono z pominięciem modelu (wersja wzrosła bardziej, niż wynika
+ * ze zgłoszonych zapisów), macierz jest przebudowywana przy najbliższym zapytaniu.
+ * Dzień jest zajęty przez rezerwację, jeśli mieści się w przedziale [dataOd, dataDo]
+ * (tak samo jak przy sprawdzaniu kolizji rezerwacji).
+ */
+public class MacierzDostepnosci {
+
+    /** Zapas dni dodawany przy powiększaniu macierzy. */
+    private static final int ZAPAS_DNI = 64;
+
+    private final RezerwacjeDAO rezerwacjeDAO;
+    private final PokojeDAO pokojeDAO;
+    private final Clock zegar;
+
+    private final Map<String, Integer> indeksyTypow = new HashMap<>();
+    private final List<String> typy = new ArrayList<>();
+    private int[] liczbaPokoi = new int[0];
+    private int[][] zajete = new int[0][0];
+    private long pierwszyDzien;
+
+    private boolean nieaktualna = true;
+    /** Wersja RezerwacjeDAO uwzględniona w macierzy: wersja z przebudowy i naniesione zapisy. */
+    private long wersjaRezerwacji = -1;
+    private long wersjaPokoi = -1;
+    /** Liczba zapisów zgłoszonych przez trwające zmiany, jeszcze nienaniesionych. */
+    private int zapisyWToku;
+    /** Numer przebudowy; zmiana rozpoczęta przed przebudową nie może nanieść różnicy. */
+    private long pokolenie;
+    /** Licznik zmian zawartości macierzy (naniesionych różnic i przebudów). */
+    private long wersja;
+    private int liczbaPrzebudowan;
+
+    /**
+     * Zajęcie pokoju danego typu w przedziale dni - wkład jednej aktywnej rezerwacji.
+     */
+    public static final class Zajecie {
+        private final String typ;
+        private final long od;
+        private final long dzienDo;
+
+        private Zajecie(String typ, long od, long dzienDo) {
+            this.typ = typ;
+            this.od = od;
+            this.dzienDo = dzienDo;
+        }
+
+        /**
+         * Wyznacza zajęcie wynikające z bieżącego stanu rezerwacji.
+         * @param r rezerwacja (może być null)
+         * @return zajęcie lub null, gdy rezerwacja nie blokuje pokoju
+         */
+        public static Zajecie z(Rezerwacja r) {
+            if (r == null || r.getStatus() == Rezerwacja.Status.ANULOWANA
+                    || r.getStatus() == Rezerwacja.Status.WYMELDOWANA) {
+                return null;
+            }
+            return new Zajecie(r.getPokoj().getTyp(), r.getDataOd().toEpochDay(), r.getDataDo().toEpochDay());
+        }
+
+        /**
+         * Zwraca to samo zajęcie w pokoju innego typu (przeniesienie rezerwacji).
+         * @param pokoj pokój docelowy
+         * @return zajęcie w pokoju docelowym
+         */
+        public Zajecie wPokoju(Pokoj pokoj) {
+            return new Zajecie(pokoj.getTyp(), od, dzienDo);
+        }
+    }
+
+    /**
+     * Zmiana rezerwacji zgłoszona przed zapisem do DAO. Różnica nanoszona jest niezależnie
+     * od innych zmian (dodawanie jest przemienne), więc kolejność zakończenia równoległych
+     * operacji nie ma znaczenia. Zamknięcie bez naniesienia różnicy oznacza, że zapis
+     * się nie odbył (np. konflikt wersji); zapis wykonany mimo to zostanie wykryty
+     * jak zmiana z pominięciem modelu.
+     */
+    public final class Zmiana implements AutoCloseable {
+        private final long pokolenieZmiany;
+        private final int zgloszoneZapisy;
+        private boolean zakonczona;
+
+        private Zmiana(long pokolenieZmiany, int zgloszoneZapisy) {
+            this.pokolenieZmiany = pokolenieZmiany;
+            this.zgloszoneZapisy = zgloszoneZapisy;
+        }
+
+        /**
+         * Nanosi różnicę zmiany.
+         * @param przed zajęcia przed zmianą (elementy mogą być null)
+         * @param po zajęcia po zmianie (elementy mogą być null)
+         * @param wykonaneZapisy liczba wykonanych zapisów do RezerwacjeDAO, nie większa od zgłoszonej
+         */
+        public void zastosuj(List<Zajecie> przed, List<Zajecie> po, int wykonaneZapisy) {
+            synchronized (MacierzDostepnosci.this) {
+                if (zakonczona) {
+                    throw new IllegalStateException("Zmiana została już zakończona");
+                }
+                if (wykonaneZapisy < 0 || wykonaneZapisy > zgloszoneZapisy) {
+                    throw new IllegalArgumentException("Liczba wykonanych zapisów przekracza zgłoszoną");
+                }
+                zakonczona = true;
+                zapisyWToku -= zgloszoneZapisy;
+                if (nieaktualna) {
+                    return;
+                }
+                if (pokolenieZmiany != pokolenie) {
+                    // Przebudowa w trakcie zmiany mogła już uwzględnić jej zapisy
+                    nieaktualna = true;
+                    return;
+                }
+                for (Zajecie z : przed) {
+                    if (z != null && !dodaj(z, -1)) {
+                        nieaktualna = true;
+                        return;
+                    }
+                }
+                for (Zajecie z : po) {
+                    if (z != null && !dodaj(z, 1)) {
+                        nieaktualna = true;
+                        return;
+                    }
+                }
+                wersjaRezerwacji += wykonaneZapisy;
+                wersja++;
+            }
+        }
+
+        /**
+         * Nanosi różnicę zmiany pojedynczej rezerwacji wykonanej jednym zapisem.
+         * @param przed zajęcie przed zmianą (może być null)
+         * @param po zajęcie po zmianie (może być null)
+         */
+        public void zastosuj(Zajecie przed, Zajecie po) {
+            zastosuj(Arrays.asList(przed), Arrays.asList(po), 1);
+        }
+
+        @Override
+        public void close() {
+            synchronized (MacierzDostepnosci.this) {
+                if (!zakonczona) {
+                    zakonczona = true;
+                    zapisyWToku -= zgloszoneZapisy;
+                }
+            }
+        }
+    }
+
+    /**
+     * Konstruktor macierzy.
+     * @param rezerwacjeDAO DAO rezerwacji
+     * @param pokojeDAO DAO pokoi
+     * @param zegar zegar wyznaczający początek pustej macierzy
+     */
+    public MacierzDostepnosci(RezerwacjeDAO rezerwacjeDAO, PokojeDAO pokojeDAO, Clock zegar) {
+        if (zegar == null) {
+            throw new IllegalArgumentException("Zegar nie może być null");
+        }
+        this.rezerwacjeDAO = rezerwacjeDAO;
+        this.pokojeDAO = pokojeDAO;
+        this.zegar = zegar;
+    }
+
+    /**
+     * Zgłasza zmianę, która wykona co najwyżej podaną liczbę zapisów do RezerwacjeDAO.
+     * Zmianę należy rozpocząć przed pierwszym zapisem i zamknąć po naniesieniu różnicy.
+     * @param liczbaZapisow maksymalna liczba zapisów zmiany
+     * @return zgłoszona zmiana
+     */
+    public synchronized Zmiana rozpocznijZmiane(int liczbaZapisow) {
+        if (liczbaZapisow < 0) {
+            throw new IllegalArgumentException("Liczba zapisów nie może być ujemna");
+        }
+        zapisyWToku += liczbaZapisow;
+        return new Zmiana(pokolenie, liczbaZapisow);
+    }
+
+    /**
+     * Zwraca liczbę wolnych pokoi danego typu w kolejnych dniach przedziału [dataOd, dataDo].
+     * @param typ typ pokoju (bez rozróżniania wielkości liter)
+     * @param dataOd pierwszy dzień
+     * @param dataDo ostatni dzień
+     * @return tablica liczb wolnych pokoi, element 0 dotyczy dataOd
+     */
+    public synchronized int[] liczbaWolnych(String typ, LocalDate dataOd, LocalDate dataDo) {
+        if (dataOd.isAfter(dataDo)) {
+            throw new IllegalArgumentException("Data rozpoczęcia nie może być późniejsza niż data zakończenia");
+        }
+        odswiezJesliTrzeba();
+        int dni = (int) (dataDo.toEpochDay() - dataOd.toEpochDay() + 1);
+        Integer t = indeksyTypow.get(klucz(typ));
+        if (t == null) {
+            return new int[dni];
+        }
+        int[] wynik = new int[dni];
+        long start = dataOd.toEpochDay() - pierwszyDzien;
+        int[] wiersz = zajete[t];
+        for (int i = 0; i < dni; i++) {
+            long d = start + i;
+            int zajeteDnia = d >= 0 && d < wiersz.length ? wiersz[(int) d] : 0;
+            wynik[i] = Math.max(0, liczbaPokoi[t] - zajeteDnia);
+        }
+        return wynik;
+    }
+
+    /**
+     * Zwraca liczbę wolnych pokoi wszystkich typów w kolejnych dniach przedziału.
+     * @param dataOd pierwszy dzień
+     * @param dataDo ostatni dzień
+     * @return mapa typ pokoju -> liczby wolnych pokoi w kolejnych dniach
+     */
+    public synchronized Map<String, int[]> liczbaWolnych(LocalDate dataOd, LocalDate dataDo) {
+        odswiezJesliTrzeba();
+        Map<String, int[]> wynik = new LinkedHashMap<>();
+        for (String typ : typy) {
+            wynik.put(typ, liczbaWolnych(typ, dataOd, dataDo));
+        }
+        return wynik;
+    }
+
+    /**
+     * Zwraca liczbę aktywnych rezerwacji danego typu w kolejnych dniach przedziału
+     * (przy nadrezerwacji może przekraczać liczbę pokoi).
+     * @param typ typ pokoju (bez rozróżniania wielkości liter)
+     * @param dataOd pierwszy dzień
+     * @param dataDo ostatni dzień
+     * @return liczby zajętych pokoi, element 0 dotyczy dataOd
+     */
+    synchronized int[] liczbaZajetych(String typ, LocalDate dataOd, LocalDate dataDo) {
+        odswiezJesliTrzeba();
+        int dni = (int) (dataDo.toEpochDay() - dataOd.toEpochDay() + 1);
+        int[] wynik = new int[dni];
+        Integer t = indeksyTypow.get(klucz(typ));
+        if (t == null) {
+            return wynik;
+        }
+        long start = dataOd.toEpochDay() - pierwszyDzien;
+        int[] wiersz = zajete[t];
+        for (int i = 0; i < dni; i++) {
+            long d = start + i;
+            wynik[i] = d >= 0 && d < wiersz.length ? wiersz[(int) d] : 0;
+        }
+        return wynik;
+    }
+
+    /**
+     * Zwraca liczbę pokoi danego typu.
+     * @param typ typ pokoju (bez rozróżniania wielkości liter)
+     * @return liczba pokoi
+     */
+    synchronized int liczbaPokoi(String typ) {
+        odswiezJesliTrzeba();
+        Integer t = indeksyTypow.get(klucz(typ));
+        return t == null ? 0 : liczbaPokoi[t];
+    }
+
+    /**
+     * Zwraca wersję zawartości macierzy, zmieniającą się przy każdej naniesionej różnicy
+     * i przebudowie (np. dla pamięci podręcznych wyliczanych z macierzy). Wersja DAO
+     * się do tego nie nadaje - rośnie przed naniesieniem różnicy przez model.
+     * @return bieżąca wersja macierzy
+     */
+    public synchronized long pobierzWersje() {
+        odswiezJesliTrzeba();
+        return wersja;
+    }
+
+    /**
+     * Wymusza przebudowę macierzy przy najbliższym zapytaniu.
+     */
+    public synchronized void uniewaznij() {
+        nieaktualna = true;
+    }
+
+    /**
+     * Zwraca liczbę pełnych przebudów macierzy (do testów i diagnostyki).
+     * @return liczba przebudów
+     */
+    synchronized int pobierzLiczbePrzebudowan() {
+        return liczbaPrzebudowan;
+    }
+
+    private void odswiezJesliTrzeba() {
+        // Zapisy trwających zmian modelu mogą już być w DAO - ich różnica zostanie naniesiona
+        long niewyjasnione = rezerwacjeDAO.pobierzWersje() - wersjaRezerwacji;
+        if (nieaktualna || niewyjasnione < 0 || niewyjasnione > zapisyWToku
+                || pokojeDAO.pobierzWersje() != wersjaPokoi) {
+            przebuduj();
+        }
+    }
+
+    /**
+     * Odbudowuje macierz na podstawie pełnego stanu DAO.
+     */
+    private void przebuduj() {
+        // Wersje odczytane przed danymi - zmiana w trakcie odczytu wymusi kolejną przebudowę
+        long nowaWersjaRezerwacji = rezerwacjeDAO.pobierzWersje();
+        long nowaWersjaPokoi = pokojeDAO.pobierzWersje();
+
+        indeksyTypow.clear();
+        typy.clear();
+        List<Pokoj> pokoje = pokojeDAO.pobierzWszystkie();
+        for (Pokoj p : pokoje) {
+            indeksTypu(p.getTyp());
+        }
+        liczbaPokoi = new int[typy.size()];
+        for (Pokoj p : pokoje) {
+            liczbaPokoi[indeksyTypow.get(klucz(p.getTyp()))]++;
+        }
+
+        List<Zajecie> zajecia = new ArrayList<>();
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (Rezerwacja r : rezerwacjeDAO.pobierzAktywne()) {
+            Zajecie z = Zajecie.z(r);
+            if (z != null && indeksyTypow.containsKey(klucz(z.typ))) {
+                zajecia.add(z);
+                min = Math.min(min, z.od);
+                max = Math.max(max, z.dzienDo);
+            }
+        }
+        pierwszyDzien = zajecia.isEmpty() ? LocalDate.now(zegar).toEpochDay() : min;
+        int dlugosc = zajecia.isEmpty() ? ZAPAS_DNI : (int) (max - min + 1) + ZAPAS_DNI;
+        zajete = new int[typy.size()][dlugosc];
+        for (Zajecie z : zajecia) {
+            dodaj(z, 1);
+        }
+
+        wersjaRezerwacji = nowaWersjaRezerwacji;
+        wersjaPokoi = nowaWersjaPokoi;
+        nieaktualna = false;
+        pokolenie++;
+        wersja++;
+        liczbaPrzebudowan++;
+    }
+
+    /**
+     * Dodaje (lub odejmuje) zajęcie w macierzy, powiększając ją w razie potrzeby.
+     * @return false, jeśli typ pokoju nie jest znany macierzy
+     */
+    private boolean dodaj(Zajecie z, int zmiana) {
+        Integer t = indeksyTypow.get(klucz(z.typ));
+        if (t == null) {
+            return false;
+        }
+        zapewnijZakres(z.od, z.dzienDo);
+        int od = (int) (z.od - pierwszyDzien);
+        int dzienDo = (int) (z.dzienDo - pierwszyDzien);
+        int[] wiersz = zajete[t];
+        for (int d = od; d <= dzienDo; d++) {
+            wiersz[d] += zmiana;
+        }
+        return true;
+    }
+
+    private void zapewnijZakres(long od, long dzienDo) {
+        long koniec = pierwszyDzien + (zajete.length == 0 ? 0 : zajete[0].length) - 1;
+        if (od >= pierwszyDzien && dzienDo <= koniec) {
+            return;
+        }
+        long nowyPoczatek = Math.min(pierwszyDzien, od - (od < pierwszyDzien ? ZAPAS_DNI : 0));
+        long nowyKoniec = Math.max(koniec, dzienDo + (dzienDo > koniec ? ZAPAS_DNI : 0));
+        int przesuniecie = (int) (pierwszyDzien - nowyPoczatek);
+        int dlugosc = (int) (nowyKoniec - nowyPoczatek + 1);
+        for (int t = 0; t < zajete.length; t++) {
+            int[] nowy = new int[dlugosc];
+            System.arraycopy(zajete[t], 0, nowy, przesuniecie, zajete[t].length);
+            zajete[t] = nowy;
+        }
+        pierwszyDzien = nowyPoczatek;
+    }
+
+    private int indeksTypu(String typ) {
+        return indeksyTypow.computeIfAbsent(klucz(typ), k -> {
+            typy.add(typ);
+            return typy.size() - 1;
+        });
+    }
+
+    private static String klucz(String typ) {
+        return typ.toLowerCase(Locale.ROOT);
+    }
+}
@@ -11,6 +11,7 @@ public class Pokoj {
     private int numer;
     private String typ;
     private double cena;
+    private volatile long wersja;
     
     /**
      * Konstruktor tworzący nowy pokój.
@@ -68,6 +69,40 @@ public class Pokoj {
         this.cena = cena;
     }
     
+    /**
+     * Tworzy kopię pokoju do optymistycznej modyfikacji.
+     * @return kopia z tą samą wersją
+     */
+    public Pokoj kopia() {
+        Pokoj kopia = new Pokoj(numer, typ, cena);
+        kopia.wersja = wersja;
+        return kopia;
+    }
+    
+    /**
+     * Przejmuje zmienny stan innego pokoju (cenę). Używane przez DAO.
+     * @param inny pokój, z którego kopiowany jest stan
+     */
+    public void przejmijStan(Pokoj inny) {
+        this.cena = inny.cena;
+    }
+    
+    /**
+     * Zwraca wersję encji - zwiększaną przez DAO przy każdej aktualizacji.
+     * @return wersja
+     */
+    public long getWersja() {
+        return wersja;
+    }
+    
+    /**
+     * Ustawia wersję encji (używane przez DAO).
+     * @param wersja nowa wersja
+     */
+    public void ustawWersje(long wersja) {
+        this.wersja = wersja;
+    }
+    
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
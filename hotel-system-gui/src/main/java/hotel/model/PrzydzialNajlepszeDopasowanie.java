@@ -0,0 +1,45 @@
+package hotel.model;
+
+import hotel.dao.KalendarzZajetosci;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Strategia "najlepsze dopasowanie" (best-fit): wybiera wolny pokój, w którym
+ * rezerwacja pozostawia najmniejsze luki względem sąsiednich rezerwacji.
+ * Rezerwacja wypełniająca dokładnie lukę między dwiema innymi ma ocenę 0,
+ * dzięki czemu długie okresy wolne w pozostałych pokojach nie są rozdrabniane.
+ */
+public class PrzydzialNajlepszeDopasowanie implements IStrategiaPrzydzialu {
+    
+    /** Luka przyjmowana, gdy po danej stronie nie ma rezerwacji w zasięgu roku. */
+    static final int LUKA_OTWARTA = 365;
+    
+    @Override
+    public Optional<Pokoj> wybierzPokoj(List<Pokoj> kandydaci, LocalDate dataOd, LocalDate dataDo,
+                                        KalendarzZajetosci kalendarz) {
+        long[] wolne = kalendarz.wolne(KalendarzZajetosci.maska(kandydaci), dataOd, dataDo);
+        int[] lukaPrzed = kalendarz.wolnyOkres(wolne, dataOd.minusDays(1), -1, LUKA_OTWARTA);
+        int[] lukaPo = kalendarz.wolnyOkres(wolne, dataDo.plusDays(1), 1, LUKA_OTWARTA);
+        
+        // Bity przeglądane rosnąco, więc przy równej ocenie wygrywa niższy numer pokoju
+        int najlepszyNumer = -1;
+        int najlepszaOcena = Integer.MAX_VALUE;
+        for (int w = 0; w < wolne.length; w++) {
+            for (long bity = wolne[w]; bity != 0; bity &= bity - 1) {
+                int numer = (w << 6) + Long.numberOfTrailingZeros(bity);
+                int ocena = lukaPrzed[numer] + lukaPo[numer];
+                if (ocena < najlepszaOcena) {
+                    najlepszaOcena = ocena;
+                    najlepszyNumer = numer;
+                }
+            }
+        }
+        int wybrany = najlepszyNumer;
+        return wybrany < 0
+                ? Optional.empty()
+                : kandydaci.stream().filter(p -> p.getNumer() == wybrany).findFirst();
+    }
+}
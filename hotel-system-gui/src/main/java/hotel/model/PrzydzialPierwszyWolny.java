@@ -0,0 +1,26 @@
+package hotel.model;
+
+import hotel.dao.KalendarzZajetosci;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Strategia "pierwszy wolny" (first-fit): wybiera wolny pokój o najniższym numerze.
+ */
+public class PrzydzialPierwszyWolny implements IStrategiaPrzydzialu {
+    
+    @Override
+    public Optional<Pokoj> wybierzPokoj(List<Pokoj> kandydaci, LocalDate dataOd, LocalDate dataDo,
+                                        KalendarzZajetosci kalendarz) {
+        long[] wolne = kalendarz.wolne(KalendarzZajetosci.maska(kandydaci), dataOd, dataDo);
+        for (int w = 0; w < wolne.length; w++) {
+            if (wolne[w] != 0) {
+                int numer = (w << 6) + Long.numberOfTrailingZeros(wolne[w]);
+                return kandydaci.stream().filter(p -> p.getNumer() == numer).findFirst();
+            }
+        }
+        return Optional.empty();
+    }
+}
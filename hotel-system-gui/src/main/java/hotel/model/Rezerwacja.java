@@ -6,6 +6,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Klasa reprezentująca rezerwację hotelową.
@@ -25,8 +26,14 @@ public class Rezerwacja {
     private List<IDodatek> dodatki;
     private Status status;
     private String przyczynaAnulowania;
+    private LocalDate dataAnulowania;
+    private volatile long wersja;
+    private ICennik cennik;
+    // Cena noclegów ustalona przy rezerwacji; null tylko po odtworzeniu bez zapisanej ceny
+    private Double cenaNoclegow;
     
-    private static int nextId = 1;
+    // Wspólny licznik dla wszystkich hoteli sieci - identyfikatory są unikalne między partycjami
+    private static final AtomicInteger nextId = new AtomicInteger(1);
     
     /**
      * Konstruktor tworzący nową rezerwację.
@@ -44,13 +51,14 @@ public class Rezerwacja {
             throw new IllegalArgumentException("Pokój nie może być null");
         }
         
-        this.id = nextId++;
+        this.id = nextId.getAndIncrement();
         this.dataOd = dataOd;
         this.dataDo = dataDo;
         this.gosc = gosc;
         this.pokoj = pokoj;
         this.dodatki = new ArrayList<>();
         this.status = Status.NOWA;
+        ustalCeneNoclegow();
     }
     
     /**
@@ -75,6 +83,7 @@ public class Rezerwacja {
         this.pokoj = pokoj;
         this.dodatki = new ArrayList<>();
         this.status = Status.NOWA;
+        ustalCeneNoclegow();
     }
     
     private void validateDates(LocalDate dataOd, LocalDate dataDo) {
@@ -155,10 +164,15 @@ public class Rezerwacja {
     
     /**
      * Oblicza całkowitą cenę rezerwacji (pokój + dodatki).
+     * Noclegi kosztują tyle, ile ustalono przy rezerwacji lub ostatniej zmianie dat -
+     * według cennika albo, bez cennika, po cenie bazowej pokoju za każdą noc.
+     * Późniejsza zmiana ceny pokoju lub obłożenia nie zmienia ceny rezerwacji.
      * @return całkowita cena
      */
     public double obliczCene() {
-        double cenaBazowa = pokoj.getCenaBazowa() * getLiczbaNocy();
+        double cenaBazowa = cenaNoclegow != null
+                ? cenaNoclegow
+                : pokoj.getCenaBazowa() * getLiczbaNocy();
         double cenaDodatkow = 0;
         for (IDodatek dodatek : dodatki) {
             cenaDodatkow += dodatek.obliczDodatkowyKoszt();
@@ -166,6 +180,51 @@ public class Rezerwacja {
         return cenaBazowa + cenaDodatkow;
     }
     
+    /**
+     * Zwraca cennik wyznaczający cenę noclegów.
+     * @return cennik lub null, gdy obowiązuje cena bazowa pokoju
+     */
+    public ICennik getCennik() {
+        return cennik;
+    }
+    
+    /**
+     * Ustawia cennik i ustala według niego cenę noclegów w bieżącym terminie.
+     * Ustalona cena nie zmienia się wraz z cennikiem (np. z obłożeniem) - jest
+     * przeliczana dopiero przy zmianie dat.
+     * @param cennik cennik lub null dla ceny bazowej pokoju
+     */
+    public void setCennik(ICennik cennik) {
+        this.cennik = cennik;
+        ustalCeneNoclegow();
+    }
+    
+    /**
+     * Zwraca cenę noclegów ustaloną przy rezerwacji lub ostatniej zmianie dat.
+     * @return cena noclegów lub null, gdy obowiązuje bieżąca cena bazowa pokoju
+     */
+    public Double getCenaNoclegow() {
+        return cenaNoclegow;
+    }
+    
+    /**
+     * Zwraca cenę jednej nocy - ustaloną cenę noclegów rozłożoną równo na noce pobytu.
+     * Suma stawek wszystkich nocy jest równa cenie noclegów z {@link #obliczCene()}.
+     * @return cena nocy lub bieżąca cena bazowa pokoju, gdy cena noclegów nie jest ustalona
+     */
+    public double getCenaNocy() {
+        long noce = getLiczbaNocy();
+        return cenaNoclegow != null && noce > 0 ? cenaNoclegow / noce : pokoj.getCenaBazowa();
+    }
+    
+    /**
+     * Ustawia ustaloną cenę noclegów (używane przez DAO przy odtwarzaniu).
+     * @param cenaNoclegow cena noclegów lub null dla ceny bazowej pokoju
+     */
+    public void ustawCeneNoclegow(Double cenaNoclegow) {
+        this.cenaNoclegow = cenaNoclegow;
+    }
+    
     /**
      * Dodaje dodatek do rezerwacji.
      * @param dodatek dodatek do dodania
@@ -221,6 +280,14 @@ public class Rezerwacja {
         validateDates(nowaDataOd, nowaDataDo);
         this.dataOd = nowaDataOd;
         this.dataDo = nowaDataDo;
+        // Nowy termin to nowe noce - cena ustalana od nowa
+        ustalCeneNoclegow();
+    }
+    
+    private void ustalCeneNoclegow() {
+        this.cenaNoclegow = cennik != null
+                ? cennik.cenaPobytu(pokoj, dataOd, dataDo)
+                : pokoj.getCenaBazowa() * getLiczbaNocy();
     }
     
     /**
@@ -249,11 +316,20 @@ public class Rezerwacja {
         return true;
     }
 
+    /**
+     * Przesuwa licznik ID za podany identyfikator (po imporcie encji z gotowymi ID),
+     * aby nowo tworzone encje nie powtórzyły zaimportowanych identyfikatorów.
+     * @param id identyfikator istniejącej encji
+     */
+    public static void uwzglednijId(int id) {
+        nextId.accumulateAndGet(id + 1, Math::max);
+    }
+    
     /**
      * Resetuje licznik ID (używane w testach).
      */
     public static void resetIdCounter() {
-        nextId = 1;
+        nextId.set(1);
     }
 
     /**
@@ -264,6 +340,69 @@ public class Rezerwacja {
         return przyczynaAnulowania;
     }
 
+    /**
+     * Zwraca dzień anulowania rezerwacji (ustawiany przez model).
+     * @return data anulowania lub null
+     */
+    public LocalDate getDataAnulowania() {
+        return dataAnulowania;
+    }
+
+    /**
+     * Ustawia dzień anulowania rezerwacji.
+     * @param dataAnulowania data anulowania
+     */
+    public void setDataAnulowania(LocalDate dataAnulowania) {
+        this.dataAnulowania = dataAnulowania;
+    }
+
+    /**
+     * Zwraca wersję encji - zwiększaną przez DAO przy każdej aktualizacji.
+     * @return wersja
+     */
+    public long getWersja() {
+        return wersja;
+    }
+    
+    /**
+     * Ustawia wersję encji (używane przez DAO).
+     * @param wersja nowa wersja
+     */
+    public void ustawWersje(long wersja) {
+        this.wersja = wersja;
+    }
+
+    /**
+     * Tworzy kopię rezerwacji (ten sam gość i pokój) do optymistycznej modyfikacji.
+     * @return kopia z tą samą wersją
+     */
+    public Rezerwacja kopia() {
+        Rezerwacja kopia = new Rezerwacja(id, dataOd, dataDo, gosc, pokoj);
+        kopia.przejmijStan(this);
+        kopia.wersja = wersja;
+        return kopia;
+    }
+    
+    /**
+     * Przejmuje zmienny stan innej rezerwacji (daty, status, dodatki, przyczynę i datę anulowania,
+     * cennik i ustaloną cenę noclegów).
+     * Używane przez DAO przy zapisie kopii zmodyfikowanej poza magazynem.
+     * @param inna rezerwacja, z której kopiowany jest stan
+     */
+    public void przejmijStan(Rezerwacja inna) {
+        if (inna == this) {
+            return;
+        }
+        this.dataOd = inna.dataOd;
+        this.dataDo = inna.dataDo;
+        this.status = inna.status;
+        this.przyczynaAnulowania = inna.przyczynaAnulowania;
+        this.dataAnulowania = inna.dataAnulowania;
+        this.dodatki = new ArrayList<>(inna.dodatki);
+        this.cennik = inna.cennik;
+        this.cenaNoclegow = inna.cenaNoclegow;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
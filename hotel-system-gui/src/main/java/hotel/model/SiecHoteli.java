@@ -0,0 +1,214 @@
+package hotel.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Model sieci hoteli podzielony na partycje - po jednym niezależnym HotelModel na hotel.
+ * Każda partycja ma własne DAO, blokady pokoi, indeksy i szynę zdarzeń, więc operacje
+ * w różnych hotelach nie rywalizują o żaden wspólny stan. Partycja może dostać własny
+ * jednowątkowy wykonawca, który porządkuje jej operacje bez blokowania pozostałych hoteli.
+ * Zapytania obejmujące całą sieć (historia gościa, przychód grupy) są rozsyłane do partycji
+ * równolegle, a wyniki scalane.
+ */
+public class SiecHoteli implements AutoCloseable {
+
+    private final Map<Integer, Partycja> partycje = new ConcurrentHashMap<>();
+    private final ExecutorService wykonawcaZapytan;
+
+    /**
+     * Tworzy sieć z pulą zapytań o rozmiarze równym liczbie procesorów.
+     */
+    public SiecHoteli() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Tworzy sieć z pulą wątków obsługującą zapytania rozsyłane do partycji.
+     * @param watkiZapytan liczba wątków puli
+     */
+    public SiecHoteli(int watkiZapytan) {
+        if (watkiZapytan <= 0) {
+            throw new IllegalArgumentException("Liczba wątków musi być większa od 0");
+        }
+        AtomicInteger licznik = new AtomicInteger();
+        this.wykonawcaZapytan = Executors.newFixedThreadPool(watkiZapytan, r -> {
+            Thread watek = new Thread(r, "siec-hoteli-" + licznik.incrementAndGet());
+            watek.setDaemon(true);
+            return watek;
+        });
+    }
+
+    /**
+     * Dodaje hotel z nowym, pustym modelem.
+     * @param idHotelu ID hotelu
+     * @return model partycji
+     */
+    public HotelModel dodajHotel(int idHotelu) {
+        return dodajHotel(idHotelu, new HotelModel(), false);
+    }
+
+    /**
+     * Dodaje hotel z podanym modelem.
+     * @param idHotelu ID hotelu
+     * @param model model partycji (z własnymi DAO)
+     * @param wlasnyWykonawca czy operacje hotelu mają być wykonywane na jego własnym wątku
+     * @return model partycji
+     */
+    public HotelModel dodajHotel(int idHotelu, HotelModel model, boolean wlasnyWykonawca) {
+        if (idHotelu <= 0) {
+            throw new IllegalArgumentException("ID hotelu musi być większe od 0");
+        }
+        if (model == null) {
+            throw new IllegalArgumentException("Model hotelu nie może być null");
+        }
+        ExecutorService wykonawca = wlasnyWykonawca
+                ? Executors.newSingleThreadExecutor(r -> {
+                    Thread watek = new Thread(r, "hotel-" + idHotelu);
+                    watek.setDaemon(true);
+                    return watek;
+                })
+                : null;
+        Partycja nowa = new Partycja(model, wykonawca);
+        if (partycje.putIfAbsent(idHotelu, nowa) != null) {
+            if (wykonawca != null) {
+                wykonawca.shutdown();
+            }
+            throw new IllegalArgumentException("Hotel o ID " + idHotelu + " już istnieje");
+        }
+        return model;
+    }
+
+    /**
+     * Zwraca model partycji hotelu.
+     * @param idHotelu ID hotelu
+     * @return model hotelu
+     */
+    public HotelModel hotel(int idHotelu) {
+        return partycja(idHotelu).model;
+    }
+
+    /**
+     * Zwraca identyfikatory hoteli sieci.
+     * @return posortowane ID hoteli
+     */
+    public Set<Integer> getIdHoteli() {
+        return Collections.unmodifiableSet(new TreeMap<>(partycje).keySet());
+    }
+
+    /**
+     * Wykonuje operację w partycji hotelu - na jej własnym wątku, jeśli go ma,
+     * w przeciwnym razie na puli zapytań.
+     * @param idHotelu ID hotelu
+     * @param operacja operacja na modelu hotelu
+     * @param <T> typ wyniku
+     * @return przyszły wynik operacji
+     */
+    public <T> CompletableFuture<T> wykonaj(int idHotelu, Function<HotelModel, T> operacja) {
+        Partycja p = partycja(idHotelu);
+        return CompletableFuture.supplyAsync(() -> operacja.apply(p.model),
+                p.wykonawca != null ? p.wykonawca : wykonawcaZapytan);
+    }
+
+    /**
+     * Zwraca historię pobytów gościa we wszystkich hotelach sieci (gość rozpoznawany po emailu).
+     * @param email adres email gościa
+     * @return rezerwacje gościa według ID hotelu, posortowane po dacie przyjazdu;
+     *         hotele bez pobytów gościa są pomijane
+     */
+    public Map<Integer, List<Rezerwacja>> historiaGoscia(String email) {
+        Map<Integer, List<Rezerwacja>> wyniki = rozeslij(model -> {
+            Optional<Gosc> gosc = model.getGoscieDAO().znajdzPoEmail(email);
+            if (gosc.isEmpty()) {
+                return List.<Rezerwacja>of();
+            }
+            List<Rezerwacja> rezerwacje = new ArrayList<>(model.getRezerwacjeDAO().pobierzDlaGoscia(gosc.get()));
+            rezerwacje.sort((a, b) -> a.getDataOd().compareTo(b.getDataOd()));
+            return rezerwacje;
+        });
+        wyniki.values().removeIf(List::isEmpty);
+        return wyniki;
+    }
+
+    /**
+     * Zwraca przychód każdego hotelu sieci.
+     * @return przychód według ID hotelu
+     */
+    public Map<Integer, Double> przychodyHoteli() {
+        return rozeslij(model -> model.getRezerwacjeDAO().obliczSumePrzychodow());
+    }
+
+    /**
+     * Oblicza łączny przychód sieci.
+     * @return suma przychodów wszystkich hoteli
+     */
+    public double obliczPrzychodGrupy() {
+        return przychodyHoteli().values().stream().mapToDouble(Double::doubleValue).sum();
+    }
+
+    /**
+     * Zamyka wykonawców partycji, pulę zapytań i szyny zdarzeń hoteli.
+     */
+    @Override
+    public void close() {
+        wykonawcaZapytan.shutdown();
+        for (Partycja p : partycje.values()) {
+            if (p.wykonawca != null) {
+                p.wykonawca.shutdown();
+            }
+            p.model.getSzynaZdarzen().zamknij();
+        }
+    }
+
+    /**
+     * Wykonuje zapytanie równolegle we wszystkich partycjach i scala wyniki według ID hotelu.
+     */
+    private <T> Map<Integer, T> rozeslij(Function<HotelModel, T> zapytanie) {
+        Map<Integer, CompletableFuture<T>> zadania = new TreeMap<>();
+        partycje.forEach((id, p) -> zadania.put(id,
+                CompletableFuture.supplyAsync(() -> zapytanie.apply(p.model), wykonawcaZapytan)));
+        Map<Integer, T> wyniki = new TreeMap<>();
+        try {
+            zadania.forEach((id, zadanie) -> wyniki.put(id, zadanie.join()));
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException przyczyna) {
+                throw przyczyna;
+            }
+            throw e;
+        }
+        return wyniki;
+    }
+
+    private Partycja partycja(int idHotelu) {
+        Partycja p = partycje.get(idHotelu);
+        if (p == null) {
+            throw new IllegalArgumentException("Nieznany hotel o ID " + idHotelu);
+        }
+        return p;
+    }
+
+    /**
+     * Partycja sieci - model hotelu i opcjonalny wykonawca jego operacji.
+     */
+    private static final class Partycja {
+        final HotelModel model;
+        final ExecutorService wykonawca;
+
+        Partycja(HotelModel model, ExecutorService wykonawca) {
+            this.model = model;
+            this.wykonawca = wykonawca;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package hotel.model;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Cennik dynamiczny: dla każdego typu pokoju utrzymuje gęstą tabelę mnożników ceny
+ * na kolejne dni (według {@link TaryfaCen}) oraz jej sumy prefiksowe, więc cena
+ * dowolnego pobytu to cena bazowa pokoju razy różnica dwóch sum - O(1) niezależnie
+ * od liczby nocy.
+ *
+ * Obłożenie dni pochodzi z macierzy dostępności. Gdy wersja macierzy się zmieni, tabela
+ * typu porównuje zapamiętane liczby wolnych pokoi z aktualnymi i przelicza mnożniki
+ * tylko dni, w których obłożenie się zmieniło, a sumy prefiksowe od pierwszego takiego
+ * dnia. Tabela rośnie z zapasem, gdy zapytanie wykracza poza nią.
+ */
+public class SilnikCen implements ICennik {
+
+    /** Zapas dni dodawany przy powiększaniu tabeli. */
+    private static final int ZAPAS_DNI = 64;
+
+    private final MacierzDostepnosci macierz;
+    private final Map<String, Tabela> tabele = new HashMap<>();
+    private TaryfaCen taryfa;
+    private long liczbaPrzeliczonychDni;
+
+    /**
+     * Tabela mnożników jednego typu pokoju.
+     */
+    private static final class Tabela {
+        private long pierwszyDzien;
+        private int liczbaPokoi = -1;
+        private int[] wolne = new int[0];
+        private double[] mnozniki = new double[0];
+        // prefiks[i] = suma mnożników dni [0, i)
+        private double[] prefiks = {0.0};
+        private long wersjaMacierzy = -1;
+    }
+
+    /**
+     * Konstruktor silnika cen.
+     * @param macierz macierz dostępności będąca źródłem obłożenia
+     * @param taryfa reguły cen
+     */
+    public SilnikCen(MacierzDostepnosci macierz, TaryfaCen taryfa) {
+        if (macierz == null) {
+            throw new IllegalArgumentException("Macierz dostępności nie może być null");
+        }
+        if (taryfa == null) {
+            throw new IllegalArgumentException("Taryfa nie może być null");
+        }
+        this.macierz = macierz;
+        this.taryfa = taryfa;
+    }
+
+    @Override
+    public synchronized double cenaPobytu(Pokoj pokoj, LocalDate dataOd, LocalDate dataDo) {
+        long od = dataOd.toEpochDay();
+        long dzienDo = dataDo.toEpochDay();
+        if (od >= dzienDo) {
+            return 0.0;
+        }
+        Tabela t = tabela(pokoj.getTyp(), od, dzienDo - 1);
+        return pokoj.getCenaBazowa() * (t.prefiks[(int) (dzienDo - t.pierwszyDzien)]
+                - t.prefiks[(int) (od - t.pierwszyDzien)]);
+    }
+
+    /**
+     * Zwraca stawkę za jedną noc w pokoju.
+     * @param pokoj pokój
+     * @param dzien dzień rozpoczęcia nocy
+     * @return cena nocy
+     */
+    public double stawka(Pokoj pokoj, LocalDate dzien) {
+        return cenaPobytu(pokoj, dzien, dzien.plusDays(1));
+    }
+
+    /**
+     * Zmienia reguły cen; tabele zostaną przeliczone przy najbliższym zapytaniu.
+     * @param taryfa nowe reguły cen
+     */
+    public synchronized void setTaryfa(TaryfaCen taryfa) {
+        if (taryfa == null) {
+            throw new IllegalArgumentException("Taryfa nie może być null");
+        }
+        this.taryfa = taryfa;
+        tabele.clear();
+    }
+
+    /**
+     * Zwraca łączną liczbę dni, dla których przeliczono mnożnik (do testów i diagnostyki).
+     * @return liczba przeliczonych dni
+     */
+    public synchronized long getLiczbaPrzeliczonychDni() {
+        return liczbaPrzeliczonychDni;
+    }
+
+    private Tabela tabela(String typ, long od, long dzienDo) {
+        Tabela t = tabele.computeIfAbsent(typ.toLowerCase(Locale.ROOT), k -> new Tabela());
+        if (t.mnozniki.length == 0) {
+            t.pierwszyDzien = od;
+        }
+        zapewnijZakres(t, od, dzienDo);
+        synchronizuj(t, typ);
+        return t;
+    }
+
+    private void zapewnijZakres(Tabela t, long od, long dzienDo) {
+        long koniec = t.pierwszyDzien + t.mnozniki.length - 1;
+        if (t.mnozniki.length > 0 && od >= t.pierwszyDzien && dzienDo <= koniec) {
+            return;
+        }
+        long nowyPoczatek = Math.min(t.pierwszyDzien, od - (od < t.pierwszyDzien ? ZAPAS_DNI : 0));
+        long nowyKoniec = Math.max(koniec, dzienDo + (dzienDo > koniec ? ZAPAS_DNI : 0));
+        int przesuniecie = (int) (t.pierwszyDzien - nowyPoczatek);
+        int dlugosc = (int) (nowyKoniec - nowyPoczatek + 1);
+        int[] wolne = new int[dlugosc];
+        double[] mnozniki = new double[dlugosc];
+        // -1 oznacza dzień bez wyliczonego mnożnika
+        Arrays.fill(wolne, -1);
+        System.arraycopy(t.wolne, 0, wolne, przesuniecie, t.wolne.length);
+        System.arraycopy(t.mnozniki, 0, mnozniki, przesuniecie, t.mnozniki.length);
+        t.pierwszyDzien = nowyPoczatek;
+        t.wolne = wolne;
+        t.mnozniki = mnozniki;
+        // Przy powiększeniu od początku nowe dni mają indeks 0, więc sumy i tak zostaną przeliczone w całości
+        double[] prefiks = new double[dlugosc + 1];
+        System.arraycopy(t.prefiks, 0, prefiks, 0, przesuniecie == 0 ? t.prefiks.length : 1);
+        t.prefiks = prefiks;
+        t.wersjaMacierzy = -1;
+    }
+
+    private void synchronizuj(Tabela t, String typ) {
+        // Wersja odczytana przed danymi - zmiana w trakcie odczytu wymusi kolejną synchronizację
+        long wersjaMacierzy = macierz.pobierzWersje();
+        if (wersjaMacierzy == t.wersjaMacierzy) {
+            return;
+        }
+        int liczbaPokoi = macierz.liczbaPokoi(typ);
+        LocalDate start = LocalDate.ofEpochDay(t.pierwszyDzien);
+        int[] wolne = macierz.liczbaWolnych(typ, start, start.plusDays(t.wolne.length - 1));
+        boolean wszystkie = liczbaPokoi != t.liczbaPokoi;
+        int pierwszaZmiana = -1;
+        for (int i = 0; i < wolne.length; i++) {
+            if (wszystkie || wolne[i] != t.wolne[i]) {
+                double oblozenie = liczbaPokoi == 0 ? 0.0 : (double) (liczbaPokoi - wolne[i]) / liczbaPokoi;
+                t.mnozniki[i] = taryfa.mnoznik(start.plusDays(i), oblozenie);
+                t.wolne[i] = wolne[i];
+                pierwszaZmiana = pierwszaZmiana < 0 ? i : pierwszaZmiana;
+                liczbaPrzeliczonychDni++;
+            }
+        }
+        if (pierwszaZmiana >= 0) {
+            for (int i = pierwszaZmiana; i < t.mnozniki.length; i++) {
+                t.prefiks[i + 1] = t.prefiks[i] + t.mnozniki[i];
+            }
+        }
+        t.liczbaPokoi = liczbaPokoi;
+        t.wersjaMacierzy = wersjaMacierzy;
+    }
+}
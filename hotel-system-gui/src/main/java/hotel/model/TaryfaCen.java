@@ -0,0 +1,70 @@
+package hotel.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Reguły cen dynamicznych: mnożniki ceny bazowej pokoju według sezonu (miesiąca),
+ * dnia tygodnia i obłożenia typu pokoju w danym dniu. Mnożnik nocy jest iloczynem
+ * trzech składowych; brak wpisu oznacza mnożnik 1.0.
+ */
+public final class TaryfaCen {
+
+    private final Map<Month, Double> sezony;
+    private final Map<DayOfWeek, Double> dniTygodnia;
+    private final NavigableMap<Double, Double> progiOblozenia;
+
+    /**
+     * Konstruktor taryfy.
+     * @param sezony mnożniki według miesiąca
+     * @param dniTygodnia mnożniki według dnia tygodnia
+     * @param progiOblozenia minimalne obłożenie (0.0 - 1.0) -> mnożnik; stosowany jest próg
+     *                       najwyższy nieprzekraczający obłożenia dnia
+     */
+    public TaryfaCen(Map<Month, Double> sezony, Map<DayOfWeek, Double> dniTygodnia,
+                     Map<Double, Double> progiOblozenia) {
+        if (sezony == null || dniTygodnia == null || progiOblozenia == null) {
+            throw new IllegalArgumentException("Mnożniki taryfy nie mogą być null");
+        }
+        sprawdzMnozniki(sezony);
+        sprawdzMnozniki(dniTygodnia);
+        sprawdzMnozniki(progiOblozenia);
+        this.sezony = sezony.isEmpty() ? Map.of() : new EnumMap<>(sezony);
+        this.dniTygodnia = dniTygodnia.isEmpty() ? Map.of() : new EnumMap<>(dniTygodnia);
+        this.progiOblozenia = new TreeMap<>(progiOblozenia);
+    }
+
+    /**
+     * Tworzy taryfę bez mnożników - każda noc kosztuje tyle, ile cena bazowa pokoju.
+     * @return taryfa stała
+     */
+    public static TaryfaCen stala() {
+        return new TaryfaCen(Map.of(), Map.of(), Map.of());
+    }
+
+    /**
+     * Wyznacza mnożnik ceny bazowej dla nocy rozpoczynającej się w podanym dniu.
+     * @param dzien dzień
+     * @param oblozenie obłożenie typu pokoju w tym dniu (0.0 - 1.0)
+     * @return mnożnik ceny
+     */
+    public double mnoznik(LocalDate dzien, double oblozenie) {
+        Map.Entry<Double, Double> prog = progiOblozenia.floorEntry(oblozenie);
+        return sezony.getOrDefault(dzien.getMonth(), 1.0)
+                * dniTygodnia.getOrDefault(dzien.getDayOfWeek(), 1.0)
+                * (prog != null ? prog.getValue() : 1.0);
+    }
+
+    private static void sprawdzMnozniki(Map<?, Double> mnozniki) {
+        for (Map.Entry<?, Double> wpis : mnozniki.entrySet()) {
+            if (wpis.getKey() == null || wpis.getValue() == null || wpis.getValue() < 0) {
+                throw new IllegalArgumentException("Mnożnik taryfy nie może być pusty ani ujemny: " + wpis);
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package hotel.nadrezerwacje;
+
+import hotel.dao.KalendarzZajetosci;
+import hotel.dao.RezerwacjeDAO;
+import hotel.model.HotelModel;
+import hotel.model.IPolitykaNadrezerwacji;
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Kontroler nadrezerwacji. Dla każdego typu pokoju i nocy dopuszcza tyle rezerwacji ponad
+ * liczbę pokoi N, ile wynika z modelu rezygnacji: przy prawdopodobieństwie rezygnacji p
+ * oczekiwana liczba przybyłych gości (N + k)(1 - p) nie przekracza N dla
+ * k = floor(N * p / (1 - p)). Limit jest dodatkowo ograniczony do maksymalnego udziału N.
+ *
+ * W dniu przyjazdu {@link #rozlokujPrzyjazdy(LocalDate)} rozwiązuje kolizje: przyjazdy
+ * dzielące pokój z inną aktywną rezerwacją (od najnowszych) przenosi do wolnego pokoju
+ * tego samego typu, a gdy takiego nie ma - anuluje z przyczyną {@link #PRZYCZYNA_PRZENIESIENIA}
+ * (gość zakwaterowany w innym hotelu).
+ */
+public class KontrolerNadrezerwacji implements IPolitykaNadrezerwacji {
+
+    public static final String PRZYCZYNA_PRZENIESIENIA = "Przeniesienie do innego hotelu (nadrezerwacja)";
+
+    private final HotelModel model;
+    private final RezerwacjeDAO rezerwacjeDAO;
+    private final ModelRezygnacji modelRezygnacji;
+    private final double maksUdzial;
+
+    /**
+     * Wynik rozlokowania przyjazdów jednego dnia.
+     */
+    public static final class WynikRozlokowania {
+        private final int przeniesione;
+        private final int relokowane;
+
+        WynikRozlokowania(int przeniesione, int relokowane) {
+            this.przeniesione = przeniesione;
+            this.relokowane = relokowane;
+        }
+
+        /** @return liczba rezerwacji przeniesionych do innego pokoju w hotelu */
+        public int getPrzeniesione() {
+            return przeniesione;
+        }
+
+        /** @return liczba rezerwacji anulowanych z braku wolnego pokoju */
+        public int getRelokowane() {
+            return relokowane;
+        }
+    }
+
+    public KontrolerNadrezerwacji(HotelModel model, double maksUdzial) {
+        this(model, new ModelRezygnacji(model.getRezerwacjeDAO(), model.getZegar()), maksUdzial);
+    }
+
+    /**
+     * @param model model hotelu
+     * @param modelRezygnacji model prawdopodobieństwa rezygnacji
+     * @param maksUdzial maksymalny udział nadrezerwacji w liczbie pokoi typu (np. 0.1)
+     */
+    public KontrolerNadrezerwacji(HotelModel model, ModelRezygnacji modelRezygnacji, double maksUdzial) {
+        if (model == null || modelRezygnacji == null) {
+            throw new IllegalArgumentException("Model i model rezygnacji nie mogą być null");
+        }
+        if (maksUdzial < 0 || Double.isNaN(maksUdzial)) {
+            throw new IllegalArgumentException("Maksymalny udział nie może być ujemny");
+        }
+        this.model = model;
+        this.rezerwacjeDAO = model.getRezerwacjeDAO();
+        this.modelRezygnacji = modelRezygnacji;
+        this.maksUdzial = maksUdzial;
+    }
+
+    /**
+     * Ustawia kontroler jako politykę nadrezerwacji modelu.
+     */
+    public void wlacz() {
+        model.setPolitykaNadrezerwacji(this);
+    }
+
+    @Override
+    public int limitNadrezerwacji(String typPokoju, int liczbaPokoi, LocalDate noc) {
+        if (liczbaPokoi <= 0 || noc.isBefore(LocalDate.now(model.getZegar()))) {
+            return 0;
+        }
+        int limitUdzialu = (int) Math.floor(liczbaPokoi * maksUdzial);
+        double p = modelRezygnacji.prawdopodobienstwoRezygnacji(typPokoju, noc);
+        if (p <= 0.0) {
+            return 0;
+        }
+        if (p >= 1.0) {
+            return limitUdzialu;
+        }
+        return Math.min(limitUdzialu, (int) Math.floor(liczbaPokoi * p / (1.0 - p)));
+    }
+
+    /**
+     * Rozwiązuje kolizje nadrezerwacji wśród przyjazdów podanego dnia.
+     * @param dzien dzień przyjazdu
+     * @return liczba przeniesionych i relokowanych rezerwacji
+     */
+    public WynikRozlokowania rozlokujPrzyjazdy(LocalDate dzien) {
+        if (dzien == null) {
+            throw new IllegalArgumentException("Dzień nie może być null");
+        }
+        List<Rezerwacja> przyjazdy = new ArrayList<>(
+                rezerwacjeDAO.pobierzPoStatusieRozpoczynajaceSieDo(Rezerwacja.Status.NOWA, dzien));
+        przyjazdy.addAll(rezerwacjeDAO.pobierzPoStatusieRozpoczynajaceSieDo(Rezerwacja.Status.POTWIERDZONA, dzien));
+        przyjazdy.removeIf(r -> !r.getDataOd().equals(dzien));
+        // Najpóźniej przyjęte rezerwacje ustępują jako pierwsze
+        przyjazdy.sort(Comparator.comparingInt(Rezerwacja::getId).reversed());
+
+        int przeniesione = 0;
+        int relokowane = 0;
+        for (Rezerwacja r : przyjazdy) {
+            if (!maKolizje(r.getId())) {
+                continue;
+            }
+            Optional<Pokoj> wolny = wolnyPokoj(r);
+            if (wolny.isPresent() && model.przeniesRezerwacje(r.getId(), wolny.get())) {
+                przeniesione++;
+            } else if (model.anulujRezerwacje(r.getId(), PRZYCZYNA_PRZENIESIENIA)) {
+                relokowane++;
+            }
+        }
+        return new WynikRozlokowania(przeniesione, relokowane);
+    }
+
+    private boolean maKolizje(int idRezerwacji) {
+        Optional<Rezerwacja> aktualna = rezerwacjeDAO.pobierz(idRezerwacji);
+        if (aktualna.isEmpty() || !jestAktywna(aktualna.get())) {
+            return false;
+        }
+        Rezerwacja r = aktualna.get();
+        return rezerwacjeDAO.pobierzKolidujaceDlaPokoju(r.getPokoj().getNumer(), r.getDataOd(), r.getDataDo())
+                .stream()
+                .anyMatch(inna -> inna.getId() != r.getId() && jestAktywna(inna));
+    }
+
+    private Optional<Pokoj> wolnyPokoj(Rezerwacja r) {
+        List<Pokoj> pokojeTypu = model.getPokojeDAO().pobierzPoTypie(r.getPokoj().getTyp());
+        if (pokojeTypu.isEmpty()) {
+            return Optional.empty();
+        }
+        long[] wolne = rezerwacjeDAO.getKalendarz()
+                .wolne(KalendarzZajetosci.maska(pokojeTypu), r.getDataOd(), r.getDataDo());
+        return pokojeTypu.stream()
+                .filter(p -> (wolne[p.getNumer() >> 6] & (1L << p.getNumer())) != 0)
+                .min(Comparator.comparingInt(Pokoj::getNumer));
+    }
+
+    private static boolean jestAktywna(Rezerwacja r) {
+        return r.getStatus() == Rezerwacja.Status.NOWA || r.getStatus() == Rezerwacja.Status.POTWIERDZONA
+                || r.getStatus() == Rezerwacja.Status.ZAMELDOWANA;
+    }
+}
@@ -0,0 +1,137 @@
+package hotel.nadrezerwacje;
+
+import hotel.dao.RezerwacjeDAO;
+import hotel.model.Rezerwacja;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Empiryczny model rezygnacji: szacuje prawdopodobieństwo, że rezerwacja utrzymywana
+ * L dni przed przyjazdem zostanie jeszcze anulowana lub gość nie przybędzie.
+ *
+ * Estymator liczony jest osobno dla każdego typu pokoju z rezerwacji, których przyjazd
+ * już minął. Wyprzedzenie rezygnacji to liczba dni między datą anulowania a przyjazdem
+ * (nieprzybycie ma wyprzedzenie 0), grupowana w przedziały 0, 1-3, 4-7, 8-14, 15-30 i 31+.
+ * Dla wyprzedzenia L:
+ * <pre>
+ *   p(L) = anulowane z wyprzedzeniem &lt;= L / (wszystkie - anulowane z wyprzedzeniem &gt; L)
+ * </pre>
+ * czyli udział rezygnacji wśród rezerwacji, które L dni przed przyjazdem jeszcze istniały.
+ * Rezerwacje anulowane przez hotel przy rozlokowaniu nadrezerwacji nie są liczone.
+ * Estymator przeliczany jest raz dziennie.
+ */
+public class ModelRezygnacji {
+
+    public static final int DOMYSLNA_MINIMALNA_PROBA = 30;
+    private static final int[] GRANICE_PRZEDZIALOW = {0, 3, 7, 14, 30};
+
+    private final RezerwacjeDAO rezerwacjeDAO;
+    private final Clock zegar;
+    private final int minimalnaProba;
+    private Map<String, double[]> estymator = Map.of();
+    private LocalDate dzienEstymatora;
+
+    public ModelRezygnacji(RezerwacjeDAO rezerwacjeDAO, Clock zegar) {
+        this(rezerwacjeDAO, zegar, DOMYSLNA_MINIMALNA_PROBA);
+    }
+
+    /**
+     * @param rezerwacjeDAO źródło historii rezerwacji
+     * @param zegar zegar wyznaczający bieżący dzień
+     * @param minimalnaProba minimalna liczba zakończonych rezerwacji typu, poniżej której
+     *                       prawdopodobieństwo rezygnacji wynosi 0
+     */
+    public ModelRezygnacji(RezerwacjeDAO rezerwacjeDAO, Clock zegar, int minimalnaProba) {
+        if (rezerwacjeDAO == null || zegar == null) {
+            throw new IllegalArgumentException("DAO i zegar nie mogą być null");
+        }
+        if (minimalnaProba <= 0) {
+            throw new IllegalArgumentException("Minimalna próba musi być większa od 0");
+        }
+        this.rezerwacjeDAO = rezerwacjeDAO;
+        this.zegar = zegar;
+        this.minimalnaProba = minimalnaProba;
+    }
+
+    /**
+     * Zwraca prawdopodobieństwo rezygnacji z rezerwacji typu pokoju na noc podanego dnia,
+     * przy wyprzedzeniu liczonym od dziś.
+     * @param typPokoju typ pokoju
+     * @param noc dzień przyjazdu
+     * @return prawdopodobieństwo z przedziału [0, 1]
+     */
+    public synchronized double prawdopodobienstwoRezygnacji(String typPokoju, LocalDate noc) {
+        LocalDate dzis = LocalDate.now(zegar);
+        if (!dzis.equals(dzienEstymatora)) {
+            estymator = przelicz(dzis);
+            dzienEstymatora = dzis;
+        }
+        double[] p = estymator.get(typPokoju);
+        if (p == null) {
+            return 0.0;
+        }
+        return p[przedzial(ChronoUnit.DAYS.between(dzis, noc))];
+    }
+
+    /**
+     * Wymusza przeliczenie estymatora przy następnym zapytaniu.
+     */
+    public synchronized void odswiez() {
+        dzienEstymatora = null;
+    }
+
+    private Map<String, double[]> przelicz(LocalDate dzis) {
+        Map<String, long[]> anulowane = new HashMap<>();
+        Map<String, Long> wszystkie = new HashMap<>();
+        rezerwacjeDAO.przegladaj(r -> {
+            if (!r.getDataOd().isBefore(dzis)
+                    || KontrolerNadrezerwacji.PRZYCZYNA_PRZENIESIENIA.equals(r.getPrzyczynaAnulowania())) {
+                return;
+            }
+            boolean anulowana = r.getStatus() == Rezerwacja.Status.ANULOWANA;
+            if (anulowana && r.getDataAnulowania() == null) {
+                // Brak daty anulowania - wyprzedzenie nieznane
+                return;
+            }
+            String typ = r.getPokoj().getTyp();
+            wszystkie.merge(typ, 1L, Long::sum);
+            if (anulowana) {
+                long wyprzedzenie = ChronoUnit.DAYS.between(r.getDataAnulowania(), r.getDataOd());
+                anulowane.computeIfAbsent(typ, t -> new long[GRANICE_PRZEDZIALOW.length + 1])[przedzial(wyprzedzenie)]++;
+            }
+        });
+        Map<String, double[]> wynik = new HashMap<>();
+        wszystkie.forEach((typ, liczba) -> {
+            if (liczba < minimalnaProba) {
+                return;
+            }
+            long[] a = anulowane.getOrDefault(typ, new long[GRANICE_PRZEDZIALOW.length + 1]);
+            long suma = 0;
+            for (long x : a) {
+                suma += x;
+            }
+            double[] p = new double[a.length];
+            long doL = 0;
+            for (int i = 0; i < a.length; i++) {
+                doL += a[i];
+                long istniejace = liczba - (suma - doL);
+                p[i] = istniejace == 0 ? 0.0 : (double) doL / istniejace;
+            }
+            wynik.put(typ, p);
+        });
+        return wynik;
+    }
+
+    private static int przedzial(long wyprzedzenie) {
+        for (int i = 0; i < GRANICE_PRZEDZIALOW.length; i++) {
+            if (wyprzedzenie <= GRANICE_PRZEDZIALOW[i]) {
+                return i;
+            }
+        }
+        return GRANICE_PRZEDZIALOW.length;
+    }
+}
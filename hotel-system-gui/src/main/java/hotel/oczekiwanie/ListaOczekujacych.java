@@ -0,0 +1,310 @@
+package hotel.oczekiwanie;
+
+import hotel.model.Gosc;
+import hotel.model.HotelModel;
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+import hotel.zdarzenia.Subskrypcja;
+import hotel.zdarzenia.ZdarzenieRezerwacji;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Lista oczekujących na pokój danego typu w danym terminie.
+ *
+ * Lista subskrybuje zdarzenia modelu: anulowanie rezerwacji zwalnia jej noce, a zmiana
+ * dat - noce sprzed zmiany. Zwolnione dni dopasowywane są do zgłoszeń tego samego typu
+ * przez indeks przedziałowy (zgłoszenia posortowane po dniu początku; zakres przeszukania
+ * ogranicza najdłuższy oczekujący pobyt), więc koszt zależy od liczby zgłoszeń w pobliżu
+ * zwolnionego terminu, a nie od długości listy. Kandydaci obsługiwani są w kolejności
+ * zgłoszeń; zgłoszenie jest realizowane, jeśli w całym jego terminie jest wolny pokój.
+ *
+ * W trybie REZERWUJ rezerwacja tworzona jest od razu, w trybie ZAPROPONUJ gość dostaje
+ * propozycję pokoju, którą przyjmuje przez {@link #przyjmijOferte(int)}. Propozycja nie
+ * blokuje pokoju - przyjęcie rezerwuje go, jeśli jest nadal wolny.
+ */
+public class ListaOczekujacych implements AutoCloseable {
+
+    /**
+     * Sposób realizacji zgłoszenia po zwolnieniu pokoju.
+     */
+    public enum Tryb {
+        REZERWUJ, ZAPROPONUJ
+    }
+
+    private final HotelModel model;
+    private final Tryb tryb;
+    private final Consumer<WpisOczekiwania> powiadomienie;
+    private final Map<String, IndeksTypu> indeksy = new HashMap<>();
+    private final Map<Integer, WpisOczekiwania> aktywne = new HashMap<>();
+    private final AtomicInteger nastepneId = new AtomicInteger(1);
+    private final Subskrypcja subskrypcja;
+    private long liczbaSprawdzonych;
+
+    private record KluczWpisu(long dzienOd, int id) {
+    }
+
+    /**
+     * Oczekujące zgłoszenia jednego typu pokoju posortowane po dniu początku.
+     */
+    private static final class IndeksTypu {
+        private final NavigableMap<KluczWpisu, WpisOczekiwania> wpisy = new TreeMap<>(
+                Comparator.comparingLong(KluczWpisu::dzienOd).thenComparingInt(KluczWpisu::id));
+        // Nie maleje przy usuwaniu - zawyżony zakres daje jedynie kilku kandydatów więcej
+        private long maksDlugosc;
+
+        void dodaj(WpisOczekiwania w) {
+            wpisy.put(klucz(w), w);
+            maksDlugosc = Math.max(maksDlugosc, w.getDataDo().toEpochDay() - w.getDataOd().toEpochDay());
+        }
+
+        void usun(WpisOczekiwania w) {
+            wpisy.remove(klucz(w));
+        }
+
+        /**
+         * Zwraca zgłoszenia, których termin [dataOd, dataDo] ma wspólny dzień z przedziałem [od, dzienDo].
+         */
+        List<WpisOczekiwania> nakladajaceSie(long od, long dzienDo) {
+            List<WpisOczekiwania> wynik = new ArrayList<>();
+            for (WpisOczekiwania w : wpisy.subMap(new KluczWpisu(od - maksDlugosc, Integer.MIN_VALUE), true,
+                    new KluczWpisu(dzienDo, Integer.MAX_VALUE), true).values()) {
+                if (w.getDataDo().toEpochDay() >= od) {
+                    wynik.add(w);
+                }
+            }
+            return wynik;
+        }
+
+        private static KluczWpisu klucz(WpisOczekiwania w) {
+            return new KluczWpisu(w.getDataOd().toEpochDay(), w.getId());
+        }
+    }
+
+    public ListaOczekujacych(HotelModel model) {
+        this(model, Tryb.REZERWUJ, w -> { });
+    }
+
+    /**
+     * Tworzy listę i subskrybuje zdarzenia modelu.
+     * @param model model hotelu
+     * @param tryb sposób realizacji zgłoszeń
+     * @param powiadomienie wywoływane dla każdego zgłoszenia zrealizowanego lub z propozycją pokoju
+     */
+    public ListaOczekujacych(HotelModel model, Tryb tryb, Consumer<WpisOczekiwania> powiadomienie) {
+        if (model == null || tryb == null || powiadomienie == null) {
+            throw new IllegalArgumentException("Model, tryb i powiadomienie nie mogą być null");
+        }
+        this.model = model;
+        this.tryb = tryb;
+        this.powiadomienie = powiadomienie;
+        this.subskrypcja = model.getSzynaZdarzen().subskrybuj("lista-oczekujacych", this::obsluzZdarzenie);
+    }
+
+    /**
+     * Zapisuje gościa na listę oczekujących.
+     * @param gosc gość
+     * @param typPokoju typ pokoju
+     * @param dataOd data rozpoczęcia pobytu
+     * @param dataDo data zakończenia pobytu
+     * @return zgłoszenie
+     */
+    public synchronized WpisOczekiwania zglos(Gosc gosc, String typPokoju, LocalDate dataOd, LocalDate dataDo) {
+        if (gosc == null || typPokoju == null || typPokoju.isBlank()) {
+            throw new IllegalArgumentException("Gość i typ pokoju nie mogą być puste");
+        }
+        if (dataOd == null || dataDo == null || !dataOd.isBefore(dataDo)) {
+            throw new IllegalArgumentException("Data rozpoczęcia musi być wcześniejsza niż data zakończenia");
+        }
+        WpisOczekiwania wpis = new WpisOczekiwania(nastepneId.getAndIncrement(), gosc, typPokoju,
+                dataOd, dataDo, Instant.now(model.getZegar()));
+        aktywne.put(wpis.getId(), wpis);
+        indeksy.computeIfAbsent(klucz(typPokoju), k -> new IndeksTypu()).dodaj(wpis);
+        return wpis;
+    }
+
+    /**
+     * Wycofuje zgłoszenie oczekujące lub z propozycją pokoju.
+     * @param idWpisu ID zgłoszenia
+     * @return true jeśli wycofano
+     */
+    public synchronized boolean wycofaj(int idWpisu) {
+        WpisOczekiwania wpis = aktywne.remove(idWpisu);
+        if (wpis == null) {
+            return false;
+        }
+        usunZIndeksu(wpis);
+        wpis.wycofaj();
+        return true;
+    }
+
+    /**
+     * Przyjmuje propozycję pokoju. Jeśli zaproponowany pokój został w międzyczasie zajęty,
+     * rezerwowany jest inny wolny pokój tego typu; gdy takiego nie ma, zgłoszenie wraca
+     * na listę oczekujących.
+     * @param idWpisu ID zgłoszenia
+     * @return utworzona rezerwacja lub null
+     */
+    public synchronized Rezerwacja przyjmijOferte(int idWpisu) {
+        WpisOczekiwania wpis = aktywne.get(idWpisu);
+        if (wpis == null || wpis.getStatus() != WpisOczekiwania.Status.ZAPROPONOWANY) {
+            return null;
+        }
+        Rezerwacja rezerwacja = model.utworzRezerwacje(wpis.getGosc(), wpis.getProponowanyPokoj(),
+                wpis.getDataOd(), wpis.getDataDo());
+        if (rezerwacja == null) {
+            rezerwacja = model.utworzRezerwacjeTypu(wpis.getGosc(), wpis.getTypPokoju(),
+                    wpis.getDataOd(), wpis.getDataDo());
+        }
+        if (rezerwacja == null) {
+            wpis.przywroc();
+            indeksy.computeIfAbsent(klucz(wpis.getTypPokoju()), k -> new IndeksTypu()).dodaj(wpis);
+            return null;
+        }
+        aktywne.remove(idWpisu);
+        wpis.zrealizuj(rezerwacja);
+        return rezerwacja;
+    }
+
+    /**
+     * Dopasowuje zwolnione dni pokoju danego typu do oczekujących zgłoszeń.
+     * Wywoływane przy anulowaniu i zmianie dat rezerwacji.
+     * @param typPokoju typ zwolnionego pokoju
+     * @param od pierwszy zwolniony dzień
+     * @param dzienDo ostatni zwolniony dzień
+     * @return zgłoszenia zrealizowane lub z propozycją pokoju
+     */
+    public synchronized List<WpisOczekiwania> obsluzZwolnienie(String typPokoju, LocalDate od, LocalDate dzienDo) {
+        IndeksTypu indeks = indeksy.get(klucz(typPokoju));
+        if (indeks == null) {
+            return List.of();
+        }
+        List<WpisOczekiwania> kandydaci = indeks.nakladajaceSie(od.toEpochDay(), dzienDo.toEpochDay());
+        kandydaci.sort(Comparator.comparingInt(WpisOczekiwania::getId));
+        liczbaSprawdzonych += kandydaci.size();
+
+        LocalDate dzis = LocalDate.now(model.getZegar());
+        List<WpisOczekiwania> obsluzone = new ArrayList<>();
+        for (WpisOczekiwania wpis : kandydaci) {
+            if (wpis.getDataOd().isBefore(dzis) || !czyWolnyPokoj(wpis, obsluzone)) {
+                continue;
+            }
+            if (tryb == Tryb.REZERWUJ) {
+                Rezerwacja rezerwacja = model.utworzRezerwacjeTypu(wpis.getGosc(), wpis.getTypPokoju(),
+                        wpis.getDataOd(), wpis.getDataDo());
+                if (rezerwacja == null) {
+                    continue;
+                }
+                aktywne.remove(wpis.getId());
+                wpis.zrealizuj(rezerwacja);
+            } else {
+                Optional<Pokoj> pokoj = model.przydzielPokoj(wpis.getTypPokoju(), wpis.getDataOd(), wpis.getDataDo());
+                if (pokoj.isEmpty()) {
+                    continue;
+                }
+                wpis.zaproponuj(pokoj.get());
+            }
+            indeks.usun(wpis);
+            obsluzone.add(wpis);
+            powiadomienie.accept(wpis);
+        }
+        return obsluzone;
+    }
+
+    /**
+     * Zwraca zgłoszenia oczekujące na pokój danego typu w kolejności zgłoszeń.
+     * @param typPokoju typ pokoju
+     * @return zgłoszenia w stanie OCZEKUJE
+     */
+    public synchronized List<WpisOczekiwania> pobierzOczekujace(String typPokoju) {
+        IndeksTypu indeks = indeksy.get(klucz(typPokoju));
+        if (indeks == null) {
+            return List.of();
+        }
+        return indeks.wpisy.values().stream()
+                .sorted(Comparator.comparingInt(WpisOczekiwania::getId))
+                .toList();
+    }
+
+    /**
+     * Zwraca liczbę zgłoszeń oczekujących lub z nieprzyjętą propozycją.
+     * @return liczba aktywnych zgłoszeń
+     */
+    public synchronized int liczbaAktywnych() {
+        return aktywne.size();
+    }
+
+    /**
+     * Zwraca łączną liczbę kandydatów wskazanych przez indeks przy zwolnieniach (do diagnostyki).
+     * @return liczba sprawdzonych zgłoszeń
+     */
+    public synchronized long getLiczbaSprawdzonych() {
+        return liczbaSprawdzonych;
+    }
+
+    @Override
+    public void close() {
+        subskrypcja.close();
+    }
+
+    private void obsluzZdarzenie(ZdarzenieRezerwacji zdarzenie) {
+        switch (zdarzenie.getTyp()) {
+            case ANULOWANA -> zwolnij(zdarzenie.getNumerPokoju(), zdarzenie.getDataOd(), zdarzenie.getDataDo());
+            case ZMIENIONA -> zwolnij(zdarzenie.getPoprzedniNumerPokoju(),
+                    zdarzenie.getPoprzedniaDataOd(), zdarzenie.getPoprzedniaDataDo());
+            default -> { }
+        }
+    }
+
+    private void zwolnij(int numerPokoju, LocalDate od, LocalDate dzienDo) {
+        model.getPokojeDAO().pobierz(numerPokoju)
+                .ifPresent(pokoj -> obsluzZwolnienie(pokoj.getTyp(), od, dzienDo));
+    }
+
+    /**
+     * Sprawdza w macierzy dostępności, czy w każdym dniu zgłoszenia jest wolny pokój,
+     * uwzględniając propozycje złożone w tym samym przebiegu (nie zajmują one pokoi w modelu).
+     */
+    private boolean czyWolnyPokoj(WpisOczekiwania wpis, List<WpisOczekiwania> obsluzone) {
+        int[] wolne = model.pobierzLiczbyWolnychPokoi(wpis.getTypPokoju(), wpis.getDataOd(), wpis.getDataDo());
+        for (WpisOczekiwania inny : obsluzone) {
+            if (inny.getStatus() != WpisOczekiwania.Status.ZAPROPONOWANY) {
+                continue;
+            }
+            long start = Math.max(inny.getDataOd().toEpochDay(), wpis.getDataOd().toEpochDay());
+            long koniec = Math.min(inny.getDataDo().toEpochDay(), wpis.getDataDo().toEpochDay());
+            for (long d = start; d <= koniec; d++) {
+                wolne[(int) (d - wpis.getDataOd().toEpochDay())]--;
+            }
+        }
+        for (int w : wolne) {
+            if (w <= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void usunZIndeksu(WpisOczekiwania wpis) {
+        IndeksTypu indeks = indeksy.get(klucz(wpis.getTypPokoju()));
+        if (indeks != null) {
+            indeks.usun(wpis);
+        }
+    }
+
+    private static String klucz(String typ) {
+        return typ.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,111 @@
+package hotel.oczekiwanie;
+
+import hotel.model.Gosc;
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Zgłoszenie gościa na liście oczekujących: typ pokoju i termin, na który
+ * zabrakło wolnych pokoi. Stan zmienia wyłącznie {@link ListaOczekujacych}.
+ */
+public final class WpisOczekiwania {
+
+    /**
+     * Stan zgłoszenia.
+     */
+    public enum Status {
+        OCZEKUJE, ZAPROPONOWANY, ZREALIZOWANY, WYCOFANY
+    }
+
+    private final int id;
+    private final Gosc gosc;
+    private final String typPokoju;
+    private final LocalDate dataOd;
+    private final LocalDate dataDo;
+    private final Instant czasZgloszenia;
+    private volatile Status status = Status.OCZEKUJE;
+    private volatile Pokoj proponowanyPokoj;
+    private volatile Rezerwacja rezerwacja;
+
+    WpisOczekiwania(int id, Gosc gosc, String typPokoju, LocalDate dataOd, LocalDate dataDo,
+                    Instant czasZgloszenia) {
+        this.id = id;
+        this.gosc = gosc;
+        this.typPokoju = typPokoju;
+        this.dataOd = dataOd;
+        this.dataDo = dataDo;
+        this.czasZgloszenia = czasZgloszenia;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public Gosc getGosc() {
+        return gosc;
+    }
+
+    public String getTypPokoju() {
+        return typPokoju;
+    }
+
+    public LocalDate getDataOd() {
+        return dataOd;
+    }
+
+    public LocalDate getDataDo() {
+        return dataDo;
+    }
+
+    public Instant getCzasZgloszenia() {
+        return czasZgloszenia;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Zwraca pokój zaproponowany gościowi (stan ZAPROPONOWANY).
+     * @return pokój lub null
+     */
+    public Pokoj getProponowanyPokoj() {
+        return proponowanyPokoj;
+    }
+
+    /**
+     * Zwraca rezerwację utworzoną dla zgłoszenia (stan ZREALIZOWANY).
+     * @return rezerwacja lub null
+     */
+    public Rezerwacja getRezerwacja() {
+        return rezerwacja;
+    }
+
+    void zaproponuj(Pokoj pokoj) {
+        this.proponowanyPokoj = pokoj;
+        this.status = Status.ZAPROPONOWANY;
+    }
+
+    void zrealizuj(Rezerwacja rezerwacja) {
+        this.rezerwacja = rezerwacja;
+        this.status = Status.ZREALIZOWANY;
+    }
+
+    void przywroc() {
+        this.proponowanyPokoj = null;
+        this.status = Status.OCZEKUJE;
+    }
+
+    void wycofaj() {
+        this.status = Status.WYCOFANY;
+    }
+
+    @Override
+    public String toString() {
+        return "WpisOczekiwania{id=" + id + ", gosc=" + gosc.getPelneNazwisko() + ", typ=" + typPokoju
+                + ", " + dataOd + " - " + dataDo + ", status=" + status + '}';
+    }
+}
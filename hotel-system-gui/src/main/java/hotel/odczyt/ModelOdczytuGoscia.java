@@ -0,0 +1,352 @@
+package hotel.odczyt;
+
+import hotel.dao.MapaTrwala;
+import hotel.dao.PokojeDAO;
+import hotel.dao.RezerwacjeDAO;
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+import hotel.zdarzenia.Subskrypcja;
+import hotel.zdarzenia.SzynaZdarzen;
+import hotel.zdarzenia.ZdarzenieRezerwacji;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Model odczytu dla panelu gościa (strona zapytań CQRS).
+ * Utrzymuje zdenormalizowane widoki "moje rezerwacje" oraz zajętość pokoi
+ * w niezmiennych migawkach, aktualizowanych asynchronicznie zdarzeniami z szyny modelu.
+ * Migawki oparte są na mapach trwałych ({@link MapaTrwala}), więc zdarzenie kopiuje
+ * jedynie ścieżki zmienianych wpisów i listy jednego gościa i pokoju, a nie cały stan.
+ * Zdarzenie starsze (wersja rezerwacji) od naniesionego stanu jest pomijane.
+ * Odczyt sprowadza się do pobrania referencji do bieżącej migawki - nie zakłada
+ * żadnych blokad i nie sięga do map DAO, do których pisze recepcja.
+ * Migawka może chwilowo nie zawierać ostatnich zmian (spójność ostateczna).
+ */
+public class ModelOdczytuGoscia implements AutoCloseable {
+
+    private final RezerwacjeDAO rezerwacjeDAO;
+    private final PokojeDAO pokojeDAO;
+    private final Object blokadaZapisu = new Object();
+
+    private volatile Migawka migawka = Migawka.PUSTA;
+    private volatile Subskrypcja subskrypcja;
+    private volatile Consumer<Migawka> obserwator = m -> { };
+    private long widzianeOdrzucone;
+    private int liczbaPrzebudowan;
+
+    /**
+     * Niezmienna migawka modelu odczytu. Kolejne zapytania na tej samej migawce
+     * widzą spójny stan, niezależnie od równoległych zmian.
+     */
+    public static final class Migawka {
+
+        static final Migawka PUSTA = new Migawka(0, -1, MapaTrwala.pusta(), MapaTrwala.pusta(),
+                MapaTrwala.pusta(), Map.of());
+
+        private final long wersja;
+        private final long wersjaPokoi;
+        private final MapaTrwala<WidokRezerwacji> rezerwacje;
+        private final MapaTrwala<List<WidokRezerwacji>> wgGoscia;
+        private final MapaTrwala<List<WidokRezerwacji>> aktywneWgPokoju;
+        private final Map<Integer, Pokoj> pokoje;
+
+        private Migawka(long wersja, long wersjaPokoi,
+                        MapaTrwala<WidokRezerwacji> rezerwacje,
+                        MapaTrwala<List<WidokRezerwacji>> wgGoscia,
+                        MapaTrwala<List<WidokRezerwacji>> aktywneWgPokoju,
+                        Map<Integer, Pokoj> pokoje) {
+            this.wersja = wersja;
+            this.wersjaPokoi = wersjaPokoi;
+            this.rezerwacje = rezerwacje;
+            this.wgGoscia = wgGoscia;
+            this.aktywneWgPokoju = aktywneWgPokoju;
+            this.pokoje = pokoje;
+        }
+
+        /**
+         * Zwraca rezerwacje gościa w kolejności identyfikatorów.
+         * @param idGoscia identyfikator gościa
+         * @return niemodyfikowalna lista widoków
+         */
+        public List<WidokRezerwacji> rezerwacjeGoscia(int idGoscia) {
+            List<WidokRezerwacji> lista = wgGoscia.pobierz(idGoscia);
+            return lista != null ? lista : List.of();
+        }
+
+        /**
+         * Zwraca widok rezerwacji o podanym identyfikatorze.
+         * @param idRezerwacji identyfikator rezerwacji
+         * @return widok lub null
+         */
+        public WidokRezerwacji rezerwacja(int idRezerwacji) {
+            return rezerwacje.pobierz(idRezerwacji);
+        }
+
+        /**
+         * Zwraca pokoje danego typu bez aktywnej rezerwacji kolidującej z terminem.
+         * @param typ typ pokoju (bez rozróżniania wielkości liter) lub null dla wszystkich
+         * @param dataOd data przyjazdu
+         * @param dataDo data wyjazdu
+         * @return pokoje posortowane po numerze
+         */
+        public List<Pokoj> dostepnePokoje(String typ, LocalDate dataOd, LocalDate dataDo) {
+            if (dataOd == null || dataDo == null || dataDo.isBefore(dataOd)) {
+                throw new IllegalArgumentException("Nieprawidłowy przedział dat");
+            }
+            List<Pokoj> wynik = new ArrayList<>();
+            for (Pokoj pokoj : pokoje.values()) {
+                if (typ != null && !typ.equalsIgnoreCase(pokoj.getTyp())) {
+                    continue;
+                }
+                boolean wolny = true;
+                List<WidokRezerwacji> aktywne = aktywneWgPokoju.pobierz(pokoj.getNumer());
+                for (WidokRezerwacji r : aktywne != null ? aktywne : List.<WidokRezerwacji>of()) {
+                    if (r.kolidujeZ(dataOd, dataDo)) {
+                        wolny = false;
+                        break;
+                    }
+                }
+                if (wolny) {
+                    wynik.add(pokoj);
+                }
+            }
+            return wynik;
+        }
+
+        /**
+         * Zwraca liczbę zmian naniesionych na model od utworzenia.
+         * @return wersja migawki
+         */
+        public long getWersja() {
+            return wersja;
+        }
+
+        public int liczbaRezerwacji() {
+            return rezerwacje.rozmiar();
+        }
+    }
+
+    /**
+     * Tworzy model odczytu, subskrybuje zdarzenia modelu i buduje stan początkowy z DAO.
+     * Subskrypcja powstaje przed odczytem DAO, więc żadna zmiana nie zostanie pominięta;
+     * zdarzenia starsze niż stan początkowy są pomijane na podstawie wersji rezerwacji.
+     * @param rezerwacjeDAO DAO rezerwacji (czytane tylko przy przebudowie)
+     * @param pokojeDAO DAO pokoi (czytane tylko przy przebudowie i zmianie katalogu pokoi)
+     * @param szyna szyna zdarzeń modelu
+     */
+    public ModelOdczytuGoscia(RezerwacjeDAO rezerwacjeDAO, PokojeDAO pokojeDAO, SzynaZdarzen szyna) {
+        if (rezerwacjeDAO == null || pokojeDAO == null || szyna == null) {
+            throw new IllegalArgumentException("DAO i szyna zdarzeń nie mogą być null");
+        }
+        this.rezerwacjeDAO = rezerwacjeDAO;
+        this.pokojeDAO = pokojeDAO;
+        this.subskrypcja = szyna.subskrybuj("model-odczytu-goscia", this::zastosuj);
+        przebuduj();
+    }
+
+    /**
+     * Zwraca bieżącą migawkę (bez blokad).
+     * @return migawka
+     */
+    public Migawka migawka() {
+        Migawka m = migawka;
+        if (m.wersjaPokoi != pokojeDAO.pobierzWersje()) {
+            // Katalog pokoi zmieniono z pominięciem zdarzeń rezerwacji - rzadkie, przeładuj pokoje
+            m = odswiezPokoje();
+        }
+        return m;
+    }
+
+    /**
+     * Zwraca rezerwacje gościa z bieżącej migawki.
+     * @param idGoscia identyfikator gościa
+     * @return niemodyfikowalna lista widoków
+     */
+    public List<WidokRezerwacji> mojeRezerwacje(int idGoscia) {
+        return migawka.rezerwacjeGoscia(idGoscia);
+    }
+
+    /**
+     * Zwraca pokoje dostępne w terminie z bieżącej migawki.
+     * @param typ typ pokoju lub null dla wszystkich
+     * @param dataOd data przyjazdu
+     * @param dataDo data wyjazdu
+     * @return pokoje posortowane po numerze
+     */
+    public List<Pokoj> dostepnePokoje(String typ, LocalDate dataOd, LocalDate dataDo) {
+        return migawka().dostepnePokoje(typ, dataOd, dataDo);
+    }
+
+    /**
+     * Odbudowuje cały model z DAO (stan początkowy lub po utracie zdarzeń).
+     */
+    public void przebuduj() {
+        synchronized (blokadaZapisu) {
+            long wersjaPokoi = pokojeDAO.pobierzWersje();
+            Map<Integer, Pokoj> pokoje = wczytajPokoje();
+            MapaTrwala<WidokRezerwacji> rezerwacje = MapaTrwala.pusta();
+            Map<Integer, List<WidokRezerwacji>> wgGoscia = new HashMap<>();
+            Map<Integer, List<WidokRezerwacji>> aktywneWgPokoju = new HashMap<>();
+            for (Rezerwacja r : rezerwacjeDAO.pobierzWszystkie()) {
+                WidokRezerwacji w = WidokRezerwacji.z(r);
+                rezerwacje = rezerwacje.z(w.getId(), w);
+                wgGoscia.computeIfAbsent(w.getIdGoscia(), k -> new ArrayList<>()).add(w);
+                if (w.czyAktywna()) {
+                    aktywneWgPokoju.computeIfAbsent(w.getNumerPokoju(), k -> new ArrayList<>()).add(w);
+                }
+            }
+            Subskrypcja s = subskrypcja;
+            widzianeOdrzucone = s != null ? s.getLiczbaOdrzuconych() : 0;
+            liczbaPrzebudowan++;
+            opublikuj(new Migawka(migawka.wersja + 1, wersjaPokoi, rezerwacje,
+                    zamrozListy(wgGoscia), zamrozListy(aktywneWgPokoju), pokoje));
+        }
+    }
+
+    /**
+     * Ustawia obserwatora powiadamianego o każdej nowej migawce. Wywoływany w wątku
+     * zapisującym, więc powinien jedynie przekazać pracę dalej (np. Platform::runLater).
+     * @param obserwator obserwator migawek
+     */
+    public void ustawObserwatora(Consumer<Migawka> obserwator) {
+        if (obserwator == null) {
+            throw new IllegalArgumentException("Obserwator nie może być null");
+        }
+        this.obserwator = obserwator;
+    }
+
+    /**
+     * Zwraca liczbę pełnych przebudów (diagnostyka).
+     * @return liczba przebudów
+     */
+    public int getLiczbaPrzebudowan() {
+        synchronized (blokadaZapisu) {
+            return liczbaPrzebudowan;
+        }
+    }
+
+    /**
+     * Kończy subskrypcję zdarzeń; ostatnia migawka pozostaje dostępna.
+     */
+    @Override
+    public void close() {
+        Subskrypcja s = subskrypcja;
+        if (s != null) {
+            s.close();
+        }
+    }
+
+    /**
+     * Nanosi zdarzenie na nową migawkę (kopiowanie ścieżek map trwałych). Wywoływane
+     * w wątku subskrypcji; zdarzenia równoległych zapisów mogą jednak zostać opublikowane
+     * w innej kolejności niż zapisane, dlatego o kolejności decyduje wersja rezerwacji.
+     */
+    private void zastosuj(ZdarzenieRezerwacji zdarzenie) {
+        synchronized (blokadaZapisu) {
+            Subskrypcja s = subskrypcja;
+            if (s != null && s.getLiczbaOdrzuconych() != widzianeOdrzucone) {
+                // Bufor subskrypcji się przepełnił - brakujących zdarzeń nie da się odtworzyć
+                przebuduj();
+                return;
+            }
+            Migawka m = migawka;
+            WidokRezerwacji stary = m.rezerwacje.pobierz(zdarzenie.getIdRezerwacji());
+            if (stary != null && zdarzenie.getWersja() < stary.getWersja()) {
+                return;
+            }
+            Map<Integer, Pokoj> pokoje = m.pokoje;
+            long wersjaPokoi = m.wersjaPokoi;
+            if (!pokoje.containsKey(zdarzenie.getNumerPokoju())) {
+                wersjaPokoi = pokojeDAO.pobierzWersje();
+                pokoje = wczytajPokoje();
+            }
+            WidokRezerwacji nowy = WidokRezerwacji.z(zdarzenie, pokoje.get(zdarzenie.getNumerPokoju()));
+
+            MapaTrwala<WidokRezerwacji> rezerwacje = m.rezerwacje.z(nowy.getId(), nowy);
+
+            MapaTrwala<List<WidokRezerwacji>> wgGoscia = m.wgGoscia;
+            if (stary != null && stary.getIdGoscia() != nowy.getIdGoscia()) {
+                wgGoscia = zamien(wgGoscia, stary.getIdGoscia(), stary.getId(), null);
+            }
+            wgGoscia = zamien(wgGoscia, nowy.getIdGoscia(), nowy.getId(), nowy);
+
+            MapaTrwala<List<WidokRezerwacji>> aktywneWgPokoju = m.aktywneWgPokoju;
+            if (stary != null && stary.czyAktywna() && stary.getNumerPokoju() != nowy.getNumerPokoju()) {
+                aktywneWgPokoju = zamien(aktywneWgPokoju, stary.getNumerPokoju(), stary.getId(), null);
+            }
+            if ((stary != null && stary.czyAktywna()) || nowy.czyAktywna()) {
+                aktywneWgPokoju = zamien(aktywneWgPokoju, nowy.getNumerPokoju(), nowy.getId(),
+                        nowy.czyAktywna() ? nowy : null);
+            }
+
+            opublikuj(new Migawka(m.wersja + 1, wersjaPokoi, rezerwacje, wgGoscia, aktywneWgPokoju, pokoje));
+        }
+    }
+
+    private void opublikuj(Migawka nowa) {
+        migawka = nowa;
+        obserwator.accept(nowa);
+    }
+
+    private Migawka odswiezPokoje() {
+        synchronized (blokadaZapisu) {
+            Migawka m = migawka;
+            long wersjaPokoi = pokojeDAO.pobierzWersje();
+            if (m.wersjaPokoi != wersjaPokoi) {
+                m = new Migawka(m.wersja + 1, wersjaPokoi, m.rezerwacje, m.wgGoscia,
+                        m.aktywneWgPokoju, wczytajPokoje());
+                opublikuj(m);
+            }
+            return m;
+        }
+    }
+
+    private Map<Integer, Pokoj> wczytajPokoje() {
+        List<Pokoj> lista = pokojeDAO.pobierzWszystkie();
+        lista.sort(Comparator.comparingInt(Pokoj::getNumer));
+        Map<Integer, Pokoj> pokoje = new LinkedHashMap<>();
+        for (Pokoj p : lista) {
+            pokoje.put(p.getNumer(), p);
+        }
+        return Collections.unmodifiableMap(pokoje);
+    }
+
+    /**
+     * Zastępuje listę pod kluczem nową listą bez wpisu o danym id (i z nowym wpisem, jeśli podano).
+     */
+    private static MapaTrwala<List<WidokRezerwacji>> zamien(MapaTrwala<List<WidokRezerwacji>> mapa, int klucz,
+                                                             int id, WidokRezerwacji nowy) {
+        List<WidokRezerwacji> stara = mapa.pobierz(klucz);
+        if (stara == null) {
+            stara = List.of();
+        }
+        List<WidokRezerwacji> lista = new ArrayList<>(stara.size() + 1);
+        for (WidokRezerwacji w : stara) {
+            if (w.getId() != id) {
+                lista.add(w);
+            }
+        }
+        if (nowy != null) {
+            lista.add(nowy);
+            lista.sort(Comparator.comparingInt(WidokRezerwacji::getId));
+        }
+        return lista.isEmpty() ? mapa.bez(klucz) : mapa.z(klucz, Collections.unmodifiableList(lista));
+    }
+
+    private static MapaTrwala<List<WidokRezerwacji>> zamrozListy(Map<Integer, List<WidokRezerwacji>> mapa) {
+        MapaTrwala<List<WidokRezerwacji>> wynik = MapaTrwala.pusta();
+        for (Map.Entry<Integer, List<WidokRezerwacji>> e : mapa.entrySet()) {
+            e.getValue().sort(Comparator.comparingInt(WidokRezerwacji::getId));
+            wynik = wynik.z(e.getKey(), Collections.unmodifiableList(e.getValue()));
+        }
+        return wynik;
+    }
+}
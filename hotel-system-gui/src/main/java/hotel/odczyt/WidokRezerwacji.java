@@ -0,0 +1,131 @@
+package hotel.odczyt;
+
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+import hotel.zdarzenia.ZdarzenieRezerwacji;
+
+import java.time.LocalDate;
+
+/**
+ * Zdenormalizowany, niezmienny widok rezerwacji dla panelu gościa.
+ * Cena i dane pokoju są wyliczone w chwili budowy widoku, więc odczyt
+ * nie sięga do encji modelu ani do DAO.
+ */
+public final class WidokRezerwacji {
+
+    private final int id;
+    private final long wersja;
+    private final int idGoscia;
+    private final int numerPokoju;
+    private final String typPokoju;
+    private final double cenaZaNoc;
+    private final LocalDate dataOd;
+    private final LocalDate dataDo;
+    private final Rezerwacja.Status status;
+    private final double cena;
+
+    private WidokRezerwacji(int id, long wersja, int idGoscia, int numerPokoju, String typPokoju, double cenaZaNoc,
+                            LocalDate dataOd, LocalDate dataDo, Rezerwacja.Status status, double cena) {
+        this.id = id;
+        this.wersja = wersja;
+        this.idGoscia = idGoscia;
+        this.numerPokoju = numerPokoju;
+        this.typPokoju = typPokoju;
+        this.cenaZaNoc = cenaZaNoc;
+        this.dataOd = dataOd;
+        this.dataDo = dataDo;
+        this.status = status;
+        this.cena = cena;
+    }
+
+    /**
+     * Tworzy widok z bieżącego stanu rezerwacji (budowa początkowa).
+     * @param r rezerwacja
+     * @return widok
+     */
+    public static WidokRezerwacji z(Rezerwacja r) {
+        Pokoj pokoj = r.getPokoj();
+        return new WidokRezerwacji(r.getId(), r.getWersja(),
+                r.getGosc() != null ? r.getGosc().getId() : 0,
+                pokoj != null ? pokoj.getNumer() : 0,
+                pokoj != null ? pokoj.getTyp() : "",
+                pokoj != null ? pokoj.getCenaBazowa() : 0.0,
+                r.getDataOd(), r.getDataDo(), r.getStatus(), r.obliczCene());
+    }
+
+    /**
+     * Tworzy widok ze zdarzenia modelu.
+     * @param z zdarzenie rezerwacji
+     * @param pokoj pokój rezerwacji (może być null, gdy nie jest znany)
+     * @return widok
+     */
+    public static WidokRezerwacji z(ZdarzenieRezerwacji z, Pokoj pokoj) {
+        return new WidokRezerwacji(z.getIdRezerwacji(), z.getWersja(), z.getIdGoscia(), z.getNumerPokoju(),
+                pokoj != null ? pokoj.getTyp() : "",
+                pokoj != null ? pokoj.getCenaBazowa() : 0.0,
+                z.getDataOd(), z.getDataDo(), z.getStatus(), z.getCena());
+    }
+
+    /**
+     * Sprawdza, czy rezerwacja blokuje pokój (nie jest anulowana ani zakończona).
+     * @return true dla rezerwacji aktywnej
+     */
+    public boolean czyAktywna() {
+        return status != Rezerwacja.Status.ANULOWANA && status != Rezerwacja.Status.WYMELDOWANA;
+    }
+
+    /**
+     * Sprawdza kolizję z przedziałem dat (oba końce włącznie, jak w panelu klienta).
+     * @param od początek przedziału
+     * @param dzienDo koniec przedziału
+     * @return true jeśli przedziały się nakładają
+     */
+    public boolean kolidujeZ(LocalDate od, LocalDate dzienDo) {
+        return !dataDo.isBefore(od) && !dzienDo.isBefore(dataOd);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public long getWersja() {
+        return wersja;
+    }
+
+    public int getIdGoscia() {
+        return idGoscia;
+    }
+
+    public int getNumerPokoju() {
+        return numerPokoju;
+    }
+
+    public String getTypPokoju() {
+        return typPokoju;
+    }
+
+    public double getCenaZaNoc() {
+        return cenaZaNoc;
+    }
+
+    public LocalDate getDataOd() {
+        return dataOd;
+    }
+
+    public LocalDate getDataDo() {
+        return dataDo;
+    }
+
+    public Rezerwacja.Status getStatus() {
+        return status;
+    }
+
+    public double getCena() {
+        return cena;
+    }
+
+    @Override
+    public String toString() {
+        return "Widok[" + id + ", pokój=" + numerPokoju + ", " + status + ", " + dataOd + " - " + dataDo + "]";
+    }
+}
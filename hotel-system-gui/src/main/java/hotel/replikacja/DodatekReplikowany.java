@@ -0,0 +1,28 @@
+package hotel.replikacja;
+
+import hotel.model.IDodatek;
+
+/**
+ * Dodatek odtworzony w replice: zachowuje opis i koszt dodatku z węzła głównego,
+ * niezależnie od jego konkretnej klasy.
+ */
+class DodatekReplikowany implements IDodatek {
+
+    private final String opis;
+    private final double koszt;
+
+    DodatekReplikowany(String opis, double koszt) {
+        this.opis = opis;
+        this.koszt = koszt;
+    }
+
+    @Override
+    public double obliczDodatkowyKoszt() {
+        return koszt;
+    }
+
+    @Override
+    public String getOpis() {
+        return opis;
+    }
+}
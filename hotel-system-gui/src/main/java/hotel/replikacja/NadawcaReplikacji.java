@@ -0,0 +1,170 @@
+package hotel.replikacja;
+
+import hotel.dao.MagazynMigawek;
+import hotel.dao.MigawkaDanych;
+import hotel.metryki.MetrykiOperacji;
+import hotel.metryki.RejestrMetryk;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Nadawca replikacji po stronie węzła głównego. Nasłuchuje na lokalnym gnieździe
+ * i każdej podłączonej replice wysyła najpierw pełny stan, a potem kolejne partie zmian
+ * wyznaczane przez porównanie migawek magazynu. Porównanie pomija struktury współdzielone
+ * przez migawki, więc koszt partii zależy od liczby zmian, a nie od rozmiaru danych.
+ * Zapisy w modelu nie czekają na repliki - jedynie budzą wątki nadawcze.
+ */
+public class NadawcaReplikacji implements AutoCloseable {
+
+    /** Odstęp sygnałów życia wysyłanych, gdy nie ma zmian. */
+    static final long INTERWAL_PULSU_MS = 200;
+
+    /** Nazwa metryki przyjmowania połączeń replik; niepowodzenia to błędy przyjmowania. */
+    public static final String METRYKA_PRZYJMOWANIA = "replikacja.przyjmowanie";
+
+    private final MagazynMigawek magazyn;
+    private final ServerSocket gniazdo;
+    private final List<Socket> odbiorcy = new CopyOnWriteArrayList<>();
+    private final Object sygnal = new Object();
+    private final Consumer<MigawkaDanych> sluchacz = m -> {
+        synchronized (sygnal) {
+            sygnal.notifyAll();
+        }
+    };
+    private final MetrykiOperacji metrykaPrzyjmowania;
+    private final LongAdder bledyPrzyjmowania = new LongAdder();
+    private volatile boolean zamkniety;
+
+    /**
+     * Uruchamia nadawcę na porcie lokalnego interfejsu bez rejestrowania metryk.
+     * @param magazyn magazyn migawek węzła głównego
+     * @param port port (0 - dowolny wolny)
+     */
+    public NadawcaReplikacji(MagazynMigawek magazyn, int port) throws IOException {
+        this(magazyn, port, null);
+    }
+
+    /**
+     * Uruchamia nadawcę na porcie lokalnego interfejsu.
+     * @param magazyn magazyn migawek węzła głównego
+     * @param port port (0 - dowolny wolny)
+     * @param rejestr rejestr metryk, w którym zapisywane są przyjęcia i błędy przyjmowania (może być null)
+     */
+    public NadawcaReplikacji(MagazynMigawek magazyn, int port, RejestrMetryk rejestr) throws IOException {
+        if (magazyn == null) {
+            throw new IllegalArgumentException("Magazyn migawek nie może być null");
+        }
+        this.magazyn = magazyn;
+        this.metrykaPrzyjmowania = rejestr != null ? rejestr.metryki(METRYKA_PRZYJMOWANIA) : null;
+        this.gniazdo = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        magazyn.dodajSluchacza(sluchacz);
+        Thread akceptor = new Thread(this::przyjmujOdbiorcow, "replikacja-nasluch");
+        akceptor.setDaemon(true);
+        akceptor.start();
+    }
+
+    public int getPort() {
+        return gniazdo.getLocalPort();
+    }
+
+    public int getLiczbaOdbiorcow() {
+        return odbiorcy.size();
+    }
+
+    /**
+     * Zwraca liczbę nieudanych prób przyjęcia połączenia repliki (poza zamykaniem nadawcy).
+     * @return liczba błędów przyjmowania
+     */
+    public long getLiczbaBledowPrzyjmowania() {
+        return bledyPrzyjmowania.sum();
+    }
+
+    @Override
+    public void close() {
+        zamkniety = true;
+        magazyn.usunSluchacza(sluchacz);
+        zamknijCicho(gniazdo);
+        for (Socket odbiorca : odbiorcy) {
+            zamknijCicho(odbiorca);
+        }
+        synchronized (sygnal) {
+            sygnal.notifyAll();
+        }
+    }
+
+    private void przyjmujOdbiorcow() {
+        while (!zamkniety) {
+            Socket odbiorca;
+            try {
+                odbiorca = gniazdo.accept();
+            } catch (IOException e) {
+                if (!zamkniety) {
+                    bledyPrzyjmowania.increment();
+                    zarejestrujPrzyjecie(System.nanoTime(), true);
+                }
+                continue;
+            }
+            // Czas od przyjęcia połączenia do uruchomienia wątku nadawczego
+            long start = System.nanoTime();
+            odbiorcy.add(odbiorca);
+            Thread watek = new Thread(() -> nadawaj(odbiorca), "replikacja-" + odbiorca.getPort());
+            watek.setDaemon(true);
+            watek.start();
+            zarejestrujPrzyjecie(start, false);
+        }
+    }
+
+    private void zarejestrujPrzyjecie(long start, boolean niepowodzenie) {
+        if (metrykaPrzyjmowania != null) {
+            metrykaPrzyjmowania.zarejestruj(System.nanoTime() - start, niepowodzenie, 0);
+        }
+    }
+
+    /**
+     * Wysyła replice pełny stan, a potem zmiany; zmiany zapisane w czasie wysyłania
+     * partii trafiają do następnej, więc opóźnione repliki dostają zmiany scalone.
+     */
+    private void nadawaj(Socket odbiorca) {
+        try (odbiorca) {
+            odbiorca.setTcpNoDelay(true);
+            DataOutputStream wyjscie = new DataOutputStream(new BufferedOutputStream(odbiorca.getOutputStream()));
+            wyjscie.writeInt(ProtokolReplikacji.NAGLOWEK);
+            MigawkaDanych wyslana = MigawkaDanych.pusta();
+            while (!zamkniety) {
+                // Czas przed odczytem - migawka jest co najmniej tak świeża, jak ten znacznik
+                long czas = System.currentTimeMillis();
+                MigawkaDanych biezaca = magazyn.migawka();
+                ProtokolReplikacji.zapiszPartie(wyjscie, wyslana, biezaca, czas);
+                wyslana = biezaca;
+                synchronized (sygnal) {
+                    if (magazyn.migawka() == wyslana && !zamkniety) {
+                        sygnal.wait(INTERWAL_PULSU_MS);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // Replika się rozłączyła - może podłączyć się ponownie i dostać pełny stan
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            odbiorcy.remove(odbiorca);
+        }
+    }
+
+    private static void zamknijCicho(AutoCloseable zasob) {
+        try {
+            zasob.close();
+        } catch (Exception e) {
+            // Zamykanie - błąd nie ma znaczenia
+        }
+    }
+}
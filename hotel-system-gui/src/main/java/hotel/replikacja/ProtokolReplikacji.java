@@ -0,0 +1,284 @@
+package hotel.replikacja;
+
+import hotel.dao.IOdbiorcaZmian;
+import hotel.dao.MigawkaDanych;
+import hotel.model.Gosc;
+import hotel.model.IDodatek;
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Binarny format strumienia replikacji. Strumień to ciąg partii; każda partia przenosi
+ * zmiany prowadzące od poprzednio wysłanej migawki węzła głównego do migawki o podanej
+ * wersji, a także czas jej odczytu (do wyznaczania opóźnienia). Partia bez zmian
+ * jest sygnałem życia.
+ */
+final class ProtokolReplikacji {
+
+    static final int NAGLOWEK = 0x48524550;
+
+    private static final byte KONIEC_PARTII = 0;
+    private static final byte GOSC = 1;
+    private static final byte POKOJ = 2;
+    private static final byte REZERWACJA = 3;
+    private static final byte USUN_GOSCIA = 4;
+    private static final byte USUN_POKOJ = 5;
+    private static final byte USUN_REZERWACJE = 6;
+
+    private ProtokolReplikacji() {
+    }
+
+    /**
+     * Zapisuje partię z różnicą między migawkami.
+     * @param wyjscie strumień
+     * @param poprzednia ostatnio wysłana migawka
+     * @param biezaca wysyłana migawka
+     * @param czasMs czas odczytu migawki biezaca
+     */
+    static void zapiszPartie(DataOutputStream wyjscie, MigawkaDanych poprzednia, MigawkaDanych biezaca,
+                             long czasMs) throws IOException {
+        wyjscie.writeLong(biezaca.getWersja());
+        wyjscie.writeLong(czasMs);
+        if (biezaca != poprzednia) {
+            try {
+                biezaca.porownajZ(poprzednia, new ZapisZmian(wyjscie));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        wyjscie.writeByte(KONIEC_PARTII);
+        wyjscie.flush();
+    }
+
+    /**
+     * Czyta kolejną partię ze strumienia.
+     * @param wejscie strumień
+     * @return partia
+     */
+    static Partia czytajPartie(DataInputStream wejscie) throws IOException {
+        long wersja = wejscie.readLong();
+        long czasMs = wejscie.readLong();
+        List<Consumer<IOdbiorcaZmian>> zmiany = new ArrayList<>();
+        while (true) {
+            byte rodzaj = wejscie.readByte();
+            switch (rodzaj) {
+                case KONIEC_PARTII:
+                    return new Partia(wersja, czasMs, zmiany);
+                case GOSC: {
+                    Gosc gosc = czytajGoscia(wejscie);
+                    zmiany.add(o -> o.zmienionoGoscia(gosc));
+                    break;
+                }
+                case POKOJ: {
+                    Pokoj pokoj = czytajPokoj(wejscie);
+                    boolean dostepny = wejscie.readBoolean();
+                    zmiany.add(o -> o.zmienionoPokoj(pokoj, dostepny));
+                    break;
+                }
+                case REZERWACJA: {
+                    Rezerwacja rezerwacja = czytajRezerwacje(wejscie);
+                    zmiany.add(o -> o.zmienionoRezerwacje(rezerwacja));
+                    break;
+                }
+                case USUN_GOSCIA: {
+                    int id = wejscie.readInt();
+                    zmiany.add(o -> o.usunietoGoscia(id));
+                    break;
+                }
+                case USUN_POKOJ: {
+                    int numer = wejscie.readInt();
+                    zmiany.add(o -> o.usunietoPokoj(numer));
+                    break;
+                }
+                case USUN_REZERWACJE: {
+                    int id = wejscie.readInt();
+                    zmiany.add(o -> o.usunietoRezerwacje(id));
+                    break;
+                }
+                default:
+                    throw new IOException("Nieznany rodzaj wpisu replikacji: " + rodzaj);
+            }
+        }
+    }
+
+    private static void zapiszGoscia(DataOutputStream wyjscie, Gosc gosc) throws IOException {
+        wyjscie.writeInt(gosc.getId());
+        wyjscie.writeUTF(gosc.getImie());
+        wyjscie.writeUTF(gosc.getNazwisko());
+        wyjscie.writeUTF(gosc.getEmail());
+    }
+
+    private static Gosc czytajGoscia(DataInputStream wejscie) throws IOException {
+        return new Gosc(wejscie.readInt(), wejscie.readUTF(), wejscie.readUTF(), wejscie.readUTF());
+    }
+
+    private static void zapiszPokoj(DataOutputStream wyjscie, Pokoj pokoj) throws IOException {
+        wyjscie.writeInt(pokoj.getNumer());
+        wyjscie.writeUTF(pokoj.getTyp());
+        wyjscie.writeDouble(pokoj.getCenaBazowa());
+    }
+
+    private static Pokoj czytajPokoj(DataInputStream wejscie) throws IOException {
+        return new Pokoj(wejscie.readInt(), wejscie.readUTF(), wejscie.readDouble());
+    }
+
+    private static void zapiszRezerwacje(DataOutputStream wyjscie, Rezerwacja r) throws IOException {
+        wyjscie.writeInt(r.getId());
+        wyjscie.writeLong(r.getDataOd().toEpochDay());
+        wyjscie.writeLong(r.getDataDo().toEpochDay());
+        zapiszGoscia(wyjscie, r.getGosc());
+        zapiszPokoj(wyjscie, r.getPokoj());
+        wyjscie.writeUTF(r.getStatus().name());
+        String przyczyna = r.getPrzyczynaAnulowania();
+        wyjscie.writeBoolean(przyczyna != null);
+        if (przyczyna != null) {
+            wyjscie.writeUTF(przyczyna);
+        }
+        Double cenaNoclegow = r.getCenaNoclegow();
+        wyjscie.writeBoolean(cenaNoclegow != null);
+        if (cenaNoclegow != null) {
+            wyjscie.writeDouble(cenaNoclegow);
+        }
+        List<IDodatek> dodatki = r.pobierzDodatki();
+        wyjscie.writeInt(dodatki.size());
+        for (IDodatek dodatek : dodatki) {
+            wyjscie.writeUTF(dodatek.getOpis());
+            wyjscie.writeDouble(dodatek.obliczDodatkowyKoszt());
+        }
+    }
+
+    private static Rezerwacja czytajRezerwacje(DataInputStream wejscie) throws IOException {
+        int id = wejscie.readInt();
+        LocalDate dataOd = LocalDate.ofEpochDay(wejscie.readLong());
+        LocalDate dataDo = LocalDate.ofEpochDay(wejscie.readLong());
+        Rezerwacja r = new Rezerwacja(id, dataOd, dataDo, czytajGoscia(wejscie), czytajPokoj(wejscie));
+        Rezerwacja.Status status = Rezerwacja.Status.valueOf(wejscie.readUTF());
+        String przyczyna = wejscie.readBoolean() ? wejscie.readUTF() : null;
+        r.ustawCeneNoclegow(wejscie.readBoolean() ? wejscie.readDouble() : null);
+        int liczbaDodatkow = wejscie.readInt();
+        // Dodatki przed statusem - zakończona rezerwacja nie przyjmuje już dodatków
+        for (int i = 0; i < liczbaDodatkow; i++) {
+            r.dodajDodatek(new DodatekReplikowany(wejscie.readUTF(), wejscie.readDouble()));
+        }
+        if (przyczyna != null) {
+            r.anuluj(przyczyna);
+        }
+        r.setStatus(status);
+        return r;
+    }
+
+    /**
+     * Partia odczytana ze strumienia.
+     */
+    static final class Partia {
+        private final long wersja;
+        private final long czasMs;
+        private final List<Consumer<IOdbiorcaZmian>> zmiany;
+
+        Partia(long wersja, long czasMs, List<Consumer<IOdbiorcaZmian>> zmiany) {
+            this.wersja = wersja;
+            this.czasMs = czasMs;
+            this.zmiany = zmiany;
+        }
+
+        long getWersja() {
+            return wersja;
+        }
+
+        long getCzasMs() {
+            return czasMs;
+        }
+
+        int liczbaZmian() {
+            return zmiany.size();
+        }
+
+        void zastosuj(IOdbiorcaZmian odbiorca) {
+            for (Consumer<IOdbiorcaZmian> zmiana : zmiany) {
+                zmiana.accept(odbiorca);
+            }
+        }
+    }
+
+    /**
+     * Zapisuje zmiany z porównania migawek wprost do strumienia.
+     */
+    private static final class ZapisZmian implements IOdbiorcaZmian {
+        private final DataOutputStream wyjscie;
+
+        ZapisZmian(DataOutputStream wyjscie) {
+            this.wyjscie = wyjscie;
+        }
+
+        @Override
+        public void zmienionoGoscia(Gosc gosc) {
+            zapisz(() -> {
+                wyjscie.writeByte(GOSC);
+                zapiszGoscia(wyjscie, gosc);
+            });
+        }
+
+        @Override
+        public void zmienionoPokoj(Pokoj pokoj, boolean dostepny) {
+            zapisz(() -> {
+                wyjscie.writeByte(POKOJ);
+                zapiszPokoj(wyjscie, pokoj);
+                wyjscie.writeBoolean(dostepny);
+            });
+        }
+
+        @Override
+        public void zmienionoRezerwacje(Rezerwacja rezerwacja) {
+            zapisz(() -> {
+                wyjscie.writeByte(REZERWACJA);
+                zapiszRezerwacje(wyjscie, rezerwacja);
+            });
+        }
+
+        @Override
+        public void usunietoGoscia(int id) {
+            zapisz(() -> {
+                wyjscie.writeByte(USUN_GOSCIA);
+                wyjscie.writeInt(id);
+            });
+        }
+
+        @Override
+        public void usunietoPokoj(int numer) {
+            zapisz(() -> {
+                wyjscie.writeByte(USUN_POKOJ);
+                wyjscie.writeInt(numer);
+            });
+        }
+
+        @Override
+        public void usunietoRezerwacje(int id) {
+            zapisz(() -> {
+                wyjscie.writeByte(USUN_REZERWACJE);
+                wyjscie.writeInt(id);
+            });
+        }
+
+        private void zapisz(ZapisWpisu zapis) {
+            try {
+                zapis.wykonaj();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ZapisWpisu {
+        void wykonaj() throws IOException;
+    }
+}
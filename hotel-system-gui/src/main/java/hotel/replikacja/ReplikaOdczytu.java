@@ -0,0 +1,283 @@
+package hotel.replikacja;
+
+import hotel.dao.GoscieDAO;
+import hotel.dao.IOdbiorcaZmian;
+import hotel.dao.MagazynMigawek;
+import hotel.dao.MigawkaDanych;
+import hotel.dao.PokojeDAO;
+import hotel.dao.RezerwacjeDAO;
+import hotel.metryki.MetrykiOperacji;
+import hotel.metryki.RejestrMetryk;
+import hotel.model.Gosc;
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replika odczytu zasilana strumieniem replikacji węzła głównego. Zmiany trafiają
+ * do własnych DAO repliki, a każda partia jest publikowana jako jedna wersja migawki,
+ * więc raporty czytają spójny stan węzła głównego z chwili nadania partii i nie
+ * konkurują z rezerwacjami na węźle głównym. Replika służy wyłącznie do odczytu.
+ *
+ * Opóźnienie replikacji to czas, o jaki stan repliki jest starszy od stanu węzła
+ * głównego: rośnie, gdy partie (także sygnały życia) przestają napływać.
+ *
+ * Uruchomienie jako osobny proces: {@code ReplikaOdczytu <host> <port>}; proces
+ * odpowiada na polecenia ze standardowego wejścia: wersja, przychod, rezerwacje,
+ * opoznienie, koniec.
+ */
+public class ReplikaOdczytu implements AutoCloseable {
+
+    /** Nazwa metryki, pod którą rejestrowane są opóźnienia kolejnych partii. */
+    public static final String METRYKA_OPOZNIENIA = "replikacja.opoznienie";
+
+    private static final String UZYCIE = "Użycie: ReplikaOdczytu <host> <port>";
+
+    private final GoscieDAO goscieDAO = new GoscieDAO();
+    private final PokojeDAO pokojeDAO = new PokojeDAO();
+    private final RezerwacjeDAO rezerwacjeDAO = new RezerwacjeDAO();
+    private final MagazynMigawek magazyn = new MagazynMigawek();
+    private final Socket gniazdo;
+    private final MetrykiOperacji metrykaOpoznienia;
+    private final Object postep = new Object();
+    private volatile long wersjaZrodla = -1;
+    private volatile long czasZrodlaMs;
+    private volatile boolean polaczona;
+
+    /**
+     * Łączy się z nadawcą replikacji bez rejestrowania metryk.
+     * @param host adres węzła głównego
+     * @param port port nadawcy
+     */
+    public ReplikaOdczytu(String host, int port) throws IOException {
+        this(host, port, null);
+    }
+
+    /**
+     * Łączy się z nadawcą replikacji.
+     * @param host adres węzła głównego
+     * @param port port nadawcy
+     * @param rejestr rejestr metryk, w którym zapisywane jest opóźnienie partii (może być null)
+     */
+    public ReplikaOdczytu(String host, int port, RejestrMetryk rejestr) throws IOException {
+        goscieDAO.podlaczMagazynMigawek(magazyn);
+        pokojeDAO.podlaczMagazynMigawek(magazyn);
+        rezerwacjeDAO.podlaczMagazynMigawek(magazyn);
+        this.metrykaOpoznienia = rejestr != null ? rejestr.metryki(METRYKA_OPOZNIENIA) : null;
+        this.gniazdo = new Socket(host, port);
+        DataInputStream wejscie = new DataInputStream(new BufferedInputStream(gniazdo.getInputStream()));
+        if (wejscie.readInt() != ProtokolReplikacji.NAGLOWEK) {
+            gniazdo.close();
+            throw new IOException("Nieprawidłowy nagłówek strumienia replikacji");
+        }
+        this.polaczona = true;
+        Thread watek = new Thread(() -> odbieraj(wejscie), "replika-odczytu");
+        watek.setDaemon(true);
+        watek.start();
+    }
+
+    /**
+     * Zwraca migawkę stanu repliki. Zawartość odpowiada migawce węzła głównego
+     * w wersji {@link #getWersjaZrodla()}.
+     * @return migawka danych repliki
+     */
+    public MigawkaDanych migawka() {
+        return magazyn.migawka();
+    }
+
+    /**
+     * Zwraca wersję migawki węzła głównego, do której doszła replika.
+     * @return wersja źródła (-1 przed pierwszą partią)
+     */
+    public long getWersjaZrodla() {
+        return wersjaZrodla;
+    }
+
+    /**
+     * Zwraca bieżące opóźnienie replikacji w milisekundach.
+     * @return opóźnienie (Long.MAX_VALUE przed pierwszą partią)
+     */
+    public long getOpoznienieMs() {
+        if (wersjaZrodla < 0) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, System.currentTimeMillis() - czasZrodlaMs);
+    }
+
+    public boolean czyPolaczona() {
+        return polaczona;
+    }
+
+    /**
+     * Czeka, aż replika osiągnie co najmniej podaną wersję węzła głównego.
+     * @param wersja oczekiwana wersja źródła
+     * @param limit maksymalny czas oczekiwania
+     * @return true jeśli wersja została osiągnięta
+     */
+    public boolean czekajNaWersje(long wersja, Duration limit) throws InterruptedException {
+        long koniec = System.nanoTime() + limit.toNanos();
+        synchronized (postep) {
+            while (wersjaZrodla < wersja) {
+                long pozostalo = koniec - System.nanoTime();
+                if (pozostalo <= 0 || !polaczona) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(postep, pozostalo);
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public void close() {
+        polaczona = false;
+        try {
+            gniazdo.close();
+        } catch (IOException e) {
+            // Zamykanie - błąd nie ma znaczenia
+        }
+    }
+
+    private void odbieraj(DataInputStream wejscie) {
+        IOdbiorcaZmian aplikator = new Aplikator();
+        try {
+            while (true) {
+                ProtokolReplikacji.Partia partia = ProtokolReplikacji.czytajPartie(wejscie);
+                if (partia.liczbaZmian() > 0) {
+                    magazyn.wTransakcji(() -> {
+                        partia.zastosuj(aplikator);
+                        return null;
+                    });
+                }
+                long opoznienieMs = Math.max(0, System.currentTimeMillis() - partia.getCzasMs());
+                if (metrykaOpoznienia != null) {
+                    metrykaOpoznienia.zarejestruj(TimeUnit.MILLISECONDS.toNanos(opoznienieMs), false,
+                            partia.liczbaZmian());
+                }
+                synchronized (postep) {
+                    czasZrodlaMs = partia.getCzasMs();
+                    wersjaZrodla = partia.getWersja();
+                    postep.notifyAll();
+                }
+            }
+        } catch (IOException e) {
+            // Koniec strumienia - replika zachowuje ostatni stan do odczytu
+        } finally {
+            polaczona = false;
+            synchronized (postep) {
+                postep.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Nanosi zmiany na DAO repliki. Istniejące encje są aktualizowane w miejscu,
+     * aby rezerwacje repliki wskazywały na aktualne obiekty gości i pokoi.
+     */
+    private final class Aplikator implements IOdbiorcaZmian {
+
+        @Override
+        public void zmienionoGoscia(Gosc gosc) {
+            Optional<Gosc> obecny = goscieDAO.pobierz(gosc.getId());
+            if (obecny.isPresent()) {
+                goscieDAO.aktualizuj(gosc, obecny.get().getWersja());
+            } else {
+                goscieDAO.zapisz(gosc);
+            }
+        }
+
+        @Override
+        public void zmienionoPokoj(Pokoj pokoj, boolean dostepny) {
+            Optional<Pokoj> obecny = pokojeDAO.pobierz(pokoj.getNumer());
+            if (obecny.isPresent()) {
+                pokojeDAO.aktualizuj(pokoj, obecny.get().getWersja());
+            } else {
+                pokojeDAO.zapisz(pokoj);
+            }
+            pokojeDAO.ustawDostepnosc(pokoj.getNumer(), dostepny);
+        }
+
+        @Override
+        public void zmienionoRezerwacje(Rezerwacja rezerwacja) {
+            Gosc gosc = goscieDAO.pobierz(rezerwacja.getGosc().getId()).orElse(rezerwacja.getGosc());
+            Pokoj pokoj = pokojeDAO.pobierz(rezerwacja.getPokoj().getNumer()).orElse(rezerwacja.getPokoj());
+            Rezerwacja lokalna = new Rezerwacja(rezerwacja.getId(), rezerwacja.getDataOd(),
+                    rezerwacja.getDataDo(), gosc, pokoj);
+            lokalna.przejmijStan(rezerwacja);
+            Optional<Rezerwacja> obecna = rezerwacjeDAO.pobierz(rezerwacja.getId());
+            if (obecna.isPresent()) {
+                rezerwacjeDAO.aktualizuj(lokalna, obecna.get().getWersja());
+            } else {
+                rezerwacjeDAO.zapisz(lokalna);
+            }
+        }
+
+        @Override
+        public void usunietoGoscia(int id) {
+            goscieDAO.usun(id);
+        }
+
+        @Override
+        public void usunietoPokoj(int numer) {
+            pokojeDAO.usun(numer);
+        }
+
+        @Override
+        public void usunietoRezerwacje(int id) {
+            rezerwacjeDAO.usun(id);
+        }
+    }
+
+    /**
+     * Uruchamia replikę z wierszem poleceń (wersja, przychod, rezerwacje, opoznienie, koniec).
+     * @param args host i port nadawcy replikacji
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println(UZYCIE);
+            return;
+        }
+        String host = args[0];
+        int port;
+        try {
+            port = Integer.parseInt(args[1]);
+        } catch (NumberFormatException e) {
+            port = -1;
+        }
+        if (port < 1 || port > 65535) {
+            System.err.println("Nieprawidłowy port: " + args[1]);
+            System.err.println(UZYCIE);
+            return;
+        }
+        try (ReplikaOdczytu replika = new ReplikaOdczytu(host, port);
+             BufferedReader polecenia = new BufferedReader(
+                     new InputStreamReader(System.in, StandardCharsets.UTF_8))) {
+            String polecenie;
+            while ((polecenie = polecenia.readLine()) != null) {
+                MigawkaDanych migawka = replika.migawka();
+                switch (polecenie.trim()) {
+                    case "wersja" -> System.out.println(replika.getWersjaZrodla());
+                    case "przychod" -> System.out.printf(Locale.ROOT, "%.2f%n", migawka.obliczSumePrzychodow());
+                    case "rezerwacje" -> System.out.println(migawka.liczbaRezerwacji());
+                    case "opoznienie" -> System.out.println(replika.getOpoznienieMs());
+                    case "koniec" -> {
+                        return;
+                    }
+                    default -> System.out.println("Nieznane polecenie: " + polecenie);
+                }
+                System.out.flush();
+            }
+        }
+    }
+}
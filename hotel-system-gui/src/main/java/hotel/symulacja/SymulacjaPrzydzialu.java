@@ -0,0 +1,154 @@
+package hotel.symulacja;
+
+import hotel.model.Gosc;
+import hotel.model.HotelModel;
+import hotel.model.IStrategiaPrzydzialu;
+import hotel.model.Pokoj;
+import hotel.model.PrzydzialNajlepszeDopasowanie;
+import hotel.model.PrzydzialPierwszyWolny;
+import hotel.model.Rezerwacja;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Symulacja porównująca strategie przydziału pokoi (najlepsze dopasowanie vs pierwszy wolny).
+ * Losowy strumień rezerwacji według typu jest obsługiwany przez obie strategie,
+ * a raport podaje liczbę przyjętych rezerwacji, obłożenie i średni czas decyzji.
+ *
+ * Uruchomienie: {@code SymulacjaPrzydzialu [liczbaPokoi] [liczbaZgloszen] [ziarno]}
+ */
+public class SymulacjaPrzydzialu {
+    
+    private static final String TYP = "Dwuosobowy";
+    private static final LocalDate POCZATEK = LocalDate.of(2030, 1, 1);
+    
+    /**
+     * Pojedyncze zgłoszenie rezerwacji: dzień przyjazdu (od początku horyzontu) i liczba dni.
+     */
+    public static final class Zgloszenie {
+        private final int dzien;
+        private final int dlugosc;
+        
+        public Zgloszenie(int dzien, int dlugosc) {
+            this.dzien = dzien;
+            this.dlugosc = dlugosc;
+        }
+    }
+    
+    /**
+     * Wynik symulacji jednej strategii.
+     */
+    public static final class WynikSymulacji {
+        private final String strategia;
+        private final int przyjete;
+        private final int odrzucone;
+        private final double oblozenie;
+        private final double sredniCzasDecyzjiUs;
+        
+        WynikSymulacji(String strategia, int przyjete, int odrzucone, double oblozenie, double sredniCzasDecyzjiUs) {
+            this.strategia = strategia;
+            this.przyjete = przyjete;
+            this.odrzucone = odrzucone;
+            this.oblozenie = oblozenie;
+            this.sredniCzasDecyzjiUs = sredniCzasDecyzjiUs;
+        }
+        
+        public int getPrzyjete() {
+            return przyjete;
+        }
+        
+        public int getOdrzucone() {
+            return odrzucone;
+        }
+        
+        public double getOblozenie() {
+            return oblozenie;
+        }
+        
+        public double getSredniCzasDecyzjiUs() {
+            return sredniCzasDecyzjiUs;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-22s przyjęte=%d odrzucone=%d obłożenie=%.2f%% decyzja=%.1fus",
+                    strategia, przyjete, odrzucone, oblozenie * 100, sredniCzasDecyzjiUs);
+        }
+    }
+    
+    public static void main(String[] args) {
+        int liczbaPokoi = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int liczbaZgloszen = args.length > 1 ? Integer.parseInt(args[1]) : liczbaPokoi * 25;
+        long ziarno = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+        int horyzont = 90;
+        
+        List<Zgloszenie> zgloszenia = losujZgloszenia(liczbaZgloszen, horyzont, ziarno);
+        WynikSymulacji pierwszy = symuluj(new PrzydzialPierwszyWolny(), liczbaPokoi, horyzont, zgloszenia);
+        WynikSymulacji najlepszy = symuluj(new PrzydzialNajlepszeDopasowanie(), liczbaPokoi, horyzont, zgloszenia);
+        
+        System.out.println("Pokoje: " + liczbaPokoi + ", zgłoszenia: " + liczbaZgloszen + ", horyzont: " + horyzont + " dni");
+        System.out.println(pierwszy);
+        System.out.println(najlepszy);
+        System.out.printf(Locale.ROOT, "Poprawa obłożenia: %+.2f p.p., dodatkowe rezerwacje: %+d%n",
+                (najlepszy.getOblozenie() - pierwszy.getOblozenie()) * 100,
+                najlepszy.getPrzyjete() - pierwszy.getPrzyjete());
+    }
+    
+    /**
+     * Losuje strumień zgłoszeń o długości pobytu 2-8 dni w kolejności napływu.
+     * @param liczba liczba zgłoszeń
+     * @param horyzont liczba dni symulacji
+     * @param ziarno ziarno generatora
+     * @return lista zgłoszeń
+     */
+    public static List<Zgloszenie> losujZgloszenia(int liczba, int horyzont, long ziarno) {
+        Random losowe = new Random(ziarno);
+        List<Zgloszenie> zgloszenia = new ArrayList<>(liczba);
+        for (int i = 0; i < liczba; i++) {
+            int dlugosc = 2 + losowe.nextInt(7);
+            zgloszenia.add(new Zgloszenie(losowe.nextInt(horyzont - dlugosc + 1), dlugosc));
+        }
+        return zgloszenia;
+    }
+    
+    /**
+     * Obsługuje strumień zgłoszeń w hotelu z jednym typem pokoi przy użyciu danej strategii.
+     * @param strategia strategia przydziału
+     * @param liczbaPokoi liczba pokoi
+     * @param horyzont liczba dni symulacji
+     * @param zgloszenia zgłoszenia w kolejności napływu
+     * @return wynik symulacji
+     */
+    public static WynikSymulacji symuluj(IStrategiaPrzydzialu strategia, int liczbaPokoi, int horyzont,
+                                         List<Zgloszenie> zgloszenia) {
+        HotelModel model = new HotelModel();
+        model.setStrategiaPrzydzialu(strategia);
+        for (int i = 1; i <= liczbaPokoi; i++) {
+            model.getPokojeDAO().zapisz(new Pokoj(i, TYP, 200.0));
+        }
+        Gosc gosc = new Gosc("Symulacja", "Przydziału", "symulacja@hotel.pl");
+        
+        int przyjete = 0;
+        long zajeteDni = 0;
+        long czasNs = 0;
+        for (Zgloszenie z : zgloszenia) {
+            LocalDate od = POCZATEK.plusDays(z.dzien);
+            // Przedziały są domknięte: pobyt zajmuje dni od..do włącznie
+            LocalDate doDaty = od.plusDays(z.dlugosc - 1L);
+            long start = System.nanoTime();
+            Rezerwacja r = model.utworzRezerwacjeTypu(gosc, TYP, od, doDaty);
+            czasNs += System.nanoTime() - start;
+            if (r != null) {
+                przyjete++;
+                zajeteDni += z.dlugosc;
+            }
+        }
+        double oblozenie = (double) zajeteDni / ((long) liczbaPokoi * horyzont);
+        return new WynikSymulacji(strategia.getClass().getSimpleName(), przyjete, zgloszenia.size() - przyjete,
+                oblozenie, zgloszenia.isEmpty() ? 0 : czasNs / 1000.0 / zgloszenia.size());
+    }
+}
@@ -0,0 +1,535 @@
+package hotel.wymiana;
+
+import hotel.dao.GoscieDAO;
+import hotel.dao.IDAO;
+import hotel.dao.PokojeDAO;
+import hotel.dao.RezerwacjeDAO;
+import hotel.model.Gosc;
+import hotel.model.HotelModel;
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Strumieniowy eksport pokoi, gości i rezerwacji do CSV, JSON Lines lub binarnego
+ * formatu kolumnowego.
+ *
+ * Encje są zapisywane wprost podczas przeglądania DAO ({@link IDAO#przegladaj}) do jednego
+ * bufora kanału NIO przez koder znaków i bufor wiersza używane ponownie dla każdego wiersza,
+ * więc zużycie pamięci nie zależy od liczby eksportowanych wierszy. Daty i kwoty formatowane
+ * są bez pośrednich obiektów String; kwoty zapisywane są z dokładnością do grosza.
+ *
+ * Format kolumnowy (liczby big-endian):
+ * <pre>
+ * int MAGIC, byte WERSJA_FORMATU, byte rodzaj (RodzajDanych.ordinal), short liczba kolumn,
+ * dla każdej kolumny: byte typ (TypKolumny.kod), short długość nazwy, nazwa w UTF-8;
+ * bloki: int liczba wierszy (0 kończy plik), potem kolejno wartości każdej kolumny bloku:
+ * CALKOWITA - int, DATA - int (dzień epoki), KWOTA - double, TEKST - int długość + bajty UTF-8.
+ * </pre>
+ */
+public class EksporterDanych {
+
+    /** Znacznik początku pliku w formacie kolumnowym ("HEXP"). */
+    public static final int MAGIC = 0x48455850;
+    public static final byte WERSJA_FORMATU = 1;
+    /** Maksymalna liczba wierszy w bloku formatu kolumnowego. */
+    public static final int ROZMIAR_BLOKU = 4096;
+
+    static final int ROZMIAR_BUFORA = 64 * 1024;
+
+    /** Typ wartości kolumny w formacie kolumnowym. */
+    enum TypKolumny {
+        CALKOWITA(1), DATA(2), KWOTA(3), TEKST(4);
+
+        final byte kod;
+
+        TypKolumny(int kod) {
+            this.kod = (byte) kod;
+        }
+    }
+
+    private static final List<Kolumna<Pokoj>> KOLUMNY_POKOI = List.of(
+            Kolumna.calkowita("numer", Pokoj::getNumer),
+            Kolumna.tekst("typ", Pokoj::getTyp),
+            Kolumna.kwota("cena", Pokoj::getCenaBazowa));
+
+    private static final List<Kolumna<Gosc>> KOLUMNY_GOSCI = List.of(
+            Kolumna.calkowita("id", Gosc::getId),
+            Kolumna.tekst("imie", Gosc::getImie),
+            Kolumna.tekst("nazwisko", Gosc::getNazwisko),
+            Kolumna.tekst("email", Gosc::getEmail));
+
+    private static final List<Kolumna<Rezerwacja>> KOLUMNY_REZERWACJI = List.of(
+            Kolumna.calkowita("id", Rezerwacja::getId),
+            Kolumna.calkowita("idGoscia", r -> r.getGosc().getId()),
+            Kolumna.calkowita("numerPokoju", r -> r.getPokoj().getNumer()),
+            Kolumna.data("dataOd", Rezerwacja::getDataOd),
+            Kolumna.data("dataDo", Rezerwacja::getDataDo),
+            Kolumna.tekst("status", r -> r.getStatus().name()),
+            Kolumna.kwota("cena", Rezerwacja::obliczCene));
+
+    private final GoscieDAO goscieDAO;
+    private final PokojeDAO pokojeDAO;
+    private final RezerwacjeDAO rezerwacjeDAO;
+
+    public EksporterDanych(HotelModel model) {
+        this(model.getGoscieDAO(), model.getPokojeDAO(), model.getRezerwacjeDAO());
+    }
+
+    public EksporterDanych(GoscieDAO goscieDAO, PokojeDAO pokojeDAO, RezerwacjeDAO rezerwacjeDAO) {
+        if (goscieDAO == null || pokojeDAO == null || rezerwacjeDAO == null) {
+            throw new IllegalArgumentException("DAO nie mogą być null");
+        }
+        this.goscieDAO = goscieDAO;
+        this.pokojeDAO = pokojeDAO;
+        this.rezerwacjeDAO = rezerwacjeDAO;
+    }
+
+    /**
+     * Eksportuje dane do pliku (nadpisując go).
+     * @param plik plik docelowy
+     * @param format format danych
+     * @param rodzaj rodzaj eksportowanych encji
+     * @param gzip czy kompresować wynik gzipem
+     * @return liczba zapisanych wierszy
+     */
+    public long eksportuj(Path plik, FormatDanych format, RodzajDanych rodzaj, boolean gzip) throws IOException {
+        try (FileChannel kanal = FileChannel.open(plik, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            return eksportuj(kanal, format, rodzaj, gzip);
+        }
+    }
+
+    /**
+     * Eksportuje dane do kanału. Kanał nie jest zamykany.
+     * @param kanal kanał docelowy
+     * @param format format danych
+     * @param rodzaj rodzaj eksportowanych encji
+     * @param gzip czy kompresować wynik gzipem
+     * @return liczba zapisanych wierszy
+     */
+    public long eksportuj(WritableByteChannel kanal, FormatDanych format, RodzajDanych rodzaj, boolean gzip)
+            throws IOException {
+        if (kanal == null || format == null || rodzaj == null) {
+            throw new IllegalArgumentException("Kanał, format i rodzaj danych nie mogą być null");
+        }
+        GZIPOutputStream kompresja = gzip
+                ? new GZIPOutputStream(Channels.newOutputStream(kanal), ROZMIAR_BUFORA) : null;
+        Zapis zapis = new Zapis(kompresja != null ? Channels.newChannel(kompresja) : kanal);
+        long liczba = switch (rodzaj) {
+            case POKOJE -> eksportuj(pokojeDAO, KOLUMNY_POKOI, format, rodzaj, zapis);
+            case GOSCIE -> eksportuj(goscieDAO, KOLUMNY_GOSCI, format, rodzaj, zapis);
+            case REZERWACJE -> eksportuj(rezerwacjeDAO, KOLUMNY_REZERWACJI, format, rodzaj, zapis);
+        };
+        zapis.oproznij();
+        if (kompresja != null) {
+            kompresja.finish();
+        }
+        return liczba;
+    }
+
+    private static <T> long eksportuj(IDAO<T, ?> dao, List<Kolumna<T>> kolumny, FormatDanych format,
+                                      RodzajDanych rodzaj, Zapis zapis) throws IOException {
+        IZapisWiersza<T> zapisWiersza = switch (format) {
+            case CSV -> new ZapisCsv<>(kolumny, zapis);
+            case JSON -> new ZapisJson<>(kolumny, zapis);
+            case KOLUMNOWY -> new ZapisKolumnowy<>(kolumny, rodzaj, zapis);
+        };
+        long[] liczba = {0};
+        try {
+            dao.przegladaj(encja -> {
+                try {
+                    zapisWiersza.zapisz(encja);
+                    liczba[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        zapisWiersza.zakoncz();
+        return liczba[0];
+    }
+
+    /** Kolumna eksportu: nazwa, typ i funkcja odczytu wartości z encji. */
+    private record Kolumna<T>(String nazwa, TypKolumny typ, ToIntFunction<T> calkowita,
+                              ToDoubleFunction<T> kwota, Function<T, LocalDate> data, Function<T, String> tekst) {
+
+        static <T> Kolumna<T> calkowita(String nazwa, ToIntFunction<T> wartosc) {
+            return new Kolumna<>(nazwa, TypKolumny.CALKOWITA, wartosc, null, null, null);
+        }
+
+        static <T> Kolumna<T> kwota(String nazwa, ToDoubleFunction<T> wartosc) {
+            return new Kolumna<>(nazwa, TypKolumny.KWOTA, null, wartosc, null, null);
+        }
+
+        static <T> Kolumna<T> data(String nazwa, Function<T, LocalDate> wartosc) {
+            return new Kolumna<>(nazwa, TypKolumny.DATA, null, null, wartosc, null);
+        }
+
+        static <T> Kolumna<T> tekst(String nazwa, Function<T, String> wartosc) {
+            return new Kolumna<>(nazwa, TypKolumny.TEKST, null, null, null, wartosc);
+        }
+
+        /** Dopisuje wartość liczbową lub datę; tekst obsługuje format. */
+        void dopiszWartosc(T encja, StringBuilder wiersz) {
+            switch (typ) {
+                case CALKOWITA -> wiersz.append(calkowita.applyAsInt(encja));
+                case KWOTA -> dopiszKwote(wiersz, kwota.applyAsDouble(encja));
+                case DATA -> dopiszDate(wiersz, data.apply(encja));
+                case TEKST -> throw new IllegalStateException("Tekst formatuje zapis wiersza");
+            }
+        }
+    }
+
+    private interface IZapisWiersza<T> {
+        void zapisz(T encja) throws IOException;
+
+        void zakoncz() throws IOException;
+    }
+
+    private static final class ZapisCsv<T> implements IZapisWiersza<T> {
+        private final List<Kolumna<T>> kolumny;
+        private final Zapis zapis;
+        private final StringBuilder wiersz = new StringBuilder(256);
+
+        ZapisCsv(List<Kolumna<T>> kolumny, Zapis zapis) throws IOException {
+            this.kolumny = kolumny;
+            this.zapis = zapis;
+            for (int i = 0; i < kolumny.size(); i++) {
+                wiersz.append(i > 0 ? "," : "").append(kolumny.get(i).nazwa());
+            }
+            zapis.tekst(wiersz.append('\n'));
+        }
+
+        @Override
+        public void zapisz(T encja) throws IOException {
+            wiersz.setLength(0);
+            for (int i = 0; i < kolumny.size(); i++) {
+                if (i > 0) {
+                    wiersz.append(',');
+                }
+                Kolumna<T> kolumna = kolumny.get(i);
+                if (kolumna.typ() == TypKolumny.TEKST) {
+                    dopiszPoleCsv(wiersz, kolumna.tekst().apply(encja));
+                } else {
+                    kolumna.dopiszWartosc(encja, wiersz);
+                }
+            }
+            zapis.tekst(wiersz.append('\n'));
+        }
+
+        @Override
+        public void zakoncz() {
+        }
+
+        private static void dopiszPoleCsv(StringBuilder wiersz, String wartosc) {
+            if (wartosc == null) {
+                return;
+            }
+            boolean cytowanie = false;
+            for (int i = 0; i < wartosc.length() && !cytowanie; i++) {
+                char znak = wartosc.charAt(i);
+                cytowanie = znak == ',' || znak == '"' || znak == '\n' || znak == '\r';
+            }
+            if (!cytowanie) {
+                wiersz.append(wartosc);
+                return;
+            }
+            wiersz.append('"');
+            for (int i = 0; i < wartosc.length(); i++) {
+                char znak = wartosc.charAt(i);
+                // Pola CSV nie obejmują kilku wierszy - znaki końca wiersza zamieniane są na spacje
+                wiersz.append(znak == '\n' || znak == '\r' ? ' ' : znak);
+                if (znak == '"') {
+                    wiersz.append('"');
+                }
+            }
+            wiersz.append('"');
+        }
+    }
+
+    private static final class ZapisJson<T> implements IZapisWiersza<T> {
+        private final List<Kolumna<T>> kolumny;
+        private final Zapis zapis;
+        private final StringBuilder wiersz = new StringBuilder(256);
+
+        ZapisJson(List<Kolumna<T>> kolumny, Zapis zapis) {
+            this.kolumny = kolumny;
+            this.zapis = zapis;
+        }
+
+        @Override
+        public void zapisz(T encja) throws IOException {
+            wiersz.setLength(0);
+            wiersz.append('{');
+            for (int i = 0; i < kolumny.size(); i++) {
+                Kolumna<T> kolumna = kolumny.get(i);
+                wiersz.append(i > 0 ? ",\"" : "\"").append(kolumna.nazwa()).append("\":");
+                switch (kolumna.typ()) {
+                    case TEKST -> dopiszTekstJson(wiersz, kolumna.tekst().apply(encja));
+                    case DATA -> {
+                        wiersz.append('"');
+                        kolumna.dopiszWartosc(encja, wiersz);
+                        wiersz.append('"');
+                    }
+                    default -> kolumna.dopiszWartosc(encja, wiersz);
+                }
+            }
+            zapis.tekst(wiersz.append("}\n"));
+        }
+
+        @Override
+        public void zakoncz() {
+        }
+
+        private static void dopiszTekstJson(StringBuilder wiersz, String wartosc) {
+            if (wartosc == null) {
+                wiersz.append("null");
+                return;
+            }
+            wiersz.append('"');
+            for (int i = 0; i < wartosc.length(); i++) {
+                char znak = wartosc.charAt(i);
+                switch (znak) {
+                    case '"' -> wiersz.append("\\\"");
+                    case '\\' -> wiersz.append("\\\\");
+                    case '\n' -> wiersz.append("\\n");
+                    case '\r' -> wiersz.append("\\r");
+                    case '\t' -> wiersz.append("\\t");
+                    default -> {
+                        if (znak < 0x20) {
+                            wiersz.append("\\u00").append(Character.forDigit(znak >> 4, 16))
+                                    .append(Character.forDigit(znak & 0xF, 16));
+                        } else {
+                            wiersz.append(znak);
+                        }
+                    }
+                }
+            }
+            wiersz.append('"');
+        }
+    }
+
+    /**
+     * Zbiera wartości bloku wierszy w tablicach kolumn i zapisuje je kolumna po kolumnie.
+     * Tablice są przydzielane raz i używane dla kolejnych bloków.
+     */
+    private static final class ZapisKolumnowy<T> implements IZapisWiersza<T> {
+        private final List<Kolumna<T>> kolumny;
+        private final Zapis zapis;
+        private final int[][] calkowite;
+        private final double[][] kwoty;
+        private final String[][] teksty;
+        private int wierszeBloku;
+
+        ZapisKolumnowy(List<Kolumna<T>> kolumny, RodzajDanych rodzaj, Zapis zapis) throws IOException {
+            this.kolumny = kolumny;
+            this.zapis = zapis;
+            this.calkowite = new int[kolumny.size()][];
+            this.kwoty = new double[kolumny.size()][];
+            this.teksty = new String[kolumny.size()][];
+            zapis.zapewnij(8);
+            zapis.bufor().putInt(MAGIC).put(WERSJA_FORMATU).put((byte) rodzaj.ordinal())
+                    .putShort((short) kolumny.size());
+            for (int i = 0; i < kolumny.size(); i++) {
+                Kolumna<T> kolumna = kolumny.get(i);
+                switch (kolumna.typ()) {
+                    case CALKOWITA, DATA -> calkowite[i] = new int[ROZMIAR_BLOKU];
+                    case KWOTA -> kwoty[i] = new double[ROZMIAR_BLOKU];
+                    case TEKST -> teksty[i] = new String[ROZMIAR_BLOKU];
+                }
+                zapis.zapewnij(3);
+                zapis.bufor().put(kolumna.typ().kod).putShort((short) dlugoscUtf8(kolumna.nazwa()));
+                zapis.tekst(kolumna.nazwa());
+            }
+        }
+
+        @Override
+        public void zapisz(T encja) throws IOException {
+            int w = wierszeBloku;
+            for (int i = 0; i < kolumny.size(); i++) {
+                Kolumna<T> kolumna = kolumny.get(i);
+                switch (kolumna.typ()) {
+                    case CALKOWITA -> calkowite[i][w] = kolumna.calkowita().applyAsInt(encja);
+                    case DATA -> calkowite[i][w] = (int) kolumna.data().apply(encja).toEpochDay();
+                    case KWOTA -> kwoty[i][w] = kolumna.kwota().applyAsDouble(encja);
+                    case TEKST -> teksty[i][w] = kolumna.tekst().apply(encja);
+                }
+            }
+            if (++wierszeBloku == ROZMIAR_BLOKU) {
+                zapiszBlok();
+            }
+        }
+
+        @Override
+        public void zakoncz() throws IOException {
+            if (wierszeBloku > 0) {
+                zapiszBlok();
+            }
+            zapis.zapewnij(4);
+            zapis.bufor().putInt(0);
+        }
+
+        private void zapiszBlok() throws IOException {
+            ByteBuffer bufor = zapis.bufor();
+            zapis.zapewnij(4);
+            bufor.putInt(wierszeBloku);
+            for (int i = 0; i < kolumny.size(); i++) {
+                for (int w = 0; w < wierszeBloku; w++) {
+                    switch (kolumny.get(i).typ()) {
+                        case CALKOWITA, DATA -> {
+                            zapis.zapewnij(4);
+                            bufor.putInt(calkowite[i][w]);
+                        }
+                        case KWOTA -> {
+                            zapis.zapewnij(8);
+                            bufor.putDouble(kwoty[i][w]);
+                        }
+                        case TEKST -> {
+                            String wartosc = teksty[i][w] != null ? teksty[i][w] : "";
+                            teksty[i][w] = null;
+                            zapis.zapewnij(4);
+                            bufor.putInt(dlugoscUtf8(wartosc));
+                            zapis.tekst(wartosc);
+                        }
+                    }
+                }
+            }
+            wierszeBloku = 0;
+        }
+    }
+
+    /**
+     * Bufor wyjściowy eksportu z koderem UTF-8 używanym dla wszystkich wierszy.
+     */
+    private static final class Zapis {
+        private final WritableByteChannel kanal;
+        private final ByteBuffer bufor = ByteBuffer.allocateDirect(ROZMIAR_BUFORA);
+        private final CharsetEncoder koder = StandardCharsets.UTF_8.newEncoder();
+        private char[] znaki = new char[256];
+        private CharBuffer okno = CharBuffer.wrap(znaki);
+
+        Zapis(WritableByteChannel kanal) {
+            this.kanal = kanal;
+        }
+
+        ByteBuffer bufor() {
+            return bufor;
+        }
+
+        void tekst(StringBuilder tekst) throws IOException {
+            przygotujZnaki(tekst.length());
+            tekst.getChars(0, tekst.length(), znaki, 0);
+            koduj(tekst.length());
+        }
+
+        void tekst(String tekst) throws IOException {
+            przygotujZnaki(tekst.length());
+            tekst.getChars(0, tekst.length(), znaki, 0);
+            koduj(tekst.length());
+        }
+
+        /** Opróżnia bufor, jeśli brakuje w nim miejsca na podaną liczbę bajtów. */
+        void zapewnij(int bajty) throws IOException {
+            if (bufor.remaining() < bajty) {
+                oproznij();
+            }
+        }
+
+        void oproznij() throws IOException {
+            bufor.flip();
+            while (bufor.hasRemaining()) {
+                kanal.write(bufor);
+            }
+            bufor.clear();
+        }
+
+        private void przygotujZnaki(int dlugosc) {
+            if (dlugosc > znaki.length) {
+                znaki = new char[Math.max(dlugosc, znaki.length * 2)];
+                okno = CharBuffer.wrap(znaki);
+            }
+        }
+
+        private void koduj(int dlugosc) throws IOException {
+            okno.clear().limit(dlugosc);
+            koder.reset();
+            while (true) {
+                CoderResult wynik = koder.encode(okno, bufor, true);
+                if (wynik.isOverflow()) {
+                    oproznij();
+                } else if (wynik.isUnderflow()) {
+                    break;
+                } else {
+                    wynik.throwException();
+                }
+            }
+            while (koder.flush(bufor).isOverflow()) {
+                oproznij();
+            }
+        }
+    }
+
+    private static int dlugoscUtf8(String tekst) {
+        int dlugosc = 0;
+        for (int i = 0; i < tekst.length(); i++) {
+            char znak = tekst.charAt(i);
+            if (znak < 0x80) {
+                dlugosc++;
+            } else if (znak < 0x800) {
+                dlugosc += 2;
+            } else if (Character.isHighSurrogate(znak)) {
+                dlugosc += 4;
+                i++;
+            } else {
+                dlugosc += 3;
+            }
+        }
+        return dlugosc;
+    }
+
+    private static void dopiszKwote(StringBuilder wiersz, double kwota) {
+        long grosze = Math.round(kwota * 100);
+        if (grosze < 0) {
+            wiersz.append('-');
+            grosze = -grosze;
+        }
+        long reszta = grosze % 100;
+        wiersz.append(grosze / 100).append('.').append(reszta < 10 ? "0" : "").append(reszta);
+    }
+
+    private static void dopiszDate(StringBuilder wiersz, LocalDate data) {
+        int rok = data.getYear();
+        if (rok >= 0 && rok < 1000) {
+            wiersz.append(rok < 10 ? "000" : rok < 100 ? "00" : "0");
+        }
+        wiersz.append(rok).append('-');
+        dopiszDwieCyfry(wiersz, data.getMonthValue());
+        wiersz.append('-');
+        dopiszDwieCyfry(wiersz, data.getDayOfMonth());
+    }
+
+    private static void dopiszDwieCyfry(StringBuilder wiersz, int wartosc) {
+        wiersz.append((char) ('0' + wartosc / 10)).append((char) ('0' + wartosc % 10));
+    }
+}
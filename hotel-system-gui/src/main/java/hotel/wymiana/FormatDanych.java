@@ -0,0 +1,13 @@
+package hotel.wymiana;
+
+/**
+ * Format plików wymiany danych.
+ */
+public enum FormatDanych {
+    /** CSV z wierszem nagłówka, separator przecinek, pola opcjonalnie w cudzysłowach. */
+    CSV,
+    /** JSON Lines - jeden płaski obiekt JSON w każdym wierszu. */
+    JSON,
+    /** Binarny format kolumnowy (tylko eksport) - opis w {@link EksporterDanych}. */
+    KOLUMNOWY
+}
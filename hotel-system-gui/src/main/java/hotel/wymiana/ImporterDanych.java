@@ -0,0 +1,404 @@
+package hotel.wymiana;
+
+import hotel.dao.GoscieDAO;
+import hotel.dao.PokojeDAO;
+import hotel.dao.RezerwacjeDAO;
+import hotel.model.Gosc;
+import hotel.model.HotelModel;
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Strumieniowy import pokoi, gości i rezerwacji z plików CSV lub JSON Lines.
+ *
+ * Wejście czytane jest partiami po {@code rozmiarPartii} wierszy, więc w pamięci
+ * znajduje się tylko bieżąca partia i poprawne encje czekające na zapis. Wiersze partii
+ * są parsowane i walidowane równolegle, a sprawdzenia zależne od innych wierszy
+ * (duplikaty, odwołania, kolizje rezerwacji) wykonywane są sekwencyjnie w kolejności pliku.
+ * Poprawne encje trafiają do DAO dopiero na końcu jednym zapisem zbiorczym, dzięki czemu
+ * indeksy i kalendarz zajętości budowane są raz dla całego pliku.
+ *
+ * Błędne wiersze są pomijane i opisywane w {@link RaportImportu}; nie przerywają importu.
+ * Rezerwacje odwołują się do istniejących gości i pokoi, więc należy je importować jako ostatnie.
+ */
+public class ImporterDanych {
+
+    public static final int DOMYSLNY_ROZMIAR_PARTII = 1000;
+
+    private final GoscieDAO goscieDAO;
+    private final PokojeDAO pokojeDAO;
+    private final RezerwacjeDAO rezerwacjeDAO;
+    private final int rozmiarPartii;
+
+    public ImporterDanych(HotelModel model) {
+        this(model.getGoscieDAO(), model.getPokojeDAO(), model.getRezerwacjeDAO());
+    }
+
+    public ImporterDanych(GoscieDAO goscieDAO, PokojeDAO pokojeDAO, RezerwacjeDAO rezerwacjeDAO) {
+        this(goscieDAO, pokojeDAO, rezerwacjeDAO, DOMYSLNY_ROZMIAR_PARTII);
+    }
+
+    /**
+     * @param rozmiarPartii liczba wierszy parsowanych i walidowanych jednocześnie
+     */
+    public ImporterDanych(GoscieDAO goscieDAO, PokojeDAO pokojeDAO, RezerwacjeDAO rezerwacjeDAO,
+                          int rozmiarPartii) {
+        if (goscieDAO == null || pokojeDAO == null || rezerwacjeDAO == null) {
+            throw new IllegalArgumentException("DAO nie mogą być null");
+        }
+        if (rozmiarPartii <= 0) {
+            throw new IllegalArgumentException("Rozmiar partii musi być większy od 0");
+        }
+        this.goscieDAO = goscieDAO;
+        this.pokojeDAO = pokojeDAO;
+        this.rezerwacjeDAO = rezerwacjeDAO;
+        this.rozmiarPartii = rozmiarPartii;
+    }
+
+    /**
+     * Importuje dane z czytnika. Czytnik nie jest zamykany.
+     * @param wejscie źródło danych
+     * @param format format danych
+     * @param rodzaj rodzaj importowanych encji
+     * @return raport importu
+     * @throws IOException błąd odczytu wejścia
+     */
+    public RaportImportu importuj(Reader wejscie, FormatDanych format, RodzajDanych rodzaj) throws IOException {
+        if (wejscie == null || format == null || rodzaj == null) {
+            throw new IllegalArgumentException("Wejście, format i rodzaj danych nie mogą być null");
+        }
+        if (format == FormatDanych.KOLUMNOWY) {
+            throw new IllegalArgumentException("Format kolumnowy jest obsługiwany tylko przy eksporcie");
+        }
+        RaportImportu raport = new RaportImportu(rodzaj);
+        Import<?> imp = switch (rodzaj) {
+            case POKOJE -> new ImportPokoi();
+            case GOSCIE -> new ImportGosci();
+            case REZERWACJE -> new ImportRezerwacji();
+        };
+        BufferedReader czytnik = wejscie instanceof BufferedReader b ? b : new BufferedReader(wejscie);
+        List<String> naglowek = null;
+        List<Wiersz> partia = new ArrayList<>(rozmiarPartii);
+        int numer = 0;
+        String linia;
+        while ((linia = czytnik.readLine()) != null) {
+            numer++;
+            if (linia.isBlank()) {
+                continue;
+            }
+            if (format == FormatDanych.CSV && naglowek == null) {
+                naglowek = ParserWiersza.polaCsv(linia.strip()).stream()
+                        .map(k -> k.toLowerCase(Locale.ROOT))
+                        .toList();
+                continue;
+            }
+            partia.add(new Wiersz(numer, linia, naglowek));
+            if (partia.size() == rozmiarPartii) {
+                imp.przetworz(partia, raport);
+                partia = new ArrayList<>(rozmiarPartii);
+            }
+        }
+        imp.przetworz(partia, raport);
+        imp.zakoncz(raport);
+        raport.uporzadkuj();
+        return raport;
+    }
+
+    private record Wiersz(int numer, String tresc, List<String> naglowek) {
+
+        /**
+         * Zwraca pola wiersza pod nazwami kolumn (małymi literami). Brak nagłówka oznacza JSON.
+         */
+        Map<String, String> pola() {
+            if (naglowek == null) {
+                Map<String, String> pola = new HashMap<>();
+                ParserWiersza.obiektJson(tresc).forEach((k, v) -> pola.put(k.toLowerCase(Locale.ROOT), v));
+                return pola;
+            }
+            List<String> wartosci = ParserWiersza.polaCsv(tresc);
+            if (wartosci.size() != naglowek.size()) {
+                throw new IllegalArgumentException("Oczekiwano " + naglowek.size() + " pól, jest " + wartosci.size());
+            }
+            Map<String, String> pola = new HashMap<>();
+            for (int i = 0; i < naglowek.size(); i++) {
+                if (!wartosci.get(i).isEmpty()) {
+                    pola.put(naglowek.get(i), wartosci.get(i));
+                }
+            }
+            return pola;
+        }
+    }
+
+    /** Wynik równoległego etapu dla jednego wiersza: encja albo komunikat błędu. */
+    private record Wynik<T>(int numer, T encja, String blad) {
+    }
+
+    /**
+     * Import jednego rodzaju encji: {@link #utworz} działa równolegle i nie może
+     * modyfikować stanu, {@link #sprawdz} działa sekwencyjnie w kolejności pliku.
+     */
+    private abstract static class Import<T> {
+
+        abstract T utworz(Map<String, String> pola);
+
+        /** @return komunikat błędu albo null, jeśli encja została przyjęta */
+        abstract String sprawdz(int numer, T encja);
+
+        abstract void zakoncz(RaportImportu raport);
+
+        final void przetworz(List<Wiersz> partia, RaportImportu raport) {
+            List<Wynik<T>> wyniki = partia.parallelStream().map(this::sparsuj).toList();
+            for (Wynik<T> wynik : wyniki) {
+                raport.dodajWiersz();
+                String blad = wynik.blad() != null ? wynik.blad() : sprawdz(wynik.numer(), wynik.encja());
+                if (blad != null) {
+                    raport.dodajBlad(wynik.numer(), blad);
+                }
+            }
+        }
+
+        private Wynik<T> sparsuj(Wiersz wiersz) {
+            try {
+                return new Wynik<>(wiersz.numer(), utworz(wiersz.pola()), null);
+            } catch (IllegalArgumentException e) {
+                return new Wynik<>(wiersz.numer(), null, e.getMessage());
+            }
+        }
+    }
+
+    private final class ImportPokoi extends Import<Pokoj> {
+        private final Map<Integer, Pokoj> nowe = new HashMap<>();
+
+        @Override
+        Pokoj utworz(Map<String, String> pola) {
+            return new Pokoj(liczba(pola, "numer"), tekst(pola, "typ"), kwota(pola, "cena"));
+        }
+
+        @Override
+        String sprawdz(int numer, Pokoj pokoj) {
+            if (nowe.containsKey(pokoj.getNumer()) || pokojeDAO.pobierz(pokoj.getNumer()).isPresent()) {
+                return "Pokój " + pokoj.getNumer() + " już istnieje";
+            }
+            nowe.put(pokoj.getNumer(), pokoj);
+            return null;
+        }
+
+        @Override
+        void zakoncz(RaportImportu raport) {
+            pokojeDAO.zapiszWszystkie(nowe.values());
+            raport.dodajZaimportowane(nowe.size());
+        }
+    }
+
+    private final class ImportGosci extends Import<Gosc> {
+        private final Map<Integer, Gosc> nowi = new HashMap<>();
+        private Set<String> emaile;
+
+        @Override
+        Gosc utworz(Map<String, String> pola) {
+            return new Gosc(liczba(pola, "id"), tekst(pola, "imie"), tekst(pola, "nazwisko"), tekst(pola, "email"));
+        }
+
+        @Override
+        String sprawdz(int numer, Gosc gosc) {
+            if (emaile == null) {
+                // Zbudowany raz - sprawdzenie każdego wiersza przez DAO przeglądałoby wszystkich gości
+                emaile = new HashSet<>();
+                goscieDAO.pobierzWszystkie().forEach(g -> emaile.add(g.getEmail().toLowerCase(Locale.ROOT)));
+            }
+            if (nowi.containsKey(gosc.getId()) || goscieDAO.pobierz(gosc.getId()).isPresent()) {
+                return "Gość o ID " + gosc.getId() + " już istnieje";
+            }
+            if (!emaile.add(gosc.getEmail().toLowerCase(Locale.ROOT))) {
+                return "Adres email " + gosc.getEmail() + " jest już używany";
+            }
+            nowi.put(gosc.getId(), gosc);
+            return null;
+        }
+
+        @Override
+        void zakoncz(RaportImportu raport) {
+            goscieDAO.zapiszWszystkie(nowi.values());
+            nowi.keySet().stream().mapToInt(Integer::intValue).max().ifPresent(Gosc::uwzglednijId);
+            raport.dodajZaimportowane(nowi.size());
+        }
+    }
+
+    private final class ImportRezerwacji extends Import<Rezerwacja> {
+        private final Map<Integer, Integer> numeryWierszy = new HashMap<>();
+        private final List<Rezerwacja> nowe = new ArrayList<>();
+
+        @Override
+        Rezerwacja utworz(Map<String, String> pola) {
+            int idGoscia = liczba(pola, "idgoscia");
+            int numerPokoju = liczba(pola, "numerpokoju");
+            Gosc gosc = goscieDAO.pobierz(idGoscia)
+                    .orElseThrow(() -> new IllegalArgumentException("Nieznany gość o ID " + idGoscia));
+            Pokoj pokoj = pokojeDAO.pobierz(numerPokoju)
+                    .orElseThrow(() -> new IllegalArgumentException("Nieznany pokój " + numerPokoju));
+            Rezerwacja rezerwacja = new Rezerwacja(liczba(pola, "id"), data(pola, "dataod"), data(pola, "datado"),
+                    gosc, pokoj);
+            String status = pola.get("status");
+            if (status != null) {
+                try {
+                    rezerwacja.setStatus(Rezerwacja.Status.valueOf(status.toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Nieznany status rezerwacji: " + status);
+                }
+            }
+            return rezerwacja;
+        }
+
+        @Override
+        String sprawdz(int numer, Rezerwacja rezerwacja) {
+            if (numeryWierszy.containsKey(rezerwacja.getId()) || rezerwacjeDAO.pobierz(rezerwacja.getId()).isPresent()) {
+                return "Rezerwacja o ID " + rezerwacja.getId() + " już istnieje";
+            }
+            numeryWierszy.put(rezerwacja.getId(), numer);
+            nowe.add(rezerwacja);
+            return null;
+        }
+
+        /**
+         * Wykrywa kolizje jednym przebiegiem po przedziałach posortowanych według pokoju
+         * i daty rozpoczęcia. Istniejące rezerwacje zawsze zostają; z importowanych
+         * przyjmowana jest ta, która pojawiła się w pliku wcześniej.
+         */
+        @Override
+        void zakoncz(RaportImportu raport) {
+            List<Przedzial> przedzialy = new ArrayList<>();
+            for (Rezerwacja r : rezerwacjeDAO.pobierzAktywne()) {
+                przedzialy.add(new Przedzial(r, 0));
+            }
+            List<Rezerwacja> przyjete = new ArrayList<>();
+            for (Rezerwacja r : nowe) {
+                if (czyAktywna(r)) {
+                    przedzialy.add(new Przedzial(r, numeryWierszy.get(r.getId())));
+                } else {
+                    przyjete.add(r);
+                }
+            }
+            przedzialy.sort(Comparator.comparingInt(Przedzial::numerPokoju)
+                    .thenComparing(Przedzial::dataOd)
+                    .thenComparingInt(Przedzial::numerWiersza));
+
+            // Najbliższa istniejąca rezerwacja zaczynająca się nie wcześniej niż dany przedział
+            int n = przedzialy.size();
+            Przedzial[] nastepnaIstniejaca = new Przedzial[n];
+            Przedzial nastepna = null;
+            for (int i = n - 1; i >= 0; i--) {
+                Przedzial p = przedzialy.get(i);
+                if (i == n - 1 || przedzialy.get(i + 1).numerPokoju() != p.numerPokoju()) {
+                    nastepna = null;
+                }
+                nastepnaIstniejaca[i] = nastepna;
+                if (p.czyIstniejaca()) {
+                    nastepna = p;
+                }
+            }
+
+            Przedzial ostatni = null;
+            for (int i = 0; i < n; i++) {
+                Przedzial p = przedzialy.get(i);
+                if (ostatni != null && ostatni.numerPokoju() != p.numerPokoju()) {
+                    ostatni = null;
+                }
+                Przedzial kolidujacy = null;
+                if (ostatni != null && !p.dataOd().isAfter(ostatni.dataDo())) {
+                    kolidujacy = ostatni;
+                } else if (!p.czyIstniejaca() && nastepnaIstniejaca[i] != null
+                        && !nastepnaIstniejaca[i].dataOd().isAfter(p.dataDo())) {
+                    kolidujacy = nastepnaIstniejaca[i];
+                }
+                if (kolidujacy != null && !p.czyIstniejaca()) {
+                    raport.dodajBlad(p.numerWiersza(), "Rezerwacja " + p.rezerwacja().getId()
+                            + " koliduje z rezerwacją " + kolidujacy.rezerwacja().getId()
+                            + " w pokoju " + p.numerPokoju());
+                    continue;
+                }
+                if (!p.czyIstniejaca()) {
+                    przyjete.add(p.rezerwacja());
+                }
+                if (ostatni == null || p.dataDo().isAfter(ostatni.dataDo())) {
+                    ostatni = p;
+                }
+            }
+
+            rezerwacjeDAO.zapiszWszystkie(przyjete);
+            przyjete.stream().mapToInt(Rezerwacja::getId).max().ifPresent(Rezerwacja::uwzglednijId);
+            raport.dodajZaimportowane(przyjete.size());
+        }
+    }
+
+    /** Przedział zajętości pokoju; numer wiersza 0 oznacza rezerwację już zapisaną w DAO. */
+    private record Przedzial(Rezerwacja rezerwacja, int numerWiersza) {
+        int numerPokoju() {
+            return rezerwacja.getPokoj().getNumer();
+        }
+
+        LocalDate dataOd() {
+            return rezerwacja.getDataOd();
+        }
+
+        LocalDate dataDo() {
+            return rezerwacja.getDataDo();
+        }
+
+        boolean czyIstniejaca() {
+            return numerWiersza == 0;
+        }
+    }
+
+    private static boolean czyAktywna(Rezerwacja r) {
+        return r.getStatus() != Rezerwacja.Status.ANULOWANA && r.getStatus() != Rezerwacja.Status.WYMELDOWANA;
+    }
+
+    private static String tekst(Map<String, String> pola, String nazwa) {
+        String wartosc = pola.get(nazwa);
+        if (wartosc == null || wartosc.isBlank()) {
+            throw new IllegalArgumentException("Brak pola " + nazwa);
+        }
+        return wartosc.strip();
+    }
+
+    private static int liczba(Map<String, String> pola, String nazwa) {
+        String wartosc = tekst(pola, nazwa);
+        try {
+            return Integer.parseInt(wartosc);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Nieprawidłowa liczba w polu " + nazwa + ": " + wartosc);
+        }
+    }
+
+    private static double kwota(Map<String, String> pola, String nazwa) {
+        String wartosc = tekst(pola, nazwa);
+        try {
+            return Double.parseDouble(wartosc);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Nieprawidłowa kwota w polu " + nazwa + ": " + wartosc);
+        }
+    }
+
+    private static LocalDate data(Map<String, String> pola, String nazwa) {
+        String wartosc = tekst(pola, nazwa);
+        try {
+            return LocalDate.parse(wartosc);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Nieprawidłowa data w polu " + nazwa + ": " + wartosc);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package hotel.wymiana;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parsowanie pojedynczych wierszy CSV i JSON Lines. Błędy składni zgłaszane są
+ * jako IllegalArgumentException z opisem, który trafia do raportu importu.
+ */
+final class ParserWiersza {
+
+    private ParserWiersza() {
+    }
+
+    /**
+     * Dzieli wiersz CSV na pola. Pole w cudzysłowach może zawierać przecinki,
+     * a cudzysłów zapisuje się podwojony. Pola nie mogą obejmować kilku wierszy.
+     * @param wiersz wiersz CSV
+     * @return pola wiersza
+     */
+    static List<String> polaCsv(String wiersz) {
+        List<String> pola = new ArrayList<>();
+        StringBuilder pole = new StringBuilder();
+        int i = 0;
+        while (true) {
+            if (i < wiersz.length() && wiersz.charAt(i) == '"') {
+                i++;
+                while (true) {
+                    if (i >= wiersz.length()) {
+                        throw new IllegalArgumentException("Niezamknięty cudzysłów");
+                    }
+                    char znak = wiersz.charAt(i++);
+                    if (znak == '"') {
+                        if (i < wiersz.length() && wiersz.charAt(i) == '"') {
+                            pole.append('"');
+                            i++;
+                        } else {
+                            break;
+                        }
+                    } else {
+                        pole.append(znak);
+                    }
+                }
+                if (i < wiersz.length() && wiersz.charAt(i) != ',') {
+                    throw new IllegalArgumentException("Oczekiwano przecinka po polu w cudzysłowach");
+                }
+            } else {
+                while (i < wiersz.length() && wiersz.charAt(i) != ',') {
+                    pole.append(wiersz.charAt(i++));
+                }
+            }
+            pola.add(pole.toString().trim());
+            pole.setLength(0);
+            if (i >= wiersz.length()) {
+                return pola;
+            }
+            i++; // przecinek
+        }
+    }
+
+    /**
+     * Parsuje płaski obiekt JSON (wartości: tekst, liczba, true/false, null).
+     * Wartości są zwracane jako tekst; null oznacza brak pola.
+     * @param wiersz wiersz JSON
+     * @return pola obiektu w kolejności wystąpienia
+     */
+    static Map<String, String> obiektJson(String wiersz) {
+        Map<String, String> pola = new LinkedHashMap<>();
+        int[] poz = {pomin(wiersz, 0)};
+        oczekuj(wiersz, poz, '{');
+        poz[0] = pomin(wiersz, poz[0]);
+        if (poz[0] < wiersz.length() && wiersz.charAt(poz[0]) == '}') {
+            poz[0]++;
+        } else {
+            while (true) {
+                poz[0] = pomin(wiersz, poz[0]);
+                String klucz = tekstJson(wiersz, poz);
+                poz[0] = pomin(wiersz, poz[0]);
+                oczekuj(wiersz, poz, ':');
+                poz[0] = pomin(wiersz, poz[0]);
+                String wartosc = wartoscJson(wiersz, poz);
+                if (wartosc != null) {
+                    pola.put(klucz, wartosc);
+                }
+                poz[0] = pomin(wiersz, poz[0]);
+                if (poz[0] < wiersz.length() && wiersz.charAt(poz[0]) == ',') {
+                    poz[0]++;
+                    continue;
+                }
+                oczekuj(wiersz, poz, '}');
+                break;
+            }
+        }
+        if (pomin(wiersz, poz[0]) != wiersz.length()) {
+            throw new IllegalArgumentException("Nadmiarowe znaki po obiekcie JSON");
+        }
+        return pola;
+    }
+
+    private static String wartoscJson(String wiersz, int[] poz) {
+        if (poz[0] >= wiersz.length()) {
+            throw new IllegalArgumentException("Brak wartości pola JSON");
+        }
+        char znak = wiersz.charAt(poz[0]);
+        if (znak == '"') {
+            return tekstJson(wiersz, poz);
+        }
+        if (znak == '{' || znak == '[') {
+            throw new IllegalArgumentException("Zagnieżdżone obiekty JSON nie są obsługiwane");
+        }
+        int start = poz[0];
+        while (poz[0] < wiersz.length() && ",} \t".indexOf(wiersz.charAt(poz[0])) < 0) {
+            poz[0]++;
+        }
+        String literal = wiersz.substring(start, poz[0]);
+        if (literal.isEmpty()) {
+            throw new IllegalArgumentException("Brak wartości pola JSON");
+        }
+        return literal.equals("null") ? null : literal;
+    }
+
+    private static String tekstJson(String wiersz, int[] poz) {
+        oczekuj(wiersz, poz, '"');
+        StringBuilder tekst = new StringBuilder();
+        while (true) {
+            if (poz[0] >= wiersz.length()) {
+                throw new IllegalArgumentException("Niezamknięty tekst JSON");
+            }
+            char znak = wiersz.charAt(poz[0]++);
+            if (znak == '"') {
+                return tekst.toString();
+            }
+            if (znak != '\\') {
+                tekst.append(znak);
+                continue;
+            }
+            if (poz[0] >= wiersz.length()) {
+                throw new IllegalArgumentException("Niezamknięty tekst JSON");
+            }
+            char kod = wiersz.charAt(poz[0]++);
+            switch (kod) {
+                case '"', '\\', '/' -> tekst.append(kod);
+                case 'b' -> tekst.append('\b');
+                case 'f' -> tekst.append('\f');
+                case 'n' -> tekst.append('\n');
+                case 'r' -> tekst.append('\r');
+                case 't' -> tekst.append('\t');
+                case 'u' -> {
+                    if (poz[0] + 4 > wiersz.length()) {
+                        throw new IllegalArgumentException("Niepełna sekwencja \\u w tekście JSON");
+                    }
+                    try {
+                        tekst.append((char) Integer.parseInt(wiersz.substring(poz[0], poz[0] + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Nieprawidłowa sekwencja \\u w tekście JSON");
+                    }
+                    poz[0] += 4;
+                }
+                default -> throw new IllegalArgumentException("Nieznana sekwencja ucieczki \\" + kod);
+            }
+        }
+    }
+
+    private static void oczekuj(String wiersz, int[] poz, char znak) {
+        if (poz[0] >= wiersz.length() || wiersz.charAt(poz[0]) != znak) {
+            throw new IllegalArgumentException("Oczekiwano znaku '" + znak + "' na pozycji " + (poz[0] + 1));
+        }
+        poz[0]++;
+    }
+
+    private static int pomin(String wiersz, int poz) {
+        while (poz < wiersz.length() && Character.isWhitespace(wiersz.charAt(poz))) {
+            poz++;
+        }
+        return poz;
+    }
+}
@@ -0,0 +1,111 @@
+package hotel.wymiana;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Wynik importu: liczby wierszy i błędy odrzuconych wierszy.
+ * Zapamiętywanych jest co najwyżej {@link #LIMIT_BLEDOW} błędów; pozostałe są tylko liczone.
+ */
+public class RaportImportu {
+
+    public static final int LIMIT_BLEDOW = 1000;
+
+    private final RodzajDanych rodzaj;
+    private int liczbaWierszy;
+    private int liczbaZaimportowanych;
+    private int liczbaBledow;
+    private final List<BladWiersza> bledy = new ArrayList<>();
+
+    RaportImportu(RodzajDanych rodzaj) {
+        this.rodzaj = rodzaj;
+    }
+
+    void dodajWiersz() {
+        liczbaWierszy++;
+    }
+
+    void dodajZaimportowane(int liczba) {
+        liczbaZaimportowanych += liczba;
+    }
+
+    void dodajBlad(int numerWiersza, String komunikat) {
+        liczbaBledow++;
+        if (bledy.size() < LIMIT_BLEDOW) {
+            bledy.add(new BladWiersza(numerWiersza, komunikat));
+        }
+    }
+
+    void uporzadkuj() {
+        bledy.sort(Comparator.comparingInt(BladWiersza::getNumerWiersza));
+    }
+
+    public RodzajDanych getRodzaj() {
+        return rodzaj;
+    }
+
+    /**
+     * Zwraca liczbę wierszy danych (bez nagłówka i pustych wierszy).
+     * @return liczba wierszy
+     */
+    public int getLiczbaWierszy() {
+        return liczbaWierszy;
+    }
+
+    public int getLiczbaZaimportowanych() {
+        return liczbaZaimportowanych;
+    }
+
+    public int getLiczbaBledow() {
+        return liczbaBledow;
+    }
+
+    /**
+     * Zwraca zapamiętane błędy posortowane po numerze wiersza.
+     * @return błędy wierszy
+     */
+    public List<BladWiersza> getBledy() {
+        return List.copyOf(bledy);
+    }
+
+    public boolean czyBezBledow() {
+        return liczbaBledow == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "Import " + rodzaj + ": wierszy=" + liczbaWierszy + ", zaimportowano=" + liczbaZaimportowanych
+                + ", błędów=" + liczbaBledow;
+    }
+
+    /**
+     * Błąd odrzuconego wiersza.
+     */
+    public static final class BladWiersza {
+        private final int numerWiersza;
+        private final String komunikat;
+
+        BladWiersza(int numerWiersza, String komunikat) {
+            this.numerWiersza = numerWiersza;
+            this.komunikat = komunikat;
+        }
+
+        /**
+         * Zwraca numer wiersza w pliku (od 1, wliczając nagłówek).
+         * @return numer wiersza
+         */
+        public int getNumerWiersza() {
+            return numerWiersza;
+        }
+
+        public String getKomunikat() {
+            return komunikat;
+        }
+
+        @Override
+        public String toString() {
+            return "wiersz " + numerWiersza + ": " + komunikat;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package hotel.wymiana;
+
+import java.util.List;
+
+/**
+ * Rodzaj encji w pliku wymiany danych wraz z nazwami kolumn (pól).
+ * Pokoje i gości należy wczytać przed rezerwacjami, które się do nich odwołują.
+ * Cena rezerwacji jest tylko eksportowana - przy imporcie wynika z pokoju i dodatków.
+ */
+public enum RodzajDanych {
+    POKOJE(List.of("numer", "typ", "cena")),
+    GOSCIE(List.of("id", "imie", "nazwisko", "email")),
+    REZERWACJE(List.of("id", "idGoscia", "numerPokoju", "dataOd", "dataDo", "status", "cena"));
+
+    private final List<String> kolumny;
+
+    RodzajDanych(List<String> kolumny) {
+        this.kolumny = kolumny;
+    }
+
+    /**
+     * Zwraca nazwy kolumn w kolejności używanej przy eksporcie.
+     * @return nazwy kolumn
+     */
+    public List<String> getKolumny() {
+        return kolumny;
+    }
+}
@@ -0,0 +1,113 @@
+package hotel.zdarzenia;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Ograniczona, nieblokująca kolejka wielu producentów na tablicy cyklicznej.
+ * Każda komórka ma numer sekwencyjny mówiący, czy jest wolna do zapisu
+ * czy gotowa do odczytu; producenci i konsument rezerwują pozycje przez CAS,
+ * bez blokad.
+ *
+ * @param <T> typ elementów
+ */
+final class BuforPierscieniowy<T> {
+
+    private final Object[] elementy;
+    private final AtomicLongArray sekwencje;
+    private final int maska;
+    private final AtomicLong zapis = new AtomicLong();
+    private final AtomicLong odczyt = new AtomicLong();
+
+    /**
+     * @param pojemnosc minimalna pojemność (zaokrąglana w górę do potęgi dwójki)
+     */
+    BuforPierscieniowy(int pojemnosc) {
+        if (pojemnosc < 1 || pojemnosc > (1 << 30)) {
+            throw new IllegalArgumentException("Pojemność bufora musi być z przedziału 1 - 2^30");
+        }
+        int rozmiar = Integer.highestOneBit(pojemnosc);
+        if (rozmiar < pojemnosc) {
+            rozmiar <<= 1;
+        }
+        this.elementy = new Object[rozmiar];
+        this.sekwencje = new AtomicLongArray(rozmiar);
+        for (int i = 0; i < rozmiar; i++) {
+            sekwencje.set(i, i);
+        }
+        this.maska = rozmiar - 1;
+    }
+
+    /**
+     * Dodaje element na koniec bufora.
+     * @param element element (nie null)
+     * @return false, gdy bufor jest pełny
+     */
+    boolean wstaw(T element) {
+        long pozycja = zapis.get();
+        int indeks;
+        while (true) {
+            indeks = (int) (pozycja & maska);
+            long roznica = sekwencje.get(indeks) - pozycja;
+            if (roznica == 0) {
+                if (zapis.compareAndSet(pozycja, pozycja + 1)) {
+                    break;
+                }
+                pozycja = zapis.get();
+            } else if (roznica < 0) {
+                return false;
+            } else {
+                pozycja = zapis.get();
+            }
+        }
+        elementy[indeks] = element;
+        // Zapis sekwencji publikuje element konsumentowi
+        sekwencje.set(indeks, pozycja + 1);
+        return true;
+    }
+
+    /**
+     * Pobiera element z początku bufora.
+     * @return element lub null, gdy bufor jest pusty
+     */
+    @SuppressWarnings("unchecked")
+    T pobierz() {
+        long pozycja = odczyt.get();
+        int indeks;
+        while (true) {
+            indeks = (int) (pozycja & maska);
+            long roznica = sekwencje.get(indeks) - (pozycja + 1);
+            if (roznica == 0) {
+                if (odczyt.compareAndSet(pozycja, pozycja + 1)) {
+                    break;
+                }
+                pozycja = odczyt.get();
+            } else if (roznica < 0) {
+                return null;
+            } else {
+                pozycja = odczyt.get();
+            }
+        }
+        T element = (T) elementy[indeks];
+        elementy[indeks] = null;
+        // Komórka wolna do zapisu w następnym obiegu
+        sekwencje.set(indeks, pozycja + maska + 1);
+        return element;
+    }
+
+    /**
+     * Sprawdza, czy bufor jest pusty (wynik przybliżony przy współbieżnych zmianach).
+     * @return true jeśli pusty
+     */
+    boolean czyPusty() {
+        return zapis.get() == odczyt.get();
+    }
+
+    /**
+     * Zwraca pojemność bufora.
+     * @return pojemność
+     */
+    int pojemnosc() {
+        return elementy.length;
+    }
+}
@@ -0,0 +1,16 @@
+package hotel.zdarzenia;
+
+/**
+ * Zachowanie szyny zdarzeń, gdy bufor subskrybenta jest pełny.
+ */
+public enum PolitykaPrzeciazenia {
+
+    /** Zdarzenie jest od razu odrzucane (i liczone) - publikujący nigdy nie czeka. */
+    ODRZUC,
+
+    /**
+     * Publikujący czeka krótko na wolne miejsce (najwyżej {@link SzynaZdarzen#MAKS_CZEKANIA_NS} ns),
+     * po czym zdarzenie jest odrzucane.
+     */
+    CZEKAJ
+}
@@ -0,0 +1,148 @@
+package hotel.zdarzenia;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Subskrypcja szyny zdarzeń: własny bufor pierścieniowy i wykonawca odbiorcy.
+ * Zdarzenia są dostarczane w kolejności wstawienia do bufora, po jednym
+ * zadaniu opróżniającym naraz, więc odbiorca nie musi być bezpieczny wątkowo.
+ */
+public final class Subskrypcja implements AutoCloseable {
+
+    private final SzynaZdarzen szyna;
+    private final String nazwa;
+    private final Consumer<ZdarzenieRezerwacji> odbiorca;
+    private final Executor wykonawca;
+    private final ExecutorService wlasnyWykonawca;
+    private final PolitykaPrzeciazenia polityka;
+    private final BuforPierscieniowy<ZdarzenieRezerwacji> bufor;
+
+    private final AtomicBoolean zaplanowana = new AtomicBoolean();
+    private final AtomicLong dostarczone = new AtomicLong();
+    private final AtomicLong odrzucone = new AtomicLong();
+    private final AtomicLong bledy = new AtomicLong();
+    private volatile boolean aktywna = true;
+
+    Subskrypcja(SzynaZdarzen szyna, String nazwa, Consumer<ZdarzenieRezerwacji> odbiorca,
+                Executor wykonawca, ExecutorService wlasnyWykonawca,
+                int pojemnosc, PolitykaPrzeciazenia polityka) {
+        this.szyna = szyna;
+        this.nazwa = nazwa;
+        this.odbiorca = odbiorca;
+        this.wykonawca = wykonawca;
+        this.wlasnyWykonawca = wlasnyWykonawca;
+        this.polityka = polityka;
+        this.bufor = new BuforPierscieniowy<>(pojemnosc);
+    }
+
+    /**
+     * Przekazuje zdarzenie do bufora subskrypcji zgodnie z polityką przeciążenia.
+     */
+    void przyjmij(ZdarzenieRezerwacji zdarzenie) {
+        if (!aktywna) {
+            return;
+        }
+        if (!bufor.wstaw(zdarzenie) && !czekajNaMiejsce(zdarzenie)) {
+            odrzucone.incrementAndGet();
+            return;
+        }
+        zaplanujOproznianie();
+    }
+
+    private boolean czekajNaMiejsce(ZdarzenieRezerwacji zdarzenie) {
+        if (polityka != PolitykaPrzeciazenia.CZEKAJ) {
+            return false;
+        }
+        long koniec = System.nanoTime() + SzynaZdarzen.MAKS_CZEKANIA_NS;
+        while (aktywna && System.nanoTime() < koniec) {
+            LockSupport.parkNanos(1_000);
+            if (bufor.wstaw(zdarzenie)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void zaplanujOproznianie() {
+        if (zaplanowana.compareAndSet(false, true)) {
+            try {
+                wykonawca.execute(this::oproznij);
+            } catch (RejectedExecutionException e) {
+                zaplanowana.set(false);
+            }
+        }
+    }
+
+    /**
+     * Dostarcza odbiorcy wszystkie zdarzenia z bufora. Po zakończeniu sprawdza ponownie,
+     * czy w międzyczasie nie pojawiły się nowe zdarzenia, których wstawienie nie
+     * zaplanowało opróżniania (bo to zadanie było jeszcze aktywne).
+     */
+    private void oproznij() {
+        do {
+            ZdarzenieRezerwacji zdarzenie;
+            while (aktywna && (zdarzenie = bufor.pobierz()) != null) {
+                try {
+                    odbiorca.accept(zdarzenie);
+                    dostarczone.incrementAndGet();
+                } catch (RuntimeException e) {
+                    // Błąd odbiorcy nie może zatrzymać dostarczania kolejnych zdarzeń
+                    bledy.incrementAndGet();
+                }
+            }
+            zaplanowana.set(false);
+        } while (aktywna && !bufor.czyPusty() && zaplanowana.compareAndSet(false, true));
+    }
+
+    /**
+     * Kończy subskrypcję. Niedostarczone zdarzenia są porzucane.
+     */
+    @Override
+    public void close() {
+        aktywna = false;
+        szyna.usun(this);
+        if (wlasnyWykonawca != null) {
+            wlasnyWykonawca.shutdown();
+        }
+    }
+
+    public String getNazwa() {
+        return nazwa;
+    }
+
+    public PolitykaPrzeciazenia getPolityka() {
+        return polityka;
+    }
+
+    public int getPojemnosc() {
+        return bufor.pojemnosc();
+    }
+
+    public long getLiczbaDostarczonych() {
+        return dostarczone.get();
+    }
+
+    public long getLiczbaOdrzuconych() {
+        return odrzucone.get();
+    }
+
+    public long getLiczbaBledow() {
+        return bledy.get();
+    }
+
+    public boolean isAktywna() {
+        return aktywna;
+    }
+
+    @Override
+    public String toString() {
+        return "Subskrypcja[" + nazwa + ", dostarczone=" + dostarczone.get()
+                + ", odrzucone=" + odrzucone.get() + ", błędy=" + bledy.get() + "]";
+    }
+}
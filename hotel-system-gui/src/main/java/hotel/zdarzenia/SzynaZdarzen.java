@@ -0,0 +1,111 @@
+package hotel.zdarzenia;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Szyna zdarzeń cyklu życia rezerwacji działająca w obrębie procesu.
+ * Publikacja jedynie wstawia zdarzenie do nieblokujących buforów subskrybentów,
+ * a odbiorcy wykonywani są na własnych wykonawcach, więc ścieżka rezerwacji
+ * nie czeka na widoki, metryki ani powiadomienia.
+ */
+public class SzynaZdarzen {
+
+    /** Domyślna pojemność bufora subskrybenta. */
+    public static final int DOMYSLNA_POJEMNOSC = 1024;
+
+    /** Najdłuższy czas oczekiwania publikującego przy polityce CZEKAJ (10 ms). */
+    public static final long MAKS_CZEKANIA_NS = 10_000_000L;
+
+    private final List<Subskrypcja> subskrypcje = new CopyOnWriteArrayList<>();
+
+    /**
+     * Rejestruje odbiorcę na własnym wątku (demon) z domyślnym buforem i polityką ODRZUC.
+     * @param nazwa nazwa subskrypcji (także nazwa wątku)
+     * @param odbiorca odbiorca zdarzeń
+     * @return subskrypcja
+     */
+    public Subskrypcja subskrybuj(String nazwa, Consumer<ZdarzenieRezerwacji> odbiorca) {
+        ExecutorService wykonawca = Executors.newSingleThreadExecutor(r -> {
+            Thread watek = new Thread(r, "zdarzenia-" + nazwa);
+            watek.setDaemon(true);
+            return watek;
+        });
+        return zarejestruj(nazwa, odbiorca, wykonawca, wykonawca, DOMYSLNA_POJEMNOSC, PolitykaPrzeciazenia.ODRZUC);
+    }
+
+    /**
+     * Rejestruje odbiorcę na podanym wykonawcy (np. Platform::runLater dla widoków JavaFX).
+     * @param nazwa nazwa subskrypcji
+     * @param odbiorca odbiorca zdarzeń
+     * @param wykonawca wykonawca zadań dostarczających zdarzenia
+     * @param pojemnosc pojemność bufora subskrypcji
+     * @param polityka zachowanie przy pełnym buforze
+     * @return subskrypcja
+     */
+    public Subskrypcja subskrybuj(String nazwa, Consumer<ZdarzenieRezerwacji> odbiorca, Executor wykonawca,
+                                  int pojemnosc, PolitykaPrzeciazenia polityka) {
+        return zarejestruj(nazwa, odbiorca, wykonawca, null, pojemnosc, polityka);
+    }
+
+    private Subskrypcja zarejestruj(String nazwa, Consumer<ZdarzenieRezerwacji> odbiorca, Executor wykonawca,
+                                    ExecutorService wlasnyWykonawca, int pojemnosc,
+                                    PolitykaPrzeciazenia polityka) {
+        if (nazwa == null || odbiorca == null || wykonawca == null || polityka == null) {
+            if (wlasnyWykonawca != null) {
+                wlasnyWykonawca.shutdown();
+            }
+            throw new IllegalArgumentException("Nazwa, odbiorca, wykonawca i polityka nie mogą być null");
+        }
+        Subskrypcja subskrypcja = new Subskrypcja(this, nazwa, odbiorca, wykonawca, wlasnyWykonawca,
+                pojemnosc, polityka);
+        subskrypcje.add(subskrypcja);
+        return subskrypcja;
+    }
+
+    /**
+     * Publikuje zdarzenie do wszystkich subskrybentów.
+     * @param zdarzenie zdarzenie
+     */
+    public void publikuj(ZdarzenieRezerwacji zdarzenie) {
+        if (zdarzenie == null) {
+            throw new IllegalArgumentException("Zdarzenie nie może być null");
+        }
+        for (Subskrypcja subskrypcja : subskrypcje) {
+            subskrypcja.przyjmij(zdarzenie);
+        }
+    }
+
+    /**
+     * Sprawdza, czy są subskrybenci - pozwala pominąć tworzenie zdarzeń, gdy nikt ich nie słucha.
+     * @return true jeśli istnieje co najmniej jedna subskrypcja
+     */
+    public boolean maSubskrybentow() {
+        return !subskrypcje.isEmpty();
+    }
+
+    /**
+     * Zwraca aktywne subskrypcje (np. do raportu odrzuconych zdarzeń).
+     * @return lista subskrypcji
+     */
+    public List<Subskrypcja> getSubskrypcje() {
+        return List.copyOf(subskrypcje);
+    }
+
+    /**
+     * Kończy wszystkie subskrypcje.
+     */
+    public void zamknij() {
+        for (Subskrypcja subskrypcja : subskrypcje) {
+            subskrypcja.close();
+        }
+    }
+
+    void usun(Subskrypcja subskrypcja) {
+        subskrypcje.remove(subskrypcja);
+    }
+}
@@ -0,0 +1,180 @@
+package hotel.zdarzenia;
+
+import hotel.model.Rezerwacja;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Zdarzenie cyklu życia rezerwacji publikowane przez model.
+ * Jest niezmienną migawką stanu rezerwacji z chwili zdarzenia, więc odbiorcy
+ * mogą je przetwarzać w innych wątkach bez odwoływania się do DAO.
+ */
+public final class ZdarzenieRezerwacji {
+
+    /**
+     * Rodzaj zdarzenia - odpowiada przejściu w cyklu życia rezerwacji.
+     */
+    public enum Typ {
+        UTWORZONA,
+        POTWIERDZONA,
+        ZAMELDOWANA,
+        WYMELDOWANA,
+        ANULOWANA,
+        ZMIENIONA
+    }
+
+    private final Typ typ;
+    private final int idRezerwacji;
+    private final long wersja;
+    private final int idGoscia;
+    private final int numerPokoju;
+    private final int poprzedniNumerPokoju;
+    private final Rezerwacja.Status status;
+    private final LocalDate dataOd;
+    private final LocalDate dataDo;
+    private final LocalDate poprzedniaDataOd;
+    private final LocalDate poprzedniaDataDo;
+    private final double cena;
+    private final Instant czas;
+
+    private ZdarzenieRezerwacji(Typ typ, int idRezerwacji, long wersja, int idGoscia, int numerPokoju,
+                                int poprzedniNumerPokoju, Rezerwacja.Status status, LocalDate dataOd, LocalDate dataDo,
+                                LocalDate poprzedniaDataOd, LocalDate poprzedniaDataDo,
+                                double cena, Instant czas) {
+        this.typ = typ;
+        this.idRezerwacji = idRezerwacji;
+        this.wersja = wersja;
+        this.idGoscia = idGoscia;
+        this.numerPokoju = numerPokoju;
+        this.poprzedniNumerPokoju = poprzedniNumerPokoju;
+        this.status = status;
+        this.dataOd = dataOd;
+        this.dataDo = dataDo;
+        this.poprzedniaDataOd = poprzedniaDataOd;
+        this.poprzedniaDataDo = poprzedniaDataDo;
+        this.cena = cena;
+        this.czas = czas;
+    }
+
+    /**
+     * Tworzy zdarzenie z bieżącego stanu rezerwacji.
+     * @param typ rodzaj zdarzenia
+     * @param rezerwacja rezerwacja po zmianie
+     * @param czas chwila zdarzenia
+     * @return zdarzenie
+     */
+    public static ZdarzenieRezerwacji z(Typ typ, Rezerwacja rezerwacja, Instant czas) {
+        return z(typ, rezerwacja, rezerwacja.getDataOd(), rezerwacja.getDataDo(), czas);
+    }
+
+    /**
+     * Tworzy zdarzenie z bieżącego stanu rezerwacji i jej dat sprzed zmiany.
+     * @param typ rodzaj zdarzenia
+     * @param rezerwacja rezerwacja po zmianie
+     * @param poprzedniaDataOd data rozpoczęcia przed zmianą
+     * @param poprzedniaDataDo data zakończenia przed zmianą
+     * @param czas chwila zdarzenia
+     * @return zdarzenie
+     */
+    public static ZdarzenieRezerwacji z(Typ typ, Rezerwacja rezerwacja, LocalDate poprzedniaDataOd,
+                                        LocalDate poprzedniaDataDo, Instant czas) {
+        return z(typ, rezerwacja, rezerwacja.getPokoj() != null ? rezerwacja.getPokoj().getNumer() : 0,
+                poprzedniaDataOd, poprzedniaDataDo, czas);
+    }
+
+    /**
+     * Tworzy zdarzenie z bieżącego stanu rezerwacji oraz jej pokoju i dat sprzed zmiany.
+     * @param typ rodzaj zdarzenia
+     * @param rezerwacja rezerwacja po zmianie
+     * @param poprzedniNumerPokoju numer pokoju przed zmianą (różny od bieżącego przy przeniesieniu)
+     * @param poprzedniaDataOd data rozpoczęcia przed zmianą
+     * @param poprzedniaDataDo data zakończenia przed zmianą
+     * @param czas chwila zdarzenia
+     * @return zdarzenie
+     */
+    public static ZdarzenieRezerwacji z(Typ typ, Rezerwacja rezerwacja, int poprzedniNumerPokoju,
+                                        LocalDate poprzedniaDataOd, LocalDate poprzedniaDataDo, Instant czas) {
+        return new ZdarzenieRezerwacji(typ, rezerwacja.getId(), rezerwacja.getWersja(),
+                rezerwacja.getGosc() != null ? rezerwacja.getGosc().getId() : 0,
+                rezerwacja.getPokoj() != null ? rezerwacja.getPokoj().getNumer() : 0,
+                poprzedniNumerPokoju, rezerwacja.getStatus(), rezerwacja.getDataOd(), rezerwacja.getDataDo(),
+                poprzedniaDataOd, poprzedniaDataDo, rezerwacja.obliczCene(), czas);
+    }
+
+    public Typ getTyp() {
+        return typ;
+    }
+
+    public int getIdRezerwacji() {
+        return idRezerwacji;
+    }
+
+    /**
+     * Zwraca wersję rezerwacji po zmianie. Zdarzenia równoległych zapisów mogą dotrzeć
+     * w innej kolejności, niż zostały zapisane - odbiorca pomija zdarzenia starsze
+     * od już naniesionego stanu.
+     * @return wersja rezerwacji
+     */
+    public long getWersja() {
+        return wersja;
+    }
+
+    public int getIdGoscia() {
+        return idGoscia;
+    }
+
+    public int getNumerPokoju() {
+        return numerPokoju;
+    }
+
+    /**
+     * Zwraca numer pokoju sprzed zmiany (różny od bieżącego tylko po przeniesieniu rezerwacji).
+     * @return poprzedni numer pokoju
+     */
+    public int getPoprzedniNumerPokoju() {
+        return poprzedniNumerPokoju;
+    }
+
+    public Rezerwacja.Status getStatus() {
+        return status;
+    }
+
+    public LocalDate getDataOd() {
+        return dataOd;
+    }
+
+    public LocalDate getDataDo() {
+        return dataDo;
+    }
+
+    /**
+     * Zwraca datę rozpoczęcia sprzed zmiany (dla zdarzeń innych niż ZMIENIONA równa bieżącej).
+     * @return poprzednia data od
+     */
+    public LocalDate getPoprzedniaDataOd() {
+        return poprzedniaDataOd;
+    }
+
+    /**
+     * Zwraca datę zakończenia sprzed zmiany (dla zdarzeń innych niż ZMIENIONA równa bieżącej).
+     * @return poprzednia data do
+     */
+    public LocalDate getPoprzedniaDataDo() {
+        return poprzedniaDataDo;
+    }
+
+    public double getCena() {
+        return cena;
+    }
+
+    public Instant getCzas() {
+        return czas;
+    }
+
+    @Override
+    public String toString() {
+        return "Zdarzenie[" + typ + ", rezerwacja=" + idRezerwacji + ", pokój=" + numerPokoju
+                + ", status=" + status + ", " + dataOd + " - " + dataDo + "]";
+    }
+}
@@ -0,0 +1,140 @@
+package hotel.analityka;
+
+import hotel.dao.PokojeDAO;
+import hotel.dao.RezerwacjeDAO;
+import hotel.model.Gosc;
+import hotel.model.ICennik;
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+import hotel.model.Sniadanie;
+import hotel.model.TaryfaCen;
+import org.junit.jupiter.api.*;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy wskaźników obłożenia, ADR i RevPAR.
+ *
+ * @author Grzegorz - System Zarządzania Hotelem
+ */
+@DisplayName("Testy analityki sprzedaży")
+class TestAnalitykaSprzedazy {
+
+    private RezerwacjeDAO rezerwacjeDAO;
+    private PokojeDAO pokojeDAO;
+    private AnalitykaSprzedazy analityka;
+    private Gosc gosc;
+    private Pokoj pokoj101;
+    private Pokoj pokoj201;
+
+    @BeforeEach
+    void setUp() {
+        // Jeśli: dwa pokoje jednoosobowe i apartament, dziś jest 15 marca 2030
+        rezerwacjeDAO = new RezerwacjeDAO();
+        pokojeDAO = new PokojeDAO();
+        pokoj101 = new Pokoj(101, "Jednoosobowy", 100.0);
+        pokoj201 = new Pokoj(201, "Apartament", 300.0);
+        pokojeDAO.zapisz(pokoj101);
+        pokojeDAO.zapisz(new Pokoj(102, "Jednoosobowy", 100.0));
+        pokojeDAO.zapisz(pokoj201);
+        gosc = new Gosc(1, "Jan", "Kowalski", "jan@example.com");
+        Clock zegar = Clock.fixed(LocalDate.of(2030, 3, 15).atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        analityka = new AnalitykaSprzedazy(rezerwacjeDAO, pokojeDAO, zegar);
+
+        // Jeśli: pobyt na przełomie miesięcy ze śniadaniem, pobyt w apartamencie i anulowana rezerwacja
+        Rezerwacja przelom = new Rezerwacja(1, LocalDate.of(2030, 1, 30), LocalDate.of(2030, 2, 2), gosc, pokoj101);
+        przelom.dodajDodatek(new Sniadanie(20.0, 3));
+        rezerwacjeDAO.zapisz(przelom);
+        rezerwacjeDAO.zapisz(new Rezerwacja(2, LocalDate.of(2030, 3, 10), LocalDate.of(2030, 3, 12), gosc, pokoj201));
+        Rezerwacja anulowana = new Rezerwacja(3, LocalDate.of(2030, 3, 10), LocalDate.of(2030, 3, 20), gosc, pokoj101);
+        anulowana.setStatus(Rezerwacja.Status.ANULOWANA);
+        rezerwacjeDAO.zapisz(anulowana);
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("wskaźniki według dnia i typu pokoju liczą noce, ceny bazowe i dodatki")
+    void wskazniki_WgDniaITypu() {
+        // Gdy: pobierane są wskaźniki dzienne z przełomu stycznia i lutego
+        Map<LocalDate, WskaznikiSprzedazy> dni = analityka.wgDnia(LocalDate.of(2030, 1, 29), LocalDate.of(2030, 2, 2));
+
+        // Wtedy: zajęte są noce 30.01-1.02, a dzień wyjazdu jest wolny
+        assertEquals(List.of(LocalDate.of(2030, 1, 29), LocalDate.of(2030, 1, 30), LocalDate.of(2030, 1, 31),
+                LocalDate.of(2030, 2, 1), LocalDate.of(2030, 2, 2)), List.copyOf(dni.keySet()));
+        WskaznikiSprzedazy dzien = dni.get(LocalDate.of(2030, 1, 31));
+        assertEquals(3, dzien.getDostepnePokojonoce());
+        assertEquals(1.0 / 3, dzien.getOblozenie(), 1e-9);
+        assertEquals(100.0, dzien.getAdr(), 1e-9);
+        assertEquals(100.0 / 3, dzien.getRevPar(), 1e-9);
+        assertEquals(20.0, dzien.getPrzychodDodatkow(), 1e-9);
+        assertEquals(0, dni.get(LocalDate.of(2030, 2, 2)).getSprzedanePokojonoce());
+
+        // Gdy: pobierane są wskaźniki marca według typu pokoju
+        Map<String, WskaznikiSprzedazy> typy = analityka.wgTypuPokoju(LocalDate.of(2030, 3, 1), LocalDate.of(2030, 3, 31));
+
+        // Wtedy: anulowana rezerwacja nie jest liczona, a apartament sprzedał dwie noce
+        assertEquals(List.of("Apartament", "Jednoosobowy"), List.copyOf(typy.keySet()));
+        assertEquals(0, typy.get("Jednoosobowy").getSprzedanePokojonoce());
+        assertEquals(62, typy.get("Jednoosobowy").getDostepnePokojonoce());
+        WskaznikiSprzedazy apartament = typy.get("Apartament");
+        assertEquals(2, apartament.getSprzedanePokojonoce());
+        assertEquals(300.0, apartament.getAdr(), 1e-9);
+        assertEquals(600.0 / 31, apartament.getRevPar(), 1e-9);
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("przychód pokoi zgadza się z ceną rezerwacji ustaloną według cennika z mnożnikiem weekendowym")
+    void przychodPokoi_ZgodnyZCenaZCennika() {
+        // Jeśli: cennik podnosi stawkę soboty o połowę, a pobyt obejmuje piątek i sobotę
+        TaryfaCen taryfa = new TaryfaCen(Map.of(), Map.of(DayOfWeek.SATURDAY, 1.5), Map.of());
+        ICennik cennik = (pokoj, od, doDnia) -> od.datesUntil(doDnia)
+                .mapToDouble(d -> pokoj.getCenaBazowa() * taryfa.mnoznik(d, 0.0))
+                .sum();
+        Rezerwacja weekend = new Rezerwacja(4, LocalDate.of(2030, 4, 5), LocalDate.of(2030, 4, 7), gosc, pokoj101);
+        weekend.setCennik(cennik);
+        rezerwacjeDAO.zapisz(weekend);
+
+        // Gdy: pobierane są wskaźniki kwietnia według typu pokoju
+        WskaznikiSprzedazy jednoosobowe = analityka.wgTypuPokoju(LocalDate.of(2030, 4, 1), LocalDate.of(2030, 4, 30))
+                .get("Jednoosobowy");
+
+        // Wtedy: przychód pokoi i ADR wynikają z ceny rezerwacji, a nie z ceny bazowej pokoju
+        assertEquals(250.0, weekend.obliczCene(), 1e-9);
+        assertEquals(weekend.obliczCene(), jednoosobowe.getPrzychodPokoi(), 1e-9);
+        assertEquals(125.0, jednoosobowe.getAdr(), 1e-9);
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("miesiące zamknięte są liczone raz, a otwarte przeliczane po zmianie rezerwacji")
+    void pamiecPodreczna_PrzeliczaTylkoOtwarteMiesiace() {
+        // Gdy: dwukrotnie pobierane są wskaźniki od stycznia do kwietnia
+        Map<YearMonth, WskaznikiSprzedazy> miesiace = analityka.wgMiesiaca(YearMonth.of(2030, 1), YearMonth.of(2030, 4));
+        analityka.wgMiesiaca(YearMonth.of(2030, 1), YearMonth.of(2030, 4));
+
+        // Wtedy: każdy miesiąc liczony jest raz, a pobyt na przełomie dzieli się między miesiące
+        assertEquals(4, analityka.getLiczbaObliczonychMiesiecy());
+        assertEquals(2, miesiace.get(YearMonth.of(2030, 1)).getSprzedanePokojonoce());
+        assertEquals(1, miesiace.get(YearMonth.of(2030, 2)).getSprzedanePokojonoce());
+        assertEquals(60.0, miesiace.get(YearMonth.of(2030, 1)).getPrzychodDodatkow()
+                + miesiace.get(YearMonth.of(2030, 2)).getPrzychodDodatkow(), 1e-9);
+
+        // Gdy: pojawia się rezerwacja w kwietniu
+        rezerwacjeDAO.zapisz(new Rezerwacja(4, LocalDate.of(2030, 4, 1), LocalDate.of(2030, 4, 5), gosc, pokoj101));
+        miesiace = analityka.wgMiesiaca(YearMonth.of(2030, 1), YearMonth.of(2030, 4));
+
+        // Wtedy: przeliczone są tylko miesiące otwarte (marzec i kwiecień)
+        assertEquals(6, analityka.getLiczbaObliczonychMiesiecy());
+        assertEquals(4, miesiace.get(YearMonth.of(2030, 4)).getSprzedanePokojonoce());
+        assertEquals(100.0 * 4 / (3 * 30), miesiace.get(YearMonth.of(2030, 4)).getRevPar(), 1e-9);
+    }
+}
@@ -0,0 +1,165 @@
+package hotel.audyt;
+
+import hotel.audyt.RaportAudytu.Faza;
+import hotel.model.Gosc;
+import hotel.model.HotelModel;
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+import hotel.model.TaryfaCen;
+import org.junit.jupiter.api.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testy audytu nocnego.
+ *
+ * @author Grzegorz - System Zarządzania Hotelem
+ */
+@DisplayName("Testy audytu nocnego")
+class TestAudytNocny {
+
+    private static final LocalDate DZIEN = LocalDate.of(2030, 6, 10);
+
+    private HotelModel model;
+    private DziennikObciazen dziennik;
+    private Rezerwacja zalegla;
+    private Rezerwacja wTrakcie;
+    private Rezerwacja nieprzybycieDzis;
+    private Rezerwacja nieprzybycieWczesniej;
+    private Rezerwacja przyszla;
+    private Rezerwacja apartament;
+
+    @BeforeEach
+    void setUp() {
+        // Jeśli: hotel z rezerwacjami w różnych stanach wokół audytowanego dnia
+        model = new HotelModel();
+        dziennik = new DziennikObciazen();
+        Gosc gosc = new Gosc(1, "Jan", "Kowalski", "jan@example.com");
+        model.getGoscieDAO().zapisz(gosc);
+        Pokoj[] pokoje = new Pokoj[6];
+        for (int i = 0; i < pokoje.length; i++) {
+            pokoje[i] = new Pokoj(101 + i, i == 5 ? "Apartament" : "Jednoosobowy", i == 5 ? 400.0 : 150.0);
+            model.getPokojeDAO().zapisz(pokoje[i]);
+        }
+        zalegla = zapisz(1, 8, 10, pokoje[0], Rezerwacja.Status.ZAMELDOWANA, gosc);
+        wTrakcie = zapisz(2, 9, 12, pokoje[1], Rezerwacja.Status.ZAMELDOWANA, gosc);
+        nieprzybycieDzis = zapisz(3, 10, 13, pokoje[2], Rezerwacja.Status.NOWA, gosc);
+        nieprzybycieWczesniej = zapisz(4, 5, 7, pokoje[3], Rezerwacja.Status.POTWIERDZONA, gosc);
+        przyszla = zapisz(5, 11, 12, pokoje[4], Rezerwacja.Status.NOWA, gosc);
+        apartament = zapisz(6, 10, 15, pokoje[5], Rezerwacja.Status.ZAMELDOWANA, gosc);
+    }
+
+    @AfterEach
+    void tearDown() {
+        model.getSzynaZdarzen().zamknij();
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("audyt wymeldowuje zaległe pobyty, anuluje nieprzybycia i nalicza noclegi")
+    void audyt_WykonujeWszystkieFazy() {
+        // Gdy: wykonywany jest audyt dnia z małymi partiami
+        RaportAudytu raport = new AudytNocny(model, model.getRezerwacjeDAO(), dziennik, 1).wykonaj(DZIEN);
+
+        // Wtedy: każda faza zmienia tylko swoje rezerwacje
+        assertTrue(raport.czyKompletny(), raport.toString());
+        assertEquals(1, raport.getWynik(Faza.WYMELDOWANIA).getLiczbaZmian());
+        assertEquals(2, raport.getWynik(Faza.NIEPRZYBYCIA).getLiczbaZmian());
+        assertEquals(2, raport.getWynik(Faza.OBCIAZENIA).getLiczbaZmian());
+        assertNotNull(raport.getWynik(Faza.OBCIAZENIA).getCzas());
+        assertEquals(Rezerwacja.Status.WYMELDOWANA, status(zalegla));
+        assertEquals(Rezerwacja.Status.ANULOWANA, status(nieprzybycieDzis));
+        assertEquals(Rezerwacja.Status.ANULOWANA, status(nieprzybycieWczesniej));
+        assertEquals(AudytNocny.PRZYCZYNA_NIEPRZYBYCIA,
+                model.getRezerwacjeDAO().pobierz(nieprzybycieDzis.getId()).orElseThrow().getPrzyczynaAnulowania());
+        assertEquals(Rezerwacja.Status.NOWA, status(przyszla));
+        assertEquals(Rezerwacja.Status.ZAMELDOWANA, status(wTrakcie));
+
+        // Wtedy: zameldowani goście mają naliczoną noc audytowanego dnia
+        assertEquals(550.0, dziennik.sumaDnia(DZIEN), 0.001);
+        assertEquals(1, dziennik.pobierzDlaRezerwacji(apartament.getId()).size());
+        assertTrue(dziennik.pobierzDlaRezerwacji(zalegla.getId()).isEmpty());
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("noc jest obciążana częścią ceny ustalonej według cennika z mnożnikiem dnia tygodnia")
+    void obciazenie_WedlugCenyZCennika() {
+        // Jeśli: cennik podwaja stawkę poniedziałku, a gość jest zameldowany od niedzieli do wtorku
+        model.wlaczCenyDynamiczne(new TaryfaCen(Map.of(), Map.of(DayOfWeek.MONDAY, 2.0), Map.of()));
+        Pokoj pokoj = new Pokoj(107, "Dwuosobowy", 150.0);
+        model.getPokojeDAO().zapisz(pokoj);
+        Rezerwacja r = model.utworzRezerwacje(model.getGoscieDAO().pobierz(1).orElseThrow(), pokoj,
+                DZIEN.minusDays(1), DZIEN.plusDays(1));
+        assertTrue(model.zameldujGoscia(r.getId()));
+
+        // Gdy: wykonywany jest audyt poniedziałku
+        new AudytNocny(model, dziennik).wykonaj(DZIEN);
+
+        // Wtedy: obciążenie nocy pochodzi z ceny rezerwacji, a suma nocy pokrywa całą cenę noclegów
+        Rezerwacja zapisana = model.getRezerwacjeDAO().pobierz(r.getId()).orElseThrow();
+        assertEquals(450.0, zapisana.obliczCene(), 0.001);
+        assertEquals(225.0, dziennik.pobierzDlaRezerwacji(r.getId()).get(0).getKwota(), 0.001);
+        assertEquals(zapisana.obliczCene(), zapisana.getCenaNocy() * zapisana.getLiczbaNocy(), 0.001);
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("ponowny audyt tego samego dnia niczego nie zmienia")
+    void ponownyAudyt_JestIdempotentny() {
+        // Jeśli: audyt dnia został już wykonany
+        AudytNocny audyt = new AudytNocny(model, dziennik);
+        audyt.wykonaj(DZIEN);
+
+        // Gdy: audyt jest powtarzany przez ten sam obiekt i przez nowy (po restarcie)
+        RaportAudytu powtorka = audyt.wykonaj(DZIEN);
+        RaportAudytu poRestarcie = new AudytNocny(model, dziennik).wykonaj(DZIEN);
+
+        // Wtedy: fazy są pomijane albo nie znajdują nic do zmiany, a noce nie są obciążane ponownie
+        assertTrue(powtorka.getWyniki().values().stream().allMatch(RaportAudytu.WynikFazy::czyPominieta));
+        assertEquals(0, poRestarcie.getWynik(Faza.WYMELDOWANIA).getLiczbaKandydatow());
+        assertEquals(0, poRestarcie.getWynik(Faza.NIEPRZYBYCIA).getLiczbaKandydatow());
+        assertEquals(2, poRestarcie.getWynik(Faza.OBCIAZENIA).getLiczbaKandydatow());
+        assertEquals(0, poRestarcie.getWynik(Faza.OBCIAZENIA).getLiczbaZmian());
+        assertEquals(2, dziennik.liczba());
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("faza przerwana błędem jest dokańczana przy kolejnym uruchomieniu")
+    void audytZBledem_JestDokanczany() {
+        // Jeśli: pierwsza próba wymeldowania kończy się błędem
+        HotelModel zawodny = spy(model);
+        doThrow(new IllegalStateException("awaria")).doCallRealMethod().when(zawodny).wymeldujGoscia(zalegla.getId());
+        AudytNocny audyt = new AudytNocny(zawodny, model.getRezerwacjeDAO(), dziennik, AudytNocny.DOMYSLNY_ROZMIAR_PARTII);
+
+        // Gdy: audyt jest uruchamiany dwukrotnie
+        RaportAudytu pierwszy = audyt.wykonaj(DZIEN);
+        RaportAudytu drugi = audyt.wykonaj(DZIEN);
+
+        // Wtedy: pierwszy raport zgłasza błąd, a drugi dokańcza tylko niezakończoną fazę
+        assertFalse(pierwszy.czyKompletny());
+        assertEquals(1, pierwszy.getWynik(Faza.WYMELDOWANIA).getLiczbaBledow());
+        assertEquals(Map.of(zalegla.getId(), "awaria"), pierwszy.getWynik(Faza.WYMELDOWANIA).getBledy());
+        assertTrue(drugi.getWynik(Faza.WYMELDOWANIA).getBledy().isEmpty());
+        assertEquals(1, drugi.getWynik(Faza.WYMELDOWANIA).getLiczbaZmian());
+        assertTrue(drugi.getWynik(Faza.NIEPRZYBYCIA).czyPominieta());
+        assertTrue(drugi.czyKompletny());
+        assertEquals(Rezerwacja.Status.WYMELDOWANA, status(zalegla));
+    }
+
+    private Rezerwacja zapisz(int id, int od, int doDnia, Pokoj pokoj, Rezerwacja.Status status, Gosc gosc) {
+        Rezerwacja r = new Rezerwacja(id, DZIEN.withDayOfMonth(od), DZIEN.withDayOfMonth(doDnia), gosc, pokoj);
+        r.setStatus(status);
+        return model.getRezerwacjeDAO().zapisz(r);
+    }
+
+    private Rezerwacja.Status status(Rezerwacja r) {
+        return model.getRezerwacjeDAO().pobierz(r.getId()).orElseThrow().getStatus();
+    }
+}
@@ -0,0 +1,81 @@
+package hotel.dao;
+
+import hotel.model.FabrykaGosci;
+import hotel.model.Gosc;
+import hotel.model.HotelModel;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy filtra Blooma adresów email w GoscieDAO.
+ *
+ * @author Grzegorz - System Zarządzania Hotelem
+ */
+@DisplayName("Testy filtra emaili gości")
+class TestFiltrEmaili {
+
+    private GoscieDAO goscieDAO;
+
+    @BeforeEach
+    void setUp() {
+        Gosc.resetIdCounter();
+        goscieDAO = new GoscieDAO();
+    }
+
+    @Test
+    @Tag("dao")
+    @Tag("wyszukiwanie")
+    @DisplayName("nowe adresy rozstrzyga filtr, a istniejące znajduje dokładne sprawdzenie bez skanu")
+    void filtr_OdrzucaNoweAdresyBezSkanu() {
+        // Jeśli: kilka tysięcy gości, więcej niż początkowa pojemność filtra
+        for (int i = 0; i < 5000; i++) {
+            goscieDAO.zapisz(new Gosc("Gość", "Testowy", "gosc" + i + "@test.pl"));
+        }
+
+        // Gdy: sprawdzane są adresy nowe i istniejące (inna wielkość liter)
+        int znalezione = 0;
+        for (int i = 0; i < 5000; i++) {
+            if (goscieDAO.istniejeEmail("nowy" + i + "@test.pl")) {
+                znalezione++;
+            }
+        }
+        assertTrue(goscieDAO.istniejeEmail("GOSC4999@Test.pl"));
+        assertEquals("gosc17@test.pl", goscieDAO.znajdzPoEmail("Gosc17@test.pl").orElseThrow().getEmail());
+
+        // Wtedy: żaden nowy adres nie został uznany za istniejący, a niemal wszystkie odrzucił filtr
+        assertEquals(0, znalezione);
+        assertEquals(5002, goscieDAO.pobierzLiczbeSprawdzenEmaili());
+        assertEquals(5000, goscieDAO.pobierzLiczbeOdrzuconychPrzezFiltr() + goscieDAO.pobierzLiczbeFalszywychTrafien());
+        assertTrue(goscieDAO.pobierzWspolczynnikFalszywychTrafien() < 0.03,
+                "Zmierzony współczynnik: " + goscieDAO.pobierzWspolczynnikFalszywychTrafien());
+        assertTrue(goscieDAO.pobierzSzacowanyWspolczynnikFalszywychTrafien() < GoscieDAO.DOCELOWY_WSPOLCZYNNIK_FILTRA);
+        assertEquals(0, goscieDAO.pobierzLiczbePrzeskanowanych());
+    }
+
+    @Test
+    @Tag("dao")
+    @Tag("wyszukiwanie")
+    @DisplayName("zmieniony email trafia do filtra, a model nie tworzy duplikatu profilu")
+    void filtr_ZmianaEmailaIDuplikatProfilu() {
+        // Jeśli: model z gościem, który zmienia adres email
+        HotelModel model = new HotelModel(new RezerwacjeDAO(), new PokojeDAO(), goscieDAO, new FabrykaGosci());
+        Gosc jan = model.utworzProfilGoscia("Jan", "Kowalski", "jan@test.pl");
+        assertTrue(model.zmienEmailGoscia(jan.getId(), "jan.kowalski@poczta.pl"));
+
+        // Gdy / Wtedy: nowy adres jest znajdowany, stary już nie
+        assertTrue(goscieDAO.istniejeEmail("jan.kowalski@poczta.pl"));
+        assertFalse(goscieDAO.istniejeEmail("jan@test.pl"));
+        // Rejestracja z istniejącym adresem zwraca istniejący profil
+        assertSame(jan, model.utworzProfilGoscia("Janek", "Kowalski", "Jan.Kowalski@Poczta.pl"));
+        assertEquals(1, goscieDAO.liczba());
+
+        // Gdy: baza jest czyszczona
+        goscieDAO.wyczysc();
+
+        // Wtedy: filtr zaczyna od zera
+        assertFalse(goscieDAO.istniejeEmail("jan.kowalski@poczta.pl"));
+        assertEquals(0.0, goscieDAO.pobierzSzacowanyWspolczynnikFalszywychTrafien());
+        model.getSzynaZdarzen().zamknij();
+    }
+}
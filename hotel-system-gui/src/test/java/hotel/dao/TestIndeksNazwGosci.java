@@ -0,0 +1,91 @@
+package hotel.dao;
+
+import hotel.model.Gosc;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy indeksu n-gramowego gości: wyszukiwanie przybliżone i podpowiedzi.
+ *
+ * @author Grzegorz - System Zarządzania Hotelem
+ */
+@DisplayName("Testy wyszukiwania gości po indeksie nazw")
+class TestIndeksNazwGosci {
+
+    private GoscieDAO goscieDAO;
+    private Gosc jan;
+    private Gosc janina;
+    private Gosc piotr;
+    private Gosc lukasz;
+
+    @BeforeEach
+    void setUp() {
+        // Jeśli: kilka tysięcy gości testowych i czworo o znanych danych
+        Gosc.resetIdCounter();
+        goscieDAO = new GoscieDAO();
+        for (int i = 0; i < 5000; i++) {
+            goscieDAO.zapisz(new Gosc("Gość" + i, "Testowy" + i, "gosc" + i + "@test.pl"));
+        }
+        jan = goscieDAO.zapisz(new Gosc("Jan", "Kowalski", "jan.kowalski@email.pl"));
+        janina = goscieDAO.zapisz(new Gosc("Janina", "Kowalczyk", "janina@email.pl"));
+        piotr = goscieDAO.zapisz(new Gosc("Piotr", "Wiśniewski", "piotr.w@email.pl"));
+        lukasz = goscieDAO.zapisz(new Gosc("Łukasz", "Żółtowski", "lz@email.pl"));
+    }
+
+    @Test
+    @Tag("dao")
+    @Tag("wyszukiwanie")
+    @DisplayName("wyszukiwanie przybliżone toleruje literówki i brak polskich znaków bez pełnego skanu")
+    void wyszukajPodobnych_LiterowkiIDiakrytyki() {
+        // Gdy: zapytania z literówką i bez znaków diakrytycznych
+        List<Gosc> wisniewski = goscieDAO.wyszukajPodobnych("Wisniewsky", 5);
+        List<Gosc> kowalski = goscieDAO.wyszukajPodobnych("kowalsky", 5);
+        List<Gosc> zoltowski = goscieDAO.wyszukajPodobnych("zoltowski", 5);
+
+        // Wtedy: najlepsze dopasowanie jest pierwsze, a magazyn nie był skanowany
+        assertEquals(piotr, wisniewski.get(0));
+        assertEquals(jan, kowalski.get(0));
+        assertEquals(lukasz, zoltowski.get(0));
+        assertTrue(goscieDAO.wyszukajPodobnych("Xyzqwv", 5).isEmpty());
+        assertEquals(0, goscieDAO.pobierzLiczbePrzeskanowanych());
+    }
+
+    @Test
+    @Tag("dao")
+    @Tag("wyszukiwanie")
+    @DisplayName("podpowiedzi dopasowują prefiksy kolejnych słów imienia, nazwiska i emailu")
+    void podpowiedzi_PoPrefiksachSlow() {
+        // Gdy / Wtedy: "jan" pasuje do obu Kowalskich, "jan kowals" tylko do Jana
+        assertEquals(List.of(jan, janina), goscieDAO.podpowiedzi("Jan", 10));
+        assertEquals(List.of(jan), goscieDAO.podpowiedzi("jan kowals", 10));
+        assertEquals(List.of(lukasz), goscieDAO.podpowiedzi("luk", 10));
+        assertEquals(3, goscieDAO.podpowiedzi("gosc1", 3).size());
+        assertTrue(goscieDAO.podpowiedzi("  ", 10).isEmpty());
+        assertEquals(0, goscieDAO.pobierzLiczbePrzeskanowanych());
+    }
+
+    @Test
+    @Tag("dao")
+    @Tag("wyszukiwanie")
+    @DisplayName("indeks nadąża za aktualizacją, usunięciem i wyczyszczeniem gości")
+    void indeks_AktualizowanyPrzyZmianach() {
+        // Gdy: Jan zmienia email (z kontrolą wersji), a Janina zostaje usunięta
+        Gosc kopia = new Gosc(jan.getId(), jan.getImie(), jan.getNazwisko(), "jkowal@poczta.pl");
+        assertEquals(WynikAktualizacji.ZAPISANO, goscieDAO.aktualizuj(kopia, jan.getWersja()));
+        assertTrue(goscieDAO.usun(janina.getId()));
+
+        // Wtedy: wyszukiwanie widzi nowy email, nie widzi usuniętej, a wyszukiwanie po nazwisku działa z indeksu
+        assertEquals(List.of(jan), goscieDAO.podpowiedzi("jkowal", 10));
+        assertTrue(goscieDAO.podpowiedzi("jan email", 10).isEmpty());
+        assertEquals(List.of(jan), goscieDAO.podpowiedzi("jan", 10));
+        assertEquals(List.of(piotr), goscieDAO.znajdzPoNazwisku("WIŚNIEWSKI"));
+        assertTrue(goscieDAO.znajdzPoNazwisku("Wisniewski").isEmpty());
+        assertEquals(0, goscieDAO.pobierzLiczbePrzeskanowanych());
+
+        goscieDAO.wyczysc();
+        assertTrue(goscieDAO.wyszukajPodobnych("Kowalski", 5).isEmpty());
+    }
+}
@@ -0,0 +1,149 @@
+package hotel.dao;
+
+import hotel.model.Gosc;
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy kolumnowej kopii rezerwacji utrzymywanej przez RezerwacjeDAO.
+ *
+ * @author Grzegorz - System Zarządzania Hotelem
+ */
+@DisplayName("Testy kolumnowej kopii rezerwacji")
+class TestKolumnyRezerwacji {
+
+    private static final LocalDate START = LocalDate.of(2030, 1, 1);
+
+    private RezerwacjeDAO rezerwacjeDAO;
+    private Gosc gosc;
+    private Pokoj[] pokoje;
+
+    @BeforeEach
+    void setUp() {
+        // Jeśli: puste DAO i kilka pokoi o różnych cenach
+        rezerwacjeDAO = new RezerwacjeDAO();
+        gosc = new Gosc(1, "Jan", "Kowalski", "jan@example.com");
+        pokoje = new Pokoj[]{
+                new Pokoj(101, "Jednoosobowy", 150.0),
+                new Pokoj(102, "Dwuosobowy", 220.5),
+                new Pokoj(301, "Apartament", 499.99)
+        };
+    }
+
+    @Test
+    @Tag("dao")
+    @DisplayName("kolumny nadążają za zapisem, aktualizacją, usunięciem i czyszczeniem")
+    void kolumny_SaSpojneZeZmianamiDAO() {
+        // Jeśli: trzy zapisane rezerwacje
+        Rezerwacja a = rezerwacjeDAO.zapisz(nowa(1, 0, 3, pokoje[0]));
+        Rezerwacja b = rezerwacjeDAO.zapisz(nowa(2, 2, 5, pokoje[1]));
+        rezerwacjeDAO.zapisz(nowa(3, 10, 12, pokoje[2]));
+        KolumnyRezerwacji kolumny = rezerwacjeDAO.getKolumny();
+
+        // Gdy: jedna jest anulowana z kontrolą wersji, a pierwsza usunięta
+        Rezerwacja zmiana = b.kopia();
+        zmiana.setStatus(Rezerwacja.Status.ANULOWANA);
+        assertEquals(WynikAktualizacji.ZAPISANO, rezerwacjeDAO.aktualizuj(zmiana, b.getWersja()));
+        rezerwacjeDAO.usun(a.getId());
+
+        // Wtedy: kolumny odzwierciedlają stan DAO po przeniesieniu ostatniego wiersza
+        assertEquals(2, kolumny.liczba());
+        assertEquals(1, kolumny.liczbaWgStatusu(Rezerwacja.Status.ANULOWANA));
+        assertEquals(Math.round(499.99 * 2 * 100), kolumny.sumaPrzychodowGroszy());
+        assertArrayEquals(new int[]{2}, kolumny.idWPrzedziale(START, START.plusDays(5)));
+        assertEquals(rezerwacjeDAO.obliczSumePrzychodow(), 999.98, 0.001);
+
+        // Gdy: DAO jest czyszczone i ładowane hurtowo
+        rezerwacjeDAO.wyczysc();
+        assertEquals(0, kolumny.liczba());
+        rezerwacjeDAO.zapiszWszystkie(List.of(nowa(4, 0, 1, pokoje[0]), nowa(5, 0, 1, pokoje[1])));
+
+        // Wtedy: kolumny zawierają tylko nowe rezerwacje
+        assertEquals(2, kolumny.liczba());
+        assertEquals(15000 + 22050, kolumny.sumaPrzychodowGroszy());
+    }
+
+    @Test
+    @Tag("dao")
+    @DisplayName("zapytania kolumnowe dają te same wyniki co przejście po obiektach")
+    void zapytaniaKolumnowe_ZgodneZObiektami() {
+        // Jeśli: kilkaset losowych rezerwacji w różnych statusach
+        Random losowe = new Random(45);
+        List<Rezerwacja> rezerwacje = new ArrayList<>();
+        Rezerwacja.Status[] statusy = Rezerwacja.Status.values();
+        for (int i = 1; i <= 500; i++) {
+            int od = losowe.nextInt(120);
+            Rezerwacja r = nowa(i, od, od + 1 + losowe.nextInt(14), pokoje[losowe.nextInt(pokoje.length)]);
+            r.setStatus(statusy[losowe.nextInt(statusy.length)]);
+            rezerwacje.add(r);
+        }
+        rezerwacjeDAO.zapiszWszystkie(rezerwacje);
+        for (int i = 1; i <= 500; i += 7) {
+            rezerwacjeDAO.usun(i);
+        }
+        KolumnyRezerwacji kolumny = rezerwacjeDAO.getKolumny();
+        List<Rezerwacja> pozostale = rezerwacjeDAO.pobierzWszystkie();
+        LocalDate od = START.plusDays(30);
+        LocalDate doDnia = START.plusDays(60);
+
+        // Gdy: te same zapytania liczone są po obiektach
+        long suma = pozostale.stream()
+                .filter(r -> r.getStatus() != Rezerwacja.Status.ANULOWANA)
+                .mapToLong(r -> Math.round(r.obliczCene() * 100)).sum();
+        int[] wPrzedziale = pozostale.stream()
+                .filter(r -> !r.getDataDo().isBefore(od) && !r.getDataOd().isAfter(doDnia))
+                .mapToInt(Rezerwacja::getId).sorted().toArray();
+        long potwierdzone = pozostale.stream()
+                .filter(r -> r.getStatus() == Rezerwacja.Status.POTWIERDZONA).count();
+        long noce = 0;
+        for (Rezerwacja r : pozostale) {
+            if (r.getPokoj().getNumer() == 301 && r.getStatus() != Rezerwacja.Status.ANULOWANA) {
+                for (LocalDate d = r.getDataOd(); d.isBefore(r.getDataDo()); d = d.plusDays(1)) {
+                    noce += d.isBefore(od) || d.isAfter(doDnia) ? 0 : 1;
+                }
+            }
+        }
+
+        // Wtedy: wyniki kolumnowe są identyczne
+        int[] zKolumn = kolumny.idWPrzedziale(od, doDnia);
+        Arrays.sort(zKolumn);
+        assertEquals(pozostale.size(), kolumny.liczba());
+        assertEquals(suma, kolumny.sumaPrzychodowGroszy());
+        assertArrayEquals(wPrzedziale, zKolumn);
+        assertEquals(potwierdzone, kolumny.liczbaWgStatusu(Rezerwacja.Status.POTWIERDZONA));
+        assertEquals(noce, kolumny.nocePokojuWPrzedziale(301, od, doDnia));
+        assertEquals(wPrzedziale.length, rezerwacjeDAO.pobierzWPrzedzialeData(od, doDnia).size());
+    }
+
+    @Test
+    @Tag("dao")
+    @DisplayName("zmiana ceny pokoju nie zmienia ceny zapisanej rezerwacji ani sumy przychodów")
+    void zmianaCenyPokoju_SumaZgodnaZCenamiRezerwacji() {
+        // Jeśli: dwie noce w pokoju za 150 i pokój w DAO pokoi
+        PokojeDAO pokojeDAO = new PokojeDAO();
+        pokojeDAO.zapisz(pokoje[0]);
+        Rezerwacja r = rezerwacjeDAO.zapisz(nowa(1, 0, 2, pokoje[0]));
+
+        // Gdy: cena pokoju rośnie po rezerwacji
+        pokoje[0].setCena(250.0);
+        pokojeDAO.aktualizuj(pokoje[0]);
+
+        // Wtedy: rezerwacja zachowuje cenę z chwili rezerwacji, zgodną z sumą przychodów
+        assertEquals(300.0, r.obliczCene(), 0.001);
+        double suma = rezerwacjeDAO.pobierzWszystkie().stream().mapToDouble(Rezerwacja::obliczCene).sum();
+        assertEquals(suma, rezerwacjeDAO.obliczSumePrzychodow(), 0.001);
+    }
+
+    private Rezerwacja nowa(int id, int od, int doDnia, Pokoj pokoj) {
+        return new Rezerwacja(id, START.plusDays(od), START.plusDays(doDnia), gosc, pokoj);
+    }
+}
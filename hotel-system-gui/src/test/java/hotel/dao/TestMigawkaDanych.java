@@ -0,0 +1,166 @@
+package hotel.dao;
+
+import hotel.model.Gosc;
+import hotel.model.HotelModel;
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy mapy trwałej i migawek danych modelu.
+ *
+ * @author Grzegorz - System Zarządzania Hotelem
+ */
+@DisplayName("Testy migawek danych")
+class TestMigawkaDanych {
+
+    private HotelModel model;
+    private Pokoj pokoj101;
+    private Gosc gosc;
+    private LocalDate dzien;
+
+    @BeforeEach
+    void setUp() {
+        // Jeśli: model z pokojem i gościem
+        Gosc.resetIdCounter();
+        Rezerwacja.resetIdCounter();
+        model = new HotelModel();
+        pokoj101 = new Pokoj(101, "Jednoosobowy", 150.0);
+        model.getPokojeDAO().zapisz(pokoj101);
+        gosc = new Gosc("Jan", "Kowalski", "jan@example.com");
+        dzien = LocalDate.now().plusDays(10);
+    }
+
+    @Test
+    @Tag("dao")
+    @DisplayName("mapa trwała zachowuje się jak HashMap, a stare wersje się nie zmieniają")
+    void mapaTrwala_ZgodnaZHashMap() {
+        // Jeśli: losowa sekwencja wstawień i usunięć, także kluczy ujemnych i skrajnych
+        Random losowe = new Random(42);
+        Map<Integer, Integer> wzorzec = new HashMap<>();
+        MapaTrwala<Integer> mapa = MapaTrwala.pusta();
+        MapaTrwala<Integer> polowa = null;
+        Map<Integer, Integer> wzorzecPolowy = null;
+        int[] klucze = {0, -1, Integer.MIN_VALUE, Integer.MAX_VALUE, 32, 1024, 1 << 30};
+
+        // Gdy: wykonujemy operacje na obu mapach
+        for (int i = 0; i < 20_000; i++) {
+            int klucz = i % 10 == 0 ? klucze[losowe.nextInt(klucze.length)] : losowe.nextInt(5000) - 1000;
+            if (losowe.nextInt(3) == 0) {
+                wzorzec.remove(klucz);
+                mapa = mapa.bez(klucz);
+            } else {
+                wzorzec.put(klucz, i);
+                mapa = mapa.z(klucz, i);
+            }
+            if (i == 10_000) {
+                polowa = mapa;
+                wzorzecPolowy = new HashMap<>(wzorzec);
+            }
+        }
+
+        // Wtedy: zawartość i rozmiar są zgodne, a wersja z połowy nadal odpowiada swojemu stanowi
+        assertEquals(wzorzec.size(), mapa.rozmiar());
+        for (Map.Entry<Integer, Integer> e : wzorzec.entrySet()) {
+            assertEquals(e.getValue(), mapa.pobierz(e.getKey()));
+        }
+        assertEquals(wzorzec.size(), mapa.wartosci().size());
+        assertEquals(wzorzecPolowy.size(), polowa.rozmiar());
+        for (Map.Entry<Integer, Integer> e : wzorzecPolowy.entrySet()) {
+            assertEquals(e.getValue(), polowa.pobierz(e.getKey()));
+        }
+        assertNull(mapa.pobierz(-5000));
+        assertSame(mapa, mapa.bez(-5000));
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("migawka nie zmienia się po kolejnych zapisach i zawiera kopie encji")
+    void migawka_StabilnaPoZapisach() {
+        // Jeśli: rezerwacja i migawka pobrana po jej utworzeniu
+        Rezerwacja r = model.utworzRezerwacje(gosc, pokoj101, dzien, dzien.plusDays(2));
+        MigawkaDanych przed = model.migawka();
+
+        // Gdy: rezerwacja zostaje zameldowana, a pokój zmienia cenę
+        assertTrue(model.zameldujGoscia(r.getId()));
+        pokoj101.setCena(999.0);
+        model.getPokojeDAO().aktualizuj(pokoj101);
+
+        // Wtedy: stara migawka opisuje stan sprzed zmian, nowa - stan po nich
+        assertEquals(Rezerwacja.Status.NOWA, przed.rezerwacja(r.getId()).orElseThrow().getStatus());
+        assertTrue(przed.czyPokojDostepny(101));
+        assertEquals(150.0, przed.pokoj(101).orElseThrow().getCenaBazowa(), 0.001);
+        MigawkaDanych po = model.migawka();
+        assertTrue(po.getWersja() > przed.getWersja());
+        assertEquals(Rezerwacja.Status.ZAMELDOWANA, po.rezerwacja(r.getId()).orElseThrow().getStatus());
+        assertFalse(po.czyPokojDostepny(101));
+        assertEquals(999.0, po.pokoj(101).orElseThrow().getCenaBazowa(), 0.001);
+        assertNotSame(r, po.rezerwacja(r.getId()).orElseThrow());
+        assertEquals(List.of(gosc), po.goscie());
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("kopia opublikowana po nowszym zapisie tej samej encji nie cofa migawki")
+    void spoznionaPublikacja_NieCofaMigawki() {
+        // Jeśli: kopie rezerwacji i gościa wykonane przed ich kolejnymi zmianami
+        Rezerwacja r = model.utworzRezerwacje(gosc, pokoj101, dzien, dzien.plusDays(2));
+        Rezerwacja staraRezerwacja = MigawkaDanych.kopia(r);
+        Gosc staryGosc = MigawkaDanych.kopia(gosc);
+        assertTrue(model.zameldujGoscia(r.getId()));
+        assertTrue(model.zmienEmailGoscia(gosc.getId(), "jan.nowy@example.com"));
+
+        // Gdy: transakcja z tymi kopiami publikuje się dopiero po nowszych zapisach
+        model.getMagazynMigawek().zmien(m -> m.zRezerwacja(staraRezerwacja).zGosciem(staryGosc));
+
+        // Wtedy: migawka zachowuje nowsze wersje encji
+        MigawkaDanych m = model.migawka();
+        assertEquals(Rezerwacja.Status.ZAMELDOWANA, m.rezerwacja(r.getId()).orElseThrow().getStatus());
+        assertEquals("jan.nowy@example.com", m.gosc(gosc.getId()).orElseThrow().getEmail());
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("operacja modelu na kilku DAO jest widoczna w migawce w całości")
+    void operacjaModelu_PublikowanaJakoJednaWersja() throws InterruptedException {
+        // Jeśli: czytelnik sprawdzający spójność rezerwacji i dostępności pokoju w każdej migawce
+        Rezerwacja r = model.utworzRezerwacje(gosc, pokoj101, dzien, dzien.plusDays(2));
+        AtomicBoolean koniec = new AtomicBoolean();
+        AtomicReference<String> niespojnosc = new AtomicReference<>();
+        Thread czytelnik = new Thread(() -> {
+            while (!koniec.get()) {
+                MigawkaDanych m = model.migawka();
+                boolean zameldowana = m.rezerwacja(r.getId()).orElseThrow().getStatus()
+                        == Rezerwacja.Status.ZAMELDOWANA;
+                if (zameldowana == m.czyPokojDostepny(101)) {
+                    niespojnosc.set("wersja " + m.getWersja());
+                }
+            }
+        });
+        czytelnik.start();
+
+        // Gdy: meldujemy i wymeldowujemy gościa (zmiana rezerwacji i dostępności pokoju)
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(model.zameldujGoscia(r.getId()));
+            assertTrue(model.wymeldujGoscia(r.getId()));
+            // Powrót do stanu NOWA jednym zapisem, by móc powtórzyć cykl
+            r.setStatus(Rezerwacja.Status.NOWA);
+            model.getRezerwacjeDAO().aktualizuj(r);
+        }
+        koniec.set(true);
+        czytelnik.join();
+
+        // Wtedy: żadna migawka nie pokazała rezerwacji i pokoju w niezgodnych stanach
+        assertNull(niespojnosc.get());
+    }
+}
@@ -0,0 +1,146 @@
+package hotel.dao;
+
+import hotel.model.FabrykaGosci;
+import hotel.model.Gosc;
+import hotel.model.HotelModel;
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+import hotel.model.Sniadanie;
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy DAO rezerwacji opartego na dzienniku zdarzeń i jego projekcji.
+ *
+ * @author Grzegorz - System Zarządzania Hotelem
+ */
+@DisplayName("Testy zdarzeniowego DAO rezerwacji")
+class TestZdarzeniowyRezerwacjeDAO {
+
+    private DziennikRezerwacji dziennik;
+    private ZdarzeniowyRezerwacjeDAO rezerwacjeDAO;
+    private HotelModel model;
+    private Gosc jan;
+    private Gosc anna;
+    private Pokoj pokoj101;
+    private Pokoj apartament;
+    private LocalDate dzien;
+
+    @BeforeEach
+    void setUp() {
+        // Jeśli: model pracujący na DAO z dziennikiem zdarzeń
+        Gosc.resetIdCounter();
+        Rezerwacja.resetIdCounter();
+        dziennik = new DziennikRezerwacji();
+        rezerwacjeDAO = new ZdarzeniowyRezerwacjeDAO(dziennik);
+        model = new HotelModel(rezerwacjeDAO, new PokojeDAO(), new GoscieDAO(), new FabrykaGosci());
+        jan = new Gosc("Jan", "Kowalski", "jan@test.pl");
+        anna = new Gosc("Anna", "Nowak", "anna@test.pl");
+        pokoj101 = new Pokoj(101, "Dwuosobowy", 200.0);
+        apartament = new Pokoj(301, "Apartament", 500.0);
+        dzien = LocalDate.now().plusDays(20);
+    }
+
+    @Test
+    @Tag("dao")
+    @DisplayName("każda zmiana rezerwacji zostaje zapisana w dzienniku jako fakt")
+    void cyklZycia_ZapisywanyWDzienniku() {
+        // Gdy: rezerwacja przechodzi przez zmianę dat, zameldowanie i wymeldowanie
+        Rezerwacja r = model.utworzRezerwacje(jan, pokoj101, dzien, dzien.plusDays(2));
+        assertTrue(model.modyfikujRezerwacje(r.getId(), dzien.plusDays(1), dzien.plusDays(3)));
+        assertTrue(model.zameldujGoscia(r.getId()));
+        assertTrue(model.wymeldujGoscia(r.getId()));
+
+        // Wtedy: historia rezerwacji odtwarza kolejne kroki
+        List<FaktRezerwacji> historia = rezerwacjeDAO.historiaRezerwacji(r.getId());
+        assertEquals(List.of(FaktRezerwacji.Rodzaj.UTWORZENIE, FaktRezerwacji.Rodzaj.ZMIANA_DAT,
+                        FaktRezerwacji.Rodzaj.ZMIANA_STATUSU, FaktRezerwacji.Rodzaj.ZMIANA_STATUSU),
+                historia.stream().map(FaktRezerwacji::getRodzaj).toList());
+        assertEquals(dzien, historia.get(0).getDataOd());
+        assertEquals(Rezerwacja.Status.ZAMELDOWANA, historia.get(2).getStatus());
+        assertEquals(Rezerwacja.Status.WYMELDOWANA, historia.get(3).getStatus());
+        assertTrue(rezerwacjeDAO.getAktywneWgPokoju().aktywneDlaPokoju(101).isEmpty());
+    }
+
+    @Test
+    @Tag("dao")
+    @DisplayName("przeniesienie do innego pokoju trafia do dziennika i projekcji")
+    void przeniesienie_ZapisywaneWDzienniku() {
+        // Jeśli: rezerwacja w pokoju 101 i wolny pokój 102 tego samego typu
+        Pokoj pokoj102 = new Pokoj(102, "Dwuosobowy", 200.0);
+        Rezerwacja r = model.utworzRezerwacje(jan, pokoj101, dzien, dzien.plusDays(2));
+
+        // Gdy: rezerwacja zostaje przeniesiona
+        assertTrue(model.przeniesRezerwacje(r.getId(), pokoj102));
+
+        // Wtedy: dziennik ma fakt zmiany pokoju, a projekcja wskazuje nowy pokój
+        List<FaktRezerwacji> historia = rezerwacjeDAO.historiaRezerwacji(r.getId());
+        assertEquals(FaktRezerwacji.Rodzaj.ZMIANA_POKOJU, historia.get(historia.size() - 1).getRodzaj());
+        assertTrue(rezerwacjeDAO.getAktywneWgPokoju().aktywneDlaPokoju(101).isEmpty());
+        assertEquals(Set.of(r.getId()), rezerwacjeDAO.getAktywneWgPokoju().aktywneDlaPokoju(102));
+
+        // Wtedy: po odtworzeniu z dziennika rezerwacja jest w nowym pokoju
+        ZdarzeniowyRezerwacjeDAO odtworzone = new ZdarzeniowyRezerwacjeDAO(dziennik);
+        assertEquals(102, odtworzone.pobierz(r.getId()).orElseThrow().getPokoj().getNumer());
+        assertEquals(Set.of(r.getId()), odtworzone.getAktywneWgPokoju().aktywneDlaPokoju(102));
+    }
+
+    @Test
+    @Tag("dao")
+    @DisplayName("projekcje aktualizowane przyrostowo zgadzają się ze skanem magazynu")
+    void projekcje_ZgodneZeStanem() {
+        // Gdy: kilka rezerwacji dwóch gości, jedna anulowana i jedna z dodatkiem
+        Rezerwacja r1 = model.utworzRezerwacje(jan, pokoj101, dzien, dzien.plusDays(2));
+        Rezerwacja r2 = model.utworzRezerwacje(anna, pokoj101, dzien.plusDays(5), dzien.plusDays(7));
+        Rezerwacja r3 = model.utworzRezerwacje(jan, apartament, dzien, dzien.plusDays(1));
+        r3.dodajDodatek(new Sniadanie(40.0, 1));
+        rezerwacjeDAO.aktualizuj(r3);
+        assertTrue(model.anulujRezerwacje(r2.getId(), "zmiana planów"));
+
+        // Wtedy: aktywne rezerwacje według pokoju, historia gościa i przychody
+        assertEquals(Set.of(r1.getId()), rezerwacjeDAO.getAktywneWgPokoju().aktywneDlaPokoju(101));
+        assertEquals(Set.of(r3.getId()), rezerwacjeDAO.getAktywneWgPokoju().aktywneDlaPokoju(301));
+        assertEquals(List.of(r1, r3), rezerwacjeDAO.pobierzDlaGoscia(jan));
+        assertEquals(2, rezerwacjeDAO.getHistoriaGosci().historia(anna.getId()).size());
+        double oczekiwane = rezerwacjeDAO.pobierzWszystkie().stream()
+                .filter(r -> r.getStatus() != Rezerwacja.Status.ANULOWANA)
+                .mapToDouble(Rezerwacja::obliczCene)
+                .sum();
+        assertEquals(oczekiwane, rezerwacjeDAO.obliczSumePrzychodow(), 0.001);
+        assertEquals(r3.obliczCene(), rezerwacjeDAO.getPrzychody().getPrzychodyWgTypu().get("Apartament"), 0.001);
+    }
+
+    @Test
+    @Tag("dao")
+    @DisplayName("nowe DAO odtwarza stan i projekcje z tego samego dziennika")
+    void odtworzenie_ZDziennika() {
+        // Jeśli: historia z usunięciem, anulowaniem i zmianą dat
+        Rezerwacja r1 = model.utworzRezerwacje(jan, pokoj101, dzien, dzien.plusDays(2));
+        Rezerwacja r2 = model.utworzRezerwacje(anna, apartament, dzien, dzien.plusDays(3));
+        Rezerwacja r3 = model.utworzRezerwacje(anna, pokoj101, dzien.plusDays(10), dzien.plusDays(12));
+        assertTrue(model.anulujRezerwacje(r2.getId(), "choroba"));
+        assertTrue(model.modyfikujRezerwacje(r3.getId(), dzien.plusDays(11), dzien.plusDays(13)));
+        assertTrue(rezerwacjeDAO.usun(r1.getId()));
+
+        // Gdy: tworzymy nowe DAO na tym samym dzienniku (restart)
+        ZdarzeniowyRezerwacjeDAO odtworzone = new ZdarzeniowyRezerwacjeDAO(dziennik);
+
+        // Wtedy: stan i projekcje są takie same jak przed restartem
+        assertEquals(2, odtworzone.liczba());
+        assertTrue(odtworzone.pobierz(r1.getId()).isEmpty());
+        Rezerwacja anulowana = odtworzone.pobierz(r2.getId()).orElseThrow();
+        assertEquals(Rezerwacja.Status.ANULOWANA, anulowana.getStatus());
+        assertEquals("choroba", anulowana.getPrzyczynaAnulowania());
+        assertEquals(dzien.plusDays(11), odtworzone.pobierz(r3.getId()).orElseThrow().getDataOd());
+        assertEquals(Set.of(r3.getId()), odtworzone.getAktywneWgPokoju().aktywneDlaPokoju(101));
+        assertEquals(rezerwacjeDAO.obliczSumePrzychodow(), odtworzone.obliczSumePrzychodow(), 0.001);
+        assertEquals(List.of(r2.getId(), r3.getId()), odtworzone.getHistoriaGosci().rezerwacjeGoscia(anna.getId()));
+        assertFalse(odtworzone.czyPokojDostepny(pokoj101, dzien.plusDays(12), dzien.plusDays(12)));
+        assertEquals(dziennik.rozmiar(), odtworzone.getDziennik().rozmiar());
+    }
+}
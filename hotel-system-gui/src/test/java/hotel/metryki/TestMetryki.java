@@ -0,0 +1,155 @@
+package hotel.metryki;
+
+import hotel.model.Gosc;
+import hotel.model.HotelModel;
+import hotel.model.IHotelModel;
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testy warstwy metryk: histogramu opóźnień, rejestru i dekoratora modelu.
+ *
+ * @author Grzegorz - System Zarządzania Hotelem
+ */
+@DisplayName("Testy warstwy metryk")
+class TestMetryki {
+
+    private RejestrMetryk rejestr;
+
+    @BeforeEach
+    void setUp() {
+        // Jeśli: pusty rejestr metryk
+        Gosc.resetIdCounter();
+        Rezerwacja.resetIdCounter();
+        rejestr = new RejestrMetryk();
+    }
+
+    @AfterEach
+    void tearDown() {
+        rejestr.zatrzymajZrzuty();
+    }
+
+    @Test
+    @DisplayName("histogram wyznacza percentyle z błędem względnym poniżej 2%")
+    @Tag("metryki")
+    void testHistogram_Percentyle() {
+        // Jeśli: wartości 1..100000 ns
+        HistogramOpoznien histogram = new HistogramOpoznien();
+        for (long v = 1; v <= 100_000; v++) {
+            histogram.zarejestruj(v);
+        }
+
+        // Gdy/Wtedy: percentyle są bliskie wartościom dokładnym
+        assertEquals(100_000, histogram.getLiczba());
+        assertEquals(50_000, histogram.wartoscPercentyla(50), 50_000 * 0.02);
+        assertEquals(99_000, histogram.wartoscPercentyla(99), 99_000 * 0.02);
+        assertEquals(100_000, histogram.getMaksimum());
+        assertEquals(100_000, histogram.wartoscPercentyla(100));
+    }
+
+    @Test
+    @DisplayName("histogram: granice kubełków są rosnące i obejmują indeks wartości")
+    @Tag("metryki")
+    void testHistogram_GraniceKubelkow() {
+        // Jeśli/Gdy/Wtedy: każda wartość mieści się w swoim kubełku
+        for (long v : new long[]{0, 1, 127, 128, 129, 255, 256, 1_000, 123_456_789L}) {
+            int indeks = HistogramOpoznien.indeks(v);
+            assertTrue(HistogramOpoznien.gornaGranica(indeks) >= v, "Górna granica dla " + v);
+            if (indeks > 0) {
+                assertTrue(HistogramOpoznien.gornaGranica(indeks - 1) < v, "Poprzedni kubełek dla " + v);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("dekorator modelu liczy wywołania, niepowodzenia i skany DAO")
+    @Tag("metryki")
+    void testMierzonyHotelModel_LiczyWywolaniaINiepowodzenia() {
+        // Jeśli: model z jednym pokojem i gościem
+        HotelModel model = new HotelModel();
+        Pokoj pokoj = new Pokoj(101, "Jednoosobowy", 150.0);
+        model.getPokojeDAO().zapisz(pokoj);
+        Gosc gosc = model.utworzProfilGoscia("Jan", "Kowalski", "jan@test.pl");
+        IHotelModel mierzony = new MierzonyHotelModel(model, rejestr, model::pobierzLiczbePrzeskanowanych);
+        LocalDate od = LocalDate.of(2030, 1, 1);
+
+        // Gdy: jedna udana i jedna nieudana rezerwacja oraz anulowanie nieistniejącej
+        assertNotNull(mierzony.utworzRezerwacje(gosc, pokoj, od, od.plusDays(2)));
+        assertNull(mierzony.utworzRezerwacje(gosc, pokoj, od, od.plusDays(2)));
+        assertFalse(mierzony.anulujRezerwacje(999));
+
+        // Wtedy: metryki odzwierciedlają wywołania
+        MigawkaOperacji utworz = znajdz(rejestr.migawka(), "HotelModel.utworzRezerwacje");
+        assertEquals(2, utworz.getLiczbaWywolan());
+        assertEquals(1, utworz.getLiczbaNiepowodzen());
+        assertTrue(utworz.getMaksSkanowanych() >= 1, "Druga rezerwacja skanuje istniejącą");
+        MigawkaOperacji anuluj = znajdz(rejestr.migawka(), "HotelModel.anulujRezerwacje");
+        assertEquals(1, anuluj.getLiczbaNiepowodzen());
+    }
+
+    @Test
+    @DisplayName("dekorator liczy wyjątek jako niepowodzenie i przekazuje go dalej")
+    @Tag("metryki")
+    @Tag("mock")
+    void testMierzonyHotelModel_WyjatekToNiepowodzenie() {
+        // Jeśli: model rzucający wyjątek
+        IHotelModel modelMock = mock(IHotelModel.class);
+        when(modelMock.zameldujGoscia(1)).thenThrow(new IllegalStateException("błąd"));
+        IHotelModel mierzony = new MierzonyHotelModel(modelMock, rejestr);
+
+        // Gdy/Wtedy: wyjątek przechodzi, a niepowodzenie jest zarejestrowane
+        assertThrows(IllegalStateException.class, () -> mierzony.zameldujGoscia(1));
+        MigawkaOperacji migawka = znajdz(rejestr.migawka(), "HotelModel.zameldujGoscia");
+        assertEquals(1, migawka.getLiczbaWywolan());
+        assertEquals(1, migawka.getLiczbaNiepowodzen());
+    }
+
+    @Test
+    @DisplayName("zrzut JSON i tekstowy zawiera wszystkie operacje")
+    @Tag("metryki")
+    void testZrzuty() {
+        // Jeśli: zarejestrowano dwie operacje
+        rejestr.metryki("A.operacja").zarejestruj(1_000, false, 0);
+        rejestr.metryki("B.operacja").zarejestruj(2_000, true, 5);
+
+        // Gdy: generowane są zrzuty
+        String json = rejestr.zrzutJson();
+        String tekst = rejestr.zrzutTekstowy();
+
+        // Wtedy: zrzuty zawierają obie operacje
+        assertTrue(json.startsWith("[") && json.endsWith("]"));
+        assertTrue(json.contains("\"operacja\":\"A.operacja\""));
+        assertTrue(json.contains("\"niepowodzenia\":1"));
+        assertEquals(2, tekst.lines().count());
+    }
+
+    @Test
+    @DisplayName("okresowy zrzut odrzuca okres krótszy niż milisekunda")
+    @Tag("metryki")
+    void testZrzutOkresowy_OdrzucaOkresPonizejMilisekundy() {
+        // Gdy / Wtedy: okres zerowy, ujemny i poniżej milisekundy jest odrzucany komunikatem rejestru
+        for (Duration okres : List.of(Duration.ZERO, Duration.ofMillis(-5), Duration.ofNanos(999_999))) {
+            IllegalArgumentException blad = assertThrows(IllegalArgumentException.class,
+                    () -> rejestr.uruchomZrzutOkresowy(okres, true, zrzut -> { }));
+            assertEquals("Okres zrzutu musi wynosić co najmniej 1 ms", blad.getMessage());
+        }
+
+        // Wtedy: okres jednej milisekundy jest przyjmowany
+        assertFalse(rejestr.uruchomZrzutOkresowy(Duration.ofMillis(1), false, zrzut -> { }).isCancelled());
+    }
+
+    private static MigawkaOperacji znajdz(List<MigawkaOperacji> migawki, String nazwa) {
+        return migawki.stream()
+                .filter(m -> m.getNazwa().equals(nazwa))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Brak metryk operacji " + nazwa));
+    }
+}
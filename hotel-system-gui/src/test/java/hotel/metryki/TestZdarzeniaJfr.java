@@ -0,0 +1,106 @@
+package hotel.metryki;
+
+import hotel.model.Gosc;
+import hotel.model.HotelModel;
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy zdarzeń JFR zgłaszanych przez model i DAO.
+ *
+ * @author Grzegorz - System Zarządzania Hotelem
+ */
+@DisplayName("Testy zdarzeń JFR")
+class TestZdarzeniaJfr {
+
+    private HotelModel model;
+    private Pokoj pokoj;
+    private Gosc gosc;
+
+    @BeforeEach
+    void setUp() {
+        // Jeśli: model z jednym pokojem i gościem
+        Gosc.resetIdCounter();
+        Rezerwacja.resetIdCounter();
+        model = new HotelModel();
+        pokoj = new Pokoj(101, "Jednoosobowy", 150.0);
+        gosc = new Gosc("Jan", "Kowalski", "jan@example.com");
+        model.getPokojeDAO().zapisz(pokoj);
+        model.getGoscieDAO().zapisz(gosc);
+    }
+
+    @Test
+    @Tag("metryki")
+    @DisplayName("operacje modelu i skany DAO są widoczne w nagraniu JFR")
+    void operacjeModelu_SaRejestrowaneWNagraniu() throws Exception {
+        LocalDate od = LocalDate.now().plusDays(10);
+        Path plik = Files.createTempFile("hotel", ".jfr");
+        try (Recording nagranie = new Recording()) {
+            nagranie.enable(OperacjaModeluJfr.class).withoutThreshold();
+            nagranie.enable(SkanDaoJfr.class);
+            nagranie.start();
+
+            // Gdy: rezerwacja, próba kolizji i anulowanie
+            Rezerwacja r = model.utworzRezerwacje(gosc, pokoj, od, od.plusDays(3));
+            model.utworzRezerwacje(gosc, pokoj, od, od.plusDays(1));
+            model.anulujRezerwacje(r.getId());
+
+            nagranie.stop();
+            nagranie.dump(plik);
+        }
+
+        // Wtedy: zdarzenia zawierają parametry i wynik operacji
+        List<RecordedEvent> zdarzenia = RecordingFile.readAllEvents(plik);
+        Files.deleteIfExists(plik);
+
+        List<RecordedEvent> operacje = zdarzenia.stream()
+                .filter(z -> z.getEventType().getName().equals("hotel.OperacjaModelu"))
+                .toList();
+        assertEquals(3, operacje.size());
+
+        RecordedEvent utworz = operacje.get(0);
+        assertEquals("utworzRezerwacje", utworz.getString("operacja"));
+        assertEquals(101, utworz.getInt("numerPokoju"));
+        assertEquals(od.toString(), utworz.getString("dataOd"));
+        assertTrue(utworz.getBoolean("powodzenie"));
+        assertTrue(utworz.getLong("przeskanowaneRezerwacje") >= 0);
+
+        RecordedEvent kolizja = operacje.get(1);
+        assertFalse(kolizja.getBoolean("powodzenie"));
+        assertEquals(1, kolizja.getLong("przeskanowaneRezerwacje"));
+
+        RecordedEvent anuluj = operacje.get(2);
+        assertEquals("anulujRezerwacje", anuluj.getString("operacja"));
+        assertEquals(1, anuluj.getInt("idRezerwacji"));
+        assertTrue(anuluj.getBoolean("powodzenie"));
+
+        assertTrue(zdarzenia.stream()
+                .anyMatch(z -> z.getEventType().getName().equals("hotel.SkanDAO")
+                        && "RezerwacjeDAO".equals(z.getString("dao"))));
+    }
+
+    @Test
+    @Tag("metryki")
+    @DisplayName("bez nagrywania operacje modelu działają bez zmian")
+    void bezNagrywania_OperacjeDzialaja() {
+        // Gdy: operacje wykonywane bez aktywnego nagrania
+        LocalDate od = LocalDate.now().plusDays(10);
+        Rezerwacja r = model.utworzRezerwacje(gosc, pokoj, od, od.plusDays(2));
+
+        // Wtedy: wyniki są takie same jak bez instrumentacji
+        assertNotNull(r);
+        assertTrue(model.zameldujGoscia(r.getId()));
+        assertFalse(model.anulujRezerwacje(999));
+    }
+}
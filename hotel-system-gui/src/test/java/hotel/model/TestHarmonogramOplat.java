@@ -0,0 +1,153 @@
+package hotel.model;
+
+import hotel.dao.GoscieDAO;
+import hotel.dao.PokojeDAO;
+import hotel.dao.RezerwacjeDAO;
+import org.junit.jupiter.api.*;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy harmonogramów opłat za anulowanie oraz raportu ekspozycji.
+ *
+ * @author Grzegorz - System Zarządzania Hotelem
+ */
+@DisplayName("Testy harmonogramu opłat za anulowanie")
+class TestHarmonogramOplat {
+
+    private static final LocalDate DZIS = LocalDate.of(2030, 5, 1);
+
+    private HotelModel model;
+    private Gosc gosc;
+    private Pokoj pokoj;
+
+    @BeforeEach
+    void setUp() {
+        // Jeśli: model ze stałym zegarem wskazującym 1 maja 2030
+        Gosc.resetIdCounter();
+        Rezerwacja.resetIdCounter();
+        Clock zegar = Clock.fixed(DZIS.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        model = new HotelModel(new RezerwacjeDAO(), new PokojeDAO(), new GoscieDAO(), new FabrykaGosci(), zegar);
+        pokoj = new Pokoj(101, "Dwuosobowy", 100.0);
+        model.getPokojeDAO().zapisz(pokoj);
+        gosc = new Gosc("Jan", "Kowalski", "jan@test.pl");
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("opłata według zegara modelu odpowiada progom dni przed przyjazdem")
+    void pobierzOplate_UzywaWstrzyknietegoZegara() {
+        // Gdy: rezerwacje na 2 noce zaczynają się za 10, 5, 2 i 0 dni
+        Rezerwacja zaDziesiec = model.utworzRezerwacje(gosc, pokoj, DZIS.plusDays(10), DZIS.plusDays(12));
+        Rezerwacja zaPiec = model.utworzRezerwacje(gosc, pokoj, DZIS.plusDays(5), DZIS.plusDays(7));
+        Rezerwacja zaDwa = model.utworzRezerwacje(gosc, pokoj, DZIS.plusDays(2), DZIS.plusDays(3));
+        Rezerwacja dzisiaj = model.utworzRezerwacje(gosc, pokoj, DZIS, DZIS.plusDays(1));
+
+        // Wtedy: opłaty wynoszą 0%, 10%, 20% i 50% ceny
+        assertEquals(0.0, model.pobierzOplate(zaDziesiec.getId()), 0.001);
+        assertEquals(20.0, model.pobierzOplate(zaPiec.getId()), 0.001);
+        assertEquals(20.0, model.pobierzOplate(zaDwa.getId()), 0.001);
+        assertEquals(50.0, model.pobierzOplate(dzisiaj.getId()), 0.001);
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("harmonogram zmienia próg dokładnie w dniach granicznych i odświeża się po zmianie dat")
+    void harmonogram_ProgiWDniachGranicznych() {
+        // Jeśli: rezerwacja na 2 noce (cena 200) od 20 maja
+        LocalDate przyjazd = DZIS.plusDays(19);
+        Rezerwacja r = model.utworzRezerwacje(gosc, pokoj, przyjazd, przyjazd.plusDays(2));
+
+        // Gdy: pobieramy harmonogram
+        HarmonogramOplat harmonogram = model.pobierzHarmonogramOplat(r);
+
+        // Wtedy: progi zmieniają się 6, 2 i 0 dni przed przyjazdem
+        assertArrayEquals(new LocalDate[] {przyjazd.minusDays(6), przyjazd.minusDays(2), przyjazd},
+                harmonogram.getDatyZmian());
+        assertEquals(0.0, harmonogram.oplataNaDzien(przyjazd.minusDays(7)), 0.001);
+        assertEquals(20.0, harmonogram.oplataNaDzien(przyjazd.minusDays(6)), 0.001);
+        assertEquals(20.0, harmonogram.oplataNaDzien(przyjazd.minusDays(3)), 0.001);
+        assertEquals(40.0, harmonogram.oplataNaDzien(przyjazd.minusDays(2)), 0.001);
+        assertEquals(40.0, harmonogram.oplataNaDzien(przyjazd.minusDays(1)), 0.001);
+        assertEquals(100.0, harmonogram.oplataNaDzien(przyjazd), 0.001);
+        assertSame(harmonogram, model.pobierzHarmonogramOplat(r));
+
+        // Gdy: rezerwacja zostaje przesunięta
+        assertTrue(model.modyfikujRezerwacje(r.getId(), przyjazd.plusDays(1), przyjazd.plusDays(3)));
+
+        // Wtedy: harmonogram jest wyznaczony na nowo
+        HarmonogramOplat nowy = model.pobierzHarmonogramOplat(r);
+        assertNotSame(harmonogram, nowy);
+        assertEquals(20.0, nowy.oplataNaDzien(przyjazd.minusDays(3)), 0.001);
+        assertEquals(0.0, nowy.oplataNaDzien(przyjazd.minusDays(6)), 0.001);
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("raport ekspozycji sumuje opłaty aktywnych rezerwacji w kolejnych dniach")
+    void obliczEkspozycjeAnulowan_RaportDzienny() {
+        // Jeśli: dwie aktywne rezerwacje i jedna anulowana
+        Rezerwacja a = model.utworzRezerwacje(gosc, pokoj, DZIS.plusDays(3), DZIS.plusDays(5));
+        Rezerwacja b = model.utworzRezerwacje(gosc, pokoj, DZIS.plusDays(8), DZIS.plusDays(9));
+        Rezerwacja c = model.utworzRezerwacje(gosc, pokoj, DZIS.plusDays(20), DZIS.plusDays(21));
+        assertTrue(model.anulujRezerwacje(c.getId()));
+
+        // Gdy: liczymy ekspozycję na 12 dni
+        double[] raport = model.obliczEkspozycjeAnulowan(DZIS, DZIS.plusDays(11));
+
+        // Wtedy: każdy dzień odpowiada sumie opłat liczonych wprost
+        for (int i = 0; i < raport.length; i++) {
+            LocalDate dzien = DZIS.plusDays(i);
+            double oczekiwana = 0;
+            for (Rezerwacja r : new Rezerwacja[] {a, b}) {
+                if (!dzien.isAfter(r.getDataDo())) {
+                    oczekiwana += oplataWprost(r, dzien);
+                }
+            }
+            assertEquals(oczekiwana, raport[i], 0.001, "dzień " + dzien);
+        }
+        assertEquals(raport[2], model.obliczEkspozycjeAnulowan(DZIS.plusDays(2)), 0.001);
+        assertEquals(0.0, raport[11], 0.001);
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("harmonogramy anulowanych, wymeldowanych i usuniętych rezerwacji nie są zapamiętywane")
+    void harmonogramy_UsuwanePoZakonczeniuRezerwacji() {
+        // Jeśli: trzy rezerwacje z wyznaczonymi harmonogramami
+        Rezerwacja a = model.utworzRezerwacje(gosc, pokoj, DZIS, DZIS.plusDays(2));
+        Rezerwacja b = model.utworzRezerwacje(gosc, pokoj, DZIS.plusDays(4), DZIS.plusDays(6));
+        Rezerwacja c = model.utworzRezerwacje(gosc, pokoj, DZIS.plusDays(8), DZIS.plusDays(9));
+        model.obliczEkspozycjeAnulowan(DZIS);
+        assertEquals(3, model.pobierzLiczbeHarmonogramowOplat());
+
+        // Gdy: pierwsza kończy się wymeldowaniem, a druga anulowaniem z opłatą
+        assertTrue(model.zameldujGoscia(a.getId()));
+        assertTrue(model.wymeldujGoscia(a.getId()));
+        assertEquals(20.0, model.pobierzOplate(b.getId()), 0.001);
+        assertTrue(model.anulujRezerwacje(b.getId()));
+
+        // Wtedy: zostaje tylko harmonogram trwającej rezerwacji, także po ponownym pytaniu o opłatę
+        assertEquals(20.0, model.pobierzOplate(b.getId()), 0.001);
+        assertEquals(1, model.pobierzLiczbeHarmonogramowOplat());
+
+        // Gdy: trzecia rezerwacja zostaje usunięta z DAO, a pojawia się nowa i raport ekspozycji
+        assertTrue(model.getRezerwacjeDAO().usun(c.getId()));
+        model.utworzRezerwacje(gosc, pokoj, DZIS.plusDays(10), DZIS.plusDays(11));
+        model.obliczEkspozycjeAnulowan(DZIS);
+
+        // Wtedy: harmonogram usuniętej rezerwacji nie jest dłużej przechowywany
+        assertEquals(1, model.pobierzLiczbeHarmonogramowOplat());
+    }
+
+    private static double oplataWprost(Rezerwacja r, LocalDate dzien) {
+        long dni = ChronoUnit.DAYS.between(dzien, r.getDataOd());
+        double wspolczynnik = dni >= 7 ? 0 : dni >= 3 ? 0.1 : dni >= 1 ? 0.2 : 0.5;
+        return r.obliczCene() * wspolczynnik;
+    }
+}
@@ -3,6 +3,7 @@ package hotel.model;
 import hotel.dao.GoscieDAO;
 import hotel.dao.PokojeDAO;
 import hotel.dao.RezerwacjeDAO;
+import hotel.dao.WynikAktualizacji;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -137,7 +138,11 @@ class TestHotelModelCancellations {
         int idRezerwacji = 1;
         
         when(mockRezerwacjeDAO.pobierz(idRezerwacji)).thenReturn(java.util.Optional.of(rezerwacja));
-        when(mockRezerwacjeDAO.aktualizuj(rezerwacja)).thenReturn(true);
+        // Zapis z wersją działa jak w DAO: stan kopii trafia do zapisanego obiektu
+        when(mockRezerwacjeDAO.aktualizuj(any(Rezerwacja.class), eq(0L))).thenAnswer(wywolanie -> {
+            rezerwacja.przejmijStan(wywolanie.getArgument(0));
+            return WynikAktualizacji.ZAPISANO;
+        });
 
         // Gdy: anulowana jest rezerwacja z przyczyną
         String przyczyna = "Zmiana planów";
@@ -148,7 +153,7 @@ class TestHotelModelCancellations {
         assertEquals(Rezerwacja.Status.ANULOWANA, rezerwacja.getStatus());
         assertEquals(przyczyna, rezerwacja.getPrzyczynaAnulowania());
         verify(mockPokojeDAO).ustawDostepnosc(pokoj.getNumer(), true);
-        verify(mockRezerwacjeDAO).aktualizuj(rezerwacja);
+        verify(mockRezerwacjeDAO).aktualizuj(any(Rezerwacja.class), eq(0L));
     }
 
     @Test
@@ -0,0 +1,198 @@
+package hotel.model;
+
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy macierzy liczby wolnych pokoi według typu i dnia.
+ *
+ * @author Grzegorz - System Zarządzania Hotelem
+ */
+@DisplayName("Testy macierzy dostępności")
+class TestMacierzDostepnosci {
+
+    private HotelModel model;
+    private Gosc gosc;
+    private LocalDate dzien;
+
+    @BeforeEach
+    void setUp() {
+        // Jeśli: trzy pokoje dwuosobowe i dwa apartamenty
+        Gosc.resetIdCounter();
+        Rezerwacja.resetIdCounter();
+        model = new HotelModel();
+        for (int numer = 101; numer <= 103; numer++) {
+            model.getPokojeDAO().zapisz(new Pokoj(numer, "Dwuosobowy", 200.0));
+        }
+        model.getPokojeDAO().zapisz(new Pokoj(301, "Apartament", 500.0));
+        model.getPokojeDAO().zapisz(new Pokoj(302, "Apartament", 500.0));
+        gosc = new Gosc("Jan", "Kowalski", "jan@test.pl");
+        dzien = LocalDate.of(2030, 5, 1);
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("rezerwacje, anulowanie i zmiana dat aktualizują liczby wolnych pokoi")
+    void cyklZyciaRezerwacji_AktualizujeMacierz() {
+        // Gdy: rezerwujemy pokój dwuosobowy na dni 1-3
+        assertArrayEquals(new int[] {3, 3, 3}, model.pobierzLiczbyWolnychPokoi("Dwuosobowy", dzien, dzien.plusDays(2)));
+        Rezerwacja r = model.utworzRezerwacjeTypu(gosc, "Dwuosobowy", dzien, dzien.plusDays(2));
+
+        // Wtedy: w tych dniach wolne są dwa pokoje
+        assertArrayEquals(new int[] {2, 2, 2, 3},
+                model.pobierzLiczbyWolnychPokoi("dwuosobowy", dzien, dzien.plusDays(3)));
+
+        // Gdy: rezerwacja zostaje przesunięta o jeden dzień
+        assertTrue(model.modyfikujRezerwacje(r.getId(), dzien.plusDays(1), dzien.plusDays(3)));
+        assertArrayEquals(new int[] {3, 2, 2, 2},
+                model.pobierzLiczbyWolnychPokoi("Dwuosobowy", dzien, dzien.plusDays(3)));
+
+        // Gdy: rezerwacja zostaje anulowana
+        assertTrue(model.anulujRezerwacje(r.getId(), "zmiana planów"));
+
+        // Wtedy: wszystkie pokoje są znów wolne, a zmiany naniesiono bez przebudowy macierzy
+        assertArrayEquals(new int[] {3, 3, 3, 3},
+                model.pobierzLiczbyWolnychPokoi("Dwuosobowy", dzien, dzien.plusDays(3)));
+        assertEquals(1, model.getMacierzDostepnosci().pobierzLiczbePrzebudowan());
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("zmiany wykonane bezpośrednio w DAO wymuszają przebudowę macierzy")
+    void zmianaPozaModelem_PrzebudowujeMacierz() {
+        // Jeśli: macierz jest aktualna
+        model.pobierzLiczbyWolnychPokoi(dzien, dzien);
+
+        // Gdy: dodajemy pokój i rezerwację z pominięciem modelu
+        Pokoj p303 = new Pokoj(303, "Apartament", 500.0);
+        model.getPokojeDAO().zapisz(p303);
+        model.getRezerwacjeDAO().zapisz(new Rezerwacja(dzien, dzien.plusDays(1), gosc, p303));
+
+        // Wtedy: liczby uwzględniają nowy pokój i jego rezerwację
+        Map<String, int[]> wynik = model.pobierzLiczbyWolnychPokoi(dzien, dzien.plusDays(2));
+        assertArrayEquals(new int[] {2, 2, 3}, wynik.get("Apartament"));
+        assertArrayEquals(new int[] {3, 3, 3}, wynik.get("Dwuosobowy"));
+        assertArrayEquals(new int[] {0, 0}, model.pobierzLiczbyWolnychPokoi("Prezydencki", dzien, dzien.plusDays(1)));
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("równoległe operacje modelu nanoszą różnice bez przebudowy macierzy")
+    void rownolegleOperacje_BezPrzebudowy() throws Exception {
+        // Jeśli: macierz jest aktualna, a cztery wątki rezerwują, zmieniają i anulują równolegle
+        model.pobierzLiczbyWolnychPokoi(dzien, dzien);
+        ExecutorService watki = Executors.newFixedThreadPool(4);
+        List<Future<?>> zadania = new ArrayList<>();
+        for (int w = 0; w < 4; w++) {
+            int watek = w;
+            zadania.add(watki.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    LocalDate od = dzien.plusDays(watek * 50L + i % 40);
+                    Rezerwacja r = model.utworzRezerwacjeTypu(gosc, i % 2 == 0 ? "Dwuosobowy" : "Apartament",
+                            od, od.plusDays(1));
+                    if (r != null && i % 3 == 0) {
+                        model.modyfikujRezerwacje(r.getId(), od.plusDays(1), od.plusDays(2));
+                    } else if (r != null && i % 3 == 1) {
+                        model.anulujRezerwacje(r.getId());
+                    }
+                    model.pobierzLiczbyWolnychPokoi(dzien, dzien.plusDays(1));
+                }
+            }));
+        }
+        for (Future<?> zadanie : zadania) {
+            zadanie.get();
+        }
+        watki.shutdown();
+
+        // Wtedy: macierz zgadza się ze skanem, a jedyna przebudowa to pierwsze zapytanie
+        for (String typ : List.of("Dwuosobowy", "Apartament")) {
+            int[] zMacierzy = model.pobierzLiczbyWolnychPokoi(typ, dzien, dzien.plusDays(200));
+            for (int d = 0; d < zMacierzy.length; d++) {
+                LocalDate data = dzien.plusDays(d);
+                long wolne = model.getPokojeDAO().pobierzPoTypie(typ).stream()
+                        .filter(p -> model.getRezerwacjeDAO().czyPokojDostepny(p, data, data))
+                        .count();
+                assertEquals(wolne, zMacierzy[d], typ + " " + data);
+            }
+        }
+        assertEquals(1, model.getMacierzDostepnosci().pobierzLiczbePrzebudowan());
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("macierz jest zgodna ze skanem rezerwacji po losowych operacjach")
+    void losoweOperacje_ZgodneZeSkanem() {
+        // Jeśli: losowy ciąg rezerwacji, anulowań, zameldowań i wymeldowań
+        Random losowe = new Random(11);
+        for (int i = 0; i < 300; i++) {
+            int operacja = losowe.nextInt(10);
+            List<Rezerwacja> wszystkie = model.getRezerwacjeDAO().pobierzWszystkie();
+            if (operacja < 6 || wszystkie.isEmpty()) {
+                LocalDate od = dzien.plusDays(losowe.nextInt(40));
+                model.utworzRezerwacjeTypu(gosc, losowe.nextBoolean() ? "Dwuosobowy" : "Apartament",
+                        od, od.plusDays(1 + losowe.nextInt(4)));
+            } else {
+                int id = wszystkie.get(losowe.nextInt(wszystkie.size())).getId();
+                switch (operacja) {
+                    case 6 -> model.anulujRezerwacje(id);
+                    case 7 -> model.zameldujGoscia(id);
+                    case 8 -> model.wymeldujGoscia(id);
+                    default -> model.potwierdzPlatnosc(id);
+                }
+            }
+            // Macierz odpytywana w trakcie, aby zmiany nanoszone były przyrostowo
+            if (i % 50 == 0) {
+                model.pobierzLiczbyWolnychPokoi(dzien, dzien);
+            }
+        }
+
+        // Gdy / Wtedy: liczby z macierzy równe są liczbom ze skanu rezerwacji
+        for (String typ : List.of("Dwuosobowy", "Apartament")) {
+            int[] zMacierzy = model.pobierzLiczbyWolnychPokoi(typ, dzien, dzien.plusDays(45));
+            for (int d = 0; d < zMacierzy.length; d++) {
+                LocalDate data = dzien.plusDays(d);
+                long wolne = model.getPokojeDAO().pobierzPoTypie(typ).stream()
+                        .filter(p -> model.getRezerwacjeDAO().czyPokojDostepny(p, data, data))
+                        .count();
+                assertEquals(wolne, zMacierzy[d], typ + " " + data);
+            }
+        }
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("pełny rok dostępności dla 2000 pokoi bez skanowania rezerwacji")
+    void pelnyRok_Wydajnosc() {
+        // Jeśli: 2000 pokoi w trzech typach i 20 000 rezerwacji
+        HotelModel duzy = new HotelModel();
+        String[] typy = {"Jednoosobowy", "Dwuosobowy", "Apartament"};
+        for (int numer = 1; numer <= 2000; numer++) {
+            duzy.getPokojeDAO().zapisz(new Pokoj(numer, typy[numer % 3], 200.0));
+        }
+        Random losowe = new Random(3);
+        for (int i = 0; i < 20_000; i++) {
+            LocalDate od = dzien.plusDays(losowe.nextInt(360));
+            duzy.utworzRezerwacjeTypu(gosc, typy[losowe.nextInt(3)], od, od.plusDays(1 + losowe.nextInt(5)));
+        }
+        duzy.pobierzLiczbyWolnychPokoi(dzien, dzien);
+
+        // Gdy: pobieramy dostępność wszystkich typów na 365 dni
+        long skanyPrzed = duzy.pobierzLiczbePrzeskanowanych();
+        Map<String, int[]> rok = duzy.pobierzLiczbyWolnychPokoi(dzien, dzien.plusDays(364));
+
+        // Wtedy: wynik obejmuje wszystkie typy i dni, a magazyn rezerwacji nie był skanowany
+        assertEquals(skanyPrzed, duzy.pobierzLiczbePrzeskanowanych());
+        assertEquals(3, rok.size());
+        rok.values().forEach(dni -> assertEquals(365, dni.length));
+    }
+}
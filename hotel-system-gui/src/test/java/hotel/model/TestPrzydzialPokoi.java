@@ -0,0 +1,130 @@
+package hotel.model;
+
+import hotel.symulacja.SymulacjaPrzydzialu;
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy przydziału pokoi według typu (najlepsze dopasowanie i pierwszy wolny).
+ *
+ * @author Grzegorz - System Zarządzania Hotelem
+ */
+@DisplayName("Testy przydziału pokoi według typu")
+class TestPrzydzialPokoi {
+
+    private HotelModel model;
+    private Gosc gosc;
+    private LocalDate dzien;
+
+    @BeforeEach
+    void setUp() {
+        // Jeśli: trzy pokoje dwuosobowe i jeden apartament
+        Gosc.resetIdCounter();
+        Rezerwacja.resetIdCounter();
+        model = new HotelModel();
+        for (int numer = 101; numer <= 103; numer++) {
+            model.getPokojeDAO().zapisz(new Pokoj(numer, "Dwuosobowy", 200.0));
+        }
+        model.getPokojeDAO().zapisz(new Pokoj(301, "Apartament", 500.0));
+        gosc = new Gosc("Jan", "Kowalski", "jan@test.pl");
+        dzien = LocalDate.of(2030, 3, 1);
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("najlepsze dopasowanie wypełnia lukę między rezerwacjami")
+    void najlepszeDopasowanie_WypelniaLuke() {
+        // Jeśli: w pokoju 103 jest dokładnie 3-dniowa luka między rezerwacjami
+        Pokoj p103 = model.getPokojeDAO().pobierz(103).orElseThrow();
+        model.utworzRezerwacje(gosc, p103, dzien, dzien.plusDays(1));
+        model.utworzRezerwacje(gosc, p103, dzien.plusDays(5), dzien.plusDays(6));
+
+        // Gdy: rezerwujemy typ na dni luki
+        Rezerwacja r = model.utworzRezerwacjeTypu(gosc, "Dwuosobowy", dzien.plusDays(2), dzien.plusDays(4));
+
+        // Wtedy: wybrany jest pokój 103, a nie pierwszy wolny 101
+        assertNotNull(r);
+        assertEquals(103, r.getPokoj().getNumer());
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("najlepsze dopasowanie uwzględnia rezerwacje także dla pobytu poza zajętym okresem")
+    void najlepszeDopasowanie_PobytPozaZajetymOkresem() {
+        // Jeśli: jedyna rezerwacja w kalendarzu zajmuje pokój 102
+        Pokoj p102 = model.getPokojeDAO().pobierz(102).orElseThrow();
+        model.utworzRezerwacje(gosc, p102, dzien, dzien.plusDays(4));
+
+        // Gdy / Wtedy: pobyt po i przed zajętym okresem trafia do pokoju 102, przylegającego do rezerwacji
+        assertEquals(102, model.przydzielPokoj("Dwuosobowy", dzien.plusDays(7), dzien.plusDays(9))
+                .orElseThrow().getNumer());
+        assertEquals(102, model.przydzielPokoj("Dwuosobowy", dzien.minusDays(5), dzien.minusDays(3))
+                .orElseThrow().getNumer());
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("pierwszy wolny wybiera pokój o najniższym numerze")
+    void pierwszyWolny_WybieraNajnizszyNumer() {
+        // Jeśli: strategia pierwszy wolny i zajęty pokój 101
+        model.setStrategiaPrzydzialu(new PrzydzialPierwszyWolny());
+        model.utworzRezerwacje(gosc, model.getPokojeDAO().pobierz(101).orElseThrow(), dzien, dzien.plusDays(3));
+
+        // Gdy / Wtedy: przydzielany jest pokój 102
+        assertEquals(102, model.przydzielPokoj("Dwuosobowy", dzien, dzien.plusDays(1)).orElseThrow().getNumer());
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("brak wolnego pokoju danego typu zwraca null")
+    void brakWolnegoPokoju_ZwracaNull() {
+        // Jeśli: jedyny apartament jest zajęty
+        assertEquals(301, model.utworzRezerwacjeTypu(gosc, "Apartament", dzien, dzien.plusDays(2)).getPokoj().getNumer());
+
+        // Gdy / Wtedy: kolejna rezerwacja apartamentu w tym terminie się nie udaje
+        assertNull(model.utworzRezerwacjeTypu(gosc, "Apartament", dzien.plusDays(1), dzien.plusDays(3)));
+        assertNull(model.utworzRezerwacjeTypu(gosc, "Prezydencki", dzien, dzien.plusDays(1)));
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("kalendarz zajętości uwzględnia anulowanie i zmianę dat")
+    void kalendarz_UwzgledniaAnulowanieIZmianeDat() {
+        // Jeśli: apartament zarezerwowany, a rezerwacja następnie anulowana
+        Rezerwacja r = model.utworzRezerwacjeTypu(gosc, "Apartament", dzien, dzien.plusDays(2));
+        assertTrue(model.anulujRezerwacje(r.getId()));
+
+        // Gdy / Wtedy: apartament jest znów dostępny
+        Rezerwacja nowa = model.utworzRezerwacjeTypu(gosc, "Apartament", dzien, dzien.plusDays(2));
+        assertNotNull(nowa);
+
+        // Gdy: rezerwacja zostaje przesunięta o tydzień
+        assertTrue(model.modyfikujRezerwacje(nowa.getId(), dzien.plusDays(7), dzien.plusDays(9)));
+
+        // Wtedy: pierwotny termin jest wolny, nowy zajęty
+        assertTrue(model.przydzielPokoj("Apartament", dzien, dzien.plusDays(2)).isPresent());
+        assertTrue(model.przydzielPokoj("Apartament", dzien.plusDays(8), dzien.plusDays(8)).isEmpty());
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("symulacja: najlepsze dopasowanie daje co najmniej takie obłożenie jak pierwszy wolny")
+    void symulacja_NajlepszeDopasowanieNieGorsze() {
+        // Jeśli: wspólny strumień zgłoszeń dla obu strategii
+        List<SymulacjaPrzydzialu.Zgloszenie> zgloszenia = SymulacjaPrzydzialu.losujZgloszenia(3000, 60, 7L);
+
+        // Gdy: strumień obsługują obie strategie
+        SymulacjaPrzydzialu.WynikSymulacji pierwszy =
+                SymulacjaPrzydzialu.symuluj(new PrzydzialPierwszyWolny(), 100, 60, zgloszenia);
+        SymulacjaPrzydzialu.WynikSymulacji najlepszy =
+                SymulacjaPrzydzialu.symuluj(new PrzydzialNajlepszeDopasowanie(), 100, 60, zgloszenia);
+
+        // Wtedy: najlepsze dopasowanie nie pogarsza obłożenia
+        assertTrue(najlepszy.getOblozenie() >= pierwszy.getOblozenie());
+        assertEquals(3000, najlepszy.getPrzyjete() + najlepszy.getOdrzucone());
+    }
+}
@@ -0,0 +1,183 @@
+package hotel.model;
+
+import hotel.controller.RezerwacjeKontroler;
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy rezerwacji grupowej (wiele pokoi, wszystko albo nic).
+ *
+ * @author Grzegorz - System Zarządzania Hotelem
+ */
+@DisplayName("Testy rezerwacji grupowej")
+class TestRezerwacjeGrupowe {
+
+    private HotelModel model;
+    private Gosc gosc;
+    private List<Pokoj> pokoje;
+    private LocalDate dataOd;
+    private LocalDate dataDo;
+
+    @BeforeEach
+    void setUp() {
+        // Jeśli: hotel z 20 pokojami i biuro podróży jako gość
+        Gosc.resetIdCounter();
+        Rezerwacja.resetIdCounter();
+        model = new HotelModel();
+        gosc = new Gosc("Biuro", "Podróży", "biuro@test.pl");
+        pokoje = utworzPokoje(model, 20);
+        dataOd = LocalDate.of(2025, 7, 1);
+        dataDo = LocalDate.of(2025, 7, 5);
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("rezerwacja grupowa tworzy rezerwacje dla wszystkich pokoi")
+    void rezerwacjaGrupowa_TworzyWszystkieRezerwacje() {
+        // Gdy: rezerwujemy wszystkie pokoje naraz
+        List<Rezerwacja> wynik = model.utworzRezerwacjeGrupowa(gosc, pokoje, dataOd, dataDo);
+
+        // Wtedy: powstaje rezerwacja dla każdego pokoju
+        assertEquals(20, wynik.size());
+        assertEquals(20, model.getRezerwacjeDAO().liczba());
+        assertTrue(wynik.stream().allMatch(r -> r.getGosc().equals(gosc)));
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("zajęty pokój powoduje odrzucenie całej grupy")
+    void zajetyPokoj_OdrzucaCalaGrupe() {
+        // Jeśli: jeden z pokoi jest już zarezerwowany w tym terminie
+        Gosc inny = new Gosc("Jan", "Kowalski", "jan@test.pl");
+        assertNotNull(model.utworzRezerwacje(inny, pokoje.get(7), dataOd.plusDays(2), dataDo.plusDays(2)));
+
+        // Gdy: próbujemy zarezerwować całą grupę
+        List<Rezerwacja> wynik = model.utworzRezerwacjeGrupowa(gosc, pokoje, dataOd, dataDo);
+
+        // Wtedy: żadna rezerwacja grupowa nie powstaje
+        assertTrue(wynik.isEmpty());
+        assertEquals(1, model.getRezerwacjeDAO().liczba());
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("anulowana rezerwacja nie blokuje rezerwacji grupowej")
+    void anulowanaRezerwacja_NieBlokujeGrupy() {
+        // Jeśli: rezerwacja kolidująca została anulowana
+        Rezerwacja r = model.utworzRezerwacje(gosc, pokoje.get(0), dataOd, dataDo);
+        assertTrue(model.anulujRezerwacje(r.getId()));
+
+        // Gdy / Wtedy: grupa może zostać zarezerwowana
+        assertEquals(20, model.utworzRezerwacjeGrupowa(gosc, pokoje, dataOd, dataDo).size());
+    }
+
+    @Test
+    @Tag("kontroler")
+    @DisplayName("kontroler odrzuca pustą listę i powtórzone pokoje")
+    void kontroler_WalidujeParametry() {
+        RezerwacjeKontroler kontroler = new RezerwacjeKontroler(model);
+
+        // Gdy / Wtedy: niepoprawne parametry kończą się wyjątkiem
+        assertThrows(IllegalArgumentException.class,
+                () -> kontroler.utworzRezerwacjeGrupowa(gosc, List.of(), dataOd, dataDo));
+        assertThrows(IllegalArgumentException.class,
+                () -> kontroler.utworzRezerwacjeGrupowa(gosc, List.of(pokoje.get(0), pokoje.get(0)), dataOd, dataDo));
+        assertThrows(IllegalArgumentException.class,
+                () -> kontroler.utworzRezerwacjeGrupowa(gosc, pokoje, dataDo, dataOd));
+        assertEquals(0, model.getRezerwacjeDAO().liczba());
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("równoległe grupy o wspólnych pokojach nie tworzą podwójnych rezerwacji")
+    void rownolegleGrupy_BezPodwojnychRezerwacji() throws Exception {
+        // Jeśli: 8 grup zachodzących na siebie pokojami, podanych w różnej kolejności
+        int watki = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(watki);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<Rezerwacja>>> wyniki = new ArrayList<>();
+        for (int i = 0; i < watki; i++) {
+            List<Pokoj> grupa = new ArrayList<>(pokoje.subList(i, i + 10));
+            if (i % 2 == 1) {
+                java.util.Collections.reverse(grupa);
+            }
+            wyniki.add(executor.submit(() -> {
+                start.await();
+                return model.utworzRezerwacjeGrupowa(gosc, grupa, dataOd, dataDo);
+            }));
+        }
+
+        // Gdy: wszystkie grupy startują jednocześnie
+        start.countDown();
+        int udane = 0;
+        for (Future<List<Rezerwacja>> wynik : wyniki) {
+            if (!wynik.get(10, TimeUnit.SECONDS).isEmpty()) {
+                udane++;
+            }
+        }
+        executor.shutdown();
+
+        // Wtedy: każdy pokój ma co najwyżej jedną rezerwację, a liczba rezerwacji to 10 × udane grupy
+        assertTrue(udane >= 1);
+        assertEquals(udane * 10, model.getRezerwacjeDAO().liczba());
+        for (Pokoj p : pokoje) {
+            assertTrue(model.getRezerwacjeDAO().pobierzDlaPokoju(p).size() <= 1);
+        }
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("rezerwacja grupowa daje ten sam wynik co pętla pojedynczych rezerwacji, bez pełnych skanów")
+    void porownanieZPetla() {
+        // Jeśli: dwa hotele po 100 pokoi z historią 20 000 rezerwacji
+        int liczbaPokoi = 100;
+        HotelModel grupowy = new HotelModel();
+        HotelModel petla = new HotelModel();
+        List<Pokoj> pokojeGrupowe = utworzPokoje(grupowy, liczbaPokoi);
+        List<Pokoj> pokojePetla = utworzPokoje(petla, liczbaPokoi);
+        LocalDate poczatek = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < 200; i++) {
+            LocalDate od = poczatek.plusDays(2L * i);
+            grupowy.utworzRezerwacjeGrupowa(gosc, pokojeGrupowe, od, od.plusDays(1));
+            petla.utworzRezerwacjeGrupowa(gosc, pokojePetla, od, od.plusDays(1));
+        }
+        LocalDate od = poczatek.plusDays(500);
+
+        // Gdy: rezerwujemy 100 pokoi w obu wariantach
+        long skanyPrzed = grupowy.pobierzLiczbePrzeskanowanych();
+        List<Rezerwacja> wynikGrupowy = grupowy.utworzRezerwacjeGrupowa(gosc, pokojeGrupowe, od, od.plusDays(3));
+        long skanyGrupowe = grupowy.pobierzLiczbePrzeskanowanych() - skanyPrzed;
+
+        int wynikPetli = 0;
+        for (Pokoj p : pokojePetla) {
+            if (petla.utworzRezerwacje(gosc, p, od, od.plusDays(3)) != null) {
+                wynikPetli++;
+            }
+        }
+
+        // Wtedy: oba warianty tworzą tyle samo rezerwacji, grupowy bez pełnych skanów
+        assertEquals(liczbaPokoi, wynikGrupowy.size());
+        assertEquals(liczbaPokoi, wynikPetli);
+        assertEquals(0, skanyGrupowe);
+    }
+
+    private static List<Pokoj> utworzPokoje(HotelModel model, int liczba) {
+        List<Pokoj> wynik = new ArrayList<>();
+        for (int i = 0; i < liczba; i++) {
+            Pokoj p = new Pokoj(100 + i, "Dwuosobowy", 200.0);
+            model.getPokojeDAO().zapisz(p);
+            wynik.add(p);
+        }
+        return wynik;
+    }
+}
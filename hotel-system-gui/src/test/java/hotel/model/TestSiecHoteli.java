@@ -0,0 +1,124 @@
+package hotel.model;
+
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy sieci hoteli podzielonej na partycje.
+ *
+ * @author Grzegorz - System Zarządzania Hotelem
+ */
+@DisplayName("Testy sieci hoteli")
+class TestSiecHoteli {
+
+    private SiecHoteli siec;
+    private LocalDate dzien;
+
+    @BeforeEach
+    void setUp() {
+        // Jeśli: sieć z dwoma hotelami, każdy z pokojem o numerze 101
+        Gosc.resetIdCounter();
+        Rezerwacja.resetIdCounter();
+        siec = new SiecHoteli(4);
+        for (int idHotelu = 1; idHotelu <= 2; idHotelu++) {
+            siec.dodajHotel(idHotelu).getPokojeDAO().zapisz(new Pokoj(101, "Dwuosobowy", 100.0 * idHotelu));
+        }
+        dzien = LocalDate.now().plusDays(15);
+    }
+
+    @AfterEach
+    void tearDown() {
+        siec.close();
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("hotele mają niezależne pokoje i rezerwacje")
+    void partycje_SaNiezalezne() {
+        // Gdy: ten sam pokój jest rezerwowany w tym samym terminie w obu hotelach
+        Gosc jan = new Gosc("Jan", "Kowalski", "jan@example.com");
+        Rezerwacja wPierwszym = siec.hotel(1).utworzRezerwacje(jan, siec.hotel(1).getPokojeDAO().pobierz(101).orElseThrow(),
+                dzien, dzien.plusDays(2));
+        Rezerwacja wDrugim = siec.hotel(2).utworzRezerwacje(jan, siec.hotel(2).getPokojeDAO().pobierz(101).orElseThrow(),
+                dzien, dzien.plusDays(2));
+
+        // Wtedy: obie rezerwacje powstają, a każda jest widoczna tylko w swoim hotelu
+        assertNotNull(wPierwszym);
+        assertNotNull(wDrugim);
+        assertNotEquals(wPierwszym.getId(), wDrugim.getId());
+        assertTrue(siec.hotel(1).znajdzRezerwacje(wDrugim.getId()).isEmpty());
+        assertEquals(Set.of(1, 2), siec.getIdHoteli());
+        assertThrows(IllegalArgumentException.class, () -> siec.hotel(3));
+        assertThrows(IllegalArgumentException.class, () -> siec.dodajHotel(1));
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("historia gościa i przychód grupy są zbierane ze wszystkich hoteli")
+    void zapytaniaSieci_ScalajaWyniki() {
+        // Jeśli: gość z dwoma pobytami w hotelu 2 i jednym w hotelu 1 (osobne profile, ten sam email)
+        Gosc wPierwszym = siec.hotel(1).utworzProfilGoscia("Anna", "Nowak", "anna@example.com");
+        Gosc wDrugim = siec.hotel(2).utworzProfilGoscia("Anna", "Nowak", "anna@example.com");
+        Pokoj pokoj1 = siec.hotel(1).getPokojeDAO().pobierz(101).orElseThrow();
+        Pokoj pokoj2 = siec.hotel(2).getPokojeDAO().pobierz(101).orElseThrow();
+        siec.hotel(1).utworzRezerwacje(wPierwszym, pokoj1, dzien, dzien.plusDays(1));
+        Rezerwacja pozniejsza = siec.hotel(2).utworzRezerwacje(wDrugim, pokoj2, dzien.plusDays(10), dzien.plusDays(12));
+        Rezerwacja wczesniejsza = siec.hotel(2).utworzRezerwacje(wDrugim, pokoj2, dzien, dzien.plusDays(3));
+
+        // Gdy: pytamy o historię gościa i przychody sieci
+        Map<Integer, List<Rezerwacja>> historia = siec.historiaGoscia("anna@example.com");
+        Map<Integer, Double> przychody = siec.przychodyHoteli();
+
+        // Wtedy: wyniki są scalone według hotelu, a pobyty uporządkowane po dacie przyjazdu
+        assertEquals(Set.of(1, 2), historia.keySet());
+        assertEquals(List.of(wczesniejsza, pozniejsza), historia.get(2));
+        assertEquals(100.0, przychody.get(1), 0.001);
+        assertEquals(wczesniejsza.obliczCene() + pozniejsza.obliczCene(), przychody.get(2), 0.001);
+        assertEquals(przychody.get(1) + przychody.get(2), siec.obliczPrzychodGrupy(), 0.001);
+        assertTrue(siec.historiaGoscia("brak@example.com").isEmpty());
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("operacje w hotelach z własnymi wątkami przebiegają równolegle bez kolizji")
+    void wlasniWykonawcy_RownolegleRezerwacje() throws Exception {
+        // Jeśli: dwa dodatkowe hotele z własnymi wykonawcami i dziesięcioma pokojami każdy
+        for (int idHotelu = 3; idHotelu <= 4; idHotelu++) {
+            HotelModel hotel = siec.dodajHotel(idHotelu, new HotelModel(), true);
+            for (int numer = 1; numer <= 10; numer++) {
+                hotel.getPokojeDAO().zapisz(new Pokoj(numer, "Jednoosobowy", 80.0));
+            }
+        }
+        Gosc gosc = new Gosc("Ewa", "Lis", "ewa@example.com");
+
+        // Gdy: w obu hotelach jednocześnie powstaje po 200 rezerwacji
+        List<CompletableFuture<Rezerwacja>> zadania = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            LocalDate od = dzien.plusDays(i / 10 * 2L);
+            int numer = i % 10 + 1;
+            for (int idHotelu = 3; idHotelu <= 4; idHotelu++) {
+                zadania.add(siec.wykonaj(idHotelu, hotel -> hotel.utworzRezerwacje(gosc,
+                        hotel.getPokojeDAO().pobierz(numer).orElseThrow(), od, od.plusDays(1))));
+            }
+        }
+
+        // Wtedy: wszystkie rezerwacje powstały z unikalnymi identyfikatorami
+        Set<Integer> identyfikatory = new HashSet<>();
+        for (CompletableFuture<Rezerwacja> zadanie : zadania) {
+            identyfikatory.add(zadanie.get(30, TimeUnit.SECONDS).getId());
+        }
+        assertEquals(400, identyfikatory.size());
+        assertEquals(200, siec.hotel(3).getRezerwacjeDAO().pobierzWszystkie().size());
+        assertEquals(200, siec.historiaGoscia("ewa@example.com").get(4).size());
+    }
+}
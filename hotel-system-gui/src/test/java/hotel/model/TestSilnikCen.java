@@ -0,0 +1,155 @@
+package hotel.model;
+
+import org.junit.jupiter.api.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy silnika cen dynamicznych z tabelą mnożników i sumami prefiksowymi.
+ *
+ * @author Grzegorz - System Zarządzania Hotelem
+ */
+@DisplayName("Testy silnika cen")
+class TestSilnikCen {
+
+    private static final TaryfaCen TARYFA = new TaryfaCen(
+            Map.of(Month.JULY, 1.5),
+            Map.of(DayOfWeek.FRIDAY, 1.2, DayOfWeek.SATURDAY, 1.2),
+            Map.of(0.0, 1.0, 0.5, 1.25));
+
+    private HotelModel model;
+    private SilnikCen silnik;
+    private Pokoj[] pokoje;
+    private Gosc gosc;
+    private LocalDate dzien;
+
+    @BeforeEach
+    void setUp() {
+        // Jeśli: trzy pokoje dwuosobowe o różnych cenach bazowych i włączone ceny dynamiczne
+        Gosc.resetIdCounter();
+        Rezerwacja.resetIdCounter();
+        model = new HotelModel();
+        pokoje = new Pokoj[] {
+                new Pokoj(101, "Dwuosobowy", 200.0),
+                new Pokoj(102, "Dwuosobowy", 220.0),
+                new Pokoj(103, "Dwuosobowy", 250.0)
+        };
+        for (Pokoj p : pokoje) {
+            model.getPokojeDAO().zapisz(p);
+        }
+        silnik = model.wlaczCenyDynamiczne(TARYFA);
+        gosc = new Gosc("Jan", "Kowalski", "jan@test.pl");
+        // środa
+        dzien = LocalDate.of(2030, 6, 26);
+    }
+
+    @AfterEach
+    void tearDown() {
+        model.getSzynaZdarzen().zamknij();
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("cena pobytu uwzględnia sezon, dzień tygodnia i obłożenie")
+    void cenaPobytu_UwzgledniaRegulyTaryfy() {
+        // Gdy: gość rezerwuje pokój na tydzień na przełomie czerwca i lipca
+        Rezerwacja r = model.utworzRezerwacje(gosc, pokoje[0], dzien, dzien.plusDays(7));
+
+        // Wtedy: noce czerwcowe i lipcowe oraz weekend mają różne stawki, a obłożenie 1/3 nie podnosi ceny
+        assertSame(silnik, r.getCennik());
+        double oczekiwana = 200.0 * (1.0 + 1.0 + 1.2 + 1.2 + 1.0 + 1.5 + 1.5);
+        assertEquals(oczekiwana, r.obliczCene(), 0.001);
+
+        // Gdy: drugi pokój zostaje zajęty w te same dni (obłożenie 2/3)
+        model.utworzRezerwacje(gosc, pokoje[1], dzien, dzien.plusDays(7));
+
+        // Wtedy: stawka trzeciego pokoju rośnie o mnożnik obłożenia
+        assertEquals(250.0 * 1.25, silnik.stawka(pokoje[2], dzien), 0.001);
+        assertEquals(250.0 * 1.5 * 1.25, silnik.stawka(pokoje[2], dzien.plusDays(5)), 0.001);
+        assertEquals(250.0 * 1.5, silnik.stawka(pokoje[2], dzien.plusDays(8)), 0.001);
+
+        // Wtedy: rezerwacje bez cennika liczone są jak dotąd
+        model.setCennik(null);
+        Rezerwacja bezCennika = model.utworzRezerwacje(gosc, pokoje[2], dzien.plusDays(10), dzien.plusDays(12));
+        assertEquals(500.0, bezCennika.obliczCene(), 0.001);
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("zmiana obłożenia przelicza tylko dotknięte dni, a ceny zgadzają się z sumą nocy")
+    void zmianaOblozenia_PrzeliczaPrzyrostowo() {
+        // Jeśli: tabela cen została wyliczona dla pierwszego zapytania
+        silnik.cenaPobytu(pokoje[0], dzien, dzien.plusDays(1));
+        long poPierwszym = silnik.getLiczbaPrzeliczonychDni();
+
+        // Gdy: w DAO pojawiają się dwie rezerwacje zajmujące razem kilka dni
+        model.getRezerwacjeDAO().zapisz(new Rezerwacja(dzien.plusDays(3), dzien.plusDays(5), gosc, pokoje[0]));
+        model.getRezerwacjeDAO().zapisz(new Rezerwacja(dzien.plusDays(4), dzien.plusDays(6), gosc, pokoje[1]));
+        silnik.cenaPobytu(pokoje[0], dzien, dzien.plusDays(1));
+
+        // Wtedy: przeliczono tylko dni, w których zmieniło się obłożenie
+        assertEquals(4, silnik.getLiczbaPrzeliczonychDni() - poPierwszym);
+
+        // Gdy: losowe rezerwacje i anulowania zmieniają obłożenie
+        Random losowe = new Random(46);
+        for (int i = 0; i < 40; i++) {
+            int od = losowe.nextInt(60);
+            Rezerwacja r = model.utworzRezerwacje(gosc, pokoje[losowe.nextInt(pokoje.length)],
+                    dzien.plusDays(od), dzien.plusDays(od + 1 + losowe.nextInt(6)));
+            if (r != null && losowe.nextInt(3) == 0) {
+                model.anulujRezerwacje(r.getId());
+            }
+        }
+
+        // Wtedy: cena z sum prefiksowych jest równa sumie stawek poszczególnych nocy
+        for (int i = 0; i < 20; i++) {
+            LocalDate od = dzien.plusDays(losowe.nextInt(70) - 5);
+            LocalDate doDnia = od.plusDays(1 + losowe.nextInt(10));
+            Pokoj pokoj = pokoje[losowe.nextInt(pokoje.length)];
+            assertEquals(cenaNocami(pokoj, od, doDnia), silnik.cenaPobytu(pokoj, od, doDnia), 0.001);
+        }
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("cena rezerwacji jest ustalana przy rezerwacji i nie zmienia się wraz z obłożeniem")
+    void cenaRezerwacji_UstalonaPrzyRezerwacji() {
+        // Jeśli: rezerwacja przy pustym hotelu
+        Rezerwacja r = model.utworzRezerwacje(gosc, pokoje[2], dzien, dzien.plusDays(2));
+        double cenaPrzyRezerwacji = r.obliczCene();
+        assertEquals(250.0 * 2, cenaPrzyRezerwacji, 0.001);
+
+        // Gdy: pozostałe pokoje zostają zajęte w tym samym terminie
+        model.utworzRezerwacje(gosc, pokoje[0], dzien, dzien.plusDays(2));
+        model.utworzRezerwacje(gosc, pokoje[1], dzien, dzien.plusDays(2));
+
+        // Wtedy: cennik podaje wyższą stawkę, ale rezerwacja i suma przychodów zachowują ustaloną cenę
+        assertTrue(silnik.cenaPobytu(pokoje[2], dzien, dzien.plusDays(2)) > cenaPrzyRezerwacji);
+        assertEquals(cenaPrzyRezerwacji, r.obliczCene(), 0.001);
+        double suma = model.getRezerwacjeDAO().pobierzWszystkie().stream().mapToDouble(Rezerwacja::obliczCene).sum();
+        assertEquals(suma, model.getRezerwacjeDAO().obliczSumePrzychodow(), 0.01);
+
+        // Gdy: zmiana dat na dwie noce w lipcu (poniedziałek i wtorek)
+        assertTrue(model.modyfikujRezerwacje(r.getId(), dzien.plusDays(12), dzien.plusDays(14)));
+
+        // Wtedy: cena ustalona od nowa według cennika dla nowego terminu
+        Rezerwacja zmieniona = model.znajdzRezerwacje(r.getId()).orElseThrow();
+        assertEquals(250.0 * 1.5 * 2, zmieniona.obliczCene(), 0.001);
+    }
+
+    private double cenaNocami(Pokoj pokoj, LocalDate od, LocalDate doDnia) {
+        int[] wolne = model.pobierzLiczbyWolnychPokoi(pokoj.getTyp(), od, doDnia);
+        double suma = 0;
+        for (int i = 0; od.plusDays(i).isBefore(doDnia); i++) {
+            double oblozenie = (double) (pokoje.length - wolne[i]) / pokoje.length;
+            suma += pokoj.getCenaBazowa() * TARYFA.mnoznik(od.plusDays(i), oblozenie);
+        }
+        return suma;
+    }
+}
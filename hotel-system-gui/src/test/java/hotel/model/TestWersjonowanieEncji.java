@@ -0,0 +1,196 @@
+package hotel.model;
+
+import hotel.controller.GoscieKontroler;
+import hotel.dao.DziennikRezerwacji;
+import hotel.dao.WynikAktualizacji;
+import hotel.dao.ZdarzeniowyRezerwacjeDAO;
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy wersjonowania encji i optymistycznych aktualizacji.
+ *
+ * @author Grzegorz - System Zarządzania Hotelem
+ */
+@DisplayName("Testy optymistycznej współbieżności")
+class TestWersjonowanieEncji {
+
+    private static final int WATKI = 8;
+    private static final int POWTORZENIA = 200;
+
+    private HotelModel model;
+    private Pokoj pokoj101;
+    private Gosc gosc;
+    private LocalDate dzien;
+
+    @BeforeEach
+    void setUp() {
+        // Jeśli: model z pokojem i gościem
+        Gosc.resetIdCounter();
+        Rezerwacja.resetIdCounter();
+        model = new HotelModel();
+        pokoj101 = new Pokoj(101, "Jednoosobowy", 150.0);
+        model.getPokojeDAO().zapisz(pokoj101);
+        gosc = new Gosc("Jan", "Kowalski", "jan@example.com");
+        dzien = LocalDate.now().plusDays(30);
+    }
+
+    @Test
+    @Tag("dao")
+    @DisplayName("zapis z nieaktualną wersją kończy się konfliktem i nie zmienia rezerwacji")
+    void nieaktualnaWersja_Konflikt() {
+        // Jeśli: DAO z dziennikiem i dwie kopie tej samej rezerwacji
+        ZdarzeniowyRezerwacjeDAO dao = new ZdarzeniowyRezerwacjeDAO(new DziennikRezerwacji());
+        Rezerwacja r = dao.zapisz(new Rezerwacja(dzien, dzien.plusDays(2), gosc, pokoj101));
+        long wersja = r.getWersja();
+        Rezerwacja pierwsza = r.kopia();
+        Rezerwacja druga = r.kopia();
+
+        // Gdy: obie kopie są zapisywane z tą samą oczekiwaną wersją
+        pierwsza.setStatus(Rezerwacja.Status.POTWIERDZONA);
+        druga.zmienDaty(dzien.plusDays(5), dzien.plusDays(6));
+        WynikAktualizacji wynikPierwszej = dao.aktualizuj(pierwsza, wersja);
+        WynikAktualizacji wynikDrugiej = dao.aktualizuj(druga, wersja);
+
+        // Wtedy: wygrywa pierwsza, zmiana trafia do zapisanego obiektu, a druga nie zostawia faktu
+        assertEquals(WynikAktualizacji.ZAPISANO, wynikPierwszej);
+        assertEquals(WynikAktualizacji.KONFLIKT, wynikDrugiej);
+        assertEquals(wersja + 1, r.getWersja());
+        assertEquals(Rezerwacja.Status.POTWIERDZONA, r.getStatus());
+        assertEquals(dzien, r.getDataOd());
+        assertEquals(2, dao.historiaRezerwacji(r.getId()).size());
+        assertEquals(WynikAktualizacji.BRAK, dao.aktualizuj(new Rezerwacja(dzien, dzien.plusDays(1), gosc, pokoj101), 0));
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("równoległe zmiany jednej rezerwacji nie gubią aktualizacji")
+    void rownolegleZmianyRezerwacji_BezUtraconychZmian() throws Exception {
+        // Jeśli: rezerwacja zmieniana jednocześnie przez wiele wątków
+        Rezerwacja r = model.utworzRezerwacje(gosc, pokoj101, dzien, dzien.plusDays(2));
+        long wersjaPoczatkowa = r.getWersja();
+        List<Integer> udane = wykonajRownolegle(watek -> {
+            int sukcesy = 0;
+            for (int i = 0; i < POWTORZENIA; i++) {
+                LocalDate od = dzien.plusDays((watek + i) % 5);
+                if (model.modyfikujRezerwacje(r.getId(), od, od.plusDays(2))) {
+                    sukcesy++;
+                }
+                if (watek == 0 && i == POWTORZENIA / 2 && model.potwierdzPlatnosc(r.getId())) {
+                    sukcesy++;
+                }
+            }
+            return sukcesy;
+        });
+
+        // Wtedy: każda udana operacja podniosła wersję dokładnie raz i potwierdzenie nie zostało nadpisane
+        int suma = udane.stream().mapToInt(Integer::intValue).sum();
+        assertEquals(WATKI * POWTORZENIA + 1, suma);
+        assertEquals(wersjaPoczatkowa + suma, r.getWersja());
+        assertEquals(Rezerwacja.Status.POTWIERDZONA, r.getStatus());
+        assertEquals(2, r.getLiczbaNocy());
+        assertEquals(r.getDataOd(), model.migawka().rezerwacja(r.getId()).orElseThrow().getDataOd());
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("równoległe zmiany dat i przeniesienia nie tworzą kolizji w pokoju")
+    void rownolegleZmianyDatIPrzeniesienia_BezKolizji() throws Exception {
+        // Jeśli: drugi pokój i po jednej rezerwacji na wątek w rozłącznych terminach
+        Pokoj pokoj102 = new Pokoj(102, "Jednoosobowy", 150.0);
+        model.getPokojeDAO().zapisz(pokoj102);
+        List<Rezerwacja> rezerwacje = new ArrayList<>();
+        for (int w = 0; w < WATKI; w++) {
+            Pokoj pokoj = w % 2 == 0 ? pokoj101 : pokoj102;
+            LocalDate od = dzien.plusDays(10 + 3L * w);
+            rezerwacje.add(model.utworzRezerwacje(gosc, pokoj, od, od.plusDays(2)));
+        }
+
+        // Gdy: wątki na przemian przesuwają swoje rezerwacje na wspólny termin, przenoszą je i wracają
+        wykonajRownolegle(watek -> {
+            Rezerwacja wlasna = rezerwacje.get(watek);
+            LocalDate wlasnyTermin = wlasna.getDataOd();
+            for (int i = 0; i < POWTORZENIA; i++) {
+                model.modyfikujRezerwacje(wlasna.getId(), dzien, dzien.plusDays(2));
+                model.przeniesRezerwacje(wlasna.getId(), i % 2 == 0 ? pokoj101 : pokoj102);
+                model.modyfikujRezerwacje(wlasna.getId(), wlasnyTermin, wlasnyTermin.plusDays(2));
+            }
+            return 0;
+        });
+
+        // Wtedy: w żadnym pokoju nie ma dwóch aktywnych rezerwacji na ten sam dzień
+        for (Pokoj pokoj : List.of(pokoj101, pokoj102)) {
+            List<Rezerwacja> wPokoju = model.getRezerwacjeDAO().pobierzDlaPokoju(pokoj).stream()
+                    .filter(r -> r.getStatus() != Rezerwacja.Status.ANULOWANA).toList();
+            for (int i = 0; i < wPokoju.size(); i++) {
+                for (int j = i + 1; j < wPokoju.size(); j++) {
+                    Rezerwacja a = wPokoju.get(i);
+                    Rezerwacja b = wPokoju.get(j);
+                    assertFalse(a.getDataOd().isBefore(b.getDataDo()) && b.getDataOd().isBefore(a.getDataDo()),
+                            "Kolizja rezerwacji " + a.getId() + " i " + b.getId() + " w pokoju " + pokoj.getNumer());
+                }
+            }
+        }
+    }
+
+    @Test
+    @Tag("kontroler")
+    @DisplayName("równoległa edycja profilu gościa zachowuje każdą zmianę wersji")
+    void rownoleglaEdycjaProfilu_BezUtraconychZmian() throws Exception {
+        // Jeśli: gość zapisany w modelu i kontroler gości
+        model.getGoscieDAO().zapisz(gosc);
+        GoscieKontroler kontroler = new GoscieKontroler(model);
+
+        // Gdy: wiele wątków zmienia email gościa
+        List<Integer> udane = wykonajRownolegle(watek -> {
+            int sukcesy = 0;
+            for (int i = 0; i < POWTORZENIA; i++) {
+                if (kontroler.edytujProfilGoscia(gosc.getId(), "gosc" + watek + "_" + i + "@example.com")) {
+                    sukcesy++;
+                }
+            }
+            return sukcesy;
+        });
+
+        // Wtedy: wszystkie edycje się powiodły, a końcowy email to ostatnia zapisana wersja
+        assertEquals(WATKI * POWTORZENIA, udane.stream().mapToInt(Integer::intValue).sum());
+        assertEquals(WATKI * POWTORZENIA, gosc.getWersja());
+        assertEquals(gosc.getEmail(), model.migawka().gosc(gosc.getId()).orElseThrow().getEmail());
+        assertFalse(kontroler.edytujProfilGoscia(gosc.getId(), "bez-malpy"));
+    }
+
+    private List<Integer> wykonajRownolegle(ZadanieWatku zadanie) throws Exception {
+        ExecutorService wykonawca = Executors.newFixedThreadPool(WATKI);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> wyniki = new ArrayList<>();
+        for (int w = 0; w < WATKI; w++) {
+            int watek = w;
+            wyniki.add(wykonawca.submit(() -> {
+                start.await();
+                return zadanie.wykonaj(watek);
+            }));
+        }
+        start.countDown();
+        List<Integer> udane = new ArrayList<>();
+        for (Future<Integer> wynik : wyniki) {
+            udane.add(wynik.get(30, TimeUnit.SECONDS));
+        }
+        wykonawca.shutdown();
+        return udane;
+    }
+
+    @FunctionalInterface
+    private interface ZadanieWatku {
+        int wykonaj(int watek);
+    }
+}
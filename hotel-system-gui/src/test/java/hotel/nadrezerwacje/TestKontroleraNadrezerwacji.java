@@ -0,0 +1,161 @@
+package hotel.nadrezerwacje;
+
+import hotel.dao.GoscieDAO;
+import hotel.dao.PokojeDAO;
+import hotel.dao.RezerwacjeDAO;
+import hotel.model.FabrykaGosci;
+import hotel.model.Gosc;
+import hotel.model.HotelModel;
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+import org.junit.jupiter.api.*;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy kontrolera nadrezerwacji i modelu rezygnacji.
+ *
+ * @author Grzegorz - System Zarządzania Hotelem
+ */
+@DisplayName("Testy kontrolera nadrezerwacji")
+class TestKontroleraNadrezerwacji {
+
+    private static final LocalDate DZIS = LocalDate.of(2030, 5, 1);
+    private static final LocalDate PRZYJAZD = DZIS.plusDays(20);
+
+    private HotelModel model;
+    private Gosc gosc;
+    private KontrolerNadrezerwacji kontroler;
+
+    @BeforeEach
+    void setUp() {
+        // Jeśli: 4 pokoje typu Standard i historia 40 pobytów, z których 4 gości nie przybyło,
+        // a 6 anulowało 20 dni przed przyjazdem
+        Gosc.resetIdCounter();
+        Rezerwacja.resetIdCounter();
+        Clock zegar = Clock.fixed(DZIS.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        model = new HotelModel(new RezerwacjeDAO(), new PokojeDAO(), new GoscieDAO(), new FabrykaGosci(), zegar);
+        for (int numer = 101; numer <= 104; numer++) {
+            model.getPokojeDAO().zapisz(new Pokoj(numer, "Standard", 200.0));
+        }
+        gosc = new Gosc("Jan", "Kowalski", "jan@test.pl");
+        Pokoj pokoj = model.getPokojeDAO().pobierz(101).orElseThrow();
+        for (int i = 0; i < 40; i++) {
+            LocalDate od = DZIS.minusDays(100 - 2L * i);
+            Rezerwacja r = new Rezerwacja(od, od.plusDays(1), gosc, pokoj);
+            if (i < 4 || i >= 34) {
+                r.anuluj("Historia");
+                r.setDataAnulowania(i < 4 ? od : od.minusDays(20));
+            }
+            model.getRezerwacjeDAO().zapisz(r);
+        }
+        kontroler = new KontrolerNadrezerwacji(model, 0.5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        model.getSzynaZdarzen().zamknij();
+    }
+
+    private List<Rezerwacja> zarezerwuj(int liczba) {
+        List<Rezerwacja> wynik = new ArrayList<>();
+        for (int i = 0; i < liczba; i++) {
+            wynik.add(model.utworzRezerwacjeTypu(gosc, "Standard", PRZYJAZD, PRZYJAZD.plusDays(2)));
+        }
+        return wynik;
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("limit nadrezerwacji wynika z prawdopodobieństwa rezygnacji przy danym wyprzedzeniu")
+    void limitNadrezerwacji_ZModeluRezygnacji() {
+        ModelRezygnacji modelRezygnacji = new ModelRezygnacji(model.getRezerwacjeDAO(), model.getZegar());
+
+        // Wtedy: 20 dni przed przyjazdem zrezygnuje jeszcze 10 z 40, w dniu przyjazdu 4 z 34 pozostałych
+        assertEquals(0.25, modelRezygnacji.prawdopodobienstwoRezygnacji("Standard", PRZYJAZD), 1e-9);
+        assertEquals(4.0 / 34, modelRezygnacji.prawdopodobienstwoRezygnacji("Standard", DZIS), 1e-9);
+        assertEquals(0.0, modelRezygnacji.prawdopodobienstwoRezygnacji("Apartament", PRZYJAZD));
+        // floor(4 * 0.25 / 0.75) = 1, udział 0.5 pozwala na 2
+        assertEquals(1, kontroler.limitNadrezerwacji("Standard", 4, PRZYJAZD));
+        assertEquals(0, kontroler.limitNadrezerwacji("Standard", 4, DZIS));
+
+        // Gdy: bez polityki piąta rezerwacja jest odrzucana, z polityką przyjmowana, szósta już nie
+        assertNull(zarezerwuj(5).get(4));
+        kontroler.wlacz();
+        assertNotNull(model.utworzRezerwacjeTypu(gosc, "Standard", PRZYJAZD, PRZYJAZD.plusDays(2)));
+        assertNull(model.utworzRezerwacjeTypu(gosc, "Standard", PRZYJAZD, PRZYJAZD.plusDays(2)));
+        assertArrayEquals(new int[] {0, 0, 0}, model.pobierzLiczbyWolnychPokoi("Standard", PRZYJAZD, PRZYJAZD.plusDays(2)));
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("w dniu przyjazdu kolizje są przenoszone do zwolnionego pokoju, a bez niego gość jest relokowany")
+    void rozlokujPrzyjazdy_PrzenosiLubRelokuje() {
+        kontroler.wlacz();
+        List<Rezerwacja> rezerwacje = zarezerwuj(5);
+        Rezerwacja nadrezerwowana = rezerwacje.get(4);
+        assertNotNull(nadrezerwowana);
+
+        // Jeśli: jeden z gości bez kolizji anuluje pobyt
+        Rezerwacja anulowana = rezerwacje.stream()
+                .filter(r -> r.getPokoj().getNumer() != nadrezerwowana.getPokoj().getNumer())
+                .findFirst().orElseThrow();
+        assertTrue(model.anulujRezerwacje(anulowana.getId()));
+
+        // Gdy: rozlokowanie przyjazdów
+        KontrolerNadrezerwacji.WynikRozlokowania wynik = kontroler.rozlokujPrzyjazdy(PRZYJAZD);
+
+        // Wtedy: najnowsza rezerwacja trafia do zwolnionego pokoju, każdy gość ma osobny pokój
+        assertEquals(1, wynik.getPrzeniesione());
+        assertEquals(0, wynik.getRelokowane());
+        assertEquals(anulowana.getPokoj().getNumer(),
+                model.znajdzRezerwacje(nadrezerwowana.getId()).orElseThrow().getPokoj().getNumer());
+        Set<Integer> pokoje = model.getRezerwacjeDAO().pobierzAktywne().stream()
+                .filter(r -> r.getDataOd().equals(PRZYJAZD))
+                .map(r -> r.getPokoj().getNumer())
+                .collect(Collectors.toSet());
+        assertEquals(4, pokoje.size());
+
+        // Gdy: kolejna nadrezerwacja, ale żaden gość już nie rezygnuje
+        Rezerwacja kolejna = model.utworzRezerwacjeTypu(gosc, "Standard", PRZYJAZD, PRZYJAZD.plusDays(2));
+        assertNotNull(kolejna);
+        wynik = kontroler.rozlokujPrzyjazdy(PRZYJAZD);
+        assertEquals(0, wynik.getPrzeniesione());
+        assertEquals(1, wynik.getRelokowane());
+
+        // Wtedy: najnowszy gość jest relokowany z osobną przyczyną, pominiętą w modelu rezygnacji
+        Rezerwacja relokowana = model.znajdzRezerwacje(kolejna.getId()).orElseThrow();
+        assertEquals(Rezerwacja.Status.ANULOWANA, relokowana.getStatus());
+        assertEquals(KontrolerNadrezerwacji.PRZYCZYNA_PRZENIESIENIA, relokowana.getPrzyczynaAnulowania());
+        assertEquals(DZIS, relokowana.getDataAnulowania());
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("rezerwacja zajętego pokoju trafia do wolnego pokoju typu, nadrezerwacja dopiero przy pełnym typie")
+    void zajetyPokoj_NajpierwWolnyPokojTypu() {
+        kontroler.wlacz();
+        Pokoj pokoj101 = model.getPokojeDAO().pobierz(101).orElseThrow();
+
+        // Gdy: kolejni goście rezerwują wciąż ten sam pokój 101
+        List<Rezerwacja> rezerwacje = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            rezerwacje.add(model.utworzRezerwacje(gosc, pokoj101, PRZYJAZD, PRZYJAZD.plusDays(2)));
+        }
+
+        // Wtedy: pierwsze cztery zajmują osobne pokoje typu, dopiero piąta jest nadrezerwacją pokoju 101
+        assertEquals(Set.of(101, 102, 103, 104), rezerwacje.subList(0, 4).stream()
+                .map(r -> r.getPokoj().getNumer())
+                .collect(Collectors.toSet()));
+        assertEquals(101, rezerwacje.get(4).getPokoj().getNumer());
+        assertNull(model.utworzRezerwacje(gosc, pokoj101, PRZYJAZD, PRZYJAZD.plusDays(2)));
+    }
+}
@@ -0,0 +1,150 @@
+package hotel.oczekiwanie;
+
+import hotel.model.Gosc;
+import hotel.model.HotelModel;
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy listy oczekujących z realizacją zgłoszeń po zwolnieniu pokoju.
+ *
+ * @author Grzegorz - System Zarządzania Hotelem
+ */
+@DisplayName("Testy listy oczekujących")
+class TestListaOczekujacych {
+
+    private HotelModel model;
+    private Pokoj apartament;
+    private Gosc jan;
+    private Gosc anna;
+    private Gosc piotr;
+    private LocalDate dzien;
+
+    @BeforeEach
+    void setUp() {
+        // Jeśli: jedyny apartament jest zarezerwowany przez Jana
+        Gosc.resetIdCounter();
+        Rezerwacja.resetIdCounter();
+        model = new HotelModel();
+        apartament = new Pokoj(301, "Apartament", 500.0);
+        model.getPokojeDAO().zapisz(apartament);
+        jan = new Gosc("Jan", "Kowalski", "jan@test.pl");
+        anna = new Gosc("Anna", "Nowak", "anna@test.pl");
+        piotr = new Gosc("Piotr", "Wiśniewski", "piotr@test.pl");
+        dzien = LocalDate.now().plusDays(30);
+    }
+
+    @AfterEach
+    void tearDown() {
+        model.getSzynaZdarzen().zamknij();
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("anulowanie rezerwacji automatycznie rezerwuje pokój pierwszemu pasującemu zgłoszeniu")
+    void anulowanie_RezerwujePierwszePasujaceZgloszenie() throws Exception {
+        Rezerwacja janaRezerwacja = model.utworzRezerwacje(jan, apartament, dzien, dzien.plusDays(5));
+        model.utworzRezerwacje(piotr, apartament, dzien.plusDays(10), dzien.plusDays(12));
+        CountDownLatch zrealizowane = new CountDownLatch(1);
+        try (ListaOczekujacych lista = new ListaOczekujacych(model, ListaOczekujacych.Tryb.REZERWUJ,
+                w -> zrealizowane.countDown())) {
+            // Jeśli: Piotr czeka na termin kolidujący także z własną rezerwacją, a Anna na termin Jana
+            WpisOczekiwania zbytDlugi = lista.zglos(piotr, "Apartament", dzien.plusDays(2), dzien.plusDays(11));
+            WpisOczekiwania annyWpis = lista.zglos(anna, "apartament", dzien.plusDays(1), dzien.plusDays(4));
+
+            // Gdy: Jan anuluje rezerwację
+            assertTrue(model.anulujRezerwacje(janaRezerwacja.getId()));
+
+            // Wtedy: Anna dostaje rezerwację, a zgłoszenie Piotra nadal czeka
+            assertTrue(zrealizowane.await(5, TimeUnit.SECONDS));
+            assertEquals(WpisOczekiwania.Status.ZREALIZOWANY, annyWpis.getStatus());
+            assertEquals(anna, annyWpis.getRezerwacja().getGosc());
+            assertEquals(apartament.getNumer(), annyWpis.getRezerwacja().getPokoj().getNumer());
+            assertEquals(WpisOczekiwania.Status.OCZEKUJE, zbytDlugi.getStatus());
+            assertEquals(List.of(zbytDlugi), lista.pobierzOczekujace("Apartament"));
+            assertEquals(1, lista.liczbaAktywnych());
+        }
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("przeniesienie rezerwacji do pokoju innego typu zwalnia noce w pokoju źródłowym")
+    void przeniesienie_ZwalniaPokojZrodlowy() throws Exception {
+        // Jeśli: jedyny pokój jednoosobowy jest zarezerwowany, a wolny apartament przyjmie gościa
+        Pokoj jednoosobowy = new Pokoj(101, "Jednoosobowy", 150.0);
+        model.getPokojeDAO().zapisz(jednoosobowy);
+        Rezerwacja janaRezerwacja = model.utworzRezerwacje(jan, jednoosobowy, dzien, dzien.plusDays(3));
+        CountDownLatch zrealizowane = new CountDownLatch(1);
+        try (ListaOczekujacych lista = new ListaOczekujacych(model, ListaOczekujacych.Tryb.REZERWUJ,
+                w -> zrealizowane.countDown())) {
+            WpisOczekiwania annyWpis = lista.zglos(anna, "Jednoosobowy", dzien, dzien.plusDays(2));
+
+            // Gdy: rezerwacja Jana zostaje przeniesiona do apartamentu
+            assertTrue(model.przeniesRezerwacje(janaRezerwacja.getId(), apartament));
+
+            // Wtedy: zwolniony pokój jednoosobowy trafia do Anny
+            assertTrue(zrealizowane.await(5, TimeUnit.SECONDS));
+            assertEquals(WpisOczekiwania.Status.ZREALIZOWANY, annyWpis.getStatus());
+            assertEquals(jednoosobowy.getNumer(), annyWpis.getRezerwacja().getPokoj().getNumer());
+        }
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("zmiana dat zwalnia poprzednie noce, a propozycję pokoju można przyjąć")
+    void zmianaDat_ProponujePokojDoPrzyjecia() throws Exception {
+        Rezerwacja janaRezerwacja = model.utworzRezerwacje(jan, apartament, dzien, dzien.plusDays(5));
+        CountDownLatch zaproponowane = new CountDownLatch(1);
+        try (ListaOczekujacych lista = new ListaOczekujacych(model, ListaOczekujacych.Tryb.ZAPROPONUJ,
+                w -> zaproponowane.countDown())) {
+            // Jeśli: Anna czeka na pierwsze dni pobytu Jana
+            WpisOczekiwania wpis = lista.zglos(anna, "Apartament", dzien, dzien.plusDays(2));
+
+            // Gdy: Jan przesuwa przyjazd o tydzień
+            assertTrue(model.modyfikujRezerwacje(janaRezerwacja.getId(), dzien.plusDays(7), dzien.plusDays(12)));
+
+            // Wtedy: Anna dostaje propozycję, która po przyjęciu staje się rezerwacją
+            assertTrue(zaproponowane.await(5, TimeUnit.SECONDS));
+            assertEquals(WpisOczekiwania.Status.ZAPROPONOWANY, wpis.getStatus());
+            assertEquals(apartament.getNumer(), wpis.getProponowanyPokoj().getNumer());
+            Rezerwacja rezerwacja = lista.przyjmijOferte(wpis.getId());
+            assertNotNull(rezerwacja);
+            assertEquals(WpisOczekiwania.Status.ZREALIZOWANY, wpis.getStatus());
+            assertNull(lista.przyjmijOferte(wpis.getId()));
+            assertEquals(0, lista.liczbaAktywnych());
+        }
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("indeks przedziałowy wskazuje tylko zgłoszenia w pobliżu zwolnionego terminu")
+    void indeksPrzedzialowy_OgraniczaKandydatow() {
+        try (ListaOczekujacych lista = new ListaOczekujacych(model)) {
+            // Jeśli: kilka tysięcy zgłoszeń rozłożonych na kolejne lata i dwa w zwolnionym terminie
+            for (int i = 0; i < 3000; i++) {
+                lista.zglos(jan, "Apartament", dzien.plusDays(100 + i), dzien.plusDays(103 + i));
+            }
+            WpisOczekiwania pierwszy = lista.zglos(anna, "Apartament", dzien.plusDays(1), dzien.plusDays(3));
+            WpisOczekiwania drugi = lista.zglos(piotr, "Apartament", dzien.plusDays(3), dzien.plusDays(6));
+
+            // Gdy: zwalniają się dni pokoju w terminie obu zgłoszeń
+            List<WpisOczekiwania> obsluzone = lista.obsluzZwolnienie("Apartament", dzien, dzien.plusDays(7));
+
+            // Wtedy: sprawdzono tylko dwa zgłoszenia; drugie koliduje z pierwszym w dniu wyjazdu
+            assertEquals(2, lista.getLiczbaSprawdzonych());
+            assertEquals(List.of(pierwszy), obsluzone);
+            assertEquals(WpisOczekiwania.Status.OCZEKUJE, drugi.getStatus());
+            assertEquals(3001, lista.liczbaAktywnych());
+            assertThrows(IllegalArgumentException.class,
+                    () -> lista.zglos(anna, "Apartament", dzien.plusDays(3), dzien.plusDays(3)));
+        }
+    }
+}
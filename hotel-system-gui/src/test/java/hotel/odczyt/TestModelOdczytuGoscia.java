@@ -0,0 +1,178 @@
+package hotel.odczyt;
+
+import hotel.model.Gosc;
+import hotel.model.HotelModel;
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+import hotel.zdarzenia.ZdarzenieRezerwacji;
+import org.junit.jupiter.api.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy modelu odczytu panelu gościa.
+ *
+ * @author Grzegorz - System Zarządzania Hotelem
+ */
+@DisplayName("Testy modelu odczytu gościa")
+class TestModelOdczytuGoscia {
+
+    private HotelModel model;
+    private Pokoj pokoj101;
+    private Pokoj pokoj201;
+    private Gosc gosc;
+    private LocalDate dzien;
+    private ModelOdczytuGoscia odczyt;
+
+    @BeforeEach
+    void setUp() {
+        // Jeśli: model z dwoma pokojami różnych typów i gościem
+        Gosc.resetIdCounter();
+        Rezerwacja.resetIdCounter();
+        model = new HotelModel();
+        pokoj101 = new Pokoj(101, "Jednoosobowy", 150.0);
+        pokoj201 = new Pokoj(201, "Dwuosobowy", 250.0);
+        model.getPokojeDAO().zapisz(pokoj101);
+        model.getPokojeDAO().zapisz(pokoj201);
+        gosc = new Gosc("Jan", "Kowalski", "jan@example.com");
+        dzien = LocalDate.now().plusDays(10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (odczyt != null) {
+            odczyt.close();
+        }
+        model.getSzynaZdarzen().zamknij();
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("stan początkowy jest budowany z DAO")
+    void stanPoczatkowy_ZDao() {
+        // Jeśli: rezerwacja istniejąca przed utworzeniem modelu odczytu
+        Rezerwacja r = model.utworzRezerwacje(gosc, pokoj101, dzien, dzien.plusDays(2));
+
+        // Gdy: tworzymy model odczytu
+        odczyt = new ModelOdczytuGoscia(model.getRezerwacjeDAO(), model.getPokojeDAO(), model.getSzynaZdarzen());
+
+        // Wtedy: rezerwacja i zajętość pokoju są widoczne od razu
+        List<WidokRezerwacji> moje = odczyt.mojeRezerwacje(gosc.getId());
+        assertEquals(1, moje.size());
+        assertEquals(r.getId(), moje.get(0).getId());
+        assertEquals("Jednoosobowy", moje.get(0).getTypPokoju());
+        assertEquals(r.obliczCene(), moje.get(0).getCena(), 0.001);
+        assertEquals(List.of(pokoj201), odczyt.dostepnePokoje(null, dzien, dzien.plusDays(1)));
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("zmiany w modelu trafiają do widoków asynchronicznie")
+    void zmianyModelu_AktualizujaWidoki() throws InterruptedException {
+        // Jeśli: pusty model odczytu
+        odczyt = new ModelOdczytuGoscia(model.getRezerwacjeDAO(), model.getPokojeDAO(), model.getSzynaZdarzen());
+        assertEquals(2, odczyt.dostepnePokoje(null, dzien, dzien.plusDays(1)).size());
+
+        // Gdy: gość rezerwuje pokój
+        Rezerwacja r = model.utworzRezerwacje(gosc, pokoj201, dzien, dzien.plusDays(3));
+
+        // Wtedy: pojawia się w "moich rezerwacjach" z wyliczoną ceną, a pokój znika z dostępnych
+        czekajNa(m -> m.rezerwacja(r.getId()) != null);
+        WidokRezerwacji widok = odczyt.mojeRezerwacje(gosc.getId()).get(0);
+        assertEquals(Rezerwacja.Status.NOWA, widok.getStatus());
+        assertEquals(r.obliczCene(), widok.getCena(), 0.001);
+        assertEquals(250.0, widok.getCenaZaNoc(), 0.001);
+        assertEquals(List.of(pokoj101), odczyt.dostepnePokoje(null, dzien.plusDays(1), dzien.plusDays(2)));
+        assertTrue(odczyt.dostepnePokoje("dwuosobowy", dzien, dzien.plusDays(1)).isEmpty());
+
+        // Gdy: rezerwacja zostaje anulowana
+        assertTrue(model.anulujRezerwacje(r.getId()));
+
+        // Wtedy: status jest zaktualizowany, a pokój znów dostępny
+        czekajNa(m -> m.rezerwacja(r.getId()).getStatus() == Rezerwacja.Status.ANULOWANA);
+        assertEquals(List.of(pokoj201), odczyt.dostepnePokoje("Dwuosobowy", dzien, dzien.plusDays(1)));
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("pobrana migawka nie zmienia się po kolejnych zapisach")
+    void migawka_JestNiezmienna() throws InterruptedException {
+        // Jeśli: migawka pobrana przed rezerwacją
+        odczyt = new ModelOdczytuGoscia(model.getRezerwacjeDAO(), model.getPokojeDAO(), model.getSzynaZdarzen());
+        ModelOdczytuGoscia.Migawka przed = odczyt.migawka();
+
+        // Gdy: powstaje rezerwacja i model odczytu ją uwzględnia
+        Rezerwacja r = model.utworzRezerwacje(gosc, pokoj101, dzien, dzien.plusDays(1));
+        czekajNa(m -> m.rezerwacja(r.getId()) != null);
+
+        // Wtedy: stara migawka nadal opisuje stan sprzed zmiany
+        assertTrue(przed.rezerwacjeGoscia(gosc.getId()).isEmpty());
+        assertEquals(2, przed.dostepnePokoje(null, dzien, dzien).size());
+        assertTrue(odczyt.migawka().getWersja() > przed.getWersja());
+        assertThrows(UnsupportedOperationException.class,
+                () -> odczyt.mojeRezerwacje(gosc.getId()).clear());
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("zdarzenie starsze od naniesionego stanu jest pomijane")
+    void spoznioneZdarzenie_Pomijane() throws InterruptedException {
+        // Jeśli: rezerwacja anulowana i uwzględniona przez model odczytu
+        odczyt = new ModelOdczytuGoscia(model.getRezerwacjeDAO(), model.getPokojeDAO(), model.getSzynaZdarzen());
+        Rezerwacja r = model.utworzRezerwacje(gosc, pokoj101, dzien, dzien.plusDays(1));
+        Rezerwacja przedAnulowaniem = r.kopia();
+        assertTrue(model.anulujRezerwacje(r.getId()));
+        czekajNa(m -> m.rezerwacja(r.getId()) != null
+                && m.rezerwacja(r.getId()).getStatus() == Rezerwacja.Status.ANULOWANA);
+
+        // Gdy: z opóźnieniem dociera zdarzenie z wcześniejszej wersji, a po nim nowa rezerwacja
+        model.getSzynaZdarzen().publikuj(ZdarzenieRezerwacji.z(ZdarzenieRezerwacji.Typ.UTWORZONA,
+                przedAnulowaniem, Instant.now()));
+        Rezerwacja kolejna = model.utworzRezerwacje(gosc, pokoj201, dzien, dzien.plusDays(1));
+        czekajNa(m -> m.rezerwacja(kolejna.getId()) != null);
+
+        // Wtedy: widok nie wraca do stanu sprzed anulowania, bez przebudowy z DAO
+        assertEquals(Rezerwacja.Status.ANULOWANA, odczyt.migawka().rezerwacja(r.getId()).getStatus());
+        assertEquals(List.of(pokoj101), odczyt.dostepnePokoje("Jednoosobowy", dzien, dzien));
+        assertEquals(1, odczyt.getLiczbaPrzebudowan());
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("pokój dodany bezpośrednio do DAO jest widoczny w wyszukiwaniu")
+    void nowyPokoj_WidocznyPoZmianieKatalogu() {
+        // Jeśli: model odczytu zbudowany z dwoma pokojami
+        odczyt = new ModelOdczytuGoscia(model.getRezerwacjeDAO(), model.getPokojeDAO(), model.getSzynaZdarzen());
+
+        // Gdy: recepcja dodaje pokój z pominięciem modelu
+        model.getPokojeDAO().zapisz(new Pokoj(301, "Apartament", 500.0));
+
+        // Wtedy: zapytanie wykrywa zmianę wersji katalogu pokoi
+        List<Pokoj> apartamenty = odczyt.dostepnePokoje("Apartament", dzien, dzien.plusDays(1));
+        assertEquals(1, apartamenty.size());
+        assertEquals(301, apartamenty.get(0).getNumer());
+    }
+
+    @Test
+    @Tag("walidacja")
+    @DisplayName("odwrócony przedział dat jest odrzucany")
+    void odwroconyPrzedzial_RzucaWyjatek() {
+        odczyt = new ModelOdczytuGoscia(model.getRezerwacjeDAO(), model.getPokojeDAO(), model.getSzynaZdarzen());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> odczyt.dostepnePokoje(null, dzien, dzien.minusDays(1)));
+    }
+
+    private void czekajNa(Predicate<ModelOdczytuGoscia.Migawka> warunek) throws InterruptedException {
+        long koniec = System.nanoTime() + 5_000_000_000L;
+        while (!warunek.test(odczyt.migawka())) {
+            assertTrue(System.nanoTime() < koniec, "Model odczytu nie został zaktualizowany w czasie");
+            Thread.sleep(5);
+        }
+    }
+}
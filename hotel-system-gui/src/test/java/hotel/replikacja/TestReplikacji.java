@@ -0,0 +1,210 @@
+package hotel.replikacja;
+
+import hotel.dao.MigawkaDanych;
+import hotel.metryki.RejestrMetryk;
+import hotel.model.Gosc;
+import hotel.model.HotelModel;
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+import hotel.model.Sniadanie;
+import org.junit.jupiter.api.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy replikacji węzła głównego do repliki odczytu.
+ *
+ * @author Grzegorz - System Zarządzania Hotelem
+ */
+@DisplayName("Testy replikacji")
+class TestReplikacji {
+
+    private static final Duration LIMIT = Duration.ofSeconds(10);
+
+    private HotelModel model;
+    private NadawcaReplikacji nadawca;
+    private Pokoj pokoj101;
+    private Pokoj pokoj102;
+    private Gosc jan;
+    private LocalDate dzien;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Jeśli: węzeł główny z dwoma pokojami, rezerwacją i nadawcą replikacji
+        Gosc.resetIdCounter();
+        Rezerwacja.resetIdCounter();
+        model = new HotelModel();
+        pokoj101 = new Pokoj(101, "Jednoosobowy", 150.0);
+        pokoj102 = new Pokoj(102, "Dwuosobowy", 250.0);
+        model.getPokojeDAO().zapisz(pokoj101);
+        model.getPokojeDAO().zapisz(pokoj102);
+        jan = new Gosc("Jan", "Kowalski", "jan@example.com");
+        dzien = LocalDate.now().plusDays(10);
+        model.utworzRezerwacje(jan, pokoj101, dzien, dzien.plusDays(2));
+        nadawca = new NadawcaReplikacji(model.getMagazynMigawek(), 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        nadawca.close();
+        model.getSzynaZdarzen().zamknij();
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("replika odtwarza pełny stan, kolejne zmiany i usunięcia")
+    void replika_OdtwarzaStanWezlaGlownego() throws Exception {
+        RejestrMetryk rejestr = new RejestrMetryk();
+        try (ReplikaOdczytu replika = new ReplikaOdczytu("127.0.0.1", nadawca.getPort(), rejestr)) {
+            // Wtedy: po podłączeniu replika ma stan początkowy
+            assertTrue(replika.czekajNaWersje(model.migawka().getWersja(), LIMIT));
+            assertZgodne(model.migawka(), replika.migawka());
+
+            // Gdy: na węźle głównym zachodzą zmiany różnego rodzaju
+            Gosc anna = new Gosc("Anna", "Nowak", "anna@example.com");
+            Rezerwacja druga = model.utworzRezerwacje(anna, pokoj102, dzien, dzien.plusDays(3));
+            druga.dodajDodatek(new Sniadanie(3));
+            model.getRezerwacjeDAO().aktualizuj(druga);
+            Rezerwacja pierwsza = model.getRezerwacjeDAO().pobierzWszystkie().stream()
+                    .filter(r -> r.getId() != druga.getId()).findFirst().orElseThrow();
+            assertTrue(model.zameldujGoscia(pierwsza.getId()));
+            assertTrue(model.anulujRezerwacje(druga.getId(), "Choroba"));
+            pokoj102.setCena(300.0);
+            model.getPokojeDAO().aktualizuj(pokoj102);
+            assertTrue(model.zmienEmailGoscia(jan.getId(), "jan.k@example.com"));
+            model.getRezerwacjeDAO().usun(druga.getId());
+            model.getGoscieDAO().usun(anna.getId());
+
+            // Wtedy: replika dochodzi do tej samej wersji z tym samym stanem
+            assertTrue(replika.czekajNaWersje(model.migawka().getWersja(), LIMIT));
+            assertZgodne(model.migawka(), replika.migawka());
+            assertEquals("jan.k@example.com", replika.migawka().gosc(jan.getId()).orElseThrow().getEmail());
+            assertEquals(Rezerwacja.Status.ZAMELDOWANA,
+                    replika.migawka().rezerwacja(pierwsza.getId()).orElseThrow().getStatus());
+            assertTrue(replika.getOpoznienieMs() < LIMIT.toMillis());
+            assertTrue(rejestr.migawka().stream()
+                    .anyMatch(m -> m.getNazwa().equals(ReplikaOdczytu.METRYKA_OPOZNIENIA)));
+        }
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("replika w osobnej maszynie wirtualnej obsługuje zapytania raportowe")
+    void replikaWOsobnejJvm_OdpowiadaNaZapytania() throws Exception {
+        // Jeśli: proces repliki podłączony do nadawcy węzła głównego
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        Process proces = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                ReplikaOdczytu.class.getName(), "127.0.0.1", String.valueOf(nadawca.getPort()))
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        try (PrintWriter polecenia = new PrintWriter(
+                     new OutputStreamWriter(proces.getOutputStream(), StandardCharsets.UTF_8), true);
+             BufferedReader odpowiedzi = new BufferedReader(
+                     new InputStreamReader(proces.getInputStream(), StandardCharsets.UTF_8))) {
+
+            // Gdy: na węźle głównym powstaje druga rezerwacja
+            model.utworzRezerwacje(new Gosc("Ewa", "Lis", "ewa@example.com"), pokoj102, dzien, dzien.plusDays(4));
+            long wersja = model.migawka().getWersja();
+
+            // Wtedy: replika dochodzi do wersji węzła głównego i zwraca ten sam przychód
+            long koniec = System.nanoTime() + LIMIT.toNanos();
+            while (zapytaj(polecenia, odpowiedzi, "wersja") < wersja) {
+                assertTrue(System.nanoTime() < koniec, "Replika nie nadąża za węzłem głównym");
+                Thread.sleep(20);
+            }
+            assertEquals(String.format(Locale.ROOT, "%.2f", model.getRezerwacjeDAO().obliczSumePrzychodow()),
+                    zapytajTekst(polecenia, odpowiedzi, "przychod"));
+            assertEquals(2, zapytaj(polecenia, odpowiedzi, "rezerwacje"));
+            assertTrue(zapytaj(polecenia, odpowiedzi, "opoznienie") < LIMIT.toMillis());
+            assertEquals(1, nadawca.getLiczbaOdbiorcow());
+
+            polecenia.println("koniec");
+            assertTrue(proces.waitFor(10, TimeUnit.SECONDS));
+            assertEquals(0, proces.exitValue());
+        } finally {
+            proces.destroyForcibly();
+        }
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("nadawca rejestruje przyjęte repliki w metrykach, a replika bez argumentów podaje sposób użycia")
+    void metrykiPrzyjmowania_IWalidacjaArgumentow() throws Exception {
+        // Jeśli: nadawca z rejestrem metryk
+        RejestrMetryk rejestr = new RejestrMetryk();
+        try (NadawcaReplikacji zMetrykami = new NadawcaReplikacji(model.getMagazynMigawek(), 0, rejestr);
+             ReplikaOdczytu replika = new ReplikaOdczytu("127.0.0.1", zMetrykami.getPort())) {
+            // Gdy: replika się podłącza i dostaje pełny stan
+            assertTrue(replika.czekajNaWersje(model.migawka().getWersja(), LIMIT));
+
+            // Wtedy: przyjęcie zostało zarejestrowane bez błędów
+            assertEquals(1, rejestr.metryki(NadawcaReplikacji.METRYKA_PRZYJMOWANIA).migawka().getLiczbaWywolan());
+            assertEquals(0, rejestr.metryki(NadawcaReplikacji.METRYKA_PRZYJMOWANIA).migawka().getLiczbaNiepowodzen());
+            assertEquals(0, zMetrykami.getLiczbaBledowPrzyjmowania());
+        }
+
+        // Wtedy: brak portu lub nieprawidłowy port kończy program komunikatem o użyciu, bez łączenia się
+        PrintStream bledy = System.err;
+        ByteArrayOutputStream komunikaty = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(komunikaty, true, StandardCharsets.UTF_8));
+        try {
+            ReplikaOdczytu.main(new String[] {"127.0.0.1"});
+            ReplikaOdczytu.main(new String[] {"127.0.0.1", "port"});
+            ReplikaOdczytu.main(new String[] {"127.0.0.1", "70000"});
+        } finally {
+            System.setErr(bledy);
+        }
+        String wyjscie = komunikaty.toString(StandardCharsets.UTF_8);
+        assertEquals(3, wyjscie.split("Użycie: ReplikaOdczytu <host> <port>", -1).length - 1);
+        assertTrue(wyjscie.contains("Nieprawidłowy port: 70000"));
+    }
+
+    private static long zapytaj(PrintWriter polecenia, BufferedReader odpowiedzi, String polecenie) throws Exception {
+        return Long.parseLong(zapytajTekst(polecenia, odpowiedzi, polecenie));
+    }
+
+    private static String zapytajTekst(PrintWriter polecenia, BufferedReader odpowiedzi, String polecenie)
+            throws Exception {
+        polecenia.println(polecenie);
+        String odpowiedz = odpowiedzi.readLine();
+        assertNotNull(odpowiedz, "Proces repliki zakończył się przedwcześnie");
+        return odpowiedz.trim();
+    }
+
+    private static void assertZgodne(MigawkaDanych glowna, MigawkaDanych replika) {
+        assertEquals(opisGosci(glowna.goscie()), opisGosci(replika.goscie()));
+        assertEquals(glowna.liczbaPokoi(), replika.liczbaPokoi());
+        for (Pokoj pokoj : glowna.pokoje()) {
+            Pokoj kopia = replika.pokoj(pokoj.getNumer()).orElseThrow();
+            assertEquals(pokoj.getCenaBazowa(), kopia.getCenaBazowa(), 0.001);
+            assertEquals(glowna.czyPokojDostepny(pokoj.getNumer()), replika.czyPokojDostepny(pokoj.getNumer()));
+        }
+        assertEquals(glowna.liczbaRezerwacji(), replika.liczbaRezerwacji());
+        for (Rezerwacja r : glowna.rezerwacje()) {
+            Rezerwacja kopia = replika.rezerwacja(r.getId()).orElseThrow();
+            assertEquals(r.getStatus(), kopia.getStatus());
+            assertEquals(r.getDataOd(), kopia.getDataOd());
+            assertEquals(r.getPrzyczynaAnulowania(), kopia.getPrzyczynaAnulowania());
+            assertEquals(r.obliczCene(), kopia.obliczCene(), 0.001);
+        }
+        assertEquals(glowna.obliczSumePrzychodow(), replika.obliczSumePrzychodow(), 0.001);
+    }
+
+    private static List<String> opisGosci(List<Gosc> goscie) {
+        return goscie.stream().map(g -> g.getId() + ":" + g.getEmail()).toList();
+    }
+}
@@ -0,0 +1,158 @@
+package hotel.wymiana;
+
+import hotel.model.Gosc;
+import hotel.model.HotelModel;
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+import hotel.model.Sniadanie;
+import org.junit.jupiter.api.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy strumieniowego eksportu danych.
+ *
+ * @author Grzegorz - System Zarządzania Hotelem
+ */
+@DisplayName("Testy eksportu danych")
+class TestEksporterDanych {
+
+    private HotelModel model;
+    private EksporterDanych eksporter;
+    private Rezerwacja rezerwacja;
+
+    @BeforeEach
+    void setUp() {
+        // Jeśli: hotel z pokojem o nietypowej nazwie, gościem i rezerwacją ze śniadaniem
+        Gosc.resetIdCounter();
+        Rezerwacja.resetIdCounter();
+        model = new HotelModel();
+        Pokoj pokoj = new Pokoj(101, "Apartament \"Lux\", widok", 199.99);
+        model.getPokojeDAO().zapisz(pokoj);
+        Gosc gosc = new Gosc("Łucja", "Kowalska", "lucja@example.com");
+        model.getGoscieDAO().zapisz(gosc);
+        rezerwacja = new Rezerwacja(LocalDate.of(2030, 5, 1), LocalDate.of(2030, 5, 4), gosc, pokoj);
+        rezerwacja.dodajDodatek(new Sniadanie(3));
+        model.getRezerwacjeDAO().zapisz(rezerwacja);
+        eksporter = new EksporterDanych(model);
+    }
+
+    @AfterEach
+    void tearDown() {
+        model.getSzynaZdarzen().zamknij();
+    }
+
+    @Test
+    @Tag("dao")
+    @DisplayName("eksport CSV daje się zaimportować do pustego hotelu")
+    void eksportCsv_ImportOdtwarzaDane() throws Exception {
+        // Gdy: wszystkie rodzaje danych są eksportowane do CSV i importowane do nowego hotelu
+        HotelModel kopia = new HotelModel();
+        try {
+            ImporterDanych importer = new ImporterDanych(kopia);
+            for (RodzajDanych rodzaj : RodzajDanych.values()) {
+                String csv = eksportujTekst(FormatDanych.CSV, rodzaj);
+                RaportImportu raport = importer.importuj(new StringReader(csv), FormatDanych.CSV, rodzaj);
+                assertTrue(raport.czyBezBledow(), raport.getBledy().toString());
+                assertEquals(1, raport.getLiczbaZaimportowanych());
+            }
+
+            // Wtedy: kopia ma te same dane, a cena rezerwacji jest zapisana z dokładnością do grosza
+            assertEquals("Apartament \"Lux\", widok", kopia.getPokojeDAO().pobierz(101).orElseThrow().getTyp());
+            assertEquals("Łucja", kopia.getGoscieDAO().pobierz(1).orElseThrow().getImie());
+            Rezerwacja odtworzona = kopia.getRezerwacjeDAO().pobierz(rezerwacja.getId()).orElseThrow();
+            assertEquals(rezerwacja.getDataDo(), odtworzona.getDataDo());
+            String csv = eksportujTekst(FormatDanych.CSV, RodzajDanych.REZERWACJE);
+            assertEquals("id,idGoscia,numerPokoju,dataOd,dataDo,status,cena", csv.lines().findFirst().orElseThrow());
+            assertTrue(csv.contains(String.format(Locale.ROOT, ",NOWA,%.2f", rezerwacja.obliczCene())),
+                    csv);
+        } finally {
+            kopia.getSzynaZdarzen().zamknij();
+        }
+    }
+
+    @Test
+    @Tag("dao")
+    @DisplayName("eksport JSON Lines z kompresją gzip")
+    void eksportJsonGzip_ZapisujeSkompresowaneWiersze() throws Exception {
+        // Gdy: goście są eksportowani do JSON Lines z kompresją
+        ByteArrayOutputStream wyjscie = new ByteArrayOutputStream();
+        long liczba = eksporter.eksportuj(Channels.newChannel(wyjscie), FormatDanych.JSON, RodzajDanych.GOSCIE, true);
+
+        // Wtedy: po rozpakowaniu jest jeden obiekt JSON z polskimi znakami
+        assertEquals(1, liczba);
+        try (BufferedReader czytnik = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(wyjscie.toByteArray())), StandardCharsets.UTF_8))) {
+            assertEquals(List.of(
+                    "{\"id\":1,\"imie\":\"Łucja\",\"nazwisko\":\"Kowalska\",\"email\":\"lucja@example.com\"}"),
+                    czytnik.lines().toList());
+        }
+    }
+
+    @Test
+    @Tag("dao")
+    @DisplayName("format kolumnowy zapisuje dane blokami kolumn")
+    void eksportKolumnowy_ZapisujeBlokiKolumn() throws Exception {
+        // Jeśli: pokoi jest więcej niż mieści jeden blok
+        int liczbaPokoi = EksporterDanych.ROZMIAR_BLOKU + 10;
+        for (int numer = 1000; numer < 1000 + liczbaPokoi - 1; numer++) {
+            model.getPokojeDAO().zapisz(new Pokoj(numer, "Dwuosobowy", 250.0));
+        }
+
+        // Gdy: pokoje są eksportowane w formacie kolumnowym
+        ByteArrayOutputStream wyjscie = new ByteArrayOutputStream();
+        assertEquals(liczbaPokoi, eksporter.eksportuj(Channels.newChannel(wyjscie),
+                FormatDanych.KOLUMNOWY, RodzajDanych.POKOJE, false));
+
+        // Wtedy: nagłówek opisuje kolumny, a bloki zawierają wszystkie wartości
+        DataInputStream dane = new DataInputStream(new ByteArrayInputStream(wyjscie.toByteArray()));
+        assertEquals(EksporterDanych.MAGIC, dane.readInt());
+        assertEquals(EksporterDanych.WERSJA_FORMATU, dane.readByte());
+        assertEquals(RodzajDanych.POKOJE.ordinal(), dane.readByte());
+        assertEquals(3, dane.readShort());
+        for (EksporterDanych.TypKolumny typ : List.of(EksporterDanych.TypKolumny.CALKOWITA,
+                EksporterDanych.TypKolumny.TEKST, EksporterDanych.TypKolumny.KWOTA)) {
+            assertEquals(typ.kod, dane.readByte());
+            dane.readNBytes(dane.readShort());
+        }
+        int wierszy = 0;
+        boolean znalezionyLux = false;
+        for (int blok = dane.readInt(); blok > 0; blok = dane.readInt()) {
+            assertTrue(blok <= EksporterDanych.ROZMIAR_BLOKU);
+            int[] numery = new int[blok];
+            for (int i = 0; i < blok; i++) {
+                numery[i] = dane.readInt();
+            }
+            for (int i = 0; i < blok; i++) {
+                String typ = new String(dane.readNBytes(dane.readInt()), StandardCharsets.UTF_8);
+                znalezionyLux |= numery[i] == 101 && typ.equals("Apartament \"Lux\", widok");
+            }
+            for (int i = 0; i < blok; i++) {
+                assertEquals(numery[i] == 101 ? 199.99 : 250.0, dane.readDouble(), 0.001);
+            }
+            wierszy += blok;
+        }
+        assertEquals(liczbaPokoi, wierszy);
+        assertTrue(znalezionyLux);
+        assertEquals(0, dane.available());
+    }
+
+    private String eksportujTekst(FormatDanych format, RodzajDanych rodzaj) throws Exception {
+        ByteArrayOutputStream wyjscie = new ByteArrayOutputStream();
+        eksporter.eksportuj(Channels.newChannel(wyjscie), format, rodzaj, false);
+        return wyjscie.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,153 @@
+package hotel.wymiana;
+
+import hotel.model.Gosc;
+import hotel.model.HotelModel;
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+import org.junit.jupiter.api.*;
+
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy strumieniowego importu danych.
+ *
+ * @author Grzegorz - System Zarządzania Hotelem
+ */
+@DisplayName("Testy importu danych")
+class TestImporterDanych {
+
+    private HotelModel model;
+    private ImporterDanych importer;
+
+    @BeforeEach
+    void setUp() {
+        Gosc.resetIdCounter();
+        Rezerwacja.resetIdCounter();
+        model = new HotelModel();
+        // Mała partia, aby dane przechodziły przez kilka partii
+        importer = new ImporterDanych(model.getGoscieDAO(), model.getPokojeDAO(), model.getRezerwacjeDAO(), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        model.getSzynaZdarzen().zamknij();
+    }
+
+    @Test
+    @Tag("dao")
+    @DisplayName("import CSV wczytuje pokoje, gości i rezerwacje z polami w cudzysłowach")
+    void importCsv_WczytujeWszystkieRodzajeDanych() throws Exception {
+        // Gdy: importowane są kolejno pokoje, goście i rezerwacje
+        RaportImportu pokoje = importer.importuj(new StringReader("""
+                numer,typ,cena
+                101,Jednoosobowy,150
+                102,"Apartament ""Lux"", widok",420.50
+
+                103,Dwuosobowy,250
+                """), FormatDanych.CSV, RodzajDanych.POKOJE);
+        RaportImportu goscie = importer.importuj(new StringReader("""
+                id,imie,nazwisko,email
+                10,Jan,Kowalski,jan@example.com
+                11,"Anna Maria",Nowak,anna@example.com
+                """), FormatDanych.CSV, RodzajDanych.GOSCIE);
+        RaportImportu rezerwacje = importer.importuj(new StringReader("""
+                id,idGoscia,numerPokoju,dataOd,dataDo,status
+                50,10,101,2030-01-10,2030-01-12,POTWIERDZONA
+                51,11,102,2030-01-10,2030-01-15,
+                """), FormatDanych.CSV, RodzajDanych.REZERWACJE);
+
+        // Wtedy: wszystkie wiersze są zaimportowane i dostępne przez DAO oraz indeksy
+        assertTrue(pokoje.czyBezBledow(), pokoje.getBledy().toString());
+        assertTrue(goscie.czyBezBledow(), goscie.getBledy().toString());
+        assertTrue(rezerwacje.czyBezBledow(), rezerwacje.getBledy().toString());
+        assertEquals(3, pokoje.getLiczbaZaimportowanych());
+        assertEquals("Apartament \"Lux\", widok", model.getPokojeDAO().pobierz(102).orElseThrow().getTyp());
+        assertEquals("Anna Maria", model.getGoscieDAO().pobierz(11).orElseThrow().getImie());
+        assertEquals(Rezerwacja.Status.POTWIERDZONA, model.getRezerwacjeDAO().pobierz(50).orElseThrow().getStatus());
+        assertEquals(Rezerwacja.Status.NOWA, model.getRezerwacjeDAO().pobierz(51).orElseThrow().getStatus());
+        Pokoj pokoj101 = model.getPokojeDAO().pobierz(101).orElseThrow();
+        assertFalse(model.getRezerwacjeDAO().czyPokojDostepny(pokoj101,
+                LocalDate.of(2030, 1, 11), LocalDate.of(2030, 1, 13)));
+
+        // Wtedy: nowe identyfikatory nie kolidują z zaimportowanymi
+        assertEquals(12, new Gosc("Ewa", "Lis", "ewa@example.com").getId());
+        Rezerwacja nowa = model.utworzRezerwacje(model.getGoscieDAO().pobierz(10).orElseThrow(),
+                model.getPokojeDAO().pobierz(103).orElseThrow(), LocalDate.of(2030, 2, 1), LocalDate.of(2030, 2, 3));
+        assertEquals(52, nowa.getId());
+    }
+
+    @Test
+    @Tag("dao")
+    @DisplayName("import JSON Lines wczytuje gości z sekwencjami ucieczki")
+    void importJson_WczytujeGosci() throws Exception {
+        // Gdy: importowani są goście zapisani jako JSON Lines
+        RaportImportu raport = importer.importuj(new StringReader("""
+                {"id": 1, "imie": "Zofia", "nazwisko": "Nowak-Kowalska", "email": "zofia@example.com"}
+                {"email":"piotr@example.com","nazwisko":"Wi\\u015bniewski","imie":"Piotr","id":2}
+                {"id": 3, "imie": "Jan", "nazwisko": "Nowak", "email": null}
+                """), FormatDanych.JSON, RodzajDanych.GOSCIE);
+
+        // Wtedy: poprawne wiersze są zaimportowane, a brak pola zgłoszony dla wiersza 3
+        assertEquals(3, raport.getLiczbaWierszy());
+        assertEquals(2, raport.getLiczbaZaimportowanych());
+        assertEquals("Wiśniewski", model.getGoscieDAO().pobierz(2).orElseThrow().getNazwisko());
+        assertEquals(1, raport.getLiczbaBledow());
+        assertEquals(3, raport.getBledy().get(0).getNumerWiersza());
+        assertTrue(raport.getBledy().get(0).getKomunikat().contains("email"));
+    }
+
+    @Test
+    @Tag("walidacja")
+    @DisplayName("błędne i kolidujące wiersze są odrzucane z opisem, poprawne importowane")
+    void bledneWiersze_SaRaportowaneIPomijane() throws Exception {
+        // Jeśli: w hotelu jest pokój, gość i rezerwacja
+        Pokoj pokoj = new Pokoj(101, "Jednoosobowy", 150.0);
+        model.getPokojeDAO().zapisz(pokoj);
+        Gosc jan = new Gosc(1, "Jan", "Kowalski", "jan@example.com");
+        model.getGoscieDAO().zapisz(jan);
+        model.getRezerwacjeDAO().zapisz(new Rezerwacja(1, LocalDate.of(2030, 3, 10), LocalDate.of(2030, 3, 12), jan, pokoj));
+
+        // Gdy: importowani są goście z duplikatem adresu email
+        RaportImportu goscie = importer.importuj(new StringReader("""
+                id,imie,nazwisko,email
+                2,Anna,Nowak,JAN@example.com
+                3,Ewa,Lis,ewa@example.com
+                4,Piotr,Zając
+                """), FormatDanych.CSV, RodzajDanych.GOSCIE);
+
+        // Wtedy: duplikat email i niepełny wiersz są odrzucone
+        assertEquals(1, goscie.getLiczbaZaimportowanych());
+        assertEquals(List.of(2, 4), goscie.getBledy().stream().map(RaportImportu.BladWiersza::getNumerWiersza).toList());
+
+        // Gdy: importowane są rezerwacje z błędami i kolizjami
+        RaportImportu rezerwacje = importer.importuj(new StringReader("""
+                id,idGoscia,numerPokoju,dataOd,dataDo,status
+                10,3,101,2030-03-01,2030-03-05,
+                11,3,101,2030-03-04,2030-03-06,
+                12,3,101,2030-03-08,2030-03-10,
+                13,3,101,2030-03-13,2030-03-14,
+                14,3,101,2030-03-11,2030-03-20,ANULOWANA
+                15,3,999,2030-03-01,2030-03-02,
+                16,3,101,2030-13-01,2030-03-02,
+                10,3,101,2030-04-01,2030-04-02,
+                """), FormatDanych.CSV, RodzajDanych.REZERWACJE);
+
+        // Wtedy: przyjęte są tylko rezerwacje bez kolizji (anulowana nie zajmuje pokoju)
+        assertEquals(8, rezerwacje.getLiczbaWierszy());
+        assertEquals(3, rezerwacje.getLiczbaZaimportowanych());
+        assertTrue(model.getRezerwacjeDAO().pobierz(10).isPresent());
+        assertTrue(model.getRezerwacjeDAO().pobierz(13).isPresent());
+        assertTrue(model.getRezerwacjeDAO().pobierz(14).isPresent());
+        assertEquals(List.of(3, 4, 7, 8, 9), rezerwacje.getBledy().stream()
+                .map(RaportImportu.BladWiersza::getNumerWiersza).toList());
+        assertTrue(rezerwacje.getBledy().get(0).getKomunikat().contains("rezerwacją 10"));
+        assertTrue(rezerwacje.getBledy().get(1).getKomunikat().contains("rezerwacją 1 "));
+        assertTrue(rezerwacje.getBledy().get(2).getKomunikat().contains("pokój 999"));
+        assertTrue(rezerwacje.getBledy().get(3).getKomunikat().contains("dataod"));
+        assertTrue(rezerwacje.getBledy().get(4).getKomunikat().contains("już istnieje"));
+    }
+}
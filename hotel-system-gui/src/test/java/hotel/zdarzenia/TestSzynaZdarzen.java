@@ -0,0 +1,160 @@
+package hotel.zdarzenia;
+
+import hotel.model.Gosc;
+import hotel.model.HotelModel;
+import hotel.model.Pokoj;
+import hotel.model.Rezerwacja;
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy szyny zdarzeń cyklu życia rezerwacji.
+ *
+ * @author Grzegorz - System Zarządzania Hotelem
+ */
+@DisplayName("Testy szyny zdarzeń")
+class TestSzynaZdarzen {
+
+    private HotelModel model;
+    private Pokoj pokoj;
+    private Gosc gosc;
+    private LocalDate dzien;
+
+    @BeforeEach
+    void setUp() {
+        // Jeśli: model z jednym pokojem i gościem
+        Gosc.resetIdCounter();
+        Rezerwacja.resetIdCounter();
+        model = new HotelModel();
+        pokoj = new Pokoj(101, "Jednoosobowy", 150.0);
+        gosc = new Gosc("Jan", "Kowalski", "jan@example.com");
+        model.getPokojeDAO().zapisz(pokoj);
+        dzien = LocalDate.now().plusDays(10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        model.getSzynaZdarzen().zamknij();
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("przejścia statusów rezerwacji publikują zdarzenia w kolejności")
+    void cyklZycia_PublikujeZdarzenia() throws InterruptedException {
+        // Jeśli: subskrybent na własnym wątku
+        List<ZdarzenieRezerwacji> odebrane = new CopyOnWriteArrayList<>();
+        CountDownLatch wszystkie = new CountDownLatch(5);
+        Subskrypcja subskrypcja = model.getSzynaZdarzen().subskrybuj("test", z -> {
+            odebrane.add(z);
+            wszystkie.countDown();
+        });
+
+        // Gdy: rezerwacja przechodzi pełny cykl życia
+        Rezerwacja r = model.utworzRezerwacje(gosc, pokoj, dzien, dzien.plusDays(2));
+        assertTrue(model.modyfikujRezerwacje(r.getId(), dzien.plusDays(1), dzien.plusDays(3)));
+        assertTrue(model.potwierdzPlatnosc(r.getId()));
+        assertTrue(model.zameldujGoscia(r.getId()));
+        assertFalse(model.potwierdzPlatnosc(r.getId()));
+        assertTrue(model.wymeldujGoscia(r.getId()));
+
+        // Wtedy: odbiorca dostaje zdarzenia tylko z udanych operacji, w kolejności
+        assertTrue(wszystkie.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(ZdarzenieRezerwacji.Typ.UTWORZONA, ZdarzenieRezerwacji.Typ.ZMIENIONA,
+                        ZdarzenieRezerwacji.Typ.POTWIERDZONA, ZdarzenieRezerwacji.Typ.ZAMELDOWANA,
+                        ZdarzenieRezerwacji.Typ.WYMELDOWANA),
+                odebrane.stream().map(ZdarzenieRezerwacji::getTyp).toList());
+        ZdarzenieRezerwacji zmiana = odebrane.get(1);
+        assertEquals(r.getId(), zmiana.getIdRezerwacji());
+        assertEquals(101, zmiana.getNumerPokoju());
+        assertEquals(dzien.plusDays(1), zmiana.getDataOd());
+        assertEquals(Rezerwacja.Status.WYMELDOWANA, odebrane.get(4).getStatus());
+        assertEquals(5, subskrypcja.getLiczbaDostarczonych());
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("pełny bufor wolnego odbiorcy odrzuca zdarzenia bez blokowania publikującego")
+    void pelnyBufor_OdrzucaZdarzenia() throws InterruptedException {
+        // Jeśli: odbiorca zablokowany do czasu zwolnienia zatrzasku, z buforem na 4 zdarzenia
+        CountDownLatch zwolnij = new CountDownLatch(1);
+        ExecutorService wykonawca = Executors.newSingleThreadExecutor();
+        SzynaZdarzen szyna = new SzynaZdarzen();
+        Subskrypcja subskrypcja = szyna.subskrybuj("wolny", z -> {
+            try {
+                zwolnij.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, wykonawca, 4, PolitykaPrzeciazenia.ODRZUC);
+        Rezerwacja r = new Rezerwacja(dzien, dzien.plusDays(1), gosc, pokoj);
+
+        // Gdy: publikujemy 20 zdarzeń
+        for (int i = 0; i < 20; i++) {
+            szyna.publikuj(ZdarzenieRezerwacji.z(ZdarzenieRezerwacji.Typ.UTWORZONA, r, null));
+        }
+
+        // Wtedy: co najwyżej bufor i jedno zdarzenie w obsłudze zostaną dostarczone, reszta odrzucona
+        zwolnij.countDown();
+        wykonawca.shutdown();
+        assertTrue(wykonawca.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(20, subskrypcja.getLiczbaDostarczonych() + subskrypcja.getLiczbaOdrzuconych());
+        assertTrue(subskrypcja.getLiczbaOdrzuconych() >= 15);
+    }
+
+    @Test
+    @Tag("model")
+    @DisplayName("zdarzenia wielu publikujących docierają wszystkie, a błędy odbiorcy są liczone")
+    void wieluPublikujacych_WszystkieDostarczone() throws InterruptedException {
+        // Jeśli: odbiorca rzucający wyjątek dla co dziesiątego zdarzenia, bufor mieści wszystkie zdarzenia
+        SzynaZdarzen szyna = new SzynaZdarzen();
+        ExecutorService wykonawca = Executors.newSingleThreadExecutor();
+        CountDownLatch wszystkie = new CountDownLatch(4000);
+        Subskrypcja subskrypcja = szyna.subskrybuj("licznik", z -> {
+            wszystkie.countDown();
+            if (wszystkie.getCount() % 10 == 0) {
+                throw new IllegalStateException("błąd odbiorcy");
+            }
+        }, wykonawca, 4096, PolitykaPrzeciazenia.ODRZUC);
+        Subskrypcja czekajaca = szyna.subskrybuj("czekajaca", z -> { },
+                Runnable::run, 64, PolitykaPrzeciazenia.CZEKAJ);
+        Rezerwacja r = new Rezerwacja(dzien, dzien.plusDays(1), gosc, pokoj);
+        ZdarzenieRezerwacji zdarzenie = ZdarzenieRezerwacji.z(ZdarzenieRezerwacji.Typ.UTWORZONA, r, null);
+
+        // Gdy: cztery wątki publikują po 1000 zdarzeń
+        ExecutorService publikujacy = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            publikujacy.execute(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    szyna.publikuj(zdarzenie);
+                }
+            });
+        }
+        publikujacy.shutdown();
+        assertTrue(publikujacy.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Wtedy: każde zdarzenie zostało obsłużone, a wyjątki odbiorcy policzone jako błędy
+        assertTrue(wszystkie.await(5, TimeUnit.SECONDS));
+        wykonawca.shutdown();
+        assertTrue(wykonawca.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(0, subskrypcja.getLiczbaOdrzuconych());
+        assertEquals(400, subskrypcja.getLiczbaBledow());
+        assertEquals(3600, subskrypcja.getLiczbaDostarczonych());
+        assertEquals(4000, czekajaca.getLiczbaDostarczonych() + czekajaca.getLiczbaOdrzuconych());
+
+        // Gdy: szyna zostaje zamknięta
+        szyna.zamknij();
+
+        // Wtedy: nie ma już subskrybentów
+        assertFalse(szyna.maSubskrybentow());
+        assertFalse(subskrypcja.isAktywna());
+    }
+}